@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.query.impl.Bitmaps;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
+
+/**
+ * Helpers for the {@link ColumnarAggregator} implementations.
+ */
+final class ColumnarAggregations {
+
+    private ColumnarAggregations() {
+    }
+
+    /**
+     * Returns the column of the attribute if all of its selected values are non-null values
+     * of the given class.
+     *
+     * @param valueClass the expected class of the values, or {@code null} if any number is accepted
+     * @return the column or {@code null} if it can't provide the values
+     */
+    static Column numberColumn(ColumnarProjection projection, String attributePath, long[] selection,
+                               Class<?> valueClass) {
+        Column column = attributePath == null ? null : projection.getColumn(attributePath);
+        if (column == null || !column.isSupported() || column.isEmpty()) {
+            return null;
+        }
+        Class<?> columnValueClass = column.getValueClass();
+        if (valueClass == null ? !Number.class.isAssignableFrom(columnValueClass) : columnValueClass != valueClass) {
+            return null;
+        }
+        return hasSelectedNulls(column, selection) ? null : column;
+    }
+
+    /**
+     * Returns the column of the attribute if the value of every selected row has been extracted
+     * as a single value, which may be {@code null}.
+     *
+     * @return the column or {@code null} if it can't provide the values
+     */
+    static Column anyColumn(ColumnarProjection projection, String attributePath) {
+        Column column = projection.getColumn(attributePath);
+        return column == null || !column.isSupported() ? null : column;
+    }
+
+    static long sumLong(long[] values, long[] selection) {
+        long sum = 0;
+        for (int i = 0; i < selection.length; i++) {
+            long word = selection[i];
+            int base = i << Bitmaps.WORD_SHIFT;
+            while (word != 0) {
+                sum += values[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    static double sumLongAsDouble(long[] values, long[] selection) {
+        double sum = 0;
+        for (int i = 0; i < selection.length; i++) {
+            long word = selection[i];
+            int base = i << Bitmaps.WORD_SHIFT;
+            while (word != 0) {
+                sum += (double) values[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    static double sumDouble(double[] values, long[] selection) {
+        double sum = 0;
+        for (int i = 0; i < selection.length; i++) {
+            long word = selection[i];
+            int base = i << Bitmaps.WORD_SHIFT;
+            while (word != 0) {
+                sum += values[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    private static boolean hasSelectedNulls(Column column, long[] selection) {
+        if (column.getNullCount() == 0) {
+            return false;
+        }
+        long[] nulls = column.getNulls();
+        int length = Math.min(nulls.length, selection.length);
+        for (int i = 0; i < length; i++) {
+            if ((nulls[i] & selection[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.query.impl.ColumnarProjection;
+
+/**
+ * Aggregator which can accumulate the attribute values of entries directly from the columns of a
+ * {@link ColumnarProjection}, without materializing the entries.
+ */
+public interface ColumnarAggregator {
+
+    /**
+     * Accumulates the attribute values of the selected rows of the projection. Has to be called
+     * while holding the read lock of the projection.
+     *
+     * @param projection the projection
+     * @param selection  bitmap of the selected rows
+     * @return {@code true} if the values have been accumulated, {@code false} if the projection
+     * can't provide the values as the aggregator expects them; nothing is accumulated in that case
+     */
+    boolean accumulateColumnar(ColumnarProjection projection, long[] selection);
+}
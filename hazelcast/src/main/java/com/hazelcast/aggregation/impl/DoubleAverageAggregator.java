@@ -20,11 +20,14 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Bitmaps;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
 
 import java.io.IOException;
 
 public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private double sum;
 
@@ -44,6 +47,17 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Doub
         sum += value;
     }
 
+    @Override
+    public boolean accumulateColumnar(ColumnarProjection projection, long[] selection) {
+        Column column = ColumnarAggregations.numberColumn(projection, attributePath, selection, Double.class);
+        if (column == null) {
+            return false;
+        }
+        count += Bitmaps.cardinality(selection);
+        sum += ColumnarAggregations.sumDouble(column.getDoubleValues(), selection);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleAverageAggregator doubleAverageAggregator = (DoubleAverageAggregator) aggregator;
@@ -20,11 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
 
 import java.io.IOException;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private double sum;
 
@@ -41,6 +43,16 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double,
         sum += value;
     }
 
+    @Override
+    public boolean accumulateColumnar(ColumnarProjection projection, long[] selection) {
+        Column column = ColumnarAggregations.numberColumn(projection, attributePath, selection, Double.class);
+        if (column == null) {
+            return false;
+        }
+        sum += ColumnarAggregations.sumDouble(column.getDoubleValues(), selection);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
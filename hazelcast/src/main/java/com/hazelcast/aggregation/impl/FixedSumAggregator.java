@@ -20,10 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
 
 import java.io.IOException;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private long sum;
 
@@ -40,6 +43,16 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    public boolean accumulateColumnar(ColumnarProjection projection, long[] selection) {
+        Column column = ColumnarAggregations.numberColumn(projection, attributePath, selection, null);
+        if (column == null || !column.isLongValued()) {
+            return false;
+        }
+        sum += ColumnarAggregations.sumLong(column.getLongValues(), selection);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
@@ -20,11 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
 
 import java.io.IOException;
 
 public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ColumnarAggregator {
 
     private double sum;
 
@@ -41,6 +43,20 @@ public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, N
         sum += value.doubleValue();
     }
 
+    @Override
+    public boolean accumulateColumnar(ColumnarProjection projection, long[] selection) {
+        Column column = ColumnarAggregations.numberColumn(projection, attributePath, selection, null);
+        if (column == null) {
+            return false;
+        }
+        if (column.isLongValued()) {
+            sum += ColumnarAggregations.sumLongAsDouble(column.getLongValues(), selection);
+        } else {
+            sum += ColumnarAggregations.sumDouble(column.getDoubleValues(), selection);
+        }
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FloatingPointSumAggregator longSumAggregator = (FloatingPointSumAggregator) aggregator;
@@ -33,6 +33,7 @@ import com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider;
 import com.hazelcast.internal.eviction.EvictionStrategy;
 import com.hazelcast.internal.eviction.EvictionStrategyProvider;
 import com.hazelcast.internal.eviction.MaxSizeChecker;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
@@ -90,6 +91,10 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected final EvictionPolicyEvaluator<Data, R> evictionPolicyEvaluator;
     protected final EvictionChecker evictionChecker;
     protected final EvictionStrategy<Data, R, CRM> evictionStrategy;
+    /**
+     * Records the accesses of keys if the eviction policy is {@code TINY_LFU}, otherwise {@code null}.
+     */
+    protected final TinyLFUEvictionPolicyComparator frequencyComparator;
     protected final boolean wanReplicationEnabled;
     protected final boolean disablePerEntryInvalidationEvents;
     protected CRM records;
@@ -151,6 +156,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         evictionPolicyEvaluator = createEvictionPolicyEvaluator(evictionConfig);
         evictionChecker = createEvictionChecker(evictionConfig);
         evictionStrategy = createEvictionStrategy(evictionConfig);
+        frequencyComparator = createFrequencyComparator(evictionConfig);
 
         injectDependencies(evictionPolicyEvaluator.getEvictionPolicyComparator());
         registerResourceIfItIsClosable(cacheWriter);
@@ -253,6 +259,26 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         return EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator(evictionConfig, nodeEngine.getConfigClassLoader());
     }
 
+    private TinyLFUEvictionPolicyComparator createFrequencyComparator(EvictionConfig evictionConfig) {
+        if (evictionPolicyEvaluator == null
+                || !(evictionPolicyEvaluator.getEvictionPolicyComparator() instanceof TinyLFUEvictionPolicyComparator)) {
+            return null;
+        }
+        TinyLFUEvictionPolicyComparator comparator =
+                (TinyLFUEvictionPolicyComparator) evictionPolicyEvaluator.getEvictionPolicyComparator();
+        if (evictionConfig.getMaximumSizePolicy() == MaxSizePolicy.ENTRY_COUNT) {
+            comparator.ensureCapacity(
+                    EntryCountCacheMaxSizeChecker.calculateMaxPartitionSize(evictionConfig.getSize(), partitionCount));
+        }
+        return comparator;
+    }
+
+    protected void recordKeyAccess(Data key) {
+        if (frequencyComparator != null) {
+            frequencyComparator.recordAccess(key);
+        }
+    }
+
     protected EvictionChecker createEvictionChecker(EvictionConfig cacheEvictionConfig) {
         return new MaxSizeEvictionChecker();
     }
@@ -456,6 +482,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected long onRecordAccess(Data key, R record, ExpiryPolicy expiryPolicy, long now) {
         record.setAccessTime(now);
         record.incrementAccessHit();
+        recordKeyAccess(key);
         return updateAccessDuration(key, record, expiryPolicy, now);
     }
 
@@ -942,6 +969,8 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         boolean isExpired = processExpiredEntry(key, record, now);
         try {
             if (recordNotExistOrExpired(record, isExpired)) {
+                // misses are recorded too, so that frequently requested keys are preferred once they are loaded
+                recordKeyAccess(key);
                 if (isStatisticsEnabled()) {
                     statistics.increaseCacheMisses(1);
                 }
@@ -243,6 +243,8 @@ public class EvictionConfig implements EvictionConfiguration, DataSerializable,
             return EvictionPolicyType.LRU;
         } else if (evictionPolicy == EvictionPolicy.RANDOM) {
             return EvictionPolicyType.RANDOM;
+        } else if (evictionPolicy == EvictionPolicy.TINY_LFU) {
+            return EvictionPolicyType.TINY_LFU;
         } else if (evictionPolicy == EvictionPolicy.NONE) {
             return EvictionPolicyType.NONE;
         } else {
@@ -34,5 +34,9 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM
+    RANDOM,
+    /**
+     * Least Frequently Used, with access frequencies estimated by an aging frequency sketch (W-TinyLFU)
+     */
+    TINY_LFU
 }
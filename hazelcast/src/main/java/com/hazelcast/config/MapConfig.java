@@ -20,6 +20,7 @@ import com.hazelcast.map.eviction.LFUEvictionPolicy;
 import com.hazelcast.map.eviction.LRUEvictionPolicy;
 import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.eviction.RandomEvictionPolicy;
+import com.hazelcast.map.eviction.TinyLFUEvictionPolicy;
 import com.hazelcast.map.merge.PutIfAbsentMapMergePolicy;
 import com.hazelcast.spi.partition.IPartition;
 
@@ -140,6 +141,8 @@ public class MapConfig {
 
     private List<MapAttributeConfig> mapAttributeConfigs;
 
+    private List<String> columnarAttributes;
+
     private List<QueryCacheConfig> queryCacheConfigs;
 
     private boolean statisticsEnabled = true;
@@ -189,6 +192,7 @@ public class MapConfig {
                 new ArrayList<MapPartitionLostListenerConfig>(config.getPartitionLostListenerConfigs());
         this.mapIndexConfigs = new ArrayList<MapIndexConfig>(config.getMapIndexConfigs());
         this.mapAttributeConfigs = new ArrayList<MapAttributeConfig>(config.getMapAttributeConfigs());
+        this.columnarAttributes = new ArrayList<String>(config.getColumnarAttributes());
         this.queryCacheConfigs = new ArrayList<QueryCacheConfig>(config.getQueryCacheConfigs());
         this.partitioningStrategyConfig = config.partitioningStrategyConfig != null
                 ? new PartitioningStrategyConfig(config.getPartitioningStrategyConfig()) : null;
@@ -464,6 +468,8 @@ public class MapConfig {
                 return LFUEvictionPolicy.INSTANCE;
             case RANDOM:
                 return RandomEvictionPolicy.INSTANCE;
+            case TINY_LFU:
+                return TinyLFUEvictionPolicy.INSTANCE;
             case NONE:
                 return null;
             default:
@@ -665,6 +671,47 @@ public class MapConfig {
         return this;
     }
 
+    /**
+     * Adds an attribute whose values are kept in a columnar projection of every partition.
+     *
+     * @param attribute the attribute
+     * @return this map config
+     * @see #setColumnarAttributes(List)
+     */
+    public MapConfig addColumnarAttribute(String attribute) {
+        getColumnarAttributes().add(attribute);
+        return this;
+    }
+
+    /**
+     * @return the attributes whose values are kept in a columnar projection of every partition
+     * @see #setColumnarAttributes(List)
+     */
+    public List<String> getColumnarAttributes() {
+        if (columnarAttributes == null) {
+            columnarAttributes = new ArrayList<String>();
+        }
+        return columnarAttributes;
+    }
+
+    /**
+     * Sets the attributes whose values are kept in a columnar projection of every partition.
+     * <p>
+     * The projection stores numeric, boolean and date attribute values in primitive arrays, so
+     * partition scans with equal, not-equal, greater/less, between and in predicates on these
+     * attributes, as well as the built-in count, sum and average aggregations, run over the arrays
+     * instead of deserializing every entry. Attributes with other values, e.g. strings or
+     * {@code [any]} collections, are not projected. The projection is not supported by maps with
+     * {@link InMemoryFormat#NATIVE} in-memory format.
+     *
+     * @param columnarAttributes the attributes
+     * @return this map config
+     */
+    public MapConfig setColumnarAttributes(List<String> columnarAttributes) {
+        this.columnarAttributes = columnarAttributes;
+        return this;
+    }
+
     public MapConfig addMapAttributeConfig(MapAttributeConfig mapAttributeConfig) {
         getMapAttributeConfigs().add(mapAttributeConfig);
         return this;
@@ -950,6 +997,7 @@ public class MapConfig {
                 + ", entryListenerConfigs=" + entryListenerConfigs
                 + ", mapIndexConfigs=" + mapIndexConfigs
                 + ", mapAttributeConfigs=" + mapAttributeConfigs
+                + ", columnarAttributes=" + columnarAttributes
                 + ", quorumName=" + quorumName
                 + ", queryCacheConfigs=" + queryCacheConfigs
                 + ", cacheDeserializedValues=" + cacheDeserializedValues
@@ -72,6 +72,11 @@ public class MapConfigReadOnly extends MapConfig {
         return Collections.unmodifiableList(readOnlyListenerConfigs);
     }
 
+    @Override
+    public List<String> getColumnarAttributes() {
+        return Collections.unmodifiableList(super.getColumnarAttributes());
+    }
+
     @Override
     public List<MapIndexConfig> getMapIndexConfigs() {
         final List<MapIndexConfig> mapIndexConfigs = super.getMapIndexConfigs();
@@ -219,6 +224,16 @@ public class MapConfigReadOnly extends MapConfig {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
 
+    @Override
+    public MapConfig addColumnarAttribute(String attribute) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
+    @Override
+    public MapConfig setColumnarAttributes(List<String> columnarAttributes) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
     @Override
     public MapConfig addMapIndexConfig(MapIndexConfig mapIndexConfig) {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
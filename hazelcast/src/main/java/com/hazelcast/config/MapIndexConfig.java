@@ -83,7 +83,10 @@ public class MapIndexConfig {
     }
 
     /**
-     * Sets the attribute that is going to be indexed.
+     * Sets the attribute that is going to be indexed. A comma separated list of attributes, e.g.
+     * {@code "name, age"}, creates a composite index over the values of all listed attributes.
+     * A query restricting the leading attributes of a composite index by equality, and optionally
+     * the next one by a range if the index is ordered, is answered by a single index lookup.
      *
      * @param attribute the attribute that is going to be indexed.
      * @return the updated MapIndexConfig.
@@ -130,6 +133,12 @@ public class MapIndexConfig {
      */
     public static String validateIndexAttribute(String attribute) {
         checkHasText(attribute, "Map index attribute must contain text");
+        if (attribute.indexOf(',') >= 0) {
+            for (String component : attribute.split(",", -1)) {
+                validateIndexAttribute(component.trim());
+            }
+            return attribute;
+        }
         String keyPrefix = KEY_ATTRIBUTE_NAME.value();
         if (attribute.startsWith(keyPrefix) && attribute.length() > keyPrefix.length()) {
             if (attribute.charAt(keyPrefix.length()) != '#') {
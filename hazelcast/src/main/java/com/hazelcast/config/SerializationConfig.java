@@ -17,6 +17,7 @@
 package com.hazelcast.config;
 
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
 
@@ -63,6 +64,8 @@ public class SerializationConfig {
 
     private Set<ClassDefinition> classDefinitions;
 
+    private Set<String> compactClasses;
+
     public SerializationConfig() {
     }
 
@@ -319,6 +322,49 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return names of the registered compact classes
+     * @see {@link Compact}
+     */
+    public Set<String> getCompactClasses() {
+        if (compactClasses == null) {
+            compactClasses = new HashSet<String>();
+        }
+        return compactClasses;
+    }
+
+    /**
+     * Registers a compact class, so its instances can be read before the member or client has written one. The schema
+     * of the class is derived from an instance created by its no-arg constructor.
+     *
+     * @param compactClass the compact class to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see {@link Compact}
+     */
+    public SerializationConfig addCompactClass(Class<? extends Compact> compactClass) {
+        return addCompactClass(compactClass.getName());
+    }
+
+    /**
+     * @param compactClassName name of the compact class to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see #addCompactClass(Class)
+     */
+    public SerializationConfig addCompactClass(String compactClassName) {
+        getCompactClasses().add(compactClassName);
+        return this;
+    }
+
+    /**
+     * @param compactClasses set of names of the compact classes to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see {@link Compact}
+     */
+    public SerializationConfig setCompactClasses(Set<String> compactClasses) {
+        this.compactClasses = compactClasses;
+        return this;
+    }
+
     /**
      * Default value is true (enabled).
      * When enabled, serialization system will check for class definitions error at start and throw an Serialization
@@ -452,6 +498,7 @@ public class SerializationConfig {
                 + ", serializerConfigs=" + serializerConfigs
                 + ", checkClassDefErrors=" + checkClassDefErrors
                 + ", classDefinitions=" + classDefinitions
+                + ", compactClasses=" + compactClasses
                 + ", byteOrder=" + byteOrder
                 + ", useNativeByteOrder=" + useNativeByteOrder
                 + '}';
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+/**
+ * A {@link MapLoader} which splits its keys into disjoint key streams, e.g. one stream per database shard or per
+ * key range, so that the keys of a map can be loaded in parallel.
+ * <p/>
+ * When the loader of a map implements this interface, the initial load and {@link IMap#loadAll(boolean)} don't iterate
+ * {@link #loadAllKeys()} on a single member. Instead, the key streams are distributed among the data members of the
+ * cluster and every member reads its key streams concurrently. The keys are sent in batches to the members owning
+ * their partitions, which load the values; the number of batches a member waits for is bounded by the
+ * {@code hazelcast.map.load.max.inflight.batches} property.
+ * <p/>
+ * No entry events are published for the entries loaded by a {@link ParallelMapLoader}.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public interface ParallelMapLoader<K, V> extends MapLoader<K, V> {
+
+    /**
+     * Returns the number of key streams of this loader. It should be at least the number of data members,
+     * otherwise some members won't load any keys.
+     *
+     * @return the number of key streams
+     */
+    int getKeyStreamCount();
+
+    /**
+     * Loads the keys of the given key stream. Every key must belong to exactly one stream. The returned
+     * {@link Iterable} may return the keys lazily; as in {@link #loadAllKeys()}, its {@link java.util.Iterator}
+     * may implement {@link java.io.Closeable} in which case it will be closed once iteration is over.
+     * <p/>
+     * This method is called concurrently for different key streams.
+     *
+     * @param keyStream index of the key stream, between {@code 0} and {@link #getKeyStreamCount()} exclusive
+     * @return the keys of the key stream
+     */
+    Iterable<K> loadAllKeys(int keyStream);
+}
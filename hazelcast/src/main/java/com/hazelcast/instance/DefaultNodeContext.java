@@ -18,6 +18,7 @@ package com.hazelcast.instance;
 
 import com.hazelcast.cluster.Joiner;
 import com.hazelcast.internal.networking.IOThreadingModel;
+import com.hazelcast.internal.networking.nonblocking.EpollIOThreadingModel;
 import com.hazelcast.internal.networking.nonblocking.NonBlockingIOThreadingModel;
 import com.hazelcast.internal.networking.spinning.SpinningIOThreadingModel;
 import com.hazelcast.logging.LoggingServiceImpl;
@@ -30,6 +31,11 @@ import com.hazelcast.spi.annotation.PrivateApi;
 
 import java.nio.channels.ServerSocketChannel;
 
+import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_ADAPTIVE;
+import static com.hazelcast.spi.properties.GroupProperty.IO_THREADING_MODEL;
+import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT_MIN;
+import static com.hazelcast.util.StringUtil.lowerCaseInternal;
+
 @PrivateApi
 public class DefaultNodeContext implements NodeContext {
 
@@ -62,7 +68,8 @@ public class DefaultNodeContext implements NodeContext {
     }
 
     private IOThreadingModel createTcpIpConnectionThreadingModel(Node node, NodeIOService ioService) {
-        boolean spinning = Boolean.getBoolean("hazelcast.io.spinning");
+        String threadingModel = lowerCaseInternal(node.getProperties().getString(IO_THREADING_MODEL).trim());
+        boolean spinning = Boolean.getBoolean("hazelcast.io.spinning") || "spinning".equals(threadingModel);
         LoggingServiceImpl loggingService = node.loggingService;
 
         SocketWriterInitializerImpl socketWriterInitializer
@@ -76,8 +83,22 @@ public class DefaultNodeContext implements NodeContext {
                     ioService.getIoOutOfMemoryHandler(),
                     socketWriterInitializer,
                     socketReaderInitializer);
+        }
+
+        NonBlockingIOThreadingModel nonBlockingIOThreadingModel;
+        if ("epoll".equals(threadingModel)) {
+            nonBlockingIOThreadingModel = new EpollIOThreadingModel(
+                    loggingService,
+                    node.nodeEngine.getMetricsRegistry(),
+                    node.getHazelcastThreadGroup(),
+                    ioService.getIoOutOfMemoryHandler(), ioService.getInputSelectorThreadCount(),
+                    ioService.getOutputSelectorThreadCount(),
+                    ioService.getBalancerIntervalSeconds(),
+                    socketWriterInitializer,
+                    socketReaderInitializer
+            );
         } else {
-            return new NonBlockingIOThreadingModel(
+            nonBlockingIOThreadingModel = new NonBlockingIOThreadingModel(
                     loggingService,
                     node.nodeEngine.getMetricsRegistry(),
                     node.getHazelcastThreadGroup(),
@@ -88,5 +109,8 @@ public class DefaultNodeContext implements NodeContext {
                     socketReaderInitializer
             );
         }
+        nonBlockingIOThreadingModel.setAdaptiveBalancing(
+                node.getProperties().getBoolean(IO_BALANCER_ADAPTIVE), node.getProperties().getInteger(IO_THREAD_COUNT_MIN));
+        return nonBlockingIOThreadingModel;
     }
 }
@@ -41,6 +41,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.memory.DefaultMemoryStats;
 import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.IOService;
@@ -141,6 +142,8 @@ public class DefaultNodeExtension implements NodeExtension {
                     ? config.getSerializationConfig() : new SerializationConfig();
 
             byte version = (byte) node.getProperties().getInteger(GroupProperty.SERIALIZATION_VERSION);
+            int bufferPoolMaxRetainedSize = node.getProperties()
+                    .getInteger(GroupProperty.SERIALIZATION_BUFFER_POOL_MAX_RETAINED_SIZE);
 
             ss = (InternalSerializationService) builder.setClassLoader(configClassLoader)
                     .setConfig(serializationConfig)
@@ -148,6 +151,7 @@ public class DefaultNodeExtension implements NodeExtension {
                     .setPartitioningStrategy(partitioningStrategy)
                     .setHazelcastInstance(hazelcastInstance)
                     .setVersion(version)
+                    .setBufferPoolMaxRetainedBytes((int) MemoryUnit.KILOBYTES.toBytes(bufferPoolMaxRetainedSize))
                     .build();
         } catch (Exception e) {
             throw ExceptionUtil.rethrow(e);
@@ -201,7 +205,7 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public ReadHandler createReadHandler(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher());
+        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher(), nodeEngine.getPacketPayloadPool());
     }
 
     @Override
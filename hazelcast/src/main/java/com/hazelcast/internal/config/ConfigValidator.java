@@ -20,6 +20,7 @@ import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.instance.BuildInfoProvider;
@@ -52,7 +53,18 @@ public final class ConfigValidator {
      * @param mapConfig the {@link MapConfig}
      */
     public static void checkMapConfig(MapConfig mapConfig) {
-        checkNotNative(mapConfig.getInMemoryFormat());
+        checkMapConfig(mapConfig, null);
+    }
+
+    /**
+     * Checks preconditions to create a map proxy. {@link InMemoryFormat#NATIVE} maps are
+     * accepted when the supplied {@link NativeMemoryConfig} is enabled.
+     *
+     * @param mapConfig          the {@link MapConfig}
+     * @param nativeMemoryConfig the member's {@link NativeMemoryConfig}, can be {@code null}
+     */
+    public static void checkMapConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig) {
+        checkNativeMemoryEnabled(mapConfig.getInMemoryFormat(), nativeMemoryConfig);
 
         logIgnoredConfig(mapConfig);
     }
@@ -144,6 +156,21 @@ public final class ConfigValidator {
         }
     }
 
+    /**
+     * Throws {@link IllegalArgumentException} if the supplied {@link InMemoryFormat} is {@link InMemoryFormat#NATIVE}
+     * and native memory is not enabled.
+     *
+     * @param inMemoryFormat     supplied inMemoryFormat
+     * @param nativeMemoryConfig supplied NativeMemoryConfig, can be {@code null}
+     */
+    private static void checkNativeMemoryEnabled(InMemoryFormat inMemoryFormat, NativeMemoryConfig nativeMemoryConfig) {
+        if (inMemoryFormat == NATIVE && !BuildInfoProvider.getBuildInfo().isEnterprise()
+                && (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled())) {
+            throw new IllegalArgumentException("NATIVE storage format requires native memory to be enabled."
+                    + " Enable it via NativeMemoryConfig or use Hazelcast Enterprise!");
+        }
+    }
+
     /**
      * Throws {@link IllegalArgumentException} if the supplied {@link InMemoryFormat} is {@link InMemoryFormat#NATIVE}.
      *
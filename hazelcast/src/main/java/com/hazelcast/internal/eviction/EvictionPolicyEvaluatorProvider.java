@@ -19,6 +19,7 @@ package com.hazelcast.internal.eviction;
 import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.LRUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.RandomEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.evaluator.DefaultEvictionPolicyEvaluator;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.util.StringUtil;
@@ -41,6 +42,8 @@ public final class EvictionPolicyEvaluatorProvider {
                 return new LFUEvictionPolicyComparator();
             case RANDOM:
                 return new RandomEvictionPolicyComparator();
+            case TINY_LFU:
+                return new TinyLFUEvictionPolicyComparator();
             case NONE:
                 return null;
             default:
@@ -36,6 +36,11 @@ public enum EvictionPolicyType {
      */
     RANDOM,
 
+    /**
+     * Least Frequently Used, with access frequencies estimated by an aging {@link FrequencySketch}
+     */
+    TINY_LFU,
+
     /**
      * Doesn't evict entries (will not add new entries to the Near Cache when it's full)
      */
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.util.QuickMath;
+
+/**
+ * Estimates the access frequency of keys within a time window, as used by the
+ * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} eviction policy.
+ * <p>
+ * This is a count-min sketch with four 4-bit counters per key, sixteen counters are packed into a {@code long}.
+ * A frequency is therefore at most 15. Once the number of increments reaches ten times the capacity
+ * of the sketch, all counters are halved. This ages the frequencies, so keys which were hot a long time ago
+ * don't keep a high frequency forever.
+ * <p>
+ * This class is not thread-safe. Concurrent increments may get lost, which is acceptable for a frequency estimate,
+ * but {@link #ensureCapacity(long)} must not run concurrently with the other methods.
+ */
+public final class FrequencySketch {
+
+    /**
+     * Maximum frequency of a key.
+     */
+    public static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int SPREAD_MULTIPLIER = 0x45d9f3b;
+    private static final int MAX_TABLE_LENGTH = 1 << 22;
+    private static final int SAMPLE_SIZE_MULTIPLIER = 10;
+    private static final int COUNTERS_PER_KEY = 4;
+    private static final int BITS_PER_COUNTER = 4;
+    private static final int HALF_INT_BITS = 16;
+    private static final int HALF_LONG_BITS = 32;
+
+    private long[] table;
+    private int sampleSize;
+    private int size;
+
+    /**
+     * @param capacity the expected number of keys
+     */
+    public FrequencySketch(long capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Grows the sketch if it is smaller than the given capacity. Growing resets all frequencies.
+     *
+     * @param capacity the expected number of keys
+     */
+    public void ensureCapacity(long capacity) {
+        int length = (int) Math.min(Math.max(capacity, 1), MAX_TABLE_LENGTH);
+        if (table != null && table.length >= length) {
+            return;
+        }
+        table = new long[QuickMath.nextPowerOfTwo(length)];
+        sampleSize = SAMPLE_SIZE_MULTIPLIER * table.length;
+        size = 0;
+    }
+
+    /**
+     * Returns the estimated number of accesses of the key with the given hash code, at most {@link #MAX_FREQUENCY}.
+     *
+     * @param hashCode the hash code of the key
+     * @return the estimated frequency of the key
+     */
+    public int frequency(int hashCode) {
+        long[] table = this.table;
+        int hash = spread(hashCode);
+        int start = (hash & (COUNTERS_PER_KEY - 1)) * COUNTERS_PER_KEY;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < COUNTERS_PER_KEY; i++) {
+            int offset = (start + i) * BITS_PER_COUNTER;
+            int count = (int) ((table[indexOf(table, hash, i)] >>> offset) & MAX_FREQUENCY);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the key with the given hash code.
+     *
+     * @param hashCode the hash code of the key
+     */
+    public void increment(int hashCode) {
+        long[] table = this.table;
+        int hash = spread(hashCode);
+        int start = (hash & (COUNTERS_PER_KEY - 1)) * COUNTERS_PER_KEY;
+        boolean incremented = false;
+        for (int i = 0; i < COUNTERS_PER_KEY; i++) {
+            incremented |= incrementAt(table, indexOf(table, hash, i), start + i);
+        }
+        if (incremented && ++size >= sampleSize) {
+            reset(table);
+        }
+    }
+
+    private static boolean incrementAt(long[] table, int index, int counter) {
+        int offset = counter * BITS_PER_COUNTER;
+        long mask = (long) MAX_FREQUENCY << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves all counters and the number of increments, less the increments lost by halving odd counters.
+     */
+    private void reset(long[] table) {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private static int indexOf(long[] table, int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> HALF_LONG_BITS;
+        return (int) h & (table.length - 1);
+    }
+
+    private static int spread(int hashCode) {
+        int h = ((hashCode >>> HALF_INT_BITS) ^ hashCode) * SPREAD_MULTIPLIER;
+        h = ((h >>> HALF_INT_BITS) ^ h) * SPREAD_MULTIPLIER;
+        return (h >>> HALF_INT_BITS) ^ h;
+    }
+}
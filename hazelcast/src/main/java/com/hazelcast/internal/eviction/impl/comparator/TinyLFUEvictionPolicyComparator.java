@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.comparator;
+
+import com.hazelcast.internal.eviction.EvictableEntryView;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionPolicyComparator;
+import com.hazelcast.internal.eviction.FrequencySketch;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} policy based {@link EvictionPolicyComparator}.
+ * <p>
+ * Entries are compared by the access frequencies of their keys in the {@link FrequencySketch} of this comparator,
+ * the less recently used entry is evicted if the frequencies are the same. The owner of the comparator records
+ * the accesses of keys, including the accesses of missing keys, with {@link #recordAccess(Object)}.
+ * <p>
+ * Keys of {@link EvictionCandidate}s are looked up by their accessors, so the owner records the keys of its
+ * record map rather than the deserialized keys.
+ */
+@SuppressFBWarnings(
+        value = "SE_COMPARATOR_SHOULD_BE_SERIALIZABLE",
+        justification = "No need to serializable since its instance is not serialized")
+public class TinyLFUEvictionPolicyComparator extends EvictionPolicyComparator {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final transient FrequencySketch frequencySketch = new FrequencySketch(DEFAULT_CAPACITY);
+
+    /**
+     * Grows the {@link FrequencySketch} of this comparator to the given number of entries,
+     * must not be called concurrently with comparisons and recorded accesses.
+     */
+    public void ensureCapacity(long capacity) {
+        frequencySketch.ensureCapacity(capacity);
+    }
+
+    public void recordAccess(Object key) {
+        frequencySketch.increment(hashOf(key));
+    }
+
+    @Override
+    public int compare(EvictableEntryView e1, EvictableEntryView e2) {
+        int frequency1 = frequencySketch.frequency(hashOf(keyOf(e1)));
+        int frequency2 = frequencySketch.frequency(hashOf(keyOf(e2)));
+        if (frequency2 < frequency1) {
+            return SECOND_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+        } else if (frequency1 < frequency2) {
+            return FIRST_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+        } else {
+            long accessTime1 = e1.getLastAccessTime();
+            long accessTime2 = e2.getLastAccessTime();
+            // if frequencies are same, we select the least recently used entry to evict
+            if (accessTime2 < accessTime1) {
+                return SECOND_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+            } else if (accessTime1 < accessTime2) {
+                return FIRST_ENTRY_HAS_HIGHER_PRIORITY_TO_BE_EVICTED;
+            } else {
+                return BOTH_OF_ENTRIES_HAVE_SAME_PRIORITY_TO_BE_EVICTED;
+            }
+        }
+    }
+
+    private static Object keyOf(EvictableEntryView entry) {
+        return entry instanceof EvictionCandidate ? ((EvictionCandidate) entry).getAccessor() : entry.getKey();
+    }
+
+    private static int hashOf(Object key) {
+        return key == null ? 0 : key.hashCode();
+    }
+}
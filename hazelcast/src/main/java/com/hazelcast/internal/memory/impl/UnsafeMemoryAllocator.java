@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryAllocator} which obtains its blocks directly from the operating system
+ * via {@code Unsafe.allocateMemory()}. The total amount of allocated memory is bounded
+ * by the capacity supplied at construction time; requests beyond it fail with
+ * {@link NativeOutOfMemoryError}.
+ * <p>
+ * Instances are thread-safe, but the caller is responsible for passing the correct
+ * block size to {@link #reallocate(long, long, long)} and {@link #free(long, long)}.
+ */
+public final class UnsafeMemoryAllocator implements MemoryAllocator {
+
+    private final long capacity;
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public UnsafeMemoryAllocator(long capacity) {
+        if (!UNSAFE_AVAILABLE) {
+            throw new IllegalStateException("Unsafe is not available, native memory cannot be allocated!");
+        }
+        this.capacity = capacity;
+    }
+
+    public static boolean isAvailable() {
+        return UNSAFE_AVAILABLE;
+    }
+
+    @Override
+    public long allocate(long size) {
+        reserve(size);
+        long address;
+        try {
+            address = UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            usedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Cannot allocate " + MemorySize.toPrettyString(size)
+                    + " of native memory!", e);
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long diff = newSize - currentSize;
+        if (diff > 0) {
+            reserve(diff);
+        }
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            if (diff > 0) {
+                usedMemory.addAndGet(-diff);
+            }
+            throw new NativeOutOfMemoryError("Cannot reallocate " + MemorySize.toPrettyString(newSize)
+                    + " of native memory!", e);
+        }
+        if (diff > 0) {
+            UNSAFE.setMemory(newAddress + currentSize, diff, (byte) 0);
+        } else {
+            usedMemory.addAndGet(diff);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+        usedMemory.addAndGet(-size);
+    }
+
+    @Override
+    public void dispose() {
+        // NOP: blocks are owned and freed by the data structures which allocated them
+    }
+
+    /**
+     * @return the number of bytes currently allocated through this allocator
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * @return the maximum number of bytes which can be allocated through this allocator
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private void reserve(long size) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > capacity) {
+                throw new NativeOutOfMemoryError("Not enough native memory to allocate "
+                        + MemorySize.toPrettyString(size) + "! Used: " + MemorySize.toPrettyString(used)
+                        + ", capacity: " + MemorySize.toPrettyString(capacity));
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+}
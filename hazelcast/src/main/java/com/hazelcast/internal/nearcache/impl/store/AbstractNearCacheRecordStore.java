@@ -25,6 +25,7 @@ import com.hazelcast.internal.eviction.EvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.EvictionPolicyType;
 import com.hazelcast.internal.eviction.EvictionStrategy;
 import com.hazelcast.internal.eviction.MaxSizeChecker;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.NearCacheRecordMap;
@@ -95,6 +96,10 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected EvictionChecker evictionChecker;
     protected EvictionStrategy<KS, R, NCRM> evictionStrategy;
     protected EvictionPolicyType evictionPolicyType;
+    /**
+     * Records the accesses of keys if the eviction policy is {@link EvictionPolicyType#TINY_LFU}, otherwise {@code null}.
+     */
+    protected TinyLFUEvictionPolicyComparator frequencyComparator;
     protected NCRM records;
 
     protected volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
@@ -126,6 +131,20 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         this.evictionChecker = createEvictionChecker(nearCacheConfig);
         this.evictionStrategy = createEvictionStrategy(evictionConfig);
         this.evictionPolicyType = evictionConfig.getEvictionPolicyType();
+        this.frequencyComparator = createFrequencyComparator(evictionConfig);
+    }
+
+    private TinyLFUEvictionPolicyComparator createFrequencyComparator(EvictionConfig evictionConfig) {
+        if (evictionPolicyEvaluator == null
+                || !(evictionPolicyEvaluator.getEvictionPolicyComparator() instanceof TinyLFUEvictionPolicyComparator)) {
+            return null;
+        }
+        TinyLFUEvictionPolicyComparator comparator =
+                (TinyLFUEvictionPolicyComparator) evictionPolicyEvaluator.getEvictionPolicyComparator();
+        if (evictionConfig.getMaximumSizePolicy() == EvictionConfig.MaxSizePolicy.ENTRY_COUNT) {
+            comparator.ensureCapacity(evictionConfig.getSize());
+        }
+        return comparator;
     }
 
     @Override
@@ -299,6 +318,10 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     @Override
     public V get(K key) {
         checkAvailable();
+        if (frequencyComparator != null) {
+            // misses are recorded too, so that frequently requested keys are preferred once they are put
+            frequencyComparator.recordAccess(key);
+        }
 
         R record = null;
         V value = null;
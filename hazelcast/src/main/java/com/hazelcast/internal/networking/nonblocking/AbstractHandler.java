@@ -51,6 +51,13 @@ public abstract class AbstractHandler
     @Probe
     private SwCounter migrationCount = newSwCounter();
 
+    // time spent by the ioThread in handling the events of this handler, if the ioThread tracks it.
+    @Probe(level = DEBUG)
+    private final SwCounter processingNanos = newSwCounter();
+
+    // set when a migration is requested and cleared when the owning ioThread starts or skips it.
+    private volatile boolean migrationPending;
+
     public AbstractHandler(SocketConnection connection,
                            NonBlockingIOThread ioThread,
                            int initialOps,
@@ -74,6 +81,30 @@ public abstract class AbstractHandler
         return eventCount.get();
     }
 
+    @Override
+    public long getProcessingNanos() {
+        return processingNanos.get();
+    }
+
+    @Override
+    public int getPendingFrameCount() {
+        return 0;
+    }
+
+    @Override
+    public boolean isMigrationPending() {
+        return migrationPending;
+    }
+
+    void setMigrationPending(boolean migrationPending) {
+        this.migrationPending = migrationPending;
+    }
+
+    // only called by the owning ioThread
+    final void onHandled(long nanos) {
+        processingNanos.inc(nanos);
+    }
+
     @Probe(level = DEBUG)
     private long opsInterested() {
         SelectionKey selectionKey = this.selectionKey;
@@ -143,6 +174,8 @@ public abstract class AbstractHandler
         unregisterOp(initialOps);
         ioThread = newOwner;
         ioThreadId = ioThread.id;
+        // the new owner is visible before the migration stops being pending
+        migrationPending = false;
         selectionKey.cancel();
         selectionKey = null;
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nonblocking;
+
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.networking.IOOutOfMemoryHandler;
+import com.hazelcast.internal.networking.SocketReaderInitializer;
+import com.hazelcast.internal.networking.SocketWriterInitializer;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.LoggingService;
+
+import java.nio.channels.spi.SelectorProvider;
+
+/**
+ * A {@link NonBlockingIOThreadingModel} tuned for Linux, where the IO threads block on an epoll based Selector.
+ *
+ * Compared to the default model:
+ * <ol>
+ * <li>the Selectors are explicitly opened by the epoll {@link SelectorProvider} of the JDK, instead of the provider
+ * that happens to be configured for the JVM.</li>
+ * <li>the selected-keys set of each Selector is replaced by an array based set (see {@link SelectorOptimizer}), so
+ * no litter is created per selected key.</li>
+ * <li>wakeups of the IO threads are coalesced: when a burst of writes is scheduled on an output thread, only the
+ * first one wakes up the Selector. Every wakeup of an epoll Selector is a system call.</li>
+ * </ol>
+ * The JDK doesn't expose edge-triggered epoll, so readiness is still level-triggered. If the epoll provider isn't
+ * available, e.g. on other operating systems, the default provider is used and the model behaves like the default
+ * model apart from the optimizations above.
+ */
+public class EpollIOThreadingModel extends NonBlockingIOThreadingModel {
+
+    static final String EPOLL_SELECTOR_PROVIDER = "sun.nio.ch.EPollSelectorProvider";
+
+    private final LoggingService loggingService;
+    private final HazelcastThreadGroup hazelcastThreadGroup;
+    private final IOOutOfMemoryHandler oomeHandler;
+    private final SelectorProvider selectorProvider;
+
+    public EpollIOThreadingModel(
+            LoggingService loggingService,
+            MetricsRegistry metricsRegistry,
+            HazelcastThreadGroup hazelcastThreadGroup,
+            IOOutOfMemoryHandler oomeHandler,
+            int inputThreadCount,
+            int outputThreadCount,
+            int balanceIntervalSeconds,
+            SocketWriterInitializer socketWriterInitializer,
+            SocketReaderInitializer socketReaderInitializer) {
+        super(loggingService, metricsRegistry, hazelcastThreadGroup, oomeHandler, inputThreadCount, outputThreadCount,
+                balanceIntervalSeconds, socketWriterInitializer, socketReaderInitializer);
+        this.loggingService = loggingService;
+        this.hazelcastThreadGroup = hazelcastThreadGroup;
+        this.oomeHandler = oomeHandler;
+
+        ILogger logger = loggingService.getLogger(EpollIOThreadingModel.class);
+        SelectorProvider epollSelectorProvider = newEpollSelectorProvider(logger);
+        if (epollSelectorProvider == null) {
+            logger.info("Epoll is not available, falling back to the default SelectorProvider");
+            this.selectorProvider = SelectorProvider.provider();
+        } else {
+            this.selectorProvider = epollSelectorProvider;
+        }
+    }
+
+    private static SelectorProvider newEpollSelectorProvider(ILogger logger) {
+        SelectorProvider defaultProvider = SelectorProvider.provider();
+        if (EPOLL_SELECTOR_PROVIDER.equals(defaultProvider.getClass().getName())) {
+            return defaultProvider;
+        }
+
+        try {
+            Class<?> providerClass = Class.forName(EPOLL_SELECTOR_PROVIDER);
+            return (SelectorProvider) providerClass.newInstance();
+        } catch (Throwable t) {
+            logger.finest("Failed to create " + EPOLL_SELECTOR_PROVIDER, t);
+            return null;
+        }
+    }
+
+    /**
+     * @return the SelectorProvider the Selectors of the IO threads are opened by
+     */
+    public SelectorProvider getSelectorProvider() {
+        return selectorProvider;
+    }
+
+    @Override
+    protected NonBlockingIOThread newIOThread(String threadName) {
+        NonBlockingIOThread thread = new NonBlockingIOThread(
+                hazelcastThreadGroup.getInternalThreadGroup(),
+                threadName,
+                loggingService.getLogger(NonBlockingIOThread.class),
+                oomeHandler,
+                getSelectorMode(),
+                selectorProvider,
+                true);
+        thread.setCoalesceWakeups(true);
+        return thread;
+    }
+}
@@ -35,6 +35,13 @@ public interface MigratableHandler {
      */
     void requestMigration(NonBlockingIOThread newOwner);
 
+    /**
+     * Checks if a migration of this handler has been requested, but hasn't started yet.
+     *
+     * @return true if a migration is pending
+     */
+    boolean isMigrationPending();
+
     /**
      * Get NonBlockingIOThread currently owning this handler. Handler owner is a thread running this handler.
      * {@link com.hazelcast.internal.networking.nonblocking.iobalancer.IOBalancer IOBalancer} can decide to migrate
@@ -51,4 +58,26 @@ public interface MigratableHandler {
      * @return total number of events recorded by this handler
      */
     long getEventCount();
+
+    /**
+     * Get number of bytes read or written by the current handler.
+     *
+     * @return total number of bytes transferred by this handler
+     */
+    long getBytesTransferred();
+
+    /**
+     * Get the time the owning {@link NonBlockingIOThread} spent processing the events of the current handler. The
+     * time is only recorded when the IO threads track their processing time.
+     *
+     * @return total processing time in nanoseconds
+     */
+    long getProcessingNanos();
+
+    /**
+     * Get the number of frames waiting to be processed by the current handler, e.g. the frames queued for writing.
+     *
+     * @return number of pending frames
+     */
+    int getPendingFrameCount();
 }
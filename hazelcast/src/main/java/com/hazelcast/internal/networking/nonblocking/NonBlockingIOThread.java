@@ -31,10 +31,12 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.spi.SelectorProvider;
 import java.util.Iterator;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.networking.nonblocking.SelectorOptimizer.optimize;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
@@ -72,6 +74,9 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
     // count number of times the selector was rebuilt (if selectWorkaround is enabled)
     @Probe
     private final SwCounter selectorRebuildCount = newSwCounter();
+    // time spent in handling selection-key events (if processing time is tracked)
+    @Probe
+    private final SwCounter processingNanos = newSwCounter();
 
     private final ILogger logger;
 
@@ -81,6 +86,15 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
 
     private final SelectorMode selectMode;
 
+    private final boolean optimizeSelector;
+
+    // true if a wakeup of the selector has been issued since the last select returned
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    private boolean coalesceWakeups;
+
+    private boolean processingTimeTracked;
+
     // last time select unblocked with some keys selected
     private volatile long lastSelectTimeMs;
     // set to true while testing
@@ -98,7 +112,19 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
                                ILogger logger,
                                IOOutOfMemoryHandler oomeHandler,
                                SelectorMode selectMode) {
-        this(threadGroup, threadName, logger, oomeHandler, selectMode, newSelector(logger));
+        this(threadGroup, threadName, logger, oomeHandler, selectMode, SelectorProvider.provider(),
+                Boolean.getBoolean("tcp.optimizedselector"));
+    }
+
+    public NonBlockingIOThread(ThreadGroup threadGroup,
+                               String threadName,
+                               ILogger logger,
+                               IOOutOfMemoryHandler oomeHandler,
+                               SelectorMode selectMode,
+                               SelectorProvider selectorProvider,
+                               boolean optimizeSelector) {
+        this(threadGroup, threadName, logger, oomeHandler, selectMode,
+                newSelector(selectorProvider, optimizeSelector, logger), optimizeSelector);
     }
 
     public NonBlockingIOThread(ThreadGroup threadGroup,
@@ -107,18 +133,29 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
                                IOOutOfMemoryHandler oomeHandler,
                                SelectorMode selectMode,
                                Selector selector) {
+        this(threadGroup, threadName, logger, oomeHandler, selectMode, selector, Boolean.getBoolean("tcp.optimizedselector"));
+    }
+
+    private NonBlockingIOThread(ThreadGroup threadGroup,
+                                String threadName,
+                                ILogger logger,
+                                IOOutOfMemoryHandler oomeHandler,
+                                SelectorMode selectMode,
+                                Selector selector,
+                                boolean optimizeSelector) {
         super(threadGroup, threadName);
         this.logger = logger;
         this.selectMode = selectMode;
         this.oomeHandler = oomeHandler;
         this.selector = selector;
+        this.optimizeSelector = optimizeSelector;
         this.selectorWorkaroundTest = false;
     }
 
-    private static Selector newSelector(ILogger logger) {
+    private static Selector newSelector(SelectorProvider selectorProvider, boolean optimizeSelector, ILogger logger) {
         try {
-            Selector selector = Selector.open();
-            if (Boolean.getBoolean("tcp.optimizedselector")) {
+            Selector selector = selectorProvider.openSelector();
+            if (optimizeSelector) {
                 optimize(selector, logger);
             }
             return selector;
@@ -149,6 +186,26 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         return eventCount.get();
     }
 
+    /**
+     * Returns the total time this thread spent in handling selection-key events. The time is only tracked if
+     * {@link #setProcessingTimeTracked(boolean)} is enabled.
+     *
+     * @return the processing time in nanoseconds.
+     */
+    public long getProcessingNanos() {
+        return processingNanos.get();
+    }
+
+    /**
+     * Enables tracking of the time spent in handling selection-key events, per thread and per {@link AbstractHandler}.
+     * This costs two {@link System#nanoTime()} calls per event.
+     *
+     * @param processingTimeTracked {@code true} to track the processing time
+     */
+    void setProcessingTimeTracked(boolean processingTimeTracked) {
+        this.processingTimeTracked = processingTimeTracked;
+    }
+
     /**
      * A probe that measure how long this NonBlockingIOThread has not received any events.
      *
@@ -178,9 +235,29 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
      */
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
-        if (selectMode != SelectorMode.SELECT_NOW) {
-            selector.wakeup();
+        if (selectMode == SelectorMode.SELECT_NOW) {
+            return;
+        }
+
+        if (coalesceWakeups) {
+            // this thread processes the task queue before it selects again, and if a wakeup is pending the
+            // next select returns immediately anyway; so only the first wakeup after a select is issued
+            if (currentThread() == this || wakeupPending.get() || !wakeupPending.compareAndSet(false, true)) {
+                return;
+            }
         }
+        selector.wakeup();
+    }
+
+    /**
+     * Enables coalescing of selector wakeups: a wakeup is only issued by the first task added since the selector
+     * returned from its last select, so a burst of tasks costs a single wakeup system call. Wakeups are only
+     * coalesced in the {@link SelectorMode#SELECT} mode; the selector can't be rebuilt underneath a pending wakeup.
+     *
+     * @param coalesceWakeups {@code true} to coalesce wakeups
+     */
+    void setCoalesceWakeups(boolean coalesceWakeups) {
+        this.coalesceWakeups = coalesceWakeups && selectMode == SelectorMode.SELECT;
     }
 
     @Override
@@ -249,6 +326,7 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
             processTaskQueue();
 
             int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            onSelected();
             if (selectedKeys > 0) {
                 handleSelectionKeys();
             }
@@ -280,6 +358,13 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         }
     }
 
+    // tasks added from now on need a new wakeup; the task queue is processed before the next select
+    private void onSelected() {
+        if (coalesceWakeups) {
+            wakeupPending.set(false);
+        }
+    }
+
     private boolean selectorBugDetected(int idleCount) {
         return idleCount > SELECT_IDLE_COUNT_THRESHOLD
                 || (selectorWorkaroundTest && RANDOM.nextInt(TEST_SELECTOR_BUG_PROBABILITY) == 1);
@@ -347,12 +432,29 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
             // we don't need to check for sk.isReadable/sk.isWritable since the handler has only registered
             // for events it can handle.
             eventCount.inc();
-            handler.handle();
+            if (processingTimeTracked) {
+                handleAndTrackProcessingTime(handler);
+            } else {
+                handler.handle();
+            }
         } catch (Throwable t) {
             handler.onFailure(t);
         }
     }
 
+    private void handleAndTrackProcessingTime(SelectionHandler handler) throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            handler.handle();
+        } finally {
+            long nanos = System.nanoTime() - startNanos;
+            processingNanos.inc(nanos);
+            if (handler instanceof AbstractHandler) {
+                ((AbstractHandler) handler).onHandled(nanos);
+            }
+        }
+    }
+
     private void closeSelector() {
         if (logger.isFinestEnabled()) {
             logger.finest("Closing selector for:" + getName());
@@ -374,8 +476,8 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
     // after we have blocked for selector.select in #runSelectLoopWithSelectorFix
     private void rebuildSelector() {
         selectorRebuildCount.inc();
-        Selector newSelector = newSelector(logger);
         Selector oldSelector = this.selector;
+        Selector newSelector = newSelector(oldSelector.provider(), optimizeSelector, logger);
 
         // reset each handler's selectionKey, cancel the old keys
         for (SelectionKey key : oldSelector.keys()) {
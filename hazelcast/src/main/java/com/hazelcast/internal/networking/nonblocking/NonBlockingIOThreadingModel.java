@@ -71,6 +71,8 @@ public class NonBlockingIOThreadingModel
     private SelectorMode selectorMode;
     private volatile IOBalancer ioBalancer;
     private boolean selectorWorkaroundTest = Boolean.getBoolean("hazelcast.io.selector.workaround.test");
+    private boolean adaptiveBalancing;
+    private int minimumThreadCount = -1;
 
     public NonBlockingIOThreadingModel(
             LoggingService loggingService,
@@ -94,7 +96,10 @@ public class NonBlockingIOThreadingModel
         this.socketReaderInitializer = socketReaderInitializer;
     }
 
-    private SelectorMode getSelectorMode() {
+    /**
+     * @return the mode of the Selectors of the IO threads
+     */
+    protected final SelectorMode getSelectorMode() {
         if (selectorMode == null) {
             selectorMode = SelectorMode.getConfiguredValue();
         }
@@ -105,6 +110,19 @@ public class NonBlockingIOThreadingModel
         this.selectorMode = mode;
     }
 
+    /**
+     * Makes the {@link IOBalancer} adaptive: it weighs bytes, processing time and pending frames of the handlers and
+     * scales the number of active IO threads. Must be called before {@link #start()}.
+     *
+     * @param adaptiveBalancing  {@code true} to enable adaptive balancing
+     * @param minimumThreadCount the minimum number of active input and output threads, or a value smaller than 1 to
+     *                           keep all IO threads active
+     */
+    public void setAdaptiveBalancing(boolean adaptiveBalancing, int minimumThreadCount) {
+        this.adaptiveBalancing = adaptiveBalancing;
+        this.minimumThreadCount = minimumThreadCount;
+    }
+
     /**
      * Set to {@code true} for Selector CPU-consuming bug workaround tests
      *
@@ -144,28 +162,20 @@ public class NonBlockingIOThreadingModel
         logger.log(getSelectorMode() != SelectorMode.SELECT ? INFO : FINE, "IO threads selector mode is " + getSelectorMode());
 
         for (int i = 0; i < inputThreads.length; i++) {
-            NonBlockingIOThread thread = new NonBlockingIOThread(
-                    hazelcastThreadGroup.getInternalThreadGroup(),
-                    hazelcastThreadGroup.getThreadPoolNamePrefix("IO") + "in-" + i,
-                    loggingService.getLogger(NonBlockingIOThread.class),
-                    oomeHandler,
-                    selectorMode);
+            NonBlockingIOThread thread = newIOThread(hazelcastThreadGroup.getThreadPoolNamePrefix("IO") + "in-" + i);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setProcessingTimeTracked(adaptiveBalancing);
             inputThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp.inputThread[" + thread.getName() + "]");
             thread.start();
         }
 
         for (int i = 0; i < outputThreads.length; i++) {
-            NonBlockingIOThread thread = new NonBlockingIOThread(
-                    hazelcastThreadGroup.getInternalThreadGroup(),
-                    hazelcastThreadGroup.getThreadPoolNamePrefix("IO") + "out-" + i,
-                    loggingService.getLogger(NonBlockingIOThread.class),
-                    oomeHandler,
-                    selectorMode);
+            NonBlockingIOThread thread = newIOThread(hazelcastThreadGroup.getThreadPoolNamePrefix("IO") + "out-" + i);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setProcessingTimeTracked(adaptiveBalancing);
             outputThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp.outputThread[" + thread.getName() + "]");
             thread.start();
@@ -173,6 +183,21 @@ public class NonBlockingIOThreadingModel
         startIOBalancer();
     }
 
+    /**
+     * Creates an IO thread. Subclasses can override this method to tune the Selector of the thread.
+     *
+     * @param threadName the name of the thread
+     * @return the created thread, not yet started
+     */
+    protected NonBlockingIOThread newIOThread(String threadName) {
+        return new NonBlockingIOThread(
+                hazelcastThreadGroup.getInternalThreadGroup(),
+                threadName,
+                loggingService.getLogger(NonBlockingIOThread.class),
+                oomeHandler,
+                selectorMode);
+    }
+
     @Override
     public void onConnectionAdded(SocketConnection connection) {
         MigratableHandler reader = (MigratableHandler) connection.getSocketReader();
@@ -189,7 +214,7 @@ public class NonBlockingIOThreadingModel
 
     private void startIOBalancer() {
         ioBalancer = new IOBalancer(inputThreads, outputThreads,
-                hazelcastThreadGroup, balanceIntervalSeconds, loggingService);
+                hazelcastThreadGroup, balanceIntervalSeconds, loggingService, adaptiveBalancing, minimumThreadCount);
         ioBalancer.start();
         metricsRegistry.scanAndRegister(ioBalancer, "tcp.balancer");
     }
@@ -218,7 +243,10 @@ public class NonBlockingIOThreadingModel
 
     @Override
     public SocketWriter newSocketWriter(SocketConnection connection) {
-        int index = hashToIndex(nextOutputThreadIndex.getAndIncrement(), outputThreads.length);
+        IOBalancer ioBalancer = this.ioBalancer;
+        // the balancer is created on start, until then all configured threads are active
+        int activeThreadCount = ioBalancer == null ? outputThreads.length : ioBalancer.getActiveOutputThreadCount();
+        int index = hashToIndex(nextOutputThreadIndex.getAndIncrement(), activeThreadCount);
         NonBlockingIOThread outputThread = outputThreads[index];
         if (outputThread == null) {
             throw new IllegalStateException("IO thread is closed!");
@@ -234,7 +262,10 @@ public class NonBlockingIOThreadingModel
 
     @Override
     public SocketReader newSocketReader(SocketConnection connection) {
-        int index = hashToIndex(nextInputThreadIndex.getAndIncrement(), inputThreads.length);
+        IOBalancer ioBalancer = this.ioBalancer;
+        // the balancer is created on start, until then all configured threads are active
+        int activeThreadCount = ioBalancer == null ? inputThreads.length : ioBalancer.getActiveInputThreadCount();
+        int index = hashToIndex(nextInputThreadIndex.getAndIncrement(), activeThreadCount);
         NonBlockingIOThread inputThread = inputThreads[index];
         if (inputThread == null) {
             throw new IllegalStateException("IO thread is closed!");
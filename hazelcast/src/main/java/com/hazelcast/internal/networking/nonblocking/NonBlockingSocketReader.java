@@ -129,9 +129,15 @@ public final class NonBlockingSocketReader
      */
     @Override
     public void requestMigration(NonBlockingIOThread newOwner) {
+        setMigrationPending(true);
         ioThread.addTaskAndWakeup(new StartMigrationTask(newOwner));
     }
 
+    @Override
+    public long getBytesTransferred() {
+        return bytesRead.get();
+    }
+
     @Override
     public void handle() throws Exception {
         eventCount.inc();
@@ -204,6 +210,7 @@ public final class NonBlockingSocketReader
         public void run() {
             // if there is no change, we are done
             if (ioThread == newOwner) {
+                setMigrationPending(false);
                 return;
             }
 
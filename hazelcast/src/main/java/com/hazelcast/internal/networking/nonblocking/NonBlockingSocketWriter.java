@@ -43,16 +43,36 @@ import static com.hazelcast.util.EmptyStatement.ignore;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.channels.SelectionKey.OP_WRITE;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 /**
  * The writing side of the {@link TcpIpConnection}.
+ *
+ * Frames are copied into the outputBuffer, which is written to the socket. Two optional modes reduce the copying and the
+ * number of writes for member to member connections:
+ * <ol>
+ * <li>gathering write: the payload of large packets isn't copied, but written together with the outputBuffer using a
+ * single gathering write, see {@link #setGatheringWrite(boolean)}</li>
+ * <li>write coalescing: if the connection was written to very recently and the outputBuffer only contains a few bytes,
+ * the write is delayed for one round of the IO thread so more frames end up in the same write, similar to Nagle's
+ * algorithm, see {@link #setWriteCoalescing(boolean)}</li>
+ * </ol>
  */
+@SuppressWarnings("checkstyle:methodcount")
 public final class NonBlockingSocketWriter
         extends AbstractHandler
         implements Runnable, SocketWriter {
 
     private static final long TIMEOUT = 3;
 
+    // packets smaller than this are cheaper to copy than to write as a separate buffer
+    private static final int GATHERING_THRESHOLD_BYTES = 1024;
+    private static final int MAX_GATHER_BUFFERS = 64;
+
+    // only writes smaller than a typical TCP segment are delayed
+    private static final int COALESCING_THRESHOLD_BYTES = 1460;
+    private static final long COALESCING_WINDOW_NANOS = MICROSECONDS.toNanos(100);
+
 
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = "writeQueueSize")
@@ -81,6 +101,25 @@ public final class NonBlockingSocketWriter
     // This prevents running into an NonBlockingIOThread that is migrating.
     private NonBlockingIOThread newOwner;
 
+    // the fields below are only accessed by the NonBlockingIOThread
+    private boolean gatheringWrite;
+    private boolean writeCoalescing;
+    // the buffers of a gathering write: regions of the outputBuffer alternated with the payloads of large packets
+    private final ByteBuffer[] gatherBuffers = new ByteBuffer[MAX_GATHER_BUFFERS];
+    // the packets whose payload is at the same index in the gatherBuffers; released once their payload is written
+    private final Packet[] gatheredPackets = new Packet[MAX_GATHER_BUFFERS];
+    private int gatherCount;
+    private int gatherIndex;
+    // the start of the region of the outputBuffer which isn't part of the gatherBuffers yet
+    private int gatherRegionStart;
+    private boolean gatherInProgress;
+    private boolean writeDelayed;
+    private long lastSocketWriteNanos;
+    @Probe(name = "gatheredFramesWritten", level = DEBUG)
+    private final SwCounter gatheredFramesWritten = newSwCounter();
+    @Probe(name = "delayedWrites", level = DEBUG)
+    private final SwCounter delayedWrites = newSwCounter();
+
     public NonBlockingSocketWriter(SocketConnection connection,
                                    NonBlockingIOThread ioThread,
                                    ILogger logger,
@@ -95,6 +134,16 @@ public final class NonBlockingSocketWriter
         return writeQueue.size() + urgentWriteQueue.size();
     }
 
+    @Override
+    public int getPendingFrameCount() {
+        return totalFramesPending();
+    }
+
+    @Override
+    public long getBytesTransferred() {
+        return bytesWritten.get();
+    }
+
     @Override
     public long lastWriteTimeMillis() {
         return lastWriteTime;
@@ -165,6 +214,25 @@ public final class NonBlockingSocketWriter
         this.outputBuffer = outputBuffer;
     }
 
+    /**
+     * Enables writing the payload of large packets without copying them into the outputBuffer. This requires the
+     * {@link WriteHandler} to write {@link Packet} instances as they are.
+     *
+     * This method should be called by the IO thread, before any frame is written.
+     */
+    public void setGatheringWrite(boolean gatheringWrite) {
+        this.gatheringWrite = gatheringWrite;
+    }
+
+    /**
+     * Enables delaying small writes, so they can be coalesced with frames that are offered shortly after.
+     *
+     * This method should be called by the IO thread, before any frame is written.
+     */
+    public void setWriteCoalescing(boolean writeCoalescing) {
+        this.writeCoalescing = writeCoalescing;
+    }
+
     @Override
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
@@ -290,10 +358,14 @@ public final class NonBlockingSocketWriter
             registerOp(OP_WRITE);
         }
 
-        fillOutputBuffer();
+        if (gatheringWrite) {
+            handleGatheringWrite();
+        } else {
+            fillOutputBuffer();
 
-        if (dirtyOutputBuffer()) {
-            writeOutputBufferToSocket();
+            if (dirtyOutputBuffer() && !delayWrite()) {
+                writeOutputBufferToSocket();
+            }
         }
 
         if (newOwner == null) {
@@ -323,6 +395,29 @@ public final class NonBlockingSocketWriter
         return outputBuffer.position() > 0;
     }
 
+    /**
+     * Checks if the write of the outputBuffer should be delayed, so frames that are offered shortly after can be written
+     * in the same write. A write is only delayed if the connection was written to very recently and it isn't delayed twice
+     * in a row. Since the outputBuffer is dirty, the writer stays registered for OP_WRITE and is handled again in the next
+     * round of the IO thread.
+     *
+     * @return true if the write should be delayed, false otherwise.
+     */
+    private boolean delayWrite() {
+        if (!writeCoalescing || writeDelayed || gatherCount > 0 || outputBuffer.position() >= COALESCING_THRESHOLD_BYTES) {
+            writeDelayed = false;
+            return false;
+        }
+
+        if (System.nanoTime() - lastSocketWriteNanos > COALESCING_WINDOW_NANOS) {
+            return false;
+        }
+
+        writeDelayed = true;
+        delayedWrites.inc();
+        return true;
+    }
+
     /**
      * Writes to content of the outputBuffer to the socket.
      */
@@ -332,6 +427,7 @@ public final class NonBlockingSocketWriter
         int written = socketChannel.write(outputBuffer);
 
         bytesWritten.inc(written);
+        lastSocketWriteNanos = System.nanoTime();
 
         // Now we verify if all data is written.
         if (outputBuffer.hasRemaining()) {
@@ -372,10 +468,131 @@ public final class NonBlockingSocketWriter
             }
 
             // The current frame has been written completely. So lets null it and lets try to write another frame.
+            // A packet has been copied into the outputBuffer, so a pooled payload can be reused.
+            if (currentFrame instanceof Packet) {
+                ((Packet) currentFrame).release();
+            }
+            currentFrame = null;
+        }
+    }
+
+    private void handleGatheringWrite() throws Exception {
+        if (!gatherInProgress) {
+            fillGatherBuffers();
+            if (!dirtyOutputBuffer() || delayWrite()) {
+                return;
+            }
+
+            // the remaining region of the outputBuffer completes the gathering write
+            addOutputBufferRegion();
+            gatherInProgress = true;
+        }
+
+        writeGatherBuffersToSocket();
+    }
+
+    /**
+     * Fills the outputBuffer with frames, just like {@link #fillOutputBuffer()}. The payload of large packets isn't copied;
+     * the region of the outputBuffer preceding the payload and the payload itself are added to the gatherBuffers instead.
+     */
+    private void fillGatherBuffers() throws Exception {
+        for (; ; ) {
+            if (!outputBuffer.hasRemaining()) {
+                return;
+            }
+
+            if (currentFrame == null) {
+                currentFrame = poll();
+                if (currentFrame == null) {
+                    return;
+                }
+            }
+
+            if (!gatherPacket()) {
+                if (!writeHandler.onWrite(currentFrame, outputBuffer)) {
+                    return;
+                }
+
+                // the packet has been copied into the outputBuffer, so a pooled payload can be reused
+                if (currentFrame instanceof Packet) {
+                    ((Packet) currentFrame).release();
+                }
+            }
+
             currentFrame = null;
         }
     }
 
+    /**
+     * Adds the payload of the currentFrame to the gatherBuffers, if it is a large packet and there is space for it.
+     *
+     * @return true if the currentFrame has been written, false if it should be copied into the outputBuffer.
+     */
+    private boolean gatherPacket() {
+        if (currentFrame.getClass() != Packet.class || gatherCount + 2 >= MAX_GATHER_BUFFERS) {
+            return false;
+        }
+
+        Packet packet = (Packet) currentFrame;
+        if (packet.packetSize() < GATHERING_THRESHOLD_BYTES) {
+            return false;
+        }
+
+        ByteBuffer value = packet.writeHeaderAndWrapValue(outputBuffer);
+        if (value == null) {
+            return false;
+        }
+
+        addOutputBufferRegion();
+        gatheredPackets[gatherCount] = packet;
+        gatherBuffers[gatherCount++] = value;
+        gatheredFramesWritten.inc();
+        return true;
+    }
+
+    private void addOutputBufferRegion() {
+        int regionEnd = outputBuffer.position();
+        if (regionEnd == gatherRegionStart) {
+            return;
+        }
+
+        ByteBuffer region = outputBuffer.duplicate();
+        region.limit(regionEnd);
+        region.position(gatherRegionStart);
+        gatherBuffers[gatherCount++] = region;
+        gatherRegionStart = regionEnd;
+    }
+
+    /**
+     * Writes the gatherBuffers to the socket. The outputBuffer is only cleared once all buffers have been written, since
+     * the gatherBuffers contain regions of it.
+     */
+    private void writeGatherBuffersToSocket() throws IOException {
+        long written = socketChannel.write(gatherBuffers, gatherIndex, gatherCount - gatherIndex);
+
+        bytesWritten.inc(written);
+        lastSocketWriteNanos = System.nanoTime();
+
+        while (gatherIndex < gatherCount && !gatherBuffers[gatherIndex].hasRemaining()) {
+            Packet packet = gatheredPackets[gatherIndex];
+            if (packet != null) {
+                // the payload has been written completely, so a pooled payload can be reused
+                packet.release();
+                gatheredPackets[gatherIndex] = null;
+            }
+            gatherBuffers[gatherIndex++] = null;
+        }
+
+        if (gatherIndex == gatherCount) {
+            // everything is written, so the outputBuffer can be reused
+            gatherIndex = 0;
+            gatherCount = 0;
+            gatherRegionStart = 0;
+            gatherInProgress = false;
+            outputBuffer.clear();
+        }
+    }
+
     @Override
     public void run() {
         try {
@@ -397,6 +614,7 @@ public final class NonBlockingSocketWriter
 
     @Override
     public void requestMigration(NonBlockingIOThread newOwner) {
+        setMigrationPending(true);
         write(new TaskFrame(new StartMigrationTask(newOwner)));
     }
 
@@ -446,6 +664,7 @@ public final class NonBlockingSocketWriter
 
             if (ioThread == theNewOwner) {
                 // if there is no change, we are done
+                setMigrationPending(false);
                 return;
             }
 
@@ -28,6 +28,8 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.spi.properties.GroupProperty;
 
+import java.util.Set;
+
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
@@ -49,6 +51,12 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  *
  * Measuring interval can be customized via {@link GroupProperty#IO_BALANCER_INTERVAL_SECONDS}
  *
+ * When the balancer is adaptive (see {@link GroupProperty#IO_BALANCER_ADAPTIVE}), the load of a handler also weighs
+ * the bytes it transferred, the time spent processing its events and its pending frames. In addition, the number of
+ * active threads is scaled between {@link GroupProperty#IO_THREAD_COUNT_MIN} and the configured number of threads
+ * based on their utilization: new connections are only assigned to active threads, and the handlers of deactivated
+ * threads are migrated to the active ones. Deactivated threads stay blocked on their Selector and cost no CPU.
+ *
  * It doesn't leverage {@link com.hazelcast.nio.ConnectionListener} capability
  * provided by {@link com.hazelcast.nio.ConnectionManager} to observe connections as it has to be notified
  * right after a physical TCP connection is created whilst <code>ConnectionListener</code> is notified only
@@ -56,6 +64,12 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  */
 public class IOBalancer {
     private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
+
+    // an additional thread is activated when the active threads are busier than this on average
+    private static final double SCALE_UP_UTILIZATION = 0.6;
+    // a thread is deactivated when the remaining threads would be less busy than this on average
+    private static final double SCALE_DOWN_UTILIZATION = 0.3;
+
     private final ILogger logger;
 
     private final int balancerIntervalSeconds;
@@ -65,6 +79,8 @@ public class IOBalancer {
     private final LoadTracker outLoadTracker;
 
     private final HazelcastThreadGroup threadGroup;
+    private final boolean adaptive;
+    private final int minimumThreadCount;
     private volatile boolean enabled;
     private IOBalancerThread ioBalancerThread;
 
@@ -76,18 +92,40 @@ public class IOBalancer {
     @Probe
     private final MwCounter migrationCompletedCount = newMwCounter();
 
+    // only IOBalancerThread will write to these fields.
+    @Probe
+    private final SwCounter threadActivatedCount = newSwCounter();
+    @Probe
+    private final SwCounter threadDeactivatedCount = newSwCounter();
+
     public IOBalancer(NonBlockingIOThread[] inputThreads,
                       NonBlockingIOThread[] outputThreads,
                       HazelcastThreadGroup threadGroup,
                       int balancerIntervalSeconds, LoggingService loggingService) {
+        this(inputThreads, outputThreads, threadGroup, balancerIntervalSeconds, loggingService, false, -1);
+    }
+
+    /**
+     * @param adaptive           {@code true} to weigh bytes, processing time and pending frames and to scale the number
+     *                           of active threads
+     * @param minimumThreadCount the minimum number of active input and output threads when adaptive, or a value
+     *                           smaller than 1 to keep all threads active
+     */
+    public IOBalancer(NonBlockingIOThread[] inputThreads,
+                      NonBlockingIOThread[] outputThreads,
+                      HazelcastThreadGroup threadGroup,
+                      int balancerIntervalSeconds, LoggingService loggingService,
+                      boolean adaptive, int minimumThreadCount) {
         this.logger = loggingService.getLogger(IOBalancer.class);
         this.balancerIntervalSeconds = balancerIntervalSeconds;
 
         this.strategy = createMigrationStrategy();
         this.threadGroup = threadGroup;
+        this.adaptive = adaptive;
+        this.minimumThreadCount = minimumThreadCount;
 
-        this.inLoadTracker = new LoadTracker(inputThreads, logger);
-        this.outLoadTracker = new LoadTracker(outputThreads, logger);
+        this.inLoadTracker = new LoadTracker(inputThreads, logger, adaptive);
+        this.outLoadTracker = new LoadTracker(outputThreads, logger, adaptive);
 
         this.enabled = isEnabled(inputThreads, outputThreads);
     }
@@ -102,6 +140,22 @@ public class IOBalancer {
         return outLoadTracker;
     }
 
+    /**
+     * @return the number of input threads new connections are assigned to; these are the first input threads
+     */
+    @Probe
+    public int getActiveInputThreadCount() {
+        return inLoadTracker.getActiveThreadCount();
+    }
+
+    /**
+     * @return the number of output threads new connections are assigned to; these are the first output threads
+     */
+    @Probe
+    public int getActiveOutputThreadCount() {
+        return outLoadTracker.getActiveThreadCount();
+    }
+
     public void connectionAdded(MigratableHandler readHandler, MigratableHandler writeHandler) {
         inLoadTracker.notifyHandlerAdded(readHandler);
         outLoadTracker.notifyHandlerAdded(writeHandler);
@@ -135,6 +189,15 @@ public class IOBalancer {
 
     private void scheduleMigrationIfNeeded(LoadTracker loadTracker) {
         LoadImbalance loadImbalance = loadTracker.updateImbalance();
+        if (adaptive) {
+            boolean scaled = scaleIfNeeded(loadTracker);
+            drainInactiveThreads(loadTracker, loadImbalance);
+            if (scaled) {
+                // the imbalance was calculated for the previous set of active threads
+                return;
+            }
+        }
+
         if (strategy.imbalanceDetected(loadImbalance)) {
             imbalanceDetectedCount.inc();
             tryMigrate(loadImbalance);
@@ -147,6 +210,69 @@ public class IOBalancer {
         }
     }
 
+    private boolean scaleIfNeeded(LoadTracker loadTracker) {
+        double utilization = loadTracker.getAverageUtilization();
+        if (utilization < 0 || minimumThreadCount < 1) {
+            return false;
+        }
+
+        int activeThreadCount = loadTracker.getActiveThreadCount();
+        if (utilization > SCALE_UP_UTILIZATION && activeThreadCount < loadTracker.getThreadCount()) {
+            loadTracker.setActiveThreadCount(activeThreadCount + 1);
+            threadActivatedCount.inc();
+        } else if (activeThreadCount > minimumThreadCount
+                && utilization * activeThreadCount / (activeThreadCount - 1) < SCALE_DOWN_UTILIZATION) {
+            loadTracker.setActiveThreadCount(activeThreadCount - 1);
+            threadDeactivatedCount.inc();
+        } else {
+            return false;
+        }
+
+        if (logger.isFineEnabled()) {
+            logger.fine("Scaled the number of active IO threads from " + activeThreadCount + " to "
+                    + loadTracker.getActiveThreadCount() + ", their utilization was " + utilization);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the handlers of the inactive threads to the active threads. Every handler is sent to the active thread
+     * with the lowest load, including the handlers already sent to it. Handlers which were sent away before, but
+     * haven't started migrating yet, are skipped so a migration is never requested twice.
+     */
+    private void drainInactiveThreads(LoadTracker loadTracker, LoadImbalance loadImbalance) {
+        int activeThreadCount = loadTracker.getActiveThreadCount();
+        long[] loads = new long[activeThreadCount];
+        for (int i = 0; i < activeThreadCount; i++) {
+            for (MigratableHandler handler : loadImbalance.getHandlersOwnerBy(loadTracker.getIOThread(i))) {
+                loads[i] += handlerLoad(loadImbalance, handler);
+            }
+        }
+
+        for (int i = activeThreadCount; i < loadTracker.getThreadCount(); i++) {
+            Set<MigratableHandler> handlers = loadImbalance.getHandlersOwnerBy(loadTracker.getIOThread(i));
+            for (MigratableHandler handler : handlers) {
+                if (handler.isMigrationPending()) {
+                    continue;
+                }
+
+                int destinationIndex = 0;
+                for (int k = 1; k < activeThreadCount; k++) {
+                    if (loads[k] < loads[destinationIndex]) {
+                        destinationIndex = k;
+                    }
+                }
+                loads[destinationIndex] += handlerLoad(loadImbalance, handler);
+                handler.requestMigration(loadTracker.getIOThread(destinationIndex));
+            }
+        }
+    }
+
+    // idle handlers still count, so they are spread over the active threads as well
+    private static long handlerLoad(LoadImbalance loadImbalance, MigratableHandler handler) {
+        return 1 + loadImbalance.getEventCount(handler);
+    }
+
     private MigrationStrategy createMigrationStrategy() {
         if (Boolean.getBoolean(PROP_MONKEY_BALANCER)) {
             logger.warning("Using Monkey IO Balancer Strategy. This is for stress tests only. Do not user in production! "
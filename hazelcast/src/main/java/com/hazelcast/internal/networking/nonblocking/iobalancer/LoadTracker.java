@@ -34,11 +34,27 @@ import static com.hazelcast.util.StringUtil.LINE_SEPARATOR;
 /**
  * Tracks the load of of NonBlockingIOThread(s) and creates a mapping between NonBlockingIOThread -> Handler.
  * <p/>
+ * By default the load of a handler is the number of events it received. When the load is weighted, the bytes it
+ * transferred, the time spent processing its events and the frames pending in it are added, see
+ * {@link #weightedLoad(MigratableHandler)}. Only the first {@link #getActiveThreadCount() active} ioThreads take
+ * part in the balancing; the others are being drained by the {@link IOBalancer}.
+ * <p/>
  * This class is not thread-safe with the exception of
  * {@link #addHandler(MigratableHandler)}   and
  * {@link #removeHandler(MigratableHandler)}
  */
 class LoadTracker {
+
+    /**
+     * The number of transferred bytes that weigh as much as a single event.
+     */
+    static final int BYTES_PER_LOAD_UNIT = 1024;
+
+    /**
+     * The processing time in nanoseconds that weighs as much as a single event.
+     */
+    static final int NANOS_PER_LOAD_UNIT = 10000;
+
     private final ILogger logger;
 
     //all known IO ioThreads. we assume no. of ioThreads is constant during a lifespan of a member
@@ -60,8 +76,26 @@ class LoadTracker {
 
     private final Queue<Runnable> tasks = new LinkedBlockingQueue<Runnable>();
 
+    private final boolean weighted;
+
+    // processing time per ioThread at the last calculation and the resulting utilization since then.
+    private final long[] lastProcessingNanos;
+    private final double[] utilization;
+    private long lastUpdateNanos;
+    private boolean utilizationKnown;
+
+    private volatile int activeThreadCount;
+
     LoadTracker(NonBlockingIOThread[] ioThreads, ILogger logger) {
+        this(ioThreads, logger, false);
+    }
+
+    LoadTracker(NonBlockingIOThread[] ioThreads, ILogger logger, boolean weighted) {
         this.logger = logger;
+        this.weighted = weighted;
+        this.lastProcessingNanos = new long[ioThreads.length];
+        this.utilization = new double[ioThreads.length];
+        this.activeThreadCount = ioThreads.length;
 
         this.ioThreads = new NonBlockingIOThread[ioThreads.length];
         System.arraycopy(ioThreads, 0, this.ioThreads, 0, ioThreads.length);
@@ -84,10 +118,62 @@ class LoadTracker {
         clearWorkingImbalance();
         updateNewWorkingImbalance();
         updateNewFinalImbalance();
+        updateUtilization();
         printDebugTable();
         return imbalance;
     }
 
+    /**
+     * Returns the number of ioThreads new handlers are assigned to; these are the first ioThreads.
+     */
+    int getActiveThreadCount() {
+        return activeThreadCount;
+    }
+
+    void setActiveThreadCount(int activeThreadCount) {
+        this.activeThreadCount = activeThreadCount;
+    }
+
+    int getThreadCount() {
+        return ioThreads.length;
+    }
+
+    NonBlockingIOThread getIOThread(int index) {
+        return ioThreads[index];
+    }
+
+    /**
+     * Returns the average utilization of the active ioThreads since the previous calculation: the fraction of the time
+     * they spent processing events.
+     *
+     * @return the utilization between 0 and 1, or -1 if it isn't known yet
+     */
+    double getAverageUtilization() {
+        if (!utilizationKnown) {
+            return -1;
+        }
+        int activeThreadCount = this.activeThreadCount;
+        double sum = 0;
+        for (int i = 0; i < activeThreadCount; i++) {
+            sum += utilization[i];
+        }
+        return sum / activeThreadCount;
+    }
+
+    private void updateUtilization() {
+        long now = System.nanoTime();
+        long elapsedNanos = now - lastUpdateNanos;
+        utilizationKnown = lastUpdateNanos != 0 && elapsedNanos > 0;
+        lastUpdateNanos = now;
+        for (int i = 0; i < ioThreads.length; i++) {
+            long processingNanos = ioThreads[i].getProcessingNanos();
+            if (utilizationKnown) {
+                utilization[i] = Math.min(1, (double) (processingNanos - lastProcessingNanos[i]) / elapsedNanos);
+            }
+            lastProcessingNanos[i] = processingNanos;
+        }
+    }
+
     private void handleAddedOrRemovedConnections() {
         Iterator<Runnable> iterator = tasks.iterator();
         while (iterator.hasNext()) {
@@ -117,7 +203,9 @@ class LoadTracker {
         imbalance.maximumEvents = Long.MIN_VALUE;
         imbalance.sourceSelector = null;
         imbalance.destinationSelector = null;
-        for (NonBlockingIOThread selector : ioThreads) {
+        int activeThreadCount = this.activeThreadCount;
+        for (int i = 0; i < activeThreadCount; i++) {
+            NonBlockingIOThread selector = ioThreads[i];
             long eventCount = selectorEvents.get(selector);
             int handlerCount = selectorToHandlers.get(selector).size();
 
@@ -163,11 +251,28 @@ class LoadTracker {
     }
 
     private long getEventCountSinceLastCheck(MigratableHandler handler) {
+        if (weighted) {
+            long load = weightedLoad(handler);
+            long lastLoad = lastEventCounter.getAndSet(handler, load);
+            // pending frames are a backlog at this moment, so they are not accumulated
+            return load - lastLoad + handler.getPendingFrameCount();
+        }
+
         long eventCount = handler.getEventCount();
         Long lastEventCount = lastEventCounter.getAndSet(handler, eventCount);
         return eventCount - lastEventCount;
     }
 
+    /**
+     * Returns the accumulated load of a handler in events: its events plus its transferred bytes and processing time
+     * converted to events.
+     */
+    static long weightedLoad(MigratableHandler handler) {
+        return handler.getEventCount()
+                + handler.getBytesTransferred() / BYTES_PER_LOAD_UNIT
+                + handler.getProcessingNanos() / NANOS_PER_LOAD_UNIT;
+    }
+
     private void clearWorkingImbalance() {
         handlerEventsCounter.reset();
         selectorEvents.reset();
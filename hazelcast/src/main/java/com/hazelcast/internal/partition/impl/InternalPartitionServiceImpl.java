@@ -24,6 +24,7 @@ import com.hazelcast.core.MigrationListener;
 import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
+import com.hazelcast.internal.cluster.impl.Versions;
 import com.hazelcast.internal.cluster.impl.operations.TriggerMemberListPublishOperation;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -111,6 +112,8 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
     private final int partitionCount;
 
     private final long partitionMigrationTimeout;
+    private final boolean fragmentedMigrationEnabled;
+    private final int migrationFragmentSize;
 
     private final PartitionServiceProxy proxy;
     private final Lock lock = new ReentrantLock();
@@ -153,6 +156,8 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
                 logAllExceptions(logger, EXCEPTION_MSG_PARTITION_STATE_SYNC_TIMEOUT, Level.FINEST);
 
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
+        fragmentedMigrationEnabled = properties.getBoolean(GroupProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED);
+        migrationFragmentSize = properties.getInteger(GroupProperty.PARTITION_MIGRATION_FRAGMENT_SIZE);
 
         proxy = new PartitionServiceProxy(nodeEngine, this);
 
@@ -851,6 +856,19 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
         return partitionMigrationTimeout;
     }
 
+    /**
+     * @return {@code true} if partitions are migrated in fragments, see
+     * {@link GroupProperty#PARTITION_FRAGMENTED_MIGRATION_ENABLED}. Members of older versions don't know the
+     * fragment operations, so fragmented migrations are only used once the cluster version is at least 3.9.
+     */
+    public boolean isFragmentedMigrationEnabled() {
+        return fragmentedMigrationEnabled && node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_9);
+    }
+
+    public int getMigrationFragmentSize() {
+        return migrationFragmentSize;
+    }
+
     // called in operation threads
     // Caution: Returning version array without copying for performance reasons. Callers must not modify this array!
     @Override
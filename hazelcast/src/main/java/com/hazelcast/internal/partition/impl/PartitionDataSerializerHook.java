@@ -20,12 +20,16 @@ import com.hazelcast.internal.partition.PartitionRuntimeState;
 import com.hazelcast.internal.partition.operation.AssignPartitions;
 import com.hazelcast.internal.partition.operation.CheckReplicaVersion;
 import com.hazelcast.internal.partition.operation.FetchPartitionStateOperation;
+import com.hazelcast.internal.partition.operation.FragmentedReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.HasOngoingMigration;
 import com.hazelcast.internal.partition.operation.MigrationCommitOperation;
+import com.hazelcast.internal.partition.operation.MigrationFragmentOperation;
 import com.hazelcast.internal.partition.operation.MigrationOperation;
 import com.hazelcast.internal.partition.operation.MigrationRequestOperation;
 import com.hazelcast.internal.partition.operation.PartitionStateOperation;
 import com.hazelcast.internal.partition.operation.PromotionCommitOperation;
+import com.hazelcast.internal.partition.operation.ReplicaSyncFragmentAck;
+import com.hazelcast.internal.partition.operation.ReplicaSyncFragmentResponse;
 import com.hazelcast.internal.partition.operation.ReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.ReplicaSyncResponse;
 import com.hazelcast.internal.partition.operation.ReplicaSyncRetryResponse;
@@ -62,8 +66,12 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
     public static final int SAFE_STATE_CHECK = 14;
     public static final int SHUTDOWN_REQUEST = 15;
     public static final int SHUTDOWN_RESPONSE = 16;
+    public static final int REPLICA_SYNC_FRAGMENT_ACK = 17;
+    public static final int MIGRATION_FRAGMENT = 18;
+    public static final int FRAGMENTED_REPLICA_SYNC_REQUEST = 19;
+    public static final int REPLICA_SYNC_FRAGMENT_RESPONSE = 20;
 
-    private static final int LEN = SHUTDOWN_RESPONSE + 1;
+    private static final int LEN = REPLICA_SYNC_FRAGMENT_RESPONSE + 1;
 
     @Override
     public int getFactoryId() {
@@ -154,6 +162,26 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
                 return new ShutdownResponseOperation();
             }
         };
+        constructors[REPLICA_SYNC_FRAGMENT_ACK] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new ReplicaSyncFragmentAck();
+            }
+        };
+        constructors[MIGRATION_FRAGMENT] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MigrationFragmentOperation();
+            }
+        };
+        constructors[FRAGMENTED_REPLICA_SYNC_REQUEST] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new FragmentedReplicaSyncRequest();
+            }
+        };
+        constructors[REPLICA_SYNC_FRAGMENT_RESPONSE] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new ReplicaSyncFragmentResponse();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
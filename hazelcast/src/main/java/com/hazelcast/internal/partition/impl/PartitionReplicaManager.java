@@ -17,8 +17,11 @@
 package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.cluster.impl.Versions;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
+import com.hazelcast.internal.partition.operation.FragmentedReplicaSyncRequest;
+import com.hazelcast.internal.partition.operation.ReplicaSyncFragments;
 import com.hazelcast.internal.partition.operation.ReplicaSyncRequest;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
@@ -26,6 +29,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.TaskScheduler;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.scheduler.EntryTaskScheduler;
@@ -39,6 +43,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.internal.partition.InternalPartitionService.DEFAULT_REPLICA_SYNC_DELAY;
@@ -62,6 +67,11 @@ public class PartitionReplicaManager {
     /** Replica sync requests that have been sent to the target and awaiting response */
     private final AtomicReferenceArray<ReplicaSyncInfo> replicaSyncRequests;
     private final EntryTaskScheduler<Integer, ReplicaSyncInfo> replicaSyncScheduler;
+    /** Replica syncs sent by this node in fragments, indexed by partition and replica, awaiting the ack of a fragment */
+    private final AtomicReferenceArray<ReplicaSyncFragments> replicaSyncFragments;
+    /** Cancels the replica syncs sent in fragments whose replica doesn't acknowledge a fragment in time */
+    private final EntryTaskScheduler<Integer, ReplicaSyncFragments> replicaSyncFragmentsScheduler;
+    private final AtomicLong replicaSyncIdGenerator = new AtomicLong();
     @Probe
     private final Semaphore replicaSyncProcessLock;
     @Probe
@@ -104,6 +114,10 @@ public class PartitionReplicaManager {
                 new ReplicaSyncEntryProcessor(), ScheduleType.POSTPONE);
 
         replicaSyncRequests = new AtomicReferenceArray<ReplicaSyncInfo>(partitionCount);
+        replicaSyncFragments = new AtomicReferenceArray<ReplicaSyncFragments>(
+                partitionCount * InternalPartition.MAX_BACKUP_COUNT);
+        replicaSyncFragmentsScheduler = EntryTaskSchedulerFactory.newScheduler(globalScheduler,
+                new ReplicaSyncFragmentsTimeoutProcessor(), ScheduleType.POSTPONE);
     }
 
     /**
@@ -134,7 +148,8 @@ public class PartitionReplicaManager {
 
         InternalPartitionImpl partition = partitionStateManager.getPartitionImpl(partitionId);
         Address target = partition.getOwnerOrNull();
-        ReplicaSyncInfo syncInfo = new ReplicaSyncInfo(partitionId, replicaIndex, target);
+        ReplicaSyncInfo syncInfo = new ReplicaSyncInfo(partitionId, replicaIndex, target,
+                replicaSyncIdGenerator.incrementAndGet());
 
         if (delayMillis > 0) {
             schedulePartitionReplicaSync(syncInfo, target, delayMillis, "EXPLICIT DELAY");
@@ -230,13 +245,33 @@ public class PartitionReplicaManager {
             }
             replicaSyncRequestsCounter.inc();
             replicaSyncScheduler.schedule(partitionMigrationTimeout, partitionId, syncInfo);
-            ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex);
-            nodeEngine.getOperationService().send(syncRequest, target);
+            InternalOperationService operationService = nodeEngine.getOperationService();
+            operationService.send(createReplicaSyncRequest(syncInfo), target);
             return true;
         }
         return false;
     }
 
+    /**
+     * Creates the sync request. Members of older versions only know the {@link ReplicaSyncRequest} without a sync id and
+     * replica versions, so the {@link FragmentedReplicaSyncRequest} is only sent once the cluster version is at least 3.9.
+     */
+    private ReplicaSyncRequest createReplicaSyncRequest(ReplicaSyncInfo syncInfo) {
+        int partitionId = syncInfo.partitionId;
+        int replicaIndex = syncInfo.replicaIndex;
+        if (!node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_9)) {
+            return new ReplicaSyncRequest(partitionId, replicaIndex);
+        }
+
+        FragmentedReplicaSyncRequest syncRequest = new FragmentedReplicaSyncRequest(partitionId, replicaIndex, syncInfo.syncId);
+        // the replica versions are only read by the partition thread, otherwise the partition owner can't skip the sync
+        PartitionReplicaVersions versions = replicaVersions[partitionId];
+        if (nodeEngine.getOperationService().isRunAllowed(syncRequest) && !versions.isDirty()) {
+            syncRequest.setReplicaVersions(versions.get().clone());
+        }
+        return syncRequest;
+    }
+
     /** Schedule replica sync request {@code syncInfo} for {@code target} in {@code delayMillis} because of {@code reason} */
     private void schedulePartitionReplicaSync(ReplicaSyncInfo syncInfo, Address target, long delayMillis, String reason) {
         int partitionId = syncInfo.partitionId;
@@ -342,6 +377,12 @@ public class PartitionReplicaManager {
                 cancelReplicaSync(partitionId);
             }
         }
+        for (int i = 0; i < replicaSyncFragments.length(); i++) {
+            ReplicaSyncFragments fragments = replicaSyncFragments.get(i);
+            if (fragments != null && deadAddress.equals(fragments.getTarget())) {
+                cancelReplicaSyncFragments(fragments);
+            }
+        }
     }
 
     public void cancelReplicaSync(int partitionId) {
@@ -352,6 +393,84 @@ public class PartitionReplicaManager {
         }
     }
 
+    /**
+     * Postpones the timeout of the ongoing replica synchronization request for the given partition and replica, after a
+     * fragment of the synchronization has been received.
+     *
+     * @param partitionId  the partition being synchronized
+     * @param replicaIndex the index of the replica being synchronized
+     * @param syncId       the id of the synchronization request the fragment belongs to
+     * @return {@code true} if the fragment belongs to the ongoing synchronization request, {@code false} otherwise
+     */
+    // called in operation threads
+    public boolean postponeReplicaSyncTimeout(int partitionId, int replicaIndex, long syncId) {
+        ReplicaSyncInfo currentSyncInfo = replicaSyncRequests.get(partitionId);
+        if (currentSyncInfo != null && currentSyncInfo.replicaIndex == replicaIndex && currentSyncInfo.syncId == syncId) {
+            replicaSyncScheduler.schedule(partitionMigrationTimeout, partitionId, currentSyncInfo);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registers a replica synchronization which is sent by this node, the partition owner, in fragments. The synchronization
+     * takes over the replica sync permit acquired for it. A synchronization of the same partition replica which is still
+     * registered is cancelled. The synchronization is cancelled if its replica doesn't acknowledge a fragment within the
+     * partition migration timeout.
+     *
+     * @param fragments the replica synchronization
+     */
+    // called in operation threads
+    public void registerReplicaSyncFragments(ReplicaSyncFragments fragments) {
+        int index = toFragmentsIndex(fragments.getPartitionId(), fragments.getReplicaIndex());
+        ReplicaSyncFragments previous = replicaSyncFragments.getAndSet(index, fragments);
+        if (previous != null) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Replacing ongoing " + previous + " with " + fragments);
+            }
+            releaseReplicaSyncPermit();
+        }
+        replicaSyncFragmentsScheduler.schedule(partitionMigrationTimeout, index, fragments);
+    }
+
+    /**
+     * Postpones the timeout of the replica synchronization, after a fragment of it has been acknowledged.
+     *
+     * @param fragments the replica synchronization
+     */
+    // called in operation threads
+    public void postponeReplicaSyncFragmentsTimeout(ReplicaSyncFragments fragments) {
+        int index = toFragmentsIndex(fragments.getPartitionId(), fragments.getReplicaIndex());
+        if (replicaSyncFragments.get(index) == fragments) {
+            replicaSyncFragmentsScheduler.schedule(partitionMigrationTimeout, index, fragments);
+        }
+    }
+
+    // called in operation threads
+    public ReplicaSyncFragments getReplicaSyncFragments(int partitionId, int replicaIndex) {
+        return replicaSyncFragments.get(toFragmentsIndex(partitionId, replicaIndex));
+    }
+
+    /**
+     * Deregisters the replica synchronization and releases its permit, after its last fragment has been sent or when it
+     * has to be cancelled. Its scheduled timeout is left in place, it has no effect once the synchronization is deregistered.
+     *
+     * @param fragments the replica synchronization
+     * @return {@code true} if the synchronization was still registered
+     */
+    public boolean cancelReplicaSyncFragments(ReplicaSyncFragments fragments) {
+        int index = toFragmentsIndex(fragments.getPartitionId(), fragments.getReplicaIndex());
+        if (replicaSyncFragments.compareAndSet(index, fragments, null)) {
+            releaseReplicaSyncPermit();
+            return true;
+        }
+        return false;
+    }
+
+    private static int toFragmentsIndex(int partitionId, int replicaIndex) {
+        return partitionId * InternalPartition.MAX_BACKUP_COUNT + replicaIndex - 1;
+    }
+
     public boolean tryToAcquireReplicaSyncPermit() {
         return replicaSyncProcessLock.tryAcquire();
     }
@@ -395,7 +514,11 @@ public class PartitionReplicaManager {
         for (int k = 0; k < replicaSyncRequests.length(); k++) {
             replicaSyncRequests.set(k, null);
         }
+        for (int k = 0; k < replicaSyncFragments.length(); k++) {
+            replicaSyncFragments.set(k, null);
+        }
         replicaSyncScheduler.cancelAll();
+        replicaSyncFragmentsScheduler.cancelAll();
         // this is not sync with possibly running sync process
         // permit count can exceed allowed parallelization count.
         replicaSyncProcessLock.drainPermits();
@@ -432,6 +555,22 @@ public class PartitionReplicaManager {
         }
     }
 
+    private class ReplicaSyncFragmentsTimeoutProcessor implements ScheduledEntryProcessor<Integer, ReplicaSyncFragments> {
+
+        @Override
+        public void process(EntryTaskScheduler<Integer, ReplicaSyncFragments> scheduler,
+                Collection<ScheduledEntry<Integer, ReplicaSyncFragments>> entries) {
+
+            for (ScheduledEntry<Integer, ReplicaSyncFragments> entry : entries) {
+                ReplicaSyncFragments fragments = entry.getValue();
+                if (cancelReplicaSyncFragments(fragments)) {
+                    logger.warning("Cancelled " + fragments + ", no fragment acknowledged in "
+                            + partitionMigrationTimeout + " ms");
+                }
+            }
+        }
+    }
+
     private class SyncReplicaVersionTask implements Runnable {
         @Override
         public void run() {
@@ -20,19 +20,26 @@ import com.hazelcast.nio.Address;
 
 /**
  * The information for a replica synchronization - which partition and replica index needs synchronization and what is
- * the target (the owner of the partition).
- * The target is ignored when comparing if two {@link ReplicaSyncInfo} instances are the same.
+ * the target (the owner of the partition). The sync id identifies the request sent to the target, so the responses of a
+ * superseded request can be told apart.
+ * The target and the sync id are ignored when comparing if two {@link ReplicaSyncInfo} instances are the same.
  */
 public final class ReplicaSyncInfo {
 
     final int partitionId;
     final int replicaIndex;
     final Address target;
+    final long syncId;
 
     ReplicaSyncInfo(int partitionId, int replicaIndex, Address target) {
+        this(partitionId, replicaIndex, target, 0);
+    }
+
+    ReplicaSyncInfo(int partitionId, int replicaIndex, Address target, long syncId) {
         this.partitionId = partitionId;
         this.replicaIndex = replicaIndex;
         this.target = target;
+        this.syncId = syncId;
     }
 
     @Override
@@ -65,6 +72,6 @@ public final class ReplicaSyncInfo {
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{partitionId=" + partitionId + ", replicaIndex=" + replicaIndex + ", target="
-                + target + '}';
+                + target + ", syncId=" + syncId + '}';
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+
+/**
+ * A {@link ReplicaSyncRequest} of a replica which can receive the response in fragments, see
+ * {@link ReplicaSyncFragmentResponse}, and which may send its replica versions so an up-to-date replica isn't synchronized
+ * again.
+ * <p>
+ * It has its own type id, so the sync id and the replica versions don't change the wire format of a
+ * {@link ReplicaSyncRequest}. It is only sent when the cluster version is at least 3.9.
+ */
+public final class FragmentedReplicaSyncRequest extends ReplicaSyncRequest {
+
+    public FragmentedReplicaSyncRequest() {
+    }
+
+    public FragmentedReplicaSyncRequest(int partitionId, int replicaIndex, long syncId) {
+        super(partitionId, replicaIndex);
+        setSyncId(syncId);
+    }
+
+    /**
+     * Sets the current replica versions of the replica, which must not be dirty.
+     *
+     * @param replicaVersions the replica versions of the sender
+     */
+    public void setReplicaVersions(long[] replicaVersions) {
+        setReplicaVersionsInternal(replicaVersions);
+    }
+
+    @Override
+    boolean isFragmentedResponseSupported() {
+        return true;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(getSyncId());
+        out.writeLongArray(getReplicaVersions());
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        setSyncId(in.readLong());
+        setReplicaVersionsInternal(in.readLongArray());
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.FRAGMENTED_REPLICA_SYNC_REQUEST;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.Operation;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * A fragment of a migration which is migrated in fragments, see {@link MigrationOperation}.
+ * <p>
+ * It has its own type id, so the flags of the first and the last fragment don't change the wire format of an
+ * unfragmented {@link MigrationOperation}. It is only sent when the cluster version supports fragmented migrations.
+ */
+public final class MigrationFragmentOperation extends MigrationOperation {
+
+    public MigrationFragmentOperation() {
+    }
+
+    MigrationFragmentOperation(MigrationInfo migrationInfo, long[] replicaVersions, Collection<Operation> tasks,
+            int partitionStateVersion, boolean firstFragment, boolean lastFragment) {
+        super(migrationInfo, replicaVersions, tasks, partitionStateVersion, firstFragment, lastFragment);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeBoolean(isFirstFragment());
+        out.writeBoolean(isLastFragment());
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        boolean firstFragment = in.readBoolean();
+        boolean lastFragment = in.readBoolean();
+        setFragment(firstFragment, lastFragment);
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.MIGRATION_FRAGMENT;
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.core.HazelcastException;
 import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.internal.partition.impl.InternalMigrationListener.MigrationParticipant;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.MigrationManager;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
 import com.hazelcast.logging.ILogger;
@@ -41,8 +42,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.logging.Level;
 
+/**
+ * Runs the replication operations of a migration on the destination.
+ * <p>
+ * When the partition is migrated in fragments, see {@link com.hazelcast.spi.FragmentedMigrationAwareService}, there is a
+ * {@link MigrationFragmentOperation} per fragment. The first fragment sets the active migration and runs the
+ * before-migration callbacks of the services, and the last fragment sets the replica versions and completes the migration.
+ */
 @SuppressFBWarnings("EI_EXPOSE_REP")
-public final class MigrationOperation extends BaseMigrationOperation {
+public class MigrationOperation extends BaseMigrationOperation {
 
     private static final OperationResponseHandler ERROR_RESPONSE_HANDLER = new OperationResponseHandler() {
         @Override
@@ -53,6 +61,8 @@ public final class MigrationOperation extends BaseMigrationOperation {
 
     private long[] replicaVersions;
     private Collection<Operation> tasks;
+    private boolean firstFragment = true;
+    private boolean lastFragment = true;
 
     private Throwable failureReason;
 
@@ -61,9 +71,29 @@ public final class MigrationOperation extends BaseMigrationOperation {
 
     public MigrationOperation(MigrationInfo migrationInfo, long[] replicaVersions, Collection<Operation> tasks,
             int partitionStateVersion) {
+        this(migrationInfo, replicaVersions, tasks, partitionStateVersion, true, true);
+    }
+
+    MigrationOperation(MigrationInfo migrationInfo, long[] replicaVersions, Collection<Operation> tasks,
+            int partitionStateVersion, boolean firstFragment, boolean lastFragment) {
         super(migrationInfo, partitionStateVersion);
         this.replicaVersions = replicaVersions;
         this.tasks = tasks;
+        this.firstFragment = firstFragment;
+        this.lastFragment = lastFragment;
+    }
+
+    final boolean isFirstFragment() {
+        return firstFragment;
+    }
+
+    final boolean isLastFragment() {
+        return lastFragment;
+    }
+
+    final void setFragment(boolean firstFragment, boolean lastFragment) {
+        this.firstFragment = firstFragment;
+        this.lastFragment = lastFragment;
     }
 
     @Override
@@ -83,7 +113,9 @@ public final class MigrationOperation extends BaseMigrationOperation {
             success = false;
             failureReason = t;
         } finally {
-            onMigrationComplete();
+            if (lastFragment || !success) {
+                onMigrationComplete();
+            }
             if (!success) {
                 onExecutionFailure(failureReason);
             }
@@ -93,7 +125,9 @@ public final class MigrationOperation extends BaseMigrationOperation {
     private void doRun() throws Exception {
         if (migrationInfo.startProcessing()) {
             try {
-                executeBeforeMigrations();
+                if (firstFragment) {
+                    executeBeforeMigrations();
+                }
 
                 for (Operation op : tasks) {
                     runMigrationOperation(op);
@@ -112,6 +146,32 @@ public final class MigrationOperation extends BaseMigrationOperation {
         }
     }
 
+    @Override
+    void setActiveMigration() {
+        if (firstFragment) {
+            super.setActiveMigration();
+            return;
+        }
+
+        // the following fragments share the active migration set by the first fragment,
+        // so the finalization of the migration can't run concurrently with any of them
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+        MigrationInfo activeMigration = migrationManager.getActiveMigration();
+        if (!migrationInfo.equals(activeMigration)) {
+            throw new IllegalStateException("Fragment of " + migrationInfo + " doesn't belong to the active migration "
+                    + activeMigration);
+        }
+        migrationInfo = activeMigration;
+    }
+
+    @Override
+    void onMigrationStart() {
+        if (firstFragment) {
+            super.onMigrationStart();
+        }
+    }
+
     private void checkMigrationInitiatorIsMaster() {
         Address masterAddress = getNodeEngine().getMasterAddress();
         if (!masterAddress.equals(migrationInfo.getMaster())) {
@@ -124,7 +184,11 @@ public final class MigrationOperation extends BaseMigrationOperation {
     }
 
     private void afterMigrate() {
-        if (success) {
+        if (success && !lastFragment) {
+            if (getLogger().isFinestEnabled()) {
+                getLogger().finest("Fragment of migration is applied. partitionId=" + migrationInfo.getPartitionId());
+            }
+        } else if (success) {
             InternalPartitionServiceImpl partitionService = getService();
             PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
             int destinationNewReplicaIndex = migrationInfo.getDestinationNewReplicaIndex();
@@ -228,6 +292,8 @@ public final class MigrationOperation extends BaseMigrationOperation {
         sb.append(", migration=").append(migrationInfo);
         sb.append(", replicaVersions=").append(Arrays.toString(replicaVersions));
         sb.append(", numberOfTasks=").append(numberOfTasks);
+        sb.append(", firstFragment=").append(firstFragment);
+        sb.append(", lastFragment=").append(lastFragment);
     }
 
     @Override
@@ -26,28 +26,46 @@ import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.Address;
 import com.hazelcast.spi.ExceptionAction;
+import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.UrgentSystemOperation;
 import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.exception.TargetNotMemberException;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.SimpleExecutionCallback;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.partition.MigrationEndpoint;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
+/**
+ * Migrates a partition from the source, which runs this operation, to the destination by sending it the replication
+ * operations of the services in a {@link MigrationOperation}.
+ * <p>
+ * When fragmented migrations are enabled, the replication operations of the {@link FragmentedMigrationAwareService}s are
+ * sent in fragments of one operation each, after the replication operations of the other services. A fragment is only
+ * built, on the partition thread, once the destination has applied the previous one, so the destination controls the
+ * pace of the migration and the source holds only a single fragment at a time.
+ */
 public final class MigrationRequestOperation extends BaseMigrationOperation {
 
     private boolean returnResponse = true;
 
+    // the state of the migration, which is only accessed by the partition thread
+    private final ReplicationFragmentIterator fragments = new ReplicationFragmentIterator();
+    private long[] replicaVersions;
+
     public MigrationRequestOperation() {
     }
 
@@ -85,8 +103,8 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
             executeBeforeMigrations();
             Collection<Operation> tasks = prepareMigrationOperations();
             InternalPartitionServiceImpl partitionService = getService();
-            long[] replicaVersions = partitionService.getPartitionReplicaVersions(migrationInfo.getPartitionId());
-            invokeMigrationOperation(destination, replicaVersions, tasks);
+            replicaVersions = partitionService.getPartitionReplicaVersions(migrationInfo.getPartitionId());
+            invokeMigrationOperation(destination, tasks, true, !fragments.hasNext());
             returnResponse = false;
         } catch (Throwable e) {
             logThrowable(e);
@@ -132,17 +150,44 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         }
     }
 
-    private void invokeMigrationOperation(Address destination, long[] replicaVersions, Collection<Operation> tasks)
-            throws IOException {
+    /**
+     * Builds the next fragment of the migration and sends it to the destination. Runs on the partition thread.
+     */
+    private void trySendNextFragment() {
+        if (!migrationInfo.startProcessing()) {
+            getLogger().warning("Migration is cancelled -> " + migrationInfo);
+            onMigrationComplete(false);
+            sendResponse(false);
+            return;
+        }
+
+        try {
+            Operation operation = fragments.next();
+            invokeMigrationOperation(migrationInfo.getDestination(), Collections.singleton(operation), false,
+                    !fragments.hasNext());
+        } catch (Throwable e) {
+            logThrowable(e);
+            onMigrationComplete(false);
+            sendResponse(false);
+        } finally {
+            migrationInfo.doneProcessing();
+        }
+    }
+
+    private void invokeMigrationOperation(Address destination, Collection<Operation> tasks, boolean firstFragment,
+                                          boolean lastFragment) throws IOException {
 
-        MigrationOperation operation = new MigrationOperation(migrationInfo, replicaVersions, tasks, partitionStateVersion);
+        MigrationOperation operation = firstFragment && lastFragment
+                ? new MigrationOperation(migrationInfo, replicaVersions, tasks, partitionStateVersion)
+                : new MigrationFragmentOperation(migrationInfo, replicaVersions, tasks, partitionStateVersion,
+                        firstFragment, lastFragment);
 
         NodeEngine nodeEngine = getNodeEngine();
         InternalPartitionServiceImpl partitionService = getService();
 
         nodeEngine.getOperationService()
                 .createInvocationBuilder(InternalPartitionService.SERVICE_NAME, operation, destination)
-                .setExecutionCallback(new MigrationCallback(migrationInfo, this))
+                .setExecutionCallback(new MigrationCallback(migrationInfo, this, lastFragment))
                 .setResultDeserialized(true)
                 .setCallTimeout(partitionService.getPartitionMigrationTimeout())
                 .setTryCount(InternalPartitionService.MIGRATION_RETRY_COUNT)
@@ -207,6 +252,8 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
 
     private Collection<Operation> prepareMigrationOperations() {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        InternalPartitionServiceImpl partitionService = getService();
+        boolean fragmentedMigrationEnabled = partitionService.isFragmentedMigrationEnabled();
 
         PartitionReplicationEvent replicationEvent = new PartitionReplicationEvent(migrationInfo.getPartitionId(),
                 migrationInfo.getDestinationNewReplicaIndex());
@@ -214,6 +261,12 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         Collection<Operation> tasks = new LinkedList<Operation>();
         for (ServiceInfo serviceInfo : nodeEngine.getServiceInfos(MigrationAwareService.class)) {
             MigrationAwareService service = (MigrationAwareService) serviceInfo.getService();
+            if (fragmentedMigrationEnabled && service instanceof FragmentedMigrationAwareService) {
+                Iterator<Operation> operations = ((FragmentedMigrationAwareService) service)
+                        .prepareReplicationOperations(replicationEvent, partitionService.getMigrationFragmentSize());
+                fragments.add(serviceInfo.getName(), operations);
+                continue;
+            }
 
             Operation op = service.prepareReplicationOperation(replicationEvent);
             if (op != null) {
@@ -233,15 +286,44 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
 
         final MigrationInfo migrationInfo;
         final MigrationRequestOperation op;
+        final boolean lastFragment;
 
-        private MigrationCallback(MigrationInfo migrationInfo, MigrationRequestOperation op) {
+        private MigrationCallback(MigrationInfo migrationInfo, MigrationRequestOperation op, boolean lastFragment) {
             this.migrationInfo = migrationInfo;
             this.op = op;
+            this.lastFragment = lastFragment;
         }
 
         @Override
         public void notify(Object result) {
-            op.handleMigrationResultFromTarget(result);
+            if (!lastFragment && Boolean.TRUE.equals(result)) {
+                NodeEngineImpl nodeEngine = (NodeEngineImpl) op.getNodeEngine();
+                nodeEngine.getOperationService().execute(new SendNextFragmentTask(op));
+            } else {
+                op.handleMigrationResultFromTarget(result);
+            }
+        }
+    }
+
+    /**
+     * Sends the next fragment of a migration on the partition thread, once the destination has applied the previous one.
+     */
+    private static final class SendNextFragmentTask implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        final MigrationRequestOperation op;
+
+        private SendNextFragmentTask(MigrationRequestOperation op) {
+            this.op = op;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return op.getPartitionId();
+        }
+
+        @Override
+        public void run() {
+            op.trySendNextFragment();
         }
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.InternalPartition;
+import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.partition.MigrationCycleOperation;
+import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by a replica to the partition owner after it has applied a fragment of a replica synchronization, see
+ * {@link ReplicaSyncFragments}. The partition owner builds and sends the next fragment, or cancels the synchronization if
+ * the replica doesn't want to continue it because its replica index has changed or the synchronization was superseded.
+ * If the partition owner can't continue the synchronization, it sends a {@link ReplicaSyncRetryResponse} to the replica.
+ * An ack whose sync id doesn't match the ongoing synchronization is ignored.
+ */
+public final class ReplicaSyncFragmentAck extends AbstractPartitionOperation
+        implements PartitionAwareOperation, MigrationCycleOperation {
+
+    private long syncId;
+    private boolean continueSync;
+
+    public ReplicaSyncFragmentAck() {
+    }
+
+    public ReplicaSyncFragmentAck(long syncId, boolean continueSync) {
+        this.syncId = syncId;
+        this.continueSync = continueSync;
+    }
+
+    @Override
+    public void run() throws Exception {
+        InternalPartitionServiceImpl partitionService = getService();
+        PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
+        int partitionId = getPartitionId();
+        int replicaIndex = getReplicaIndex();
+
+        ReplicaSyncFragments fragments = replicaManager.getReplicaSyncFragments(partitionId, replicaIndex);
+        if (fragments == null || !fragments.getTarget().equals(getCallerAddress()) || fragments.getSyncId() != syncId) {
+            ILogger logger = getLogger();
+            if (logger.isFinestEnabled()) {
+                logger.finest("No ongoing replica sync for ack from " + getCallerAddress() + ", partitionId=" + partitionId
+                        + ", replicaIndex=" + replicaIndex + ", syncId=" + syncId);
+            }
+            return;
+        }
+
+        if (!continueSync) {
+            replicaManager.cancelReplicaSyncFragments(fragments);
+            return;
+        }
+
+        if (!canContinue(partitionService)) {
+            replicaManager.cancelReplicaSyncFragments(fragments);
+            sendRetryResponse();
+            return;
+        }
+
+        try {
+            List<Operation> tasks = new ArrayList<Operation>(1);
+            tasks.add(fragments.next());
+            boolean lastFragment = !fragments.hasNext();
+            if (lastFragment) {
+                if (!replicaManager.cancelReplicaSyncFragments(fragments)) {
+                    return;
+                }
+            } else {
+                replicaManager.postponeReplicaSyncFragmentsTimeout(fragments);
+            }
+            long[] replicaVersions = partitionService.getPartitionReplicaVersions(partitionId);
+            ReplicaSyncResponse syncResponse = lastFragment
+                    ? new ReplicaSyncResponse(tasks, replicaVersions)
+                    : new ReplicaSyncFragmentResponse(tasks, replicaVersions, syncId);
+            syncResponse.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+            getNodeEngine().getOperationService().send(syncResponse, getCallerAddress());
+        } catch (Exception e) {
+            replicaManager.cancelReplicaSyncFragments(fragments);
+            sendRetryResponse();
+            throw e;
+        }
+    }
+
+    /** Checks if this node is still the partition owner and replica syncs are allowed */
+    private boolean canContinue(InternalPartitionServiceImpl partitionService) {
+        NodeEngine nodeEngine = getNodeEngine();
+        InternalPartition partition = partitionService.getPartitionStateManager().getPartitionImpl(getPartitionId());
+        Address thisAddress = nodeEngine.getThisAddress();
+        if (!partitionService.isReplicaSyncAllowed() || !thisAddress.equals(partition.getOwnerOrNull())) {
+            ILogger logger = getLogger();
+            if (logger.isFinestEnabled()) {
+                logger.finest("Cannot continue replica sync -> " + toString());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void sendRetryResponse() {
+        ReplicaSyncRetryResponse response = new ReplicaSyncRetryResponse();
+        response.setPartitionId(getPartitionId()).setReplicaIndex(getReplicaIndex());
+        getNodeEngine().getOperationService().send(response, getCallerAddress());
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public String getServiceName() {
+        return InternalPartitionService.SERVICE_NAME;
+    }
+
+    @Override
+    public void logError(Throwable e) {
+        ReplicaErrorLogger.log(e, getLogger());
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeLong(syncId);
+        out.writeBoolean(continueSync);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        syncId = in.readLong();
+        continueSync = in.readBoolean();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", syncId=").append(syncId);
+        sb.append(", continueSync=").append(continueSync);
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.REPLICA_SYNC_FRAGMENT_ACK;
+    }
+}
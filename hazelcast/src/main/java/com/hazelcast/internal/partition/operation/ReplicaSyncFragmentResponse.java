@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.Operation;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link ReplicaSyncResponse} carrying a fragment of a replica synchronization which isn't the last one. The replica
+ * acknowledges it with a {@link ReplicaSyncFragmentAck} instead of finalizing the synchronization.
+ * <p>
+ * It has its own type id, so the sync id doesn't change the wire format of a {@link ReplicaSyncResponse}. It is only sent
+ * in reply to a {@link FragmentedReplicaSyncRequest}.
+ */
+public final class ReplicaSyncFragmentResponse extends ReplicaSyncResponse {
+
+    public ReplicaSyncFragmentResponse() {
+    }
+
+    public ReplicaSyncFragmentResponse(List<Operation> data, long[] replicaVersions, long syncId) {
+        super(data, replicaVersions, syncId, false);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(getSyncId());
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        setFragment(in.readLong(), false);
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.REPLICA_SYNC_FRAGMENT_RESPONSE;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.Operation;
+
+import java.util.Iterator;
+
+/**
+ * The state of a replica synchronization which is sent to a backup replica in fragments. It is kept by the partition
+ * owner between the fragments and holds the replication operations of the {@link FragmentedMigrationAwareService}s which
+ * haven't been sent yet. The next fragment is only built, on the partition thread, once the backup replica has applied
+ * the previous one and acknowledged it with a {@link ReplicaSyncFragmentAck} carrying the same sync id.
+ * <p>
+ * The synchronization holds a replica sync permit of the partition owner until it is completed, cancelled or timed out.
+ */
+public final class ReplicaSyncFragments {
+
+    private final int partitionId;
+    private final int replicaIndex;
+    private final Address target;
+    private final long syncId;
+    private final ReplicationFragmentIterator fragments = new ReplicationFragmentIterator();
+
+    ReplicaSyncFragments(int partitionId, int replicaIndex, Address target, long syncId) {
+        this.partitionId = partitionId;
+        this.replicaIndex = replicaIndex;
+        this.target = target;
+        this.syncId = syncId;
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    public int getReplicaIndex() {
+        return replicaIndex;
+    }
+
+    public Address getTarget() {
+        return target;
+    }
+
+    public long getSyncId() {
+        return syncId;
+    }
+
+    void add(String serviceName, Iterator<Operation> operations) {
+        fragments.add(serviceName, operations);
+    }
+
+    boolean hasNext() {
+        return fragments.hasNext();
+    }
+
+    Operation next() {
+        return fragments.next();
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicaSyncFragments{partitionId=" + partitionId + ", replicaIndex=" + replicaIndex + ", target=" + target
+                + ", syncId=" + syncId + '}';
+    }
+}
@@ -23,11 +23,13 @@ import com.hazelcast.internal.partition.ReplicaErrorLogger;
 import com.hazelcast.internal.partition.impl.InternalPartitionImpl;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
 import com.hazelcast.internal.partition.impl.PartitionStateManager;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
@@ -51,11 +53,24 @@ import java.util.List;
  * <li>the operation was received by a node which is not the partition owner</li>
  * <li>the maximum number of parallel synchronizations has already been reached</li>
  * </ul>
- * An empty response can be sent if the current replica version is 0.
+ * An empty response can be sent if the current replica version is 0 or if the replica sent its replica versions and
+ * its version is the same as the one of the partition owner, so the data of an up-to-date replica isn't sent again.
+ * <p>
+ * When fragmented migrations are enabled, the replication operations of the {@link FragmentedMigrationAwareService}s are
+ * sent in several responses, see {@link ReplicaSyncFragments}. The replica acknowledges every response but the last one
+ * with a {@link ReplicaSyncFragmentAck}, which makes the partition owner build and send the next fragment. So the pace of
+ * a synchronization is set by how fast the replica receives and applies the fragments, while the partition keeps serving
+ * operations in between.
+ * <p>
+ * The replica versions and the sync id the fragments are acknowledged with are only sent by a
+ * {@link FragmentedReplicaSyncRequest}, so this request keeps the wire format of older members.
  */
-public final class ReplicaSyncRequest extends AbstractPartitionOperation
+public class ReplicaSyncRequest extends AbstractPartitionOperation
         implements PartitionAwareOperation, MigrationCycleOperation {
 
+    private long syncId;
+    private long[] replicaVersions;
+
     public ReplicaSyncRequest() {
     }
 
@@ -64,6 +79,29 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
         setReplicaIndex(replicaIndex);
     }
 
+    final long getSyncId() {
+        return syncId;
+    }
+
+    final void setSyncId(long syncId) {
+        this.syncId = syncId;
+    }
+
+    final long[] getReplicaVersions() {
+        return replicaVersions;
+    }
+
+    final void setReplicaVersionsInternal(long[] replicaVersions) {
+        this.replicaVersions = replicaVersions;
+    }
+
+    /**
+     * @return {@code true} if the replica can receive the response in fragments
+     */
+    boolean isFragmentedResponseSupported() {
+        return false;
+    }
+
     @Override
     public void beforeRun() throws Exception {
         int syncReplicaIndex = getReplicaIndex();
@@ -89,20 +127,42 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
             return;
         }
 
+        PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
+        ReplicaSyncFragments previousFragments = replicaManager.getReplicaSyncFragments(partitionId, replicaIndex);
+        if (previousFragments != null) {
+            // the replica has given up on the previous synchronization
+            replicaManager.cancelReplicaSyncFragments(previousFragments);
+        }
+
         if (!preCheckReplicaSync(nodeEngine, partitionId, replicaIndex)) {
             return;
         }
 
+        boolean permitTransferred = false;
         try {
-            List<Operation> tasks = createReplicationOperations();
+            ReplicaSyncFragments fragments = partitionService.isFragmentedMigrationEnabled() && isFragmentedResponseSupported()
+                    ? new ReplicaSyncFragments(partitionId, replicaIndex, getCallerAddress(), syncId) : null;
+            List<Operation> tasks = createReplicationOperations(fragments);
+            boolean lastFragment = true;
+            if (fragments != null && fragments.hasNext()) {
+                tasks.add(fragments.next());
+                lastFragment = !fragments.hasNext();
+            }
+
             if (tasks.isEmpty()) {
                 logNoReplicaDataFound(partitionId, replicaIndex);
                 sendEmptyResponse();
+            } else if (lastFragment) {
+                sendResponse(tasks, true);
             } else {
-                sendResponse(tasks);
+                replicaManager.registerReplicaSyncFragments(fragments);
+                permitTransferred = true;
+                sendResponse(tasks, false);
             }
         } finally {
-            partitionService.getReplicaManager().releaseReplicaSyncPermit();
+            if (!permitTransferred) {
+                replicaManager.releaseReplicaSyncPermit();
+            }
         }
     }
 
@@ -134,6 +194,15 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
             return false;
         }
 
+        if (this.replicaVersions != null && this.replicaVersions[replicaIndex - 1] == currentVersion) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Replica is up-to-date, sending empty response for partitionId=" + partitionId
+                        + ", replicaIndex=" + replicaIndex + ", replicaVersions=" + Arrays.toString(this.replicaVersions));
+            }
+            sendEmptyResponse();
+            return false;
+        }
+
         if (!partitionService.getReplicaManager().tryToAcquireReplicaSyncPermit()) {
             if (logger.isFinestEnabled()) {
                 logger.finest(
@@ -158,13 +227,24 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
         operationService.send(response, target);
     }
 
-    private List<Operation> createReplicationOperations() {
+    /**
+     * Creates the replication operations of the services. The operations of the {@link FragmentedMigrationAwareService}s
+     * are added to the {@code fragments} instead, if they are given.
+     */
+    private List<Operation> createReplicationOperations(ReplicaSyncFragments fragments) {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) nodeEngine.getPartitionService();
         Collection<ServiceInfo> services = nodeEngine.getServiceInfos(MigrationAwareService.class);
         PartitionReplicationEvent event = new PartitionReplicationEvent(getPartitionId(), getReplicaIndex());
         List<Operation> tasks = new LinkedList<Operation>();
         for (ServiceInfo serviceInfo : services) {
             MigrationAwareService service = (MigrationAwareService) serviceInfo.getService();
+            if (fragments != null && service instanceof FragmentedMigrationAwareService) {
+                fragments.add(serviceInfo.getName(), ((FragmentedMigrationAwareService) service)
+                        .prepareReplicationOperations(event, partitionService.getMigrationFragmentSize()));
+                continue;
+            }
+
             Operation op = service.prepareReplicationOperation(event);
             if (op != null) {
                 op.setServiceName(serviceInfo.getName());
@@ -176,14 +256,14 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
 
     /** Send a noop synchronization response to the caller replica */
     private void sendEmptyResponse() throws IOException {
-        sendResponse(null);
+        sendResponse(null, true);
     }
 
     /** Send a synchronization response to the caller replica containing the replication operations to be executed */
-    private void sendResponse(List<Operation> data) throws IOException {
+    private void sendResponse(List<Operation> data, boolean lastFragment) throws IOException {
         NodeEngine nodeEngine = getNodeEngine();
 
-        ReplicaSyncResponse syncResponse = createResponse(data);
+        ReplicaSyncResponse syncResponse = createResponse(data, lastFragment);
         Address target = getCallerAddress();
         ILogger logger = getLogger();
         if (logger.isFinestEnabled()) {
@@ -194,13 +274,15 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
         operationService.send(syncResponse, target);
     }
 
-    private ReplicaSyncResponse createResponse(List<Operation> data) throws IOException {
+    private ReplicaSyncResponse createResponse(List<Operation> data, boolean lastFragment) throws IOException {
         int partitionId = getPartitionId();
         NodeEngine nodeEngine = getNodeEngine();
         InternalPartitionService partitionService = (InternalPartitionService) nodeEngine.getPartitionService();
         long[] replicaVersions = partitionService.getPartitionReplicaVersions(partitionId);
 
-        ReplicaSyncResponse syncResponse = new ReplicaSyncResponse(data, replicaVersions);
+        ReplicaSyncResponse syncResponse = lastFragment
+                ? new ReplicaSyncResponse(data, replicaVersions)
+                : new ReplicaSyncFragmentResponse(data, replicaVersions, syncId);
         syncResponse.setPartitionId(partitionId).setReplicaIndex(getReplicaIndex());
         return syncResponse;
     }
@@ -242,6 +324,13 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
     protected void readInternal(ObjectDataInput in) throws IOException {
     }
 
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", syncId=").append(syncId);
+    }
+
     @Override
     public int getId() {
         return PartitionDataSerializerHook.REPLICA_SYNC_REQUEST;
@@ -54,6 +54,9 @@ import static com.hazelcast.spi.impl.OperationResponseHandlerFactory.createError
  * <li>if the node is still a replica it will reschedule the replica synchronization request</li>
  * <li>if the node is not a replica anymore it will clear the replica versions for the partition</li>
  * </ul>
+ * A replica synchronization which is sent in fragments is only finalized by its last response. The other responses are
+ * {@link ReplicaSyncFragmentResponse}s, which are acknowledged with a {@link ReplicaSyncFragmentAck}, telling the partition
+ * owner whether to send the next fragment.
  */
 @SuppressFBWarnings("EI_EXPOSE_REP")
 public class ReplicaSyncResponse extends AbstractPartitionOperation
@@ -61,6 +64,8 @@ public class ReplicaSyncResponse extends AbstractPartitionOperation
 
     private List<Operation> tasks;
     private long[] replicaVersions;
+    private long syncId;
+    private boolean lastFragment = true;
 
     public ReplicaSyncResponse() {
     }
@@ -70,6 +75,21 @@ public class ReplicaSyncResponse extends AbstractPartitionOperation
         this.replicaVersions = replicaVersions;
     }
 
+    ReplicaSyncResponse(List<Operation> data, long[] replicaVersions, long syncId, boolean lastFragment) {
+        this(data, replicaVersions);
+        this.syncId = syncId;
+        this.lastFragment = lastFragment;
+    }
+
+    final long getSyncId() {
+        return syncId;
+    }
+
+    final void setFragment(long syncId, boolean lastFragment) {
+        this.syncId = syncId;
+        this.lastFragment = lastFragment;
+    }
+
     @Override
     public void run() throws Exception {
         NodeEngine nodeEngine = getNodeEngine();
@@ -91,8 +111,32 @@ public class ReplicaSyncResponse extends AbstractPartitionOperation
                 tasks.clear();
             }
         } finally {
+            if (lastFragment) {
+                postProcessReplicaSync(partitionService, currentReplicaIndex);
+            } else {
+                postProcessReplicaSyncFragment(partitionService, currentReplicaIndex);
+            }
+        }
+    }
+
+    /**
+     * Acknowledges a fragment of the replica sync, cancelling the sync if the replica index has changed or if the fragment
+     * belongs to a superseded sync request
+     */
+    private void postProcessReplicaSyncFragment(InternalPartitionServiceImpl partitionService, int currentReplicaIndex) {
+        int partitionId = getPartitionId();
+        int replicaIndex = getReplicaIndex();
+
+        boolean continueSync = false;
+        if (replicaIndex == currentReplicaIndex) {
+            continueSync = partitionService.getReplicaManager().postponeReplicaSyncTimeout(partitionId, replicaIndex, syncId);
+        } else {
             postProcessReplicaSync(partitionService, currentReplicaIndex);
         }
+
+        ReplicaSyncFragmentAck ack = new ReplicaSyncFragmentAck(syncId, continueSync);
+        ack.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+        getNodeEngine().getOperationService().send(ack, getCallerAddress());
     }
 
     private void postProcessReplicaSync(InternalPartitionServiceImpl partitionService, int currentReplicaIndex) {
@@ -261,6 +305,8 @@ public class ReplicaSyncResponse extends AbstractPartitionOperation
         super.toString(sb);
 
         sb.append(", replicaVersions=").append(Arrays.toString(replicaVersions));
+        sb.append(", syncId=").append(syncId);
+        sb.append(", lastFragment=").append(lastFragment);
     }
 
     @Override
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.Operation;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the replication operations of the {@link FragmentedMigrationAwareService}s of a partition, service
+ * by service. Every operation is a fragment of a migration or a replica synchronization and gets the name of its
+ * service set.
+ * <p>
+ * The replication operations are built lazily by the iterators of the services, so this class must only be used by
+ * the partition thread.
+ */
+final class ReplicationFragmentIterator implements Iterator<Operation> {
+
+    private final LinkedList<ServiceFragments> fragments = new LinkedList<ServiceFragments>();
+
+    void add(String serviceName, Iterator<Operation> operations) {
+        fragments.add(new ServiceFragments(serviceName, operations));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!fragments.isEmpty()) {
+            if (fragments.getFirst().operations.hasNext()) {
+                return true;
+            }
+            fragments.removeFirst();
+        }
+        return false;
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ServiceFragments serviceFragments = fragments.getFirst();
+        Operation operation = serviceFragments.operations.next();
+        operation.setServiceName(serviceFragments.serviceName);
+        return operation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The replication operations of a {@link FragmentedMigrationAwareService} which haven't been sent yet.
+     */
+    private static final class ServiceFragments {
+
+        final String serviceName;
+        final Iterator<Operation> operations;
+
+        ServiceFragments(String serviceName, Iterator<Operation> operations) {
+            this.serviceName = serviceName;
+            this.operations = operations;
+        }
+    }
+}
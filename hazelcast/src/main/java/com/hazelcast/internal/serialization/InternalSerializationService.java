@@ -17,11 +17,15 @@
 package com.hazelcast.internal.serialization;
 
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.impl.CompactSchema;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.Disposable;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.PacketPayloadPool;
+import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.spi.serialization.SerializationService;
@@ -41,6 +45,12 @@ public interface InternalSerializationService extends SerializationService, Disp
 
     byte[] toBytes(int padding, Object obj, PartitioningStrategy strategy);
 
+    /**
+     * Serializes the object like {@link #toBytes(Object)}, but into a byte array allocated from the given pool. The array
+     * is meant to become the payload of a {@link com.hazelcast.nio.Packet} which returns it to the pool on release.
+     */
+    byte[] toPooledBytes(Object obj, PacketPayloadPool payloadPool);
+
     void writeObject(ObjectDataOutput out, Object obj);
 
     <T> T readObject(ObjectDataInput in);
@@ -57,10 +67,60 @@ public interface InternalSerializationService extends SerializationService, Disp
 
     BufferObjectDataOutput createObjectDataOutput();
 
+    /**
+     * Creates an output whose buffer is taken from and returned to the given pool when it grows and when it is
+     * cleared, so buffers grown for large values are reused. The output must be confined to the thread owning the
+     * pool.
+     *
+     * @param arrayPool the pool of the arrays backing the buffer of the output
+     * @return the output
+     */
+    BufferObjectDataOutput createObjectDataOutput(ByteArrayPool arrayPool);
+
     PortableReader createPortableReader(Data data) throws IOException;
 
     PortableContext getPortableContext();
 
+    /**
+     * Looks up the description of a serialized IdentifiedDataSerializable provided by its factory.
+     *
+     * @param data the serialized object
+     * @return the description or {@code null} if the data is not an IdentifiedDataSerializable described by its factory
+     * @see com.hazelcast.nio.serialization.DescribedDataSerializableFactory
+     */
+    ClassDefinition lookupDataSerializableClassDefinition(Data data);
+
+    /**
+     * Reads a single field of a serialized IdentifiedDataSerializable described by its factory,
+     * without de-serializing the object.
+     *
+     * @param data      the serialized object
+     * @param fieldName the name of a described field
+     * @return the value of the field
+     * @throws IllegalArgumentException if the data is not an IdentifiedDataSerializable described by its factory
+     * @see com.hazelcast.internal.serialization.impl.DataSerializableFieldReader#isReadable
+     */
+    Object readDataSerializableField(Data data, String fieldName) throws IOException;
+
+    /**
+     * Looks up the schema of a serialized {@link com.hazelcast.nio.serialization.Compact} object.
+     *
+     * @param data the serialized object
+     * @return the schema or {@code null} if the data is not a Compact object of a known schema
+     */
+    CompactSchema lookupCompactSchema(Data data);
+
+    /**
+     * Reads a single field of a serialized {@link com.hazelcast.nio.serialization.Compact} object without
+     * de-serializing the object.
+     *
+     * @param data      the serialized object
+     * @param fieldName the name of a field of the schema of the object
+     * @return the value of the field
+     * @throws IllegalArgumentException if the data is not a Compact object of a known schema
+     */
+    Object readCompactField(Data data, String fieldName) throws IOException;
+
     ClassLoader getClassLoader();
 
     ByteOrder getByteOrder();
@@ -63,5 +63,7 @@ public interface SerializationServiceBuilder {
 
     SerializationServiceBuilder setInitialOutputBufferSize(int initialOutputBufferSize);
 
+    SerializationServiceBuilder setBufferPoolMaxRetainedBytes(int bufferPoolMaxRetainedBytes);
+
     <T extends SerializationService> T build();
 }
@@ -19,11 +19,14 @@ package com.hazelcast.internal.serialization.impl;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.internal.usercodedeployment.impl.ClassLocator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -31,6 +34,8 @@ import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.PacketPayloadPool;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
@@ -57,7 +62,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.indexF
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.isNullData;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
-public abstract class AbstractSerializationService implements InternalSerializationService {
+public abstract class AbstractSerializationService implements InternalSerializationService, MetricsProvider {
 
     protected final ManagedContext managedContext;
     protected final InputOutputFactory inputOutputFactory;
@@ -66,6 +71,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
 
     protected SerializerAdapter dataSerializerAdapter;
     protected SerializerAdapter portableSerializerAdapter;
+    protected SerializerAdapter compactSerializerAdapter;
     protected final SerializerAdapter nullSerializerAdapter;
     protected SerializerAdapter javaSerializerAdapter;
     protected SerializerAdapter javaExternalizableAdapter;
@@ -76,6 +82,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
     private final ConcurrentMap<Class, SerializerAdapter> typeMap = new ConcurrentHashMap<Class, SerializerAdapter>();
     private final ConcurrentMap<Integer, SerializerAdapter> idMap = new ConcurrentHashMap<Integer, SerializerAdapter>();
     private final AtomicReference<SerializerAdapter> global = new AtomicReference<SerializerAdapter>();
+    private final SerializerAdapterCache serializerCache = new SerializerAdapterCache();
 
     //Global serializer may override Java Serialization or not
     private boolean overrideJavaSerialization;
@@ -137,6 +144,15 @@ public abstract class AbstractSerializationService implements InternalSerializat
 
     @Override
     public byte[] toBytes(int padding, Object obj, PartitioningStrategy strategy) {
+        return toBytes(padding, obj, strategy, null);
+    }
+
+    @Override
+    public byte[] toPooledBytes(Object obj, PacketPayloadPool payloadPool) {
+        return toBytes(0, obj, globalPartitioningStrategy, payloadPool);
+    }
+
+    private byte[] toBytes(int padding, Object obj, PartitioningStrategy strategy, PacketPayloadPool payloadPool) {
         checkNotNull(obj);
 
         BufferPool pool = bufferPoolThreadLocal.get();
@@ -149,7 +165,14 @@ public abstract class AbstractSerializationService implements InternalSerializat
             out.writeInt(serializer.getTypeId(), ByteOrder.BIG_ENDIAN);
 
             serializer.write(out, obj);
-            return out.toByteArray(padding);
+            if (payloadPool == null || !(out instanceof ByteArrayObjectDataOutput)) {
+                return out.toByteArray(padding);
+            }
+
+            int size = out.position();
+            byte[] bytes = payloadPool.allocate(size);
+            System.arraycopy(((ByteArrayObjectDataOutput) out).buffer, 0, bytes, 0, size);
+            return bytes;
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
         } finally {
@@ -318,6 +341,15 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return inputOutputFactory.createOutput(outputBufferSize, this);
     }
 
+    @Override
+    public BufferObjectDataOutput createObjectDataOutput(ByteArrayPool arrayPool) {
+        BufferObjectDataOutput out = inputOutputFactory.createOutput(outputBufferSize, this);
+        if (out instanceof ByteArrayObjectDataOutput) {
+            ((ByteArrayObjectDataOutput) out).setArrayPool(arrayPool);
+        }
+        return out;
+    }
+
     public final ClassLoader getClassLoader() {
         return classLoader;
     }
@@ -336,6 +368,12 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return version;
     }
 
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        bufferPoolThreadLocal.provideMetrics(registry);
+    }
+
+    @Override
     public void dispose() {
         active = false;
         for (SerializerAdapter serializer : typeMap.values()) {
@@ -348,6 +386,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
         idMap.clear();
         global.set(null);
         constantTypesMap.clear();
+        serializerCache.clear();
         bufferPoolThreadLocal.clear();
     }
     //endregion Serialization Service
@@ -360,7 +399,11 @@ public abstract class AbstractSerializationService implements InternalSerializat
             throw new IllegalArgumentException(
                     "Type id must be positive! Current: " + serializer.getTypeId() + ", Serializer: " + serializer);
         }
-        safeRegister(type, createSerializerAdapter(serializer, this));
+        SerializerAdapter adapter = createSerializerAdapter(serializer, this);
+        safeRegister(type, adapter);
+        // subtypes of the type may have been resolved to another serializer
+        serializerCache.clear();
+        serializerCache.put(type, adapter);
     }
 
     public final void registerGlobal(final Serializer serializer) {
@@ -373,6 +416,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
             throw new IllegalStateException("Global serializer is already registered!");
         }
         this.overrideJavaSerialization = overrideJavaSerialization;
+        serializerCache.clear();
         SerializerAdapter current = idMap.putIfAbsent(serializer.getTypeId(), adapter);
         if (current != null && current.getImpl().getClass() != adapter.getImpl().getClass()) {
             global.compareAndSet(adapter, null);
@@ -423,6 +467,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
     protected final void registerConstant(Class type, SerializerAdapter serializer) {
         constantTypesMap.put(type, serializer);
         constantTypeIds[indexForDefaultType(serializer.getTypeId())] = serializer;
+        if (type != null && !type.isInterface()) {
+            serializerCache.put(type, serializer);
+        }
     }
 
     private SerializerAdapter registerFromSuperType(final Class type, final Class superType) {
@@ -460,7 +507,16 @@ public abstract class AbstractSerializationService implements InternalSerializat
             return nullSerializerAdapter;
         }
         Class type = object.getClass();
+        SerializerAdapter serializer = serializerCache.get(type);
+        if (serializer != null) {
+            return serializer;
+        }
+        serializer = lookupSerializer(type);
+        serializerCache.put(type, serializer);
+        return serializer;
+    }
 
+    private SerializerAdapter lookupSerializer(Class type) {
         //2-Default serializers, Dataserializable, Portable, primitives, arrays, String and some helper Java types(BigInteger etc)
         SerializerAdapter serializer = lookupDefaultSerializer(type);
 
@@ -495,6 +551,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
         if (Portable.class.isAssignableFrom(type)) {
             return portableSerializerAdapter;
         }
+        if (Compact.class.isAssignableFrom(type)) {
+            return compactSerializerAdapter;
+        }
         return constantTypesMap.get(type);
     }
 
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.serialization.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
@@ -42,6 +43,9 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
 
     private final boolean isBigEndian;
 
+    // grown buffers are taken from and returned to this pool, if set
+    private ByteArrayPool arrayPool;
+
     ByteArrayObjectDataOutput(int size, InternalSerializationService service, ByteOrder byteOrder) {
         this.initialSize = size;
         this.buffer = new byte[size];
@@ -356,11 +360,15 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         if (available() < len) {
             if (buffer != null) {
                 int newCap = Math.max(buffer.length << 1, buffer.length + len);
-                byte[] newBuffer = new byte[newCap];
+                byte[] newBuffer = arrayPool == null ? new byte[newCap] : arrayPool.take(newCap);
                 System.arraycopy(buffer, 0, newBuffer, 0, pos);
+                if (arrayPool != null) {
+                    arrayPool.release(buffer);
+                }
                 buffer = newBuffer;
             } else {
-                buffer = new byte[len > initialSize / 2 ? len * 2 : initialSize];
+                int newCap = len > initialSize / 2 ? len * 2 : initialSize;
+                buffer = arrayPool == null ? new byte[newCap] : arrayPool.take(newCap);
             }
         }
     }
@@ -417,16 +425,33 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
     public void clear() {
         pos = 0;
         if (buffer != null && buffer.length > initialSize * 8) {
-            buffer = new byte[initialSize * 8];
+            if (arrayPool == null) {
+                buffer = new byte[initialSize * 8];
+            } else {
+                // a larger pooled array would keep the output oversized and hold bytes outside the pool's limit
+                arrayPool.release(buffer);
+                buffer = arrayPool.takeExactSizeClass(initialSize);
+            }
         }
     }
 
     @Override
     public void close() {
+        if (arrayPool != null && buffer != null) {
+            arrayPool.release(buffer);
+        }
         pos = 0;
         buffer = null;
     }
 
+    /**
+     * Makes the output take the arrays of its buffer from the given pool when it grows, and return the arrays it
+     * doesn't need anymore. The output must be confined to the thread owning the pool.
+     */
+    void setArrayPool(ByteArrayPool arrayPool) {
+        this.arrayPool = arrayPool;
+    }
+
     @Override
     public ByteOrder getByteOrder() {
         return isBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.util.HashUtil;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * The schema of a {@link com.hazelcast.nio.serialization.Compact} class: its type name and the names and types of its
+ * fields. The schema also defines the layout of the serialized form:
+ * <pre>
+ * | schema id (long) | length (int) | fixed-size fields | offsets of the variable-size fields (int) | variable-size fields |
+ * </pre>
+ * The fixed-size fields are ordered by descending size, so every field is aligned to its size relative to the start of
+ * the fixed-size section. The offsets of the variable-size fields, strings and arrays, are relative to the same start
+ * and are {@link #NULL_OFFSET} for {@code null} values. So the position of every field can be computed from the schema
+ * and a single field can be read without reading the preceding ones.
+ * <p>
+ * The schema id is a 64-bit fingerprint of the type name and of the fields, so equal schemas have equal ids on all
+ * members and clients.
+ */
+public final class CompactSchema {
+
+    /**
+     * Offset of a variable-size field whose value is {@code null}.
+     */
+    static final int NULL_OFFSET = -1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String typeName;
+    private final String[] fieldNames;
+    private final FieldType[] fieldTypes;
+    /** offset in the fixed-size section for fixed-size fields, index in the offset table for variable-size fields */
+    private final int[] positions;
+    private final Map<String, Integer> fieldIndexes;
+    private final int fixedSize;
+    private final int variableFieldCount;
+    private final long id;
+
+    CompactSchema(String typeName, String[] fieldNames, FieldType[] fieldTypes) {
+        this.typeName = typeName;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+        this.positions = new int[fieldNames.length];
+        this.fieldIndexes = new HashMap<String, Integer>(fieldNames.length * 2);
+
+        int fixedSize = 0;
+        for (int size = LONG_SIZE_IN_BYTES; size > 0; size /= 2) {
+            for (int i = 0; i < fieldTypes.length; i++) {
+                if (fieldTypes[i].hasDefiniteSize() && fieldTypes[i].getTypeSize() == size) {
+                    positions[i] = fixedSize;
+                    fixedSize += size;
+                }
+            }
+        }
+        int variableFieldCount = 0;
+        for (int i = 0; i < fieldTypes.length; i++) {
+            FieldType type = fieldTypes[i];
+            if (type == FieldType.PORTABLE || type == FieldType.PORTABLE_ARRAY) {
+                throw new HazelcastSerializationException("Compact serialization doesn't support field type " + type
+                        + " of field '" + fieldNames[i] + "' in " + typeName);
+            }
+            if (!type.hasDefiniteSize()) {
+                positions[i] = variableFieldCount++;
+            }
+            fieldIndexes.put(fieldNames[i], i);
+        }
+        this.fixedSize = fixedSize;
+        this.variableFieldCount = variableFieldCount;
+        this.id = fingerprint();
+    }
+
+    private long fingerprint() {
+        StringBuilder sb = new StringBuilder(typeName);
+        for (int i = 0; i < fieldNames.length; i++) {
+            sb.append(',').append(fieldNames[i]).append(':').append(fieldTypes[i].getId());
+        }
+        byte[] bytes = sb.toString().getBytes(UTF_8);
+        return HashUtil.MurmurHash3_x64_64(bytes, 0, bytes.length);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    public boolean hasField(String fieldName) {
+        return fieldIndexes.containsKey(fieldName);
+    }
+
+    /**
+     * @param fieldName name of the field
+     * @return the type of the field
+     * @throws HazelcastSerializationException if the schema doesn't have the field
+     */
+    public FieldType getFieldType(String fieldName) {
+        return fieldTypes[indexOf(fieldName)];
+    }
+
+    int indexOf(String fieldName) {
+        Integer index = fieldIndexes.get(fieldName);
+        if (index == null) {
+            throw new HazelcastSerializationException("Unknown field name: '" + fieldName + "' for " + typeName);
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the field, which must be of the given type
+     * @throws HazelcastSerializationException if the schema doesn't have the field or it has a different type
+     */
+    int indexOf(String fieldName, FieldType fieldType) {
+        int index = indexOf(fieldName);
+        if (fieldTypes[index] != fieldType) {
+            throw new HazelcastSerializationException("Wrong field type for '" + fieldName + "' of " + typeName
+                    + ", expected: " + fieldTypes[index] + ", actual: " + fieldType);
+        }
+        return index;
+    }
+
+    FieldType getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    /**
+     * @return the offset of a fixed-size field from the start of the fixed-size section
+     */
+    int getFixedOffset(int index) {
+        return positions[index];
+    }
+
+    /**
+     * @return the offset of the offset of a variable-size field from the start of the fixed-size section
+     */
+    int getOffsetTableOffset(int index) {
+        return fixedSize + positions[index] * INT_SIZE_IN_BYTES;
+    }
+
+    int getFixedSize() {
+        return fixedSize;
+    }
+
+    int getVariableFieldCount() {
+        return variableFieldCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CompactSchema that = (CompactSchema) o;
+        return id == that.id && typeName.equals(that.typeName) && Arrays.equals(fieldNames, that.fieldNames)
+                && Arrays.equals(fieldTypes, that.fieldTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (id ^ (id >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CompactSchema{id=").append(id).append(", typeName=").append(typeName)
+                .append(", fields=[");
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(fieldNames[i]).append(':').append(fieldTypes[i]);
+        }
+        return sb.append("]}").toString();
+    }
+}
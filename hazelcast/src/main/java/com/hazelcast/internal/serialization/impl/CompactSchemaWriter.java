@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Derives the {@link CompactSchema} of a {@link com.hazelcast.nio.serialization.Compact} object from the fields it writes.
+ */
+final class CompactSchemaWriter implements CompactWriter {
+
+    private final String typeName;
+    private final List<String> fieldNames = new ArrayList<String>();
+    private final List<FieldType> fieldTypes = new ArrayList<FieldType>();
+    private final Set<String> writtenFields = new HashSet<String>();
+
+    CompactSchemaWriter(String typeName) {
+        this.typeName = typeName;
+    }
+
+    private void addField(String fieldName, FieldType fieldType) {
+        if (!writtenFields.add(fieldName)) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' is written more than once by "
+                    + typeName);
+        }
+        fieldNames.add(fieldName);
+        fieldTypes.add(fieldType);
+    }
+
+    CompactSchema build() {
+        return new CompactSchema(typeName, fieldNames.toArray(new String[fieldNames.size()]),
+                fieldTypes.toArray(new FieldType[fieldTypes.size()]));
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) {
+        addField(fieldName, FieldType.BYTE);
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) {
+        addField(fieldName, FieldType.BOOLEAN);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) {
+        addField(fieldName, FieldType.CHAR);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) {
+        addField(fieldName, FieldType.SHORT);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) {
+        addField(fieldName, FieldType.INT);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) {
+        addField(fieldName, FieldType.LONG);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) {
+        addField(fieldName, FieldType.FLOAT);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) {
+        addField(fieldName, FieldType.DOUBLE);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) {
+        addField(fieldName, FieldType.UTF);
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] value) {
+        addField(fieldName, FieldType.BYTE_ARRAY);
+    }
+
+    @Override
+    public void writeBooleanArray(String fieldName, boolean[] value) {
+        addField(fieldName, FieldType.BOOLEAN_ARRAY);
+    }
+
+    @Override
+    public void writeCharArray(String fieldName, char[] value) {
+        addField(fieldName, FieldType.CHAR_ARRAY);
+    }
+
+    @Override
+    public void writeShortArray(String fieldName, short[] value) {
+        addField(fieldName, FieldType.SHORT_ARRAY);
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] value) {
+        addField(fieldName, FieldType.INT_ARRAY);
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] value) {
+        addField(fieldName, FieldType.LONG_ARRAY);
+    }
+
+    @Override
+    public void writeFloatArray(String fieldName, float[] value) {
+        addField(fieldName, FieldType.FLOAT_ARRAY);
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] value) {
+        addField(fieldName, FieldType.DOUBLE_ARRAY);
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] value) {
+        addField(fieldName, FieldType.UTF_ARRAY);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ClassLoaderUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializer of {@link Compact} objects. The schema of a class is derived from the fields written by its first
+ * serialized instance, or from a default instance when the class is registered up front. Only the id of the schema is
+ * written, the reading side has to know the schema from a registered class or a previously written instance.
+ */
+final class CompactSerializer implements StreamSerializer<Compact> {
+
+    private final ConcurrentMap<Class, CompactSchema> schemasByClass = new ConcurrentHashMap<Class, CompactSchema>();
+    private final ConcurrentMap<Long, CompactSchema> schemasById = new ConcurrentHashMap<Long, CompactSchema>();
+    private final ClassLoader classLoader;
+
+    CompactSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.CONSTANT_TYPE_COMPACT;
+    }
+
+    /**
+     * Registers the schema of a compact class, derived from an instance created by its no-arg constructor.
+     *
+     * @param className name of the compact class
+     */
+    void registerClass(String className) {
+        Compact compact;
+        try {
+            compact = ClassLoaderUtil.newInstance(classLoader, className);
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Cannot create an instance of compact class " + className, e);
+        }
+        lookupOrRegisterSchema(compact);
+    }
+
+    /**
+     * @param schemaId id of the schema
+     * @return the schema or {@code null} if it is not known
+     */
+    CompactSchema getSchema(long schemaId) {
+        return schemasById.get(schemaId);
+    }
+
+    private CompactSchema lookupOrRegisterSchema(Compact compact) {
+        Class<? extends Compact> clazz = compact.getClass();
+        CompactSchema schema = schemasByClass.get(clazz);
+        if (schema != null) {
+            return schema;
+        }
+        CompactSchemaWriter schemaWriter = new CompactSchemaWriter(clazz.getName());
+        try {
+            compact.writeCompact(schemaWriter);
+        } catch (IOException e) {
+            throw new HazelcastSerializationException("Cannot derive the schema of compact class " + clazz.getName(), e);
+        }
+        schema = schemaWriter.build();
+        CompactSchema current = schemasById.putIfAbsent(schema.getId(), schema);
+        if (current != null && !current.equals(schema)) {
+            throw new HazelcastSerializationException("Schema id collision between " + schema + " and " + current);
+        }
+        current = schemasByClass.putIfAbsent(clazz, schema);
+        return current != null ? current : schema;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Compact compact) throws IOException {
+        if (!(out instanceof BufferObjectDataOutput)) {
+            throw new IllegalArgumentException("ObjectDataOutput must be instance of BufferObjectDataOutput!");
+        }
+        CompactSchema schema = lookupOrRegisterSchema(compact);
+        DefaultCompactWriter writer = new DefaultCompactWriter(schema, (BufferObjectDataOutput) out);
+        compact.writeCompact(writer);
+        writer.end();
+    }
+
+    @Override
+    public Compact read(ObjectDataInput in) throws IOException {
+        if (!(in instanceof BufferObjectDataInput)) {
+            throw new IllegalArgumentException("ObjectDataInput must be instance of BufferObjectDataInput!");
+        }
+        BufferObjectDataInput input = (BufferObjectDataInput) in;
+        CompactSchema schema = readSchema(input);
+        int length = input.readInt();
+        int base = input.position();
+
+        Compact compact;
+        try {
+            compact = ClassLoaderUtil.newInstance(classLoader, schema.getTypeName());
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Cannot create an instance of compact class "
+                    + schema.getTypeName(), e);
+        }
+        compact.readCompact(new DefaultCompactReader(schema, input, base));
+        input.position(base + length);
+        return compact;
+    }
+
+    /**
+     * Reads a single field of a serialized compact object without de-serializing the object.
+     *
+     * @param in        input positioned at the start of the compact object
+     * @param fieldName name of the field
+     * @return the value of the field
+     */
+    Object readField(BufferObjectDataInput in, String fieldName) throws IOException {
+        CompactSchema schema = readSchema(in);
+        in.readInt();
+        return new DefaultCompactReader(schema, in, in.position()).read(fieldName);
+    }
+
+    private CompactSchema readSchema(BufferObjectDataInput in) throws IOException {
+        long schemaId = in.readLong();
+        CompactSchema schema = schemasById.get(schemaId);
+        if (schema == null) {
+            throw new HazelcastSerializationException("Unknown compact schema id: " + schemaId
+                    + ", the compact class has to be registered with SerializationConfig.addCompactClass()");
+        }
+        return schema;
+    }
+
+    @Override
+    public void destroy() {
+        schemasByClass.clear();
+        schemasById.clear();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.FieldDefinition;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Reads single fields of a serialized IdentifiedDataSerializable, whose serialized form is described by
+ * its factory, without de-serializing the object.
+ * <p>
+ * The fields preceding the requested one are skipped by their described types using positional reads,
+ * so apart from the returned value nothing is allocated. Only fixed-size fields have to be skipped by
+ * their size; UTF fields and arrays are skipped by their length prefix.
+ *
+ * @see com.hazelcast.nio.serialization.DescribedDataSerializableFactory
+ */
+public final class DataSerializableFieldReader {
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+    private static final int UTF8_TWO_BYTES_MASK = 0xE0;
+    private static final int UTF8_TWO_BYTES_PREFIX = 0xC0;
+    private static final int UTF8_THREE_BYTES_MASK = 0xF0;
+    private static final int UTF8_THREE_BYTES_PREFIX = 0xE0;
+
+    private final BufferObjectDataInput in;
+    private final ClassDefinition classDefinition;
+    private final int offset;
+
+    DataSerializableFieldReader(BufferObjectDataInput in, ClassDefinition classDefinition) {
+        this.in = in;
+        this.classDefinition = classDefinition;
+        this.offset = in.position();
+    }
+
+    /**
+     * Checks if the field can be read from serialized data described by the given class definition.
+     * Only single-value fields which are preceded by non-portable fields can be read.
+     *
+     * @param classDefinition the description of the serialized form
+     * @param fieldName       the name of the field
+     * @return {@code true} if the field can be read, {@code false} otherwise
+     */
+    public static boolean isReadable(ClassDefinition classDefinition, String fieldName) {
+        FieldDefinition fieldDefinition = classDefinition.getField(fieldName);
+        if (fieldDefinition == null) {
+            return false;
+        }
+        FieldType type = fieldDefinition.getType();
+        if (type.isArrayType() || type == FieldType.PORTABLE) {
+            return false;
+        }
+        for (int i = 0; i < fieldDefinition.getIndex(); i++) {
+            FieldType precedingType = classDefinition.getField(i).getType();
+            if (precedingType == FieldType.PORTABLE || precedingType == FieldType.PORTABLE_ARRAY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the value of the field.
+     *
+     * @param fieldName the name of the field
+     * @return the value of the field
+     * @throws HazelcastSerializationException if the field is not described or is not readable
+     * @throws IOException                     if the serialized data doesn't match its description
+     */
+    Object read(String fieldName) throws IOException {
+        if (!isReadable(classDefinition, fieldName)) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' can't be read from serialized data of "
+                    + "factoryId: " + classDefinition.getFactoryId() + ", id: " + classDefinition.getClassId());
+        }
+        FieldDefinition fieldDefinition = classDefinition.getField(fieldName);
+        int position = offset;
+        for (int i = 0; i < fieldDefinition.getIndex(); i++) {
+            position = skip(classDefinition.getField(i).getType(), position);
+        }
+        return readValue(fieldDefinition.getType(), position);
+    }
+
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
+    private Object readValue(FieldType type, int position) throws IOException {
+        switch (type) {
+            case BYTE:
+                return in.readByte(position);
+            case BOOLEAN:
+                return in.readBoolean(position);
+            case CHAR:
+                return in.readChar(position);
+            case SHORT:
+                return in.readShort(position);
+            case INT:
+                return in.readInt(position);
+            case LONG:
+                return in.readLong(position);
+            case FLOAT:
+                return in.readFloat(position);
+            case DOUBLE:
+                return in.readDouble(position);
+            case UTF:
+                in.position(position);
+                return in.readUTF();
+            default:
+                throw new IllegalStateException("Unexpected field type: " + type);
+        }
+    }
+
+    /**
+     * @return the position following the field of the given type at the given position
+     */
+    private int skip(FieldType type, int position) throws IOException {
+        if (type.hasDefiniteSize()) {
+            return position + type.getTypeSize();
+        }
+        switch (type) {
+            case UTF:
+                return skipUTF(position);
+            case UTF_ARRAY:
+                int utfCount = in.readInt(position);
+                position += INT_SIZE_IN_BYTES;
+                for (int i = 0; i < utfCount; i++) {
+                    position = skipUTF(position);
+                }
+                return position;
+            default:
+                int length = in.readInt(position);
+                position += INT_SIZE_IN_BYTES;
+                return length > 0 ? position + length * type.getSingleType().getTypeSize() : position;
+        }
+    }
+
+    /**
+     * Skips a string written by {@code writeUTF}, which is prefixed by its number of chars, each
+     * of them encoded as one to three bytes.
+     */
+    private int skipUTF(int position) throws IOException {
+        int charCount = in.readInt(position);
+        position += INT_SIZE_IN_BYTES;
+        for (int i = 0; i < charCount; i++) {
+            int b = in.readByte(position) & BYTE_MASK;
+            if (b < UTF8_ONE_BYTE_LIMIT) {
+                position++;
+            } else if ((b & UTF8_TWO_BYTES_MASK) == UTF8_TWO_BYTES_PREFIX) {
+                position += 2;
+            } else if ((b & UTF8_THREE_BYTES_MASK) == UTF8_THREE_BYTES_PREFIX) {
+                position += 3;
+            } else {
+                throw new UTFDataFormatException("Malformed byte sequence");
+            }
+        }
+        return position;
+    }
+}
@@ -22,8 +22,10 @@ import com.hazelcast.logging.Logger;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.DescribedDataSerializableFactory;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.StreamSerializer;
@@ -93,6 +95,18 @@ final class DataSerializableSerializer implements StreamSerializer<DataSerializa
         }
     }
 
+    /**
+     * @return the description of the serialized form of the type or {@code null} if its factory doesn't describe it
+     * @see DescribedDataSerializableFactory
+     */
+    ClassDefinition getClassDefinition(int factoryId, int id) {
+        DataSerializableFactory factory = factories.get(factoryId);
+        if (factory instanceof DescribedDataSerializableFactory) {
+            return ((DescribedDataSerializableFactory) factory).getClassDefinition(id);
+        }
+        return null;
+    }
+
     @Override
     public int getTypeId() {
         return CONSTANT_TYPE_DATA_SERIALIZABLE;
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.serialization.impl.CompactSchema.NULL_OFFSET;
+
+/**
+ * Reads the fields of a {@link com.hazelcast.nio.serialization.Compact} object at the positions computed from its
+ * {@link CompactSchema}, so the fields can be read in any order and unread fields are skipped for free.
+ */
+final class DefaultCompactReader implements CompactReader {
+
+    private final CompactSchema schema;
+    private final BufferObjectDataInput in;
+    private final int base;
+
+    /**
+     * @param base position of the fixed-size section of the object
+     */
+    DefaultCompactReader(CompactSchema schema, BufferObjectDataInput in, int base) {
+        this.schema = schema;
+        this.in = in;
+        this.base = base;
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return schema.hasField(fieldName);
+    }
+
+    @Override
+    public FieldType getFieldType(String fieldName) {
+        return schema.getFieldType(fieldName);
+    }
+
+    /**
+     * Reads a field of any type, used to extract query attributes.
+     *
+     * @param fieldName name of the field
+     * @return the value of the field, primitives are boxed
+     * @throws HazelcastSerializationException if the schema doesn't have the field
+     */
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount", "checkstyle:methodlength"})
+    Object read(String fieldName) throws IOException {
+        FieldType fieldType = schema.getFieldType(fieldName);
+        switch (fieldType) {
+            case BYTE:
+                return readByte(fieldName);
+            case BOOLEAN:
+                return readBoolean(fieldName);
+            case CHAR:
+                return readChar(fieldName);
+            case SHORT:
+                return readShort(fieldName);
+            case INT:
+                return readInt(fieldName);
+            case LONG:
+                return readLong(fieldName);
+            case FLOAT:
+                return readFloat(fieldName);
+            case DOUBLE:
+                return readDouble(fieldName);
+            case UTF:
+                return readUTF(fieldName);
+            case BYTE_ARRAY:
+                return readByteArray(fieldName);
+            case BOOLEAN_ARRAY:
+                return readBooleanArray(fieldName);
+            case CHAR_ARRAY:
+                return readCharArray(fieldName);
+            case SHORT_ARRAY:
+                return readShortArray(fieldName);
+            case INT_ARRAY:
+                return readIntArray(fieldName);
+            case LONG_ARRAY:
+                return readLongArray(fieldName);
+            case FLOAT_ARRAY:
+                return readFloatArray(fieldName);
+            case DOUBLE_ARRAY:
+                return readDoubleArray(fieldName);
+            case UTF_ARRAY:
+                return readUTFArray(fieldName);
+            default:
+                throw new HazelcastSerializationException("Unsupported field type: " + fieldType);
+        }
+    }
+
+    private int fixedFieldPosition(String fieldName, FieldType fieldType) {
+        return base + schema.getFixedOffset(schema.indexOf(fieldName, fieldType));
+    }
+
+    /**
+     * Moves the input to the value of a variable-size field.
+     *
+     * @return {@code true} if the value has to be read, {@code false} if it is {@code null}
+     */
+    private boolean seekVariableField(String fieldName, FieldType fieldType) throws IOException {
+        int index = schema.indexOf(fieldName, fieldType);
+        int offset = in.readInt(base + schema.getOffsetTableOffset(index));
+        if (offset == NULL_OFFSET) {
+            return false;
+        }
+        in.position(base + offset);
+        return true;
+    }
+
+    @Override
+    public byte readByte(String fieldName) throws IOException {
+        return in.readByte(fixedFieldPosition(fieldName, FieldType.BYTE));
+    }
+
+    @Override
+    public boolean readBoolean(String fieldName) throws IOException {
+        return in.readBoolean(fixedFieldPosition(fieldName, FieldType.BOOLEAN));
+    }
+
+    @Override
+    public char readChar(String fieldName) throws IOException {
+        return in.readChar(fixedFieldPosition(fieldName, FieldType.CHAR));
+    }
+
+    @Override
+    public short readShort(String fieldName) throws IOException {
+        return in.readShort(fixedFieldPosition(fieldName, FieldType.SHORT));
+    }
+
+    @Override
+    public int readInt(String fieldName) throws IOException {
+        return in.readInt(fixedFieldPosition(fieldName, FieldType.INT));
+    }
+
+    @Override
+    public long readLong(String fieldName) throws IOException {
+        return in.readLong(fixedFieldPosition(fieldName, FieldType.LONG));
+    }
+
+    @Override
+    public float readFloat(String fieldName) throws IOException {
+        return in.readFloat(fixedFieldPosition(fieldName, FieldType.FLOAT));
+    }
+
+    @Override
+    public double readDouble(String fieldName) throws IOException {
+        return in.readDouble(fixedFieldPosition(fieldName, FieldType.DOUBLE));
+    }
+
+    @Override
+    public String readUTF(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.UTF) ? in.readUTF() : null;
+    }
+
+    @Override
+    public byte[] readByteArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.BYTE_ARRAY) ? in.readByteArray() : null;
+    }
+
+    @Override
+    public boolean[] readBooleanArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.BOOLEAN_ARRAY) ? in.readBooleanArray() : null;
+    }
+
+    @Override
+    public char[] readCharArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.CHAR_ARRAY) ? in.readCharArray() : null;
+    }
+
+    @Override
+    public short[] readShortArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.SHORT_ARRAY) ? in.readShortArray() : null;
+    }
+
+    @Override
+    public int[] readIntArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.INT_ARRAY) ? in.readIntArray() : null;
+    }
+
+    @Override
+    public long[] readLongArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.LONG_ARRAY) ? in.readLongArray() : null;
+    }
+
+    @Override
+    public float[] readFloatArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.FLOAT_ARRAY) ? in.readFloatArray() : null;
+    }
+
+    @Override
+    public double[] readDoubleArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.DOUBLE_ARRAY) ? in.readDoubleArray() : null;
+    }
+
+    @Override
+    public String[] readUTFArray(String fieldName) throws IOException {
+        return seekVariableField(fieldName, FieldType.UTF_ARRAY) ? in.readUTFArray() : null;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.serialization.impl.CompactSchema.NULL_OFFSET;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Writes a {@link com.hazelcast.nio.serialization.Compact} object in the layout defined by its {@link CompactSchema}.
+ * Fixed-size fields and the offsets of variable-size fields are written to their reserved positions, so the fields
+ * can be written in any order.
+ */
+final class DefaultCompactWriter implements CompactWriter {
+
+    private final CompactSchema schema;
+    private final BufferObjectDataOutput out;
+    private final boolean[] writtenFields;
+    private final int lengthPosition;
+    private final int base;
+
+    DefaultCompactWriter(CompactSchema schema, BufferObjectDataOutput out) throws IOException {
+        this.schema = schema;
+        this.out = out;
+        this.writtenFields = new boolean[schema.getFieldCount()];
+        out.writeLong(schema.getId());
+        this.lengthPosition = out.position();
+        out.writeInt(0);
+        this.base = out.position();
+        out.writeZeroBytes(schema.getFixedSize() + schema.getVariableFieldCount() * INT_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Writes the length of the object once all of its fields are written.
+     */
+    void end() throws IOException {
+        for (int i = 0; i < writtenFields.length; i++) {
+            if (!writtenFields[i]) {
+                throw new HazelcastSerializationException("Not all fields of " + schema.getTypeName()
+                        + " are written, the fields written by writeCompact() must not depend on the state of the object");
+            }
+        }
+        out.writeInt(lengthPosition, out.position() - base);
+    }
+
+    private int fieldIndex(String fieldName, FieldType fieldType) {
+        int index = schema.indexOf(fieldName, fieldType);
+        if (writtenFields[index]) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' is written more than once by "
+                    + schema.getTypeName());
+        }
+        writtenFields[index] = true;
+        return index;
+    }
+
+    private int fixedFieldPosition(String fieldName, FieldType fieldType) {
+        return base + schema.getFixedOffset(fieldIndex(fieldName, fieldType));
+    }
+
+    /**
+     * Writes the offset of a variable-size field, the value has to be written right after.
+     *
+     * @return {@code true} if the value has to be written, {@code false} if it is {@code null}
+     */
+    private boolean beginVariableField(String fieldName, FieldType fieldType, boolean isNull) throws IOException {
+        int index = fieldIndex(fieldName, fieldType);
+        int offset = isNull ? NULL_OFFSET : out.position() - base;
+        out.writeInt(base + schema.getOffsetTableOffset(index), offset);
+        return !isNull;
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) throws IOException {
+        out.writeByte(fixedFieldPosition(fieldName, FieldType.BYTE), value);
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) throws IOException {
+        out.writeBoolean(fixedFieldPosition(fieldName, FieldType.BOOLEAN), value);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) throws IOException {
+        out.writeChar(fixedFieldPosition(fieldName, FieldType.CHAR), value);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) throws IOException {
+        out.writeShort(fixedFieldPosition(fieldName, FieldType.SHORT), value);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) throws IOException {
+        out.writeInt(fixedFieldPosition(fieldName, FieldType.INT), value);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) throws IOException {
+        out.writeLong(fixedFieldPosition(fieldName, FieldType.LONG), value);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) throws IOException {
+        out.writeFloat(fixedFieldPosition(fieldName, FieldType.FLOAT), value);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) throws IOException {
+        out.writeDouble(fixedFieldPosition(fieldName, FieldType.DOUBLE), value);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.UTF, value == null)) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.BYTE_ARRAY, value == null)) {
+            out.writeByteArray(value);
+        }
+    }
+
+    @Override
+    public void writeBooleanArray(String fieldName, boolean[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.BOOLEAN_ARRAY, value == null)) {
+            out.writeBooleanArray(value);
+        }
+    }
+
+    @Override
+    public void writeCharArray(String fieldName, char[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.CHAR_ARRAY, value == null)) {
+            out.writeCharArray(value);
+        }
+    }
+
+    @Override
+    public void writeShortArray(String fieldName, short[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.SHORT_ARRAY, value == null)) {
+            out.writeShortArray(value);
+        }
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.INT_ARRAY, value == null)) {
+            out.writeIntArray(value);
+        }
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.LONG_ARRAY, value == null)) {
+            out.writeLongArray(value);
+        }
+    }
+
+    @Override
+    public void writeFloatArray(String fieldName, float[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.FLOAT_ARRAY, value == null)) {
+            out.writeFloatArray(value);
+        }
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.DOUBLE_ARRAY, value == null)) {
+            out.writeDoubleArray(value);
+        }
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] value) throws IOException {
+        if (beginVariableField(fieldName, FieldType.UTF_ARRAY, value == null)) {
+            out.writeUTFArray(value);
+        }
+    }
+}
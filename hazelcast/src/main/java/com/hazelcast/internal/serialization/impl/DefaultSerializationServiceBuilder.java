@@ -68,6 +68,8 @@ public class DefaultSerializationServiceBuilder
 
     protected final Set<ClassDefinition> classDefinitions = new HashSet<ClassDefinition>();
 
+    protected final Set<String> compactClasses = new HashSet<String>();
+
     protected ManagedContext managedContext;
 
     protected boolean useNativeByteOrder;
@@ -82,6 +84,8 @@ public class DefaultSerializationServiceBuilder
 
     protected int initialOutputBufferSize = DEFAULT_OUT_BUFFER_SIZE;
 
+    protected int bufferPoolMaxRetainedBytes = BufferPoolFactoryImpl.DEFAULT_MAX_RETAINED_BYTES;
+
     protected PartitioningStrategy partitioningStrategy;
 
     protected HazelcastInstance hazelcastInstance;
@@ -208,6 +212,15 @@ public class DefaultSerializationServiceBuilder
         return this;
     }
 
+    @Override
+    public SerializationServiceBuilder setBufferPoolMaxRetainedBytes(int bufferPoolMaxRetainedBytes) {
+        if (bufferPoolMaxRetainedBytes < 0) {
+            throw new IllegalArgumentException("Buffer pool max retained bytes can't be negative!");
+        }
+        this.bufferPoolMaxRetainedBytes = bufferPoolMaxRetainedBytes;
+        return this;
+    }
+
     @Override
     public InternalSerializationService build() {
         initVersions();
@@ -215,6 +228,7 @@ public class DefaultSerializationServiceBuilder
             addConfigDataSerializableFactories(dataSerializableFactories, config, classLoader);
             addConfigPortableFactories(portableFactories, config, classLoader);
             classDefinitions.addAll(config.getClassDefinitions());
+            compactClasses.addAll(config.getCompactClasses());
         }
 
         InputOutputFactory inputOutputFactory = createInputOutputFactory();
@@ -266,9 +280,11 @@ public class DefaultSerializationServiceBuilder
             case 1:
                 SerializationServiceV1 serializationServiceV1 = new SerializationServiceV1(inputOutputFactory, version,
                         portableVersion, classLoader, dataSerializableFactories, portableFactories, managedContext,
-                        partitioningStrategy, initialOutputBufferSize, new BufferPoolFactoryImpl(), enableCompression,
+                        partitioningStrategy, initialOutputBufferSize, new BufferPoolFactoryImpl(bufferPoolMaxRetainedBytes),
+                        enableCompression,
                         enableSharedObject);
                 serializationServiceV1.registerClassDefinitions(classDefinitions, checkClassDefErrors);
+                serializationServiceV1.registerCompactClasses(compactClasses);
                 return serializationServiceV1;
 
             //Future version note: add new versions here
@@ -24,9 +24,11 @@ import com.hazelcast.internal.serialization.impl.ConstantSerializers.BooleanSeri
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.ByteSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.StringArraySerializer;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
+import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
@@ -42,6 +44,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -74,7 +77,12 @@ import static com.hazelcast.internal.serialization.impl.JavaDefaultSerializers.C
 import static com.hazelcast.internal.serialization.impl.JavaDefaultSerializers.DateSerializer;
 import static com.hazelcast.internal.serialization.impl.JavaDefaultSerializers.EnumSerializer;
 import static com.hazelcast.internal.serialization.impl.JavaDefaultSerializers.JavaSerializer;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_COMPACT;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.createSerializerAdapter;
+import static com.hazelcast.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 
 public class SerializationServiceV1 extends AbstractSerializationService {
 
@@ -83,6 +91,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final DataSerializableSerializer dataSerializableSerializer;
+    private final CompactSerializer compactSerializer;
 
      SerializationServiceV1(InputOutputFactory inputOutputFactory, byte version, int portableVersion, ClassLoader classLoader,
             Map<Integer, ? extends DataSerializableFactory> dataSerializableFactories,
@@ -98,10 +108,12 @@ public class SerializationServiceV1 extends AbstractSerializationService {
             portableContext.registerClassDefinition(cd);
         }
 
-        dataSerializerAdapter = createSerializerAdapter(
-                new DataSerializableSerializer(dataSerializableFactories, classLoader), this);
+        dataSerializableSerializer = new DataSerializableSerializer(dataSerializableFactories, classLoader);
+        dataSerializerAdapter = createSerializerAdapter(dataSerializableSerializer, this);
         portableSerializer = new PortableSerializer(portableContext, loader.getFactories());
         portableSerializerAdapter = createSerializerAdapter(portableSerializer, this);
+        compactSerializer = new CompactSerializer(classLoader);
+        compactSerializerAdapter = createSerializerAdapter(compactSerializer, this);
 
         javaSerializerAdapter = createSerializerAdapter(new JavaSerializer(enableSharedObject, enableCompression), this);
         javaExternalizableAdapter = createSerializerAdapter(
@@ -122,10 +134,61 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         return portableContext;
     }
 
+    public ClassDefinition lookupDataSerializableClassDefinition(Data data) {
+        if (data.getType() != CONSTANT_TYPE_DATA_SERIALIZABLE
+                || data.dataSize() < BOOLEAN_SIZE_IN_BYTES + FACTORY_AND_CLASS_ID_BYTE_LENGTH) {
+            return null;
+        }
+        byte[] bytes = data.toByteArray();
+        if (!isFlagSet(bytes[HeapData.DATA_OFFSET], IDS_FLAG)) {
+            return null;
+        }
+        boolean bigEndian = getByteOrder() == ByteOrder.BIG_ENDIAN;
+        int factoryId = Bits.readInt(bytes, HeapData.DATA_OFFSET + BOOLEAN_SIZE_IN_BYTES, bigEndian);
+        int id = Bits.readInt(bytes, HeapData.DATA_OFFSET + BOOLEAN_SIZE_IN_BYTES + INT_SIZE_IN_BYTES, bigEndian);
+        return dataSerializableSerializer.getClassDefinition(factoryId, id);
+    }
+
+    public Object readDataSerializableField(Data data, String fieldName) throws IOException {
+        ClassDefinition classDefinition = lookupDataSerializableClassDefinition(data);
+        if (classDefinition == null) {
+            throw new IllegalArgumentException("Given data is not a described IdentifiedDataSerializable! -> "
+                    + data.getType());
+        }
+        BufferObjectDataInput in = (BufferObjectDataInput) initDataSerializableInputAndSkipTheHeader(data);
+        try {
+            return new DataSerializableFieldReader(in, classDefinition).read(fieldName);
+        } finally {
+            in.close();
+        }
+    }
+
+    public CompactSchema lookupCompactSchema(Data data) {
+        if (data.getType() != CONSTANT_TYPE_COMPACT || data.dataSize() < LONG_SIZE_IN_BYTES) {
+            return null;
+        }
+        boolean bigEndian = getByteOrder() == ByteOrder.BIG_ENDIAN;
+        long schemaId = Bits.readLong(data.toByteArray(), HeapData.DATA_OFFSET, bigEndian);
+        return compactSerializer.getSchema(schemaId);
+    }
+
+    public Object readCompactField(Data data, String fieldName) throws IOException {
+        if (data.getType() != CONSTANT_TYPE_COMPACT) {
+            throw new IllegalArgumentException("Given data is not Compact! -> " + data.getType());
+        }
+        BufferObjectDataInput in = createObjectDataInput(data);
+        try {
+            return compactSerializer.readField(in, fieldName);
+        } finally {
+            in.close();
+        }
+    }
+
     private void registerConstantSerializers() {
         registerConstant(null, nullSerializerAdapter);
         registerConstant(DataSerializable.class, dataSerializerAdapter);
         registerConstant(Portable.class, portableSerializerAdapter);
+        registerConstant(Compact.class, compactSerializerAdapter);
         //primitives and String
         registerConstant(Byte.class, new ByteSerializer());
         registerConstant(Boolean.class, new BooleanSerializer());
@@ -195,6 +258,17 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         portableContext.registerClassDefinition(cd);
     }
 
+    /**
+     * Registers the schemas of compact classes, so their instances can be read before this service has written one.
+     *
+     * @param classNames names of the compact classes
+     */
+    public void registerCompactClasses(Collection<String> classNames) {
+        for (String className : classNames) {
+            compactSerializer.registerClass(className);
+        }
+    }
+
     final PortableSerializer getPortableSerializer() {
         return portableSerializer;
     }
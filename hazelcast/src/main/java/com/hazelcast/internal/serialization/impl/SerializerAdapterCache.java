@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import static com.hazelcast.util.HashUtil.fastIntMix;
+
+/**
+ * Caches the serializer resolved for a class, so {@link AbstractSerializationService#serializerFor(Object)} finds
+ * the serializer of an already seen class with a single identity lookup instead of walking the default, custom, Java
+ * and global serializer lookups again.
+ * <p>
+ * Lookups are lock-free reads of an open addressing table keyed by class identity. Updates copy the table and are
+ * rare: they happen once per class, since the resolution of a class never changes once it is made. At most
+ * {@link #MAX_SIZE} classes are cached, the serializers of further classes are resolved by the regular lookups.
+ */
+final class SerializerAdapterCache {
+
+    static final int MAX_SIZE = 1 << 12;
+
+    private static final int INITIAL_CAPACITY = 1 << 6;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    /**
+     * @param type the class
+     * @return the cached serializer of the class or {@code null} if it is not cached
+     */
+    SerializerAdapter get(Class type) {
+        Table table = this.table;
+        Class[] types = table.types;
+        int mask = types.length - 1;
+        for (int index = indexFor(type, mask); ; index = (index + 1) & mask) {
+            Class current = types[index];
+            if (current == type) {
+                return table.serializers[index];
+            }
+            if (current == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Caches the serializer of a class, unless the cache is full or the class is already cached.
+     */
+    synchronized void put(Class type, SerializerAdapter serializer) {
+        Table table = this.table;
+        if (table.size >= MAX_SIZE || get(type) != null) {
+            return;
+        }
+        int capacity = table.types.length;
+        // the load factor is kept at most 0.5 so probe sequences stay short
+        Table newTable = new Table(2 * (table.size + 1) > capacity ? capacity * 2 : capacity);
+        for (int i = 0; i < capacity; i++) {
+            if (table.types[i] != null) {
+                newTable.insert(table.types[i], table.serializers[i]);
+            }
+        }
+        newTable.insert(type, serializer);
+        this.table = newTable;
+    }
+
+    synchronized void clear() {
+        table = new Table(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return table.size;
+    }
+
+    private static int indexFor(Class type, int mask) {
+        return fastIntMix(System.identityHashCode(type)) & mask;
+    }
+
+    private static final class Table {
+
+        final Class[] types;
+        final SerializerAdapter[] serializers;
+        int size;
+
+        Table(int capacity) {
+            types = new Class[capacity];
+            serializers = new SerializerAdapter[capacity];
+        }
+
+        void insert(Class type, SerializerAdapter serializer) {
+            int mask = types.length - 1;
+            int index = indexFor(type, mask);
+            while (types[index] != null) {
+                index = (index + 1) & mask;
+            }
+            types[index] = type;
+            serializers[index] = serializer;
+            size++;
+        }
+    }
+}
@@ -23,8 +23,27 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
  */
 public class BufferPoolFactoryImpl implements BufferPoolFactory {
 
+    /**
+     * The default maximum number of bytes of grown buffers retained per {@link BufferPool}.
+     */
+    public static final int DEFAULT_MAX_RETAINED_BYTES = 4 * 1024 * 1024;
+
+    private final int maxRetainedBytes;
+
+    public BufferPoolFactoryImpl() {
+        this(DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    /**
+     * @param maxRetainedBytes the maximum number of bytes of grown buffers retained per {@link BufferPool}, 0 to not
+     *                         retain grown buffers
+     */
+    public BufferPoolFactoryImpl(int maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
     @Override
     public BufferPool create(InternalSerializationService serializationService) {
-        return new BufferPoolImpl(serializationService);
+        return new BufferPoolImpl(serializationService, maxRetainedBytes);
     }
 }
@@ -31,30 +31,53 @@ import static com.hazelcast.nio.IOUtil.closeResource;
 /**
  * Default {BufferPool} implementation.
  *
+ * The grown buffers of the pooled outputs are kept in a {@link ByteArrayPool}, if the pool retains any bytes, so
+ * serializing large values reuses the arrays instead of allocating them again.
+ *
  * This class is designed to that a subclass can be made. This is done for the Enterprise version.
  */
 public class BufferPoolImpl implements BufferPool {
     static final int MAX_POOLED_ITEMS = 3;
 
     protected final InternalSerializationService serializationService;
+    protected final ByteArrayPool arrayPool;
 
     // accessible for testing.
     final Queue<BufferObjectDataOutput> outputQueue = new ArrayDeque<BufferObjectDataOutput>(MAX_POOLED_ITEMS);
     final Queue<BufferObjectDataInput> inputQueue = new ArrayDeque<BufferObjectDataInput>(MAX_POOLED_ITEMS);
 
     public BufferPoolImpl(InternalSerializationService serializationService) {
+        this(serializationService, 0);
+    }
+
+    /**
+     * @param serializationService the serialization service creating the buffers
+     * @param maxRetainedBytes     the maximum number of bytes of grown buffers retained by the pool, 0 to not retain
+     *                             grown buffers
+     */
+    public BufferPoolImpl(InternalSerializationService serializationService, int maxRetainedBytes) {
         this.serializationService = serializationService;
+        this.arrayPool = maxRetainedBytes > 0 ? new ByteArrayPool(maxRetainedBytes) : null;
     }
 
     @Override
     public BufferObjectDataOutput takeOutputBuffer() {
         BufferObjectDataOutput out = outputQueue.poll();
         if (out == null) {
-            out = serializationService.createObjectDataOutput();
+            out = arrayPool == null
+                    ? serializationService.createObjectDataOutput()
+                    : serializationService.createObjectDataOutput(arrayPool);
         }
         return out;
     }
 
+    /**
+     * @return the pool of the arrays backing the buffers or {@code null} if grown buffers are not retained
+     */
+    public ByteArrayPool getArrayPool() {
+        return arrayPool;
+    }
+
     @Override
     public void returnOutputBuffer(BufferObjectDataOutput out) {
         if (out == null) {
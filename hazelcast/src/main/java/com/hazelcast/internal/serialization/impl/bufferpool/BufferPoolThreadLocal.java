@@ -17,6 +17,9 @@
 package com.hazelcast.internal.serialization.impl.bufferpool;
 
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.util.ConcurrentReferenceHashMap;
@@ -76,8 +79,11 @@ import static com.hazelcast.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
  * The Performance of using a ThreadLocal in combination with a WeakReference is almost the same as using a ThreadLocal without
  * WeakReference. There is an extra pointer indirection and some additional pressure on the gc system since it needs to deal with
  * the WeakReferences, but the number of threads is limited.
+ *
+ * <h1>Metrics</h1>
+ * The statistics of the {@link ByteArrayPool}s of the BufferPools are aggregated over all threads.
  */
-public final class BufferPoolThreadLocal {
+public final class BufferPoolThreadLocal implements MetricsProvider {
 
     private final ThreadLocal<WeakReference<BufferPool>> threadLocal = new ThreadLocal<WeakReference<BufferPool>>();
     private final InternalSerializationService serializationService;
@@ -109,4 +115,54 @@ public final class BufferPoolThreadLocal {
     public void clear() {
         strongReferences.clear();
     }
+
+    @Probe
+    public int getPoolCount() {
+        return strongReferences.size();
+    }
+
+    @Probe
+    public long getArrayPoolHits() {
+        long hits = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            ByteArrayPool arrayPool = arrayPoolOf(pool);
+            if (arrayPool != null) {
+                hits += arrayPool.getHits();
+            }
+        }
+        return hits;
+    }
+
+    @Probe
+    public long getArrayPoolMisses() {
+        long misses = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            ByteArrayPool arrayPool = arrayPoolOf(pool);
+            if (arrayPool != null) {
+                misses += arrayPool.getMisses();
+            }
+        }
+        return misses;
+    }
+
+    @Probe
+    public long getArrayPoolRetainedBytes() {
+        long retainedBytes = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            ByteArrayPool arrayPool = arrayPoolOf(pool);
+            if (arrayPool != null) {
+                retainedBytes += arrayPool.getRetainedBytes();
+            }
+        }
+        return retainedBytes;
+    }
+
+    private static ByteArrayPool arrayPoolOf(BufferPool pool) {
+        return pool instanceof BufferPoolImpl ? ((BufferPoolImpl) pool).getArrayPool() : null;
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        registry.scanAndRegister(this, "serialization.bufferPool");
+    }
 }
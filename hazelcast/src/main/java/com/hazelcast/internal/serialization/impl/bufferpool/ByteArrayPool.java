@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.util.QuickMath.log2;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A pool of the byte arrays backing the output buffers of a {@link BufferPoolImpl}. When an output buffer grows, its
+ * new array is taken from this pool and the old one is returned to it; when the buffer is returned to the
+ * {@link BufferPool}, its grown array is returned as well. So a thread serializing large values reuses the same large
+ * arrays instead of allocating them again for every value.
+ * <p>
+ * The arrays are pooled in power of two size classes; an array of size class {@code n} has at least {@code 2^n}
+ * bytes. A request is served by the smallest retained array that is large enough. The pool retains at most
+ * {@link #getMaxRetainedBytes()} bytes and at most {@link #ARRAYS_PER_SIZE_CLASS} arrays per size class, arrays
+ * which don't fit are left to the garbage collector.
+ * <p>
+ * Like the {@link BufferPool} the pool is confined to a single thread. Its counters are written by that thread only
+ * and can be read by any thread.
+ */
+public final class ByteArrayPool {
+
+    /**
+     * The number of arrays retained per size class.
+     */
+    public static final int ARRAYS_PER_SIZE_CLASS = 2;
+
+    private static final int SIZE_CLASS_COUNT = Integer.SIZE - 1;
+
+    private final byte[][][] arrays = new byte[SIZE_CLASS_COUNT][][];
+    private final int[] counts = new int[SIZE_CLASS_COUNT];
+    private final int maxRetainedBytes;
+
+    private final SwCounter hits = newSwCounter();
+    private final SwCounter misses = newSwCounter();
+    private final SwCounter retainedBytes = newSwCounter();
+
+    /**
+     * @param maxRetainedBytes the maximum number of bytes retained by the pool
+     */
+    public ByteArrayPool(int maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Takes an array of at least the given size from the pool, or allocates one with the size rounded up to its size
+     * class if no retained array is large enough.
+     *
+     * @param minSize the minimum size of the array
+     * @return the array, its content is undefined
+     */
+    public byte[] take(int minSize) {
+        int sizeClass = sizeClassOf(minSize);
+        return take(minSize, sizeClass, SIZE_CLASS_COUNT - 1);
+    }
+
+    /**
+     * Takes an array of the size class of the given size from the pool, or allocates one with the size rounded up to
+     * its size class. Unlike {@link #take(int)}, a larger retained array is never returned, so the array is less than
+     * twice as large as requested.
+     *
+     * @param minSize the minimum size of the array
+     * @return the array, its content is undefined
+     */
+    public byte[] takeExactSizeClass(int minSize) {
+        int sizeClass = sizeClassOf(minSize);
+        return take(minSize, sizeClass, sizeClass);
+    }
+
+    private byte[] take(int minSize, int minSizeClass, int maxSizeClass) {
+        for (int i = minSizeClass; i <= maxSizeClass && i < SIZE_CLASS_COUNT; i++) {
+            int count = counts[i];
+            if (count > 0) {
+                byte[][] slots = arrays[i];
+                byte[] array = slots[count - 1];
+                slots[count - 1] = null;
+                counts[i] = count - 1;
+                retainedBytes.inc(-array.length);
+                hits.inc();
+                return array;
+            }
+        }
+        misses.inc();
+        return new byte[minSizeClass < SIZE_CLASS_COUNT ? nextPowerOfTwo(minSize) : minSize];
+    }
+
+    /**
+     * Returns an array to the pool. The caller must not use the array afterwards.
+     *
+     * @param array the array to return
+     */
+    public void release(byte[] array) {
+        int size = array.length;
+        if (size == 0 || retainedBytes.get() + size > maxRetainedBytes) {
+            return;
+        }
+        int sizeClass = log2(size);
+        int count = counts[sizeClass];
+        if (count == ARRAYS_PER_SIZE_CLASS) {
+            return;
+        }
+        byte[][] slots = arrays[sizeClass];
+        if (slots == null) {
+            slots = new byte[ARRAYS_PER_SIZE_CLASS][];
+            arrays[sizeClass] = slots;
+        }
+        slots[count] = array;
+        counts[sizeClass] = count + 1;
+        retainedBytes.inc(size);
+    }
+
+    private static int sizeClassOf(int minSize) {
+        return minSize <= 1 ? 0 : log2(minSize - 1) + 1;
+    }
+
+    public int getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    /**
+     * @return the number of arrays taken from the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of arrays allocated because the pool had no array large enough
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of bytes retained by the pool
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+}
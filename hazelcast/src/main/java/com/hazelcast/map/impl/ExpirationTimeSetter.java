@@ -39,7 +39,12 @@ public final class ExpirationTimeSetter {
         record.setExpirationTime(expirationTime);
     }
 
-    private static long calculateExpirationTime(Record record, long maxIdleMillis) {
+    /**
+     * Returns the time the record expires at due to its TTL or the max-idle time, whichever comes first, or
+     * {@code Long.MAX_VALUE} if it never expires. Unlike {@link Record#getExpirationTime()} this works for
+     * records without statistics too.
+     */
+    public static long calculateExpirationTime(Record record, long maxIdleMillis) {
         // 1. Calculate TTL expiration time.
         final long ttl = checkedTime(record.getTtl());
         final long ttlExpirationTime = sumForExpiration(ttl, getLifeStartTime(record));
@@ -119,6 +124,18 @@ public final class ExpirationTimeSetter {
         return TimeUnit.SECONDS.toMillis(maxIdleSeconds);
     }
 
+    /**
+     * Checks if the record may expire, either by its TTL or by the max-idle time of its map.
+     *
+     * @param record    the record
+     * @param mapConfig the config of the map of the record
+     * @return {@code true} if the record may expire, {@code false} otherwise
+     */
+    public static boolean isExpirable(Record record, MapConfig mapConfig) {
+        long ttl = record.getTtl();
+        return (ttl > 0 && ttl < Long.MAX_VALUE) || calculateMaxIdleMillis(mapConfig) < Long.MAX_VALUE;
+    }
+
     public static long calculateTTLMillis(MapConfig mapConfig) {
         final int timeToLiveSeconds = mapConfig.getTimeToLiveSeconds();
         if (timeToLiveSeconds == 0) {
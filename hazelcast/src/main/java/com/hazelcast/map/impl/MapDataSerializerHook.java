@@ -56,9 +56,13 @@ import com.hazelcast.map.impl.operation.IsPartitionLoadedOperationFactory;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
 import com.hazelcast.map.impl.operation.LoadAllOperation;
+import com.hazelcast.map.impl.operation.LoadKeyStreamBatchOperation;
+import com.hazelcast.map.impl.operation.LoadKeyStreamsOperation;
 import com.hazelcast.map.impl.operation.LoadMapOperation;
+import com.hazelcast.map.impl.operation.MapChunkReplicationOperation;
 import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchKeysOperation;
+import com.hazelcast.map.impl.operation.MapFetchWithQueryOperation;
 import com.hazelcast.map.impl.operation.MapFlushBackupOperation;
 import com.hazelcast.map.impl.operation.MapFlushOperation;
 import com.hazelcast.map.impl.operation.MapFlushOperationFactory;
@@ -283,8 +287,12 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int IS_KEYLOAD_FINISHED = 133;
     public static final int REMOVE_FROM_LOAD_ALL = 134;
     public static final int ENTRY_REMOVING_PROCESSOR = 135;
+    public static final int FETCH_WITH_QUERY = 136;
+    public static final int MAP_CHUNK_REPLICATION = 137;
+    public static final int LOAD_KEY_STREAMS = 138;
+    public static final int LOAD_KEY_STREAM_BATCH = 139;
 
-    private static final int LEN = ENTRY_REMOVING_PROCESSOR + 1;
+    private static final int LEN = LOAD_KEY_STREAM_BATCH + 1;
 
     @Override
     public int getFactoryId() {
@@ -955,6 +963,26 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return EntryRemovingProcessor.ENTRY_REMOVING_PROCESSOR;
             }
         };
+        constructors[FETCH_WITH_QUERY] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapFetchWithQueryOperation();
+            }
+        };
+        constructors[MAP_CHUNK_REPLICATION] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapChunkReplicationOperation();
+            }
+        };
+        constructors[LOAD_KEY_STREAMS] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new LoadKeyStreamsOperation();
+            }
+        };
+        constructors[LOAD_KEY_STREAM_BATCH] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new LoadKeyStreamBatchOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
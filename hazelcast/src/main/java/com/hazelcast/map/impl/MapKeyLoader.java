@@ -25,6 +25,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
+import com.hazelcast.map.impl.operation.LoadKeyStreamsOperation;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.TriggerLoadIfNeededOperation;
@@ -62,6 +63,7 @@ import static com.hazelcast.map.impl.MapKeyLoaderUtil.toPartition;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.spi.ExecutionService.MAP_LOAD_ALL_KEYS_EXECUTOR;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.IterableUtil.limit;
 import static com.hazelcast.util.IterableUtil.map;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -324,6 +326,11 @@ public class MapKeyLoader {
         Throwable loadError = null;
 
         try {
+            if (mapStoreContext.getMapStoreWrapper().isParallelMapLoader()) {
+                sendKeyStreams(mapStoreContext, replaceExistingValues);
+                return;
+            }
+
             Iterable<Object> allKeys = mapStoreContext.loadAllKeys();
             keys = allKeys.iterator();
             Iterator<Data> dataKeys = map(keys, toData);
@@ -360,6 +367,41 @@ public class MapKeyLoader {
         }
     }
 
+    /**
+     * Distributes the key streams of a {@link com.hazelcast.core.ParallelMapLoader} among the members owning
+     * partitions and waits until they have loaded them, see {@link MapKeyStreamLoader}.
+     */
+    private void sendKeyStreams(MapStoreContext mapStoreContext, boolean replaceExistingValues) throws Exception {
+        List<Address> members = new ArrayList<Address>(partitionService.getMemberPartitionsMap().keySet());
+        int keyStreamCount = mapStoreContext.getMapStoreWrapper().getKeyStreamCount();
+        int memberCount = members.size();
+
+        List<Future> futures = new ArrayList<Future>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            int[] keyStreams = new int[keyStreamCount / memberCount + (i < keyStreamCount % memberCount ? 1 : 0)];
+            for (int j = 0; j < keyStreams.length; j++) {
+                keyStreams[j] = i + j * memberCount;
+            }
+            Operation op = new LoadKeyStreamsOperation(mapName, keyStreams, replaceExistingValues, maxSizePerNode);
+            futures.add(opService.invokeOnTarget(SERVICE_NAME, op, members.get(i)));
+        }
+
+        // as in sendKeysInBatches, all keys have to be loaded before the load status is sent
+        Throwable failure = null;
+        for (Future future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw rethrow(failure);
+        }
+    }
+
     private List<Future> sendBatch(Map<Integer, List<Data>> batch, boolean replaceExistingValues) {
         Set<Entry<Integer, List<Data>>> entries = batch.entrySet();
         List<Future> futures = new ArrayList<Future>(entries.size());
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ParallelMapLoader;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.operation.LoadKeyStreamBatchOperation;
+import com.hazelcast.map.impl.operation.LoadKeyStreamsOperation;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.LiveOperations;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.partition.IPartitionService;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.spi.ExecutionService.MAP_LOAD_KEY_STREAMS_EXECUTOR;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_LOAD_CHUNK_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_LOAD_MAX_INFLIGHT_BATCHES;
+import static com.hazelcast.util.IterableUtil.nullToEmpty;
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * Loads the key streams of a {@link ParallelMapLoader} which were assigned to this member by the
+ * {@link MapKeyLoader} SENDER and sends their keys in batches to the partitions for loading.
+ * <p/>
+ * Every key stream is read by its own task on the {@link ExecutionService#MAP_LOAD_KEY_STREAMS_EXECUTOR}.
+ * A batch holds the keys of a single partition and is loaded by a {@link LoadKeyStreamBatchOperation}, which
+ * responds once the values of its keys are loaded. The number of batches of a {@link LoadKeyStreamsOperation}
+ * whose values are not loaded yet is bounded by {@link com.hazelcast.spi.properties.GroupProperty#MAP_LOAD_MAX_INFLIGHT_BATCHES}.
+ * The operation is responded once all of its keys are loaded.
+ */
+public class MapKeyStreamLoader implements MetricsProvider {
+
+    private final MapServiceContext mapServiceContext;
+    private final ExecutionService executionService;
+    private final OperationService operationService;
+    private final IPartitionService partitionService;
+    private final ILogger logger;
+    private final int maxBatch;
+    private final int maxInflightBatches;
+    private final Set<Operation> runningOperations = newSetFromMap(new ConcurrentHashMap<Operation, Boolean>());
+
+    @Probe
+    private final MwCounter keyStreamsLoaded = newMwCounter();
+    @Probe
+    private final MwCounter keysSent = newMwCounter();
+    @Probe
+    private final MwCounter batchesSent = newMwCounter();
+    @Probe
+    private final AtomicInteger inflightBatches = new AtomicInteger();
+
+    public MapKeyStreamLoader(MapServiceContext mapServiceContext) {
+        NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
+        this.mapServiceContext = mapServiceContext;
+        this.executionService = nodeEngine.getExecutionService();
+        this.operationService = nodeEngine.getOperationService();
+        this.partitionService = nodeEngine.getPartitionService();
+        this.logger = nodeEngine.getLogger(getClass());
+        this.maxBatch = nodeEngine.getProperties().getInteger(MAP_LOAD_CHUNK_SIZE);
+        this.maxInflightBatches = nodeEngine.getProperties().getInteger(MAP_LOAD_MAX_INFLIGHT_BATCHES);
+    }
+
+    /**
+     * Starts loading the key streams of the given operation. The operation is responded with {@code true}
+     * or with the first failure once all of its key streams are loaded.
+     */
+    public void loadKeyStreams(LoadKeyStreamsOperation op) {
+        int[] keyStreams = op.getKeyStreams();
+        MapStoreWrapper storeWrapper = mapServiceContext.getMapContainer(op.getName())
+                .getMapStoreContext().getMapStoreWrapper();
+        KeyStreamsLoad load = new KeyStreamsLoad(op, storeWrapper);
+
+        runningOperations.add(op);
+        if (keyStreams.length == 0) {
+            load.complete();
+            return;
+        }
+        for (int keyStream : keyStreams) {
+            executionService.execute(MAP_LOAD_KEY_STREAMS_EXECUTOR, new KeyStreamTask(load, keyStream));
+        }
+    }
+
+    /**
+     * Responds to the given batch operation once the values of its keys are loaded.
+     *
+     * @param op     the operation loading the batch
+     * @param future the future of the load or {@code null} if there are no keys to load
+     */
+    @SuppressWarnings("unchecked")
+    public void awaitBatchLoad(final LoadKeyStreamBatchOperation op, Future<?> future) {
+        if (future == null) {
+            op.sendResponse(Boolean.TRUE);
+            return;
+        }
+        runningOperations.add(op);
+        executionService.asCompletableFuture((Future<Object>) future).andThen(new ExecutionCallback<Object>() {
+            @Override
+            public void onResponse(Object response) {
+                runningOperations.remove(op);
+                op.sendResponse(Boolean.TRUE);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                runningOperations.remove(op);
+                op.sendResponse(t);
+            }
+        });
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        registry.scanAndRegister(this, "map.keyStreamLoader");
+    }
+
+    /**
+     * Registers the running {@link LoadKeyStreamsOperation}s and {@link LoadKeyStreamBatchOperation}s,
+     * so that their invocations don't time out.
+     */
+    public void populate(LiveOperations liveOperations) {
+        for (Operation op : runningOperations) {
+            liveOperations.add(op.getCallerAddress(), op.getCallId());
+        }
+    }
+
+    /**
+     * State of a single {@link LoadKeyStreamsOperation}, shared by the tasks loading its key streams.
+     */
+    private final class KeyStreamsLoad implements ExecutionCallback<Object> {
+
+        private final LoadKeyStreamsOperation op;
+        private final MapStoreWrapper storeWrapper;
+        private final Semaphore inflightPermits = new Semaphore(maxInflightBatches);
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        // the key streams being read and the batches being loaded
+        private final AtomicInteger pending;
+        // remaining number of keys this member may send, ignored if the map size is unlimited
+        private final AtomicLong remainingKeys;
+        private final boolean limited;
+
+        private KeyStreamsLoad(LoadKeyStreamsOperation op, MapStoreWrapper storeWrapper) {
+            this.op = op;
+            this.storeWrapper = storeWrapper;
+            this.pending = new AtomicInteger(op.getKeyStreams().length);
+            this.remainingKeys = new AtomicLong(op.getMaxSize());
+            this.limited = op.getMaxSize() > 0;
+        }
+
+        boolean isFailed() {
+            return failure.get() != null;
+        }
+
+        boolean tryAcquireKey() {
+            return !limited || remainingKeys.getAndDecrement() > 0;
+        }
+
+        void sendBatch(int partitionId, List<Data> keys) throws InterruptedException {
+            inflightPermits.acquire();
+            inflightBatches.incrementAndGet();
+            pending.incrementAndGet();
+
+            Operation batchOp = new LoadKeyStreamBatchOperation(op.getName(), keys, op.isReplaceExistingValues());
+            operationService.invokeOnPartition(SERVICE_NAME, batchOp, partitionId).andThen(this);
+
+            batchesSent.inc();
+            keysSent.inc(keys.size());
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            batchDone();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            fail(t);
+            batchDone();
+        }
+
+        private void batchDone() {
+            inflightBatches.decrementAndGet();
+            inflightPermits.release();
+            done();
+        }
+
+        void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        void done() {
+            if (pending.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        void complete() {
+            runningOperations.remove(op);
+            Throwable t = failure.get();
+            if (logger.isFinestEnabled()) {
+                logger.finest("Loaded key streams of map " + op.getName() + (t == null ? "" : " with failure " + t));
+            }
+            op.sendResponse(t == null ? Boolean.TRUE : t);
+        }
+    }
+
+    private final class KeyStreamTask implements Runnable {
+
+        private final KeyStreamsLoad load;
+        private final int keyStream;
+
+        private KeyStreamTask(KeyStreamsLoad load, int keyStream) {
+            this.load = load;
+            this.keyStream = keyStream;
+        }
+
+        @Override
+        public void run() {
+            Iterator<Object> keys = null;
+            try {
+                keys = nullToEmpty(load.storeWrapper.loadAllKeys(keyStream)).iterator();
+                sendKeys(keys);
+                keyStreamsLoaded.inc();
+            } catch (Throwable t) {
+                logger.warning("Could not load key stream " + keyStream + " of map " + load.op.getName(), t);
+                load.fail(t);
+            } finally {
+                if (keys instanceof Closeable) {
+                    closeResource((Closeable) keys);
+                }
+                load.done();
+            }
+        }
+
+        private void sendKeys(Iterator<Object> keys) throws InterruptedException {
+            Map<Integer, List<Data>> batches = new HashMap<Integer, List<Data>>();
+            while (keys.hasNext() && !load.isFailed() && load.tryAcquireKey()) {
+                Data key = mapServiceContext.toData(keys.next());
+                int partitionId = partitionService.getPartitionId(key);
+                List<Data> batch = batches.get(partitionId);
+                if (batch == null) {
+                    batch = new ArrayList<Data>(maxBatch);
+                    batches.put(partitionId, batch);
+                }
+                batch.add(key);
+                if (batch.size() >= maxBatch) {
+                    batches.remove(partitionId);
+                    load.sendBatch(partitionId, batch);
+                }
+            }
+            if (load.isFailed()) {
+                return;
+            }
+            for (Map.Entry<Integer, List<Data>> entry : batches.entrySet()) {
+                load.sendBatch(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
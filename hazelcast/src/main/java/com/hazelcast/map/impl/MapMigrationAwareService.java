@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
+import com.hazelcast.map.impl.operation.MapReplicationFragments;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
@@ -24,9 +25,10 @@ import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.ColumnarProjection;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
-import com.hazelcast.spi.MigrationAwareService;
+import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
@@ -36,6 +38,7 @@ import com.hazelcast.util.Clock;
 
 import java.util.Iterator;
 
+import static com.hazelcast.map.impl.ExpirationTimeSetter.isExpirable;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.spi.partition.MigrationEndpoint.DESTINATION;
@@ -46,7 +49,7 @@ import static com.hazelcast.spi.partition.MigrationEndpoint.SOURCE;
  *
  * @see MapService
  */
-class MapMigrationAwareService implements MigrationAwareService {
+class MapMigrationAwareService implements FragmentedMigrationAwareService {
 
     protected final MapServiceContext mapServiceContext;
     protected final SerializationService serializationService;
@@ -71,6 +74,15 @@ class MapMigrationAwareService implements MigrationAwareService {
         return operation;
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, int fragmentSize) {
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+
+        return new MapReplicationFragments(container, partitionId, event.getReplicaIndex(), fragmentSize,
+                mapServiceContext.getService());
+    }
+
     @Override
     public void commitMigration(PartitionMigrationEvent event) {
         migrateIndex(event);
@@ -131,7 +143,11 @@ class MapMigrationAwareService implements MigrationAwareService {
         for (RecordStore recordStore : container.getMaps().values()) {
             final MapContainer mapContainer = mapServiceContext.getMapContainer(recordStore.getName());
             final Indexes indexes = mapContainer.getIndexes();
-            if (!indexes.hasIndex()) {
+            final ColumnarProjection columnarProjection = recordStore.getColumnarProjection();
+            if (columnarProjection != null && event.getMigrationEndpoint() == SOURCE) {
+                columnarProjection.clear();
+            }
+            if (!indexes.hasIndex() && (columnarProjection == null || event.getMigrationEndpoint() == SOURCE)) {
                 continue;
             }
 
@@ -147,7 +163,12 @@ class MapMigrationAwareService implements MigrationAwareService {
                     Object value = Records.getValueOrCachedValue(record, serializationService);
                     if (value != null) {
                         QueryableEntry queryEntry = mapContainer.newQueryEntry(record.getKey(), value);
-                        indexes.saveEntryIndex(queryEntry, null);
+                        if (indexes.hasIndex()) {
+                            indexes.saveEntryIndex(queryEntry, null);
+                        }
+                        if (columnarProjection != null) {
+                            columnarProjection.save(queryEntry, isExpirable(record, mapContainer.getMapConfig()));
+                        }
                     }
                 }
             }
@@ -25,8 +25,10 @@ import com.hazelcast.spi.ClientAwareService;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.EventRegistration;
+import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.LiveOperations;
+import com.hazelcast.spi.LiveOperationsTracker;
 import com.hazelcast.spi.ManagedService;
-import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.NotifiableEventListener;
 import com.hazelcast.spi.Operation;
@@ -46,6 +48,7 @@ import com.hazelcast.transaction.TransactionalObject;
 import com.hazelcast.transaction.impl.Transaction;
 import com.hazelcast.wan.WanReplicationEvent;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 
@@ -68,10 +71,11 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  * @see MapClientAwareService
  * @see MapServiceContext
  */
-public class MapService implements ManagedService, MigrationAwareService,
+public class MapService implements ManagedService, FragmentedMigrationAwareService,
         TransactionalService, RemoteService, EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, StatisticsAwareService,
-        PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener, ClusterStateListener {
+        PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener, ClusterStateListener,
+        LiveOperationsTracker {
 
     public static final String SERVICE_NAME = "hz:impl:mapService";
 
@@ -117,6 +121,11 @@ public class MapService implements ManagedService, MigrationAwareService,
         return migrationAwareService.prepareReplicationOperation(event);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, int fragmentSize) {
+        return migrationAwareService.prepareReplicationOperations(event, fragmentSize);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
@@ -186,6 +195,11 @@ public class MapService implements ManagedService, MigrationAwareService,
         return mapServiceContext;
     }
 
+    @Override
+    public void populate(LiveOperations liveOperations) {
+        mapServiceContext.getMapKeyStreamLoader().populate(liveOperations);
+    }
+
     @Override
     public void clientDisconnected(String clientUuid) {
         clientAwareService.clientDisconnected(clientUuid);
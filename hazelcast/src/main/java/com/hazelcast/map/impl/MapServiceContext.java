@@ -20,6 +20,7 @@ import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.ExpirationManager;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
@@ -125,10 +126,21 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     ExpirationManager getExpirationManager();
 
+    MapKeyStreamLoader getMapKeyStreamLoader();
+
     void setService(MapService mapService);
 
     NodeEngine getNodeEngine();
 
+    /**
+     * Returns the node-wide {@link MemoryManager} which backs maps configured with
+     * {@link com.hazelcast.config.InMemoryFormat#NATIVE}. It is created on first use
+     * and bounded by the size configured in {@link com.hazelcast.config.NativeMemoryConfig}.
+     *
+     * @return the native memory manager
+     */
+    MemoryManager getNativeMemoryManager();
+
     MergePolicyProvider getMergePolicyProvider();
 
     MapEventPublisher getMapEventPublisher();
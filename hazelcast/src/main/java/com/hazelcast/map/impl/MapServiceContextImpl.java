@@ -18,9 +18,15 @@ package com.hazelcast.map.impl;
 
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.ExecutorConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.impl.event.MapEventPublisher;
@@ -62,8 +68,10 @@ import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.EventService;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.partition.IPartitionService;
@@ -72,6 +80,7 @@ import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ContextMutexFactory;
 import com.hazelcast.util.ExceptionUtil;
+import com.hazelcast.util.executor.ExecutorType;
 import com.hazelcast.util.executor.ManagedExecutorService;
 
 import java.util.Collection;
@@ -91,10 +100,12 @@ import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
 import static com.hazelcast.spi.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.properties.GroupProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PROJECTION_PARALLEL_EVALUATION;
 
 /**
  * Default implementation of map service context.
@@ -121,6 +132,7 @@ class MapServiceContextImpl implements MapServiceContext {
      */
     protected final AtomicInteger writeBehindQueueItemCounter = new AtomicInteger(0);
     protected final ExpirationManager expirationManager;
+    protected final MapKeyStreamLoader mapKeyStreamLoader;
     protected final MapNearCacheManager mapNearCacheManager;
     protected final LocalMapStatsProvider localMapStatsProvider;
     protected final MergePolicyProvider mergePolicyProvider;
@@ -136,6 +148,7 @@ class MapServiceContextImpl implements MapServiceContext {
     protected EventService eventService;
     protected MapOperationProviders operationProviders;
     protected ResultProcessorRegistry resultProcessorRegistry;
+    private volatile MemoryManager nativeMemoryManager;
 
     MapServiceContextImpl(NodeEngine nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -144,6 +157,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.mapContainers = new ConcurrentHashMap<String, MapContainer>();
         this.ownedPartitions = new AtomicReference<Collection<Integer>>();
         this.expirationManager = new ExpirationManager(partitionContainers, nodeEngine);
+        ((NodeEngineImpl) nodeEngine).getMetricsRegistry().collectMetrics(expirationManager);
         this.mapNearCacheManager = createMapNearCacheManager();
         this.localMapStatsProvider = createLocalMapStatsProvider();
         this.mergePolicyProvider = new MergePolicyProvider(nodeEngine);
@@ -153,9 +167,17 @@ class MapServiceContextImpl implements MapServiceContext {
         this.partitionScanRunner = createPartitionScanRunner();
         this.mapQueryEngine = createMapQueryEngine();
         this.mapQueryRunner = createMapQueryRunner(nodeEngine, queryOptimizer, resultProcessorRegistry, partitionScanRunner);
+        this.mapKeyStreamLoader = new MapKeyStreamLoader(this);
+        ((NodeEngineImpl) nodeEngine).getMetricsRegistry().collectMetrics(mapKeyStreamLoader);
         this.eventService = nodeEngine.getEventService();
         this.operationProviders = createOperationProviders();
         this.partitioningStrategyFactory = new PartitioningStrategyFactory(nodeEngine.getConfigClassLoader());
+        registerWriteBehindExecutor(nodeEngine.getExecutionService());
+    }
+
+    private static void registerWriteBehindExecutor(ExecutionService executionService) {
+        executionService.register(MAP_WRITE_BEHIND_EXECUTOR, ExecutorConfig.DEFAULT_POOL_SIZE, Integer.MAX_VALUE,
+                ExecutorType.CACHED);
     }
 
     MapNearCacheManager createMapNearCacheManager() {
@@ -208,7 +230,14 @@ class MapServiceContextImpl implements MapServiceContext {
     }
 
     private QueryResultProcessor createQueryResultProcessor(SerializationService ss) {
-        return new QueryResultProcessor(ss);
+        boolean parallelProjection = nodeEngine.getProperties().getBoolean(QUERY_PROJECTION_PARALLEL_EVALUATION);
+        if (!parallelProjection) {
+            return new QueryResultProcessor(ss);
+        }
+        int opTimeoutInMillis = nodeEngine.getProperties().getInteger(OPERATION_CALL_TIMEOUT_MILLIS);
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        ManagedExecutorService queryExecutorService = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
+        return new QueryResultProcessor(ss, queryExecutorService, opTimeoutInMillis, partitionCount);
     }
 
     private AggregationResultProcessor createAggregationResultProcessor(SerializationService ss) {
@@ -217,7 +246,9 @@ class MapServiceContextImpl implements MapServiceContext {
         AccumulationExecutor accumulationExecutor;
         if (parallelAccumulation) {
             ManagedExecutorService queryExecutorService = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
-            accumulationExecutor = new ParallelAccumulationExecutor(queryExecutorService, ss, opTimeoutInMillis);
+            int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+            accumulationExecutor = new ParallelAccumulationExecutor(queryExecutorService, ss, opTimeoutInMillis,
+                    partitionCount);
         } else {
             accumulationExecutor = new CallerRunsAccumulationExecutor(ss);
         }
@@ -367,6 +398,18 @@ class MapServiceContextImpl implements MapServiceContext {
         clearPartitions(true);
         mapNearCacheManager.shutdown();
         mapContainers.clear();
+        disposeNativeMemoryManager();
+    }
+
+    /**
+     * Disposes the native memory manager after the record stores and write-behind queues allocated from it
+     * have been cleared.
+     */
+    private synchronized void disposeNativeMemoryManager() {
+        if (nativeMemoryManager != null) {
+            nativeMemoryManager.dispose();
+            nativeMemoryManager = null;
+        }
     }
 
     @Override
@@ -411,11 +454,42 @@ class MapServiceContextImpl implements MapServiceContext {
         return expirationManager;
     }
 
+    @Override
+    public MapKeyStreamLoader getMapKeyStreamLoader() {
+        return mapKeyStreamLoader;
+    }
+
     @Override
     public NodeEngine getNodeEngine() {
         return nodeEngine;
     }
 
+    @Override
+    public MemoryManager getNativeMemoryManager() {
+        MemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager != null) {
+            return memoryManager;
+        }
+        synchronized (this) {
+            if (nativeMemoryManager == null) {
+                nativeMemoryManager = createNativeMemoryManager();
+            }
+            return nativeMemoryManager;
+        }
+    }
+
+    private MemoryManager createNativeMemoryManager() {
+        NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+        if (!nativeMemoryConfig.isEnabled()) {
+            throw new IllegalStateException("NATIVE in-memory format requires native memory to be enabled!");
+        }
+        if (!UnsafeMemoryAllocator.isAvailable() || !GlobalMemoryAccessorRegistry.MEM_AVAILABLE) {
+            throw new IllegalStateException("NATIVE in-memory format is not supported on this JVM!");
+        }
+        UnsafeMemoryAllocator allocator = new UnsafeMemoryAllocator(nativeMemoryConfig.getSize().bytes());
+        return new MemoryManagerBean(allocator, GlobalMemoryAccessorRegistry.MEM);
+    }
+
     @Override
     public MergePolicyProvider getMergePolicyProvider() {
         return mergePolicyProvider;
@@ -20,6 +20,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.MapLoader;
 import com.hazelcast.core.MapLoaderLifecycleSupport;
 import com.hazelcast.core.MapStore;
+import com.hazelcast.core.ParallelMapLoader;
 import com.hazelcast.core.PostProcessingMapStore;
 import com.hazelcast.internal.diagnostics.Diagnostics;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
@@ -165,6 +166,27 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         return null;
     }
 
+    /**
+     * @return {@code true} if the keys can be loaded by key streams, see {@link ParallelMapLoader}
+     */
+    public boolean isParallelMapLoader() {
+        return impl instanceof ParallelMapLoader;
+    }
+
+    /**
+     * @see ParallelMapLoader#getKeyStreamCount()
+     */
+    public int getKeyStreamCount() {
+        return ((ParallelMapLoader) impl).getKeyStreamCount();
+    }
+
+    /**
+     * @see ParallelMapLoader#loadAllKeys(int)
+     */
+    public Iterable<Object> loadAllKeys(int keyStream) {
+        return ((ParallelMapLoader<Object, Object>) impl).loadAllKeys(keyStream);
+    }
+
     public Object getImpl() {
         return impl;
     }
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl;
 import com.hazelcast.config.InMemoryFormat;
 
 import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 
 /**
  * Static factory methods for various entry cost estimators.
@@ -37,6 +38,9 @@ public final class OwnedEntryCostEstimatorFactory {
         if (BINARY.equals(inMemoryFormat)) {
             return (EntryCostEstimator<K, V>) new BinaryMapEntryCostEstimator();
         }
+        if (NATIVE.equals(inMemoryFormat)) {
+            return (EntryCostEstimator<K, V>) new NativeMapEntryCostEstimator();
+        }
         return ZERO_SIZE_ESTIMATOR;
     }
 
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.LazyEntryViewFromRecord;
@@ -56,9 +57,11 @@ public class EvictorImpl implements Evictor {
     }
 
     private EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey) {
+        FrequencySketch frequencySketch = recordStore.getFrequencySketch();
         Iterable<EntryView> samples = getSamples(recordStore);
         EntryView excluded = null;
         EntryView selected = null;
+        int selectedFrequency = 0;
 
         for (EntryView candidate : samples) {
             if (excludedKey != null && excluded == null && getDataKey(candidate).equals(excludedKey)) {
@@ -66,7 +69,15 @@ public class EvictorImpl implements Evictor {
                 continue;
             }
 
-            if (selected == null) {
+            if (frequencySketch != null) {
+                // entries with lower read frequencies are evicted first, the eviction policy breaks ties
+                int frequency = frequencySketch.frequency(getDataKey(candidate).hashCode());
+                if (selected == null || frequency < selectedFrequency
+                        || (frequency == selectedFrequency && mapEvictionPolicy.compare(candidate, selected) < 0)) {
+                    selected = candidate;
+                    selectedFrequency = frequency;
+                }
+            } else if (selected == null) {
                 selected = candidate;
             } else if (mapEvictionPolicy.compare(candidate, selected) < 0) {
                 selected = candidate;
@@ -17,6 +17,10 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.operation.ClearExpiredOperation;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -35,7 +39,9 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.util.CollectionUtil.isEmpty;
 import static com.hazelcast.util.Preconditions.checkPositive;
@@ -47,6 +53,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Responsible for gradual cleanup of expired entries due to the time-to-live and max-idle-seconds.
+ * Each record store indexes its keys by expiration time, so a cleanup only visits the entries which are due.
  * By using these system properties, one can accelerate or slow down background expiration process.
  * <li>
  * <ul>
@@ -54,8 +61,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  *      Default is {@value DEFAULT_EXPIRATION_TASK_PERIOD_SECONDS}
  * </ul>
  * <ul>
- *     {@value SYS_PROP_EXPIRATION_CLEANUP_PERCENTAGE}: Scannable percentage of entries of a map partition in every run round.
- *      Default is {@value DEFAULT_EXPIRATION_CLEANUP_PERCENTAGE}%
+ *     {@value SYS_PROP_EXPIRATION_CLEANUP_PERCENTAGE}: Maximum percentage of entries of a map partition which are checked
+ *      for expiration in every run round. Default is {@value DEFAULT_EXPIRATION_CLEANUP_PERCENTAGE}%
  * </ul>
  * <ul>
  *     {@value SYS_PROP_EXPIRATION_CLEANUP_OPERATION_COUNT}: Number of scannable partitions in every run round.
@@ -79,9 +86,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  *   </pre>
  * </p>
  *
+ * The {@code map.expiration} metrics report the number of expired entries which were evicted and the lag between their
+ * expiration and their eviction.
+ *
  * @since 3.3
  */
-public final class ExpirationManager {
+public final class ExpirationManager implements MetricsProvider {
 
     // These are `default` for testing purposes.
     static final String SYS_PROP_EXPIRATION_TASK_PERIOD_SECONDS = "hazelcast.internal.map.expiration.task.period.seconds";
@@ -104,6 +114,13 @@ public final class ExpirationManager {
     private final int cleanupPercentage;
     private final int cleanupOperationCount;
 
+    @Probe
+    private final MwCounter evictedCount = newMwCounter();
+    @Probe
+    private final MwCounter totalLagMillis = newMwCounter();
+    @Probe
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
     private ScheduledFuture<?> expirationTask;
 
     @SuppressWarnings("checkstyle:magicnumber")
@@ -147,6 +164,29 @@ public final class ExpirationManager {
     }
 
 
+    /**
+     * Called by the record stores after evicting expired entries.
+     *
+     * @param count          the number of evicted entries
+     * @param totalLagMillis the sum of the times between the expiration and the eviction of the entries
+     * @param maxLagMillis   the maximum time between the expiration and the eviction of an entry
+     */
+    public void onExpiredEntriesEvicted(int count, long totalLagMillis, long maxLagMillis) {
+        evictedCount.inc(count);
+        this.totalLagMillis.inc(totalLagMillis);
+        for (;;) {
+            long current = this.maxLagMillis.get();
+            if (current >= maxLagMillis || this.maxLagMillis.compareAndSet(current, maxLagMillis)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        registry.scanAndRegister(this, "map.expiration");
+    }
+
     private int getInteger(String propertyName, int defaultValue) {
         Config config = nodeEngine.getConfig();
         String property = config.getProperty(propertyName);
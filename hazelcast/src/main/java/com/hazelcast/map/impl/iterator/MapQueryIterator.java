@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the entries of a map which match a predicate. The partitions are scanned one
+ * after the other with a {@link MapQueryPartitionIterator}, so at most one chunk of
+ * {@code fetchSize} entries is held in memory at a time, however large the whole result is.
+ * <p>
+ * The iterator is weakly consistent: entries updated during the iteration may or may not be
+ * returned, and entries may be missed or returned twice when a partition is resized or migrated.
+ */
+public class MapQueryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+    private final int fetchSize;
+    private final Predicate predicate;
+    private final int partitionCount;
+
+    private int partitionId = -1;
+    private Iterator<Map.Entry<K, V>> partitionIterator;
+    private Iterator<Map.Entry<K, V>> lastReturnedFrom;
+
+    public MapQueryIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, Predicate predicate) {
+        this.mapProxy = mapProxy;
+        this.fetchSize = fetchSize;
+        this.predicate = predicate;
+        this.partitionCount = mapProxy.getNodeEngine().getPartitionService().getPartitionCount();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (partitionIterator == null || !partitionIterator.hasNext()) {
+            if (partitionId + 1 >= partitionCount) {
+                return false;
+            }
+            partitionId++;
+            partitionIterator = new MapQueryPartitionIterator<K, V>(mapProxy, fetchSize, partitionId, predicate);
+        }
+        return true;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        lastReturnedFrom = partitionIterator;
+        return partitionIterator.next();
+    }
+
+    @Override
+    public void remove() {
+        if (lastReturnedFrom == null) {
+            throw new IllegalStateException("Iterator.next() must be called before remove()!");
+        }
+        lastReturnedFrom.remove();
+        lastReturnedFrom = null;
+    }
+}
@@ -32,6 +32,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createBoundedWriteBehindQueue;
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createDefaultWriteBehindQueue;
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createNativeWriteBehindQueue;
 
 /**
  * Factory class responsible for creating various data store implementations.
@@ -60,8 +61,19 @@ public final class MapDataStores {
         MapServiceContext mapServiceContext = mapStoreContext.getMapServiceContext();
         MapStoreConfig mapStoreConfig = mapStoreContext.getMapStoreConfig();
 
+        HazelcastProperties hazelcastProperties = mapServiceContext.getNodeEngine().getProperties();
+        boolean writeCoalescing = mapStoreConfig.isWriteCoalescing();
+        boolean nativeQueue = writeCoalescing && hazelcastProperties.getBoolean(GroupProperty.MAP_WRITE_BEHIND_QUEUE_NATIVE);
+
         WriteBehindStore mapDataStore = new WriteBehindStore(mapStoreContext, partitionId);
-        mapDataStore.setWriteBehindQueue(newWriteBehindQueue(mapServiceContext, mapStoreConfig.isWriteCoalescing()));
+        if (nativeQueue) {
+            SerializationService serializationService = mapServiceContext.getNodeEngine().getSerializationService();
+            mapDataStore.setWriteBehindQueue(createNativeWriteBehindQueue(mapServiceContext.getNativeMemoryManager(),
+                    serializationService));
+            mapDataStore.setStagingInQueue(true);
+        } else {
+            mapDataStore.setWriteBehindQueue(newWriteBehindQueue(mapServiceContext, writeCoalescing));
+        }
         mapDataStore.setWriteBehindProcessor(writeBehindProcessor);
         return (MapDataStore<K, V>) mapDataStore;
     }
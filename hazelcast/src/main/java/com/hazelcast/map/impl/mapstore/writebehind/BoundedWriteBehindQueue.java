@@ -123,6 +123,11 @@ class BoundedWriteBehindQueue<E> implements WriteBehindQueue<E> {
         return queue.contains(e);
     }
 
+    @Override
+    public E get(E e) {
+        return queue.get(e);
+    }
+
     /**
      * Returns the number of elements in this {@link WriteBehindQueue}.
      *
@@ -106,6 +106,11 @@ class CoalescedWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
         return map.containsKey(entry.getKey());
     }
 
+    @Override
+    public DelayedEntry get(DelayedEntry entry) {
+        return map.get((Data) entry.getKey());
+    }
+
     @Override
     public int size() {
         return map.size();
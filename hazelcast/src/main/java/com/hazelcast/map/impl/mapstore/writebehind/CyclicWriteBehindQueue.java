@@ -84,16 +84,17 @@ class CyclicWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
     }
 
     /**
-     * Removes the first element of this queue instead of searching for it,
-     * implementation of this method is strongly tied with {@link StoreWorker} implementation.
+     * Removes the given element from this queue. The {@link StoreWorker} removes the stored elements in queue order,
+     * so the element is usually the first one and is removed without searching for it. It is only searched for if
+     * failed elements are left in front of it.
      *
      * @param entry element to be removed.
      * @return <code>true</code> if removed successfully, <code>false</code> otherwise
      */
     @Override
     public boolean removeFirstOccurrence(DelayedEntry entry) {
-        DelayedEntry removedEntry = deque.pollFirst();
-        if (removedEntry == null) {
+        boolean removed = deque.peekFirst() == entry ? deque.pollFirst() != null : deque.removeFirstOccurrence(entry);
+        if (!removed) {
             return false;
         }
         decreaseCountIndex(entry);
@@ -112,6 +113,22 @@ class CyclicWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
         return index.containsKey(key);
     }
 
+    @Override
+    public DelayedEntry get(DelayedEntry entry) {
+        Data key = (Data) entry.getKey();
+        if (!index.containsKey(key)) {
+            return null;
+        }
+        Iterator<DelayedEntry> iterator = deque.descendingIterator();
+        while (iterator.hasNext()) {
+            DelayedEntry e = iterator.next();
+            if (key.equals(e.getKey())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
     @Override
     public int size() {
         return deque.size();
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.mapstore.writebehind;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.properties.GroupProperty;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,14 +29,18 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static com.hazelcast.util.CollectionUtil.isNotEmpty;
 import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Processes store operations.
+ * <p/>
+ * When batching is enabled the batch size adapts to the observed latency of the store operations: it is halved
+ * while batches take longer than {@link GroupProperty#MAP_WRITE_BEHIND_BATCH_TARGET_LATENCY_MILLIS} and
+ * doubled, up to the configured write batch size, while they take less than half of it.
  */
 class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEntry> {
 
@@ -55,9 +60,19 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
 
     private final List<StoreListener> storeListeners;
 
+    private final long batchTargetLatencyNanos;
+
+    /**
+     * Current batch size, between 1 and {@link #writeBatchSize}.
+     */
+    private volatile int batchSize;
+
     DefaultWriteBehindProcessor(MapStoreContext mapStoreContext) {
         super(mapStoreContext);
         this.storeListeners = new ArrayList<StoreListener>(2);
+        this.batchTargetLatencyNanos = MILLISECONDS.toNanos(mapStoreContext.getMapServiceContext().getNodeEngine()
+                .getProperties().getMillis(GroupProperty.MAP_WRITE_BEHIND_BATCH_TARGET_LATENCY_MILLIS));
+        this.batchSize = writeBatchSize;
     }
 
     @Override
@@ -340,32 +355,50 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
     }
 
     /**
-     * Store chunk by chunk using write batch size {@link #writeBatchSize}
+     * Store chunk by chunk using the adaptive {@link #batchSize}
      *
      * @param sortedDelayedEntries entries to be stored.
      * @return not-stored entries per partition.
      */
     private Map<Integer, List<DelayedEntry>> doStoreUsingBatchSize(List<DelayedEntry> sortedDelayedEntries) {
         final Map<Integer, List<DelayedEntry>> failsPerPartition = new HashMap<Integer, List<DelayedEntry>>();
-        int page = 0;
-        List<DelayedEntry> delayedEntryList;
-        while ((delayedEntryList = getBatchChunk(sortedDelayedEntries, writeBatchSize, page++)) != null) {
-            final Map<Integer, List<DelayedEntry>> fails = processInternal(delayedEntryList);
-            final Set<Map.Entry<Integer, List<DelayedEntry>>> entries = fails.entrySet();
-            for (Map.Entry<Integer, List<DelayedEntry>> entry : entries) {
-                final Integer partitionId = entry.getKey();
-                final List<DelayedEntry> tmpFailList = entry.getValue();
-                List<DelayedEntry> failList = failsPerPartition.get(partitionId);
-                if (failList == null || failList.isEmpty()) {
-                    failsPerPartition.put(partitionId, tmpFailList);
-                    failList = failsPerPartition.get(partitionId);
+        final int size = sortedDelayedEntries.size();
+        int start = 0;
+        while (start < size) {
+            final int end = Math.min(start + batchSize, size);
+            final long startNanos = System.nanoTime();
+            final Map<Integer, List<DelayedEntry>> fails = processInternal(sortedDelayedEntries.subList(start, end));
+            adaptBatchSize(end - start, System.nanoTime() - startNanos);
+            for (Map.Entry<Integer, List<DelayedEntry>> entry : fails.entrySet()) {
+                final List<DelayedEntry> failList = failsPerPartition.get(entry.getKey());
+                if (failList == null) {
+                    failsPerPartition.put(entry.getKey(), entry.getValue());
+                } else {
+                    failList.addAll(entry.getValue());
                 }
-                failList.addAll(tmpFailList);
             }
+            start = end;
         }
         return failsPerPartition;
     }
 
+    private void adaptBatchSize(int storedCount, long latencyNanos) {
+        if (batchTargetLatencyNanos <= 0) {
+            return;
+        }
+        int currentBatchSize = batchSize;
+        if (latencyNanos > batchTargetLatencyNanos) {
+            batchSize = Math.max(1, currentBatchSize / 2);
+        } else if (latencyNanos < batchTargetLatencyNanos / 2 && storedCount == currentBatchSize) {
+            batchSize = (int) Math.min(writeBatchSize, 2L * currentBatchSize);
+        }
+    }
+
+    // used for testing purposes
+    int getBatchSize() {
+        return batchSize;
+    }
+
     private List<DelayedEntry> retryCall(RetryTask task) {
         boolean result = false;
         Exception exception = null;
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntries;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.CollectionUtil.isEmpty;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * A write-behind queue which supports write coalescing like {@link CoalescedWriteBehindQueue} but keeps
+ * the pending entries in native memory, so a queue which grows during a map-store outage does not put
+ * pressure on the garbage collector.
+ * <p>
+ * Every entry is a single native block holding its metadata followed by the serialized key and value.
+ * The blocks are linked in insertion order and additionally indexed by a {@link HashSlotArray8byteKeyImpl}
+ * keyed by the 64-bit hash of the key, whose slots hold the first block of a chain of blocks with the
+ * same key hash. The entries returned by this queue are on-heap copies, they are created on demand.
+ * <p>
+ * This queue is not thread safe, it is wrapped by a {@link SynchronizedWriteBehindQueue}.
+ */
+class NativeWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
+
+    static final int PREV_OFFSET = 0;
+    static final int NEXT_OFFSET = PREV_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int CHAIN_NEXT_OFFSET = NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_HASH_OFFSET = CHAIN_NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int STORE_TIME_OFFSET = KEY_HASH_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int SEQUENCE_OFFSET = STORE_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int PARTITION_ID_OFFSET = SEQUENCE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_SIZE_OFFSET = PARTITION_ID_OFFSET + INT_SIZE_IN_BYTES;
+    static final int VALUE_SIZE_OFFSET = KEY_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+    static final int HEADER_SIZE = VALUE_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+
+    /**
+     * Value size of entries without a value, i.e. of pending deletes.
+     */
+    private static final int NO_VALUE = -1;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final SerializationService serializationService;
+    private final HashSlotArray8byteKeyImpl slots;
+
+    private boolean slotsAllocated;
+    private long head = NULL_ADDRESS;
+    private long tail = NULL_ADDRESS;
+    private int size;
+
+    NativeWriteBehindQueue(MemoryManager memoryManager, SerializationService serializationService) {
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.serializationService = serializationService;
+        this.slots = new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+    }
+
+    @Override
+    public void addFirst(Collection<DelayedEntry> collection) {
+        if (isEmpty(collection)) {
+            return;
+        }
+        // entries already in this queue keep their value but are moved to the position of the
+        // first occurrence of their key in the collection, as in CoalescedWriteBehindQueue
+        List<DelayedEntry> entries = new ArrayList<DelayedEntry>(collection);
+        ListIterator<DelayedEntry> iterator = entries.listIterator(entries.size());
+        while (iterator.hasPrevious()) {
+            DelayedEntry delayedEntry = iterator.previous();
+            Data key = (Data) delayedEntry.getKey();
+            long address = find(key);
+            if (address == NULL_ADDRESS) {
+                address = newBlock(delayedEntry);
+                linkToChain(address);
+                size++;
+            } else {
+                unlinkFromList(address);
+            }
+            linkFirst(address);
+        }
+    }
+
+    @Override
+    public void addLast(DelayedEntry delayedEntry) {
+        if (delayedEntry == null) {
+            return;
+        }
+        Data key = (Data) delayedEntry.getKey();
+        long current = find(key);
+        if (current != NULL_ADDRESS) {
+            // keep the store time of an existing key, so it is not shifted on every update
+            delayedEntry.setStoreTime(mem.getLong(current + STORE_TIME_OFFSET));
+        }
+        long address = newBlock(delayedEntry);
+        linkToChain(address);
+        if (current == NULL_ADDRESS) {
+            linkLast(address);
+            size++;
+        } else {
+            replaceInList(current, address);
+            unlinkFromChain(current);
+            freeBlock(current);
+        }
+    }
+
+    @Override
+    public DelayedEntry peek() {
+        return head == NULL_ADDRESS ? null : readEntry(head);
+    }
+
+    /**
+     * Removes the entry of the key of the given entry if it has the same value.
+     *
+     * @param incoming element to be removed.
+     * @return <code>true</code> if removed successfully, <code>false</code> otherwise
+     */
+    @Override
+    public boolean removeFirstOccurrence(DelayedEntry incoming) {
+        long address = find((Data) incoming.getKey());
+        if (address == NULL_ADDRESS) {
+            return false;
+        }
+        if (!valueEquals(address, incoming.getValue())) {
+            return false;
+        }
+        unlinkFromList(address);
+        unlinkFromChain(address);
+        freeBlock(address);
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean contains(DelayedEntry entry) {
+        return find((Data) entry.getKey()) != NULL_ADDRESS;
+    }
+
+    @Override
+    public DelayedEntry get(DelayedEntry entry) {
+        long address = find((Data) entry.getKey());
+        return address == NULL_ADDRESS ? null : readEntry(address);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        long address = head;
+        while (address != NULL_ADDRESS) {
+            long next = mem.getLong(address + NEXT_OFFSET);
+            freeBlock(address);
+            address = next;
+        }
+        head = NULL_ADDRESS;
+        tail = NULL_ADDRESS;
+        size = 0;
+        if (slotsAllocated) {
+            // the queue of a destroyed record store is only cleared, so nothing is kept allocated
+            slots.dispose();
+            slotsAllocated = false;
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<DelayedEntry> collection) {
+        checkNotNull(collection, "collection can not be null");
+
+        for (long address = head; address != NULL_ADDRESS; address = mem.getLong(address + NEXT_OFFSET)) {
+            collection.add(readEntry(address));
+        }
+        clear();
+        return collection.size();
+    }
+
+    @Override
+    public List<DelayedEntry> asList() {
+        List<DelayedEntry> list = new ArrayList<DelayedEntry>(size);
+        for (long address = head; address != NULL_ADDRESS; address = mem.getLong(address + NEXT_OFFSET)) {
+            list.add(readEntry(address));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public void filter(IPredicate<DelayedEntry> predicate, Collection<DelayedEntry> collection) {
+        for (long address = head; address != NULL_ADDRESS; address = mem.getLong(address + NEXT_OFFSET)) {
+            DelayedEntry delayedEntry = readEntry(address);
+            if (!predicate.test(delayedEntry)) {
+                break;
+            }
+            collection.add(delayedEntry);
+        }
+    }
+
+    private long find(Data key) {
+        if (size == 0) {
+            return NULL_ADDRESS;
+        }
+        long slotAddress = slots.get(key.hash64());
+        if (slotAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        byte[] keyBytes = key.toByteArray();
+        long address = mem.getLong(slotAddress);
+        while (address != NULL_ADDRESS) {
+            if (bytesEqual(address + HEADER_SIZE, mem.getInt(address + KEY_SIZE_OFFSET), keyBytes)) {
+                return address;
+            }
+            address = mem.getLong(address + CHAIN_NEXT_OFFSET);
+        }
+        return NULL_ADDRESS;
+    }
+
+    private long newBlock(DelayedEntry delayedEntry) {
+        Data key = (Data) delayedEntry.getKey();
+        byte[] keyBytes = key.toByteArray();
+        Object value = delayedEntry.getValue();
+        byte[] valueBytes = value == null ? null : toBytes(value);
+        int valueSize = valueBytes == null ? NO_VALUE : valueBytes.length;
+
+        long address = malloc.allocate(HEADER_SIZE + keyBytes.length + Math.max(0, valueSize));
+        mem.putLong(address + PREV_OFFSET, NULL_ADDRESS);
+        mem.putLong(address + NEXT_OFFSET, NULL_ADDRESS);
+        mem.putLong(address + CHAIN_NEXT_OFFSET, NULL_ADDRESS);
+        mem.putLong(address + KEY_HASH_OFFSET, key.hash64());
+        mem.putLong(address + STORE_TIME_OFFSET, delayedEntry.getStoreTime());
+        mem.putLong(address + SEQUENCE_OFFSET, delayedEntry.getSequence());
+        mem.putInt(address + PARTITION_ID_OFFSET, delayedEntry.getPartitionId());
+        mem.putInt(address + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.putInt(address + VALUE_SIZE_OFFSET, valueSize);
+        mem.copyFromByteArray(keyBytes, 0, address + HEADER_SIZE, keyBytes.length);
+        if (valueSize > 0) {
+            mem.copyFromByteArray(valueBytes, 0, valueAddress(address), valueSize);
+        }
+        return address;
+    }
+
+    private DelayedEntry readEntry(long address) {
+        Data key = new HeapData(readBytes(address + HEADER_SIZE, mem.getInt(address + KEY_SIZE_OFFSET)));
+        long storeTime = mem.getLong(address + STORE_TIME_OFFSET);
+        int partitionId = mem.getInt(address + PARTITION_ID_OFFSET);
+        int valueSize = mem.getInt(address + VALUE_SIZE_OFFSET);
+
+        DelayedEntry<Data, Data> delayedEntry;
+        if (valueSize == NO_VALUE) {
+            delayedEntry = DelayedEntries.createWithoutValue(key, storeTime, partitionId);
+        } else {
+            Data value = new HeapData(readBytes(valueAddress(address), valueSize));
+            delayedEntry = DelayedEntries.createDefault(key, value, storeTime, partitionId);
+        }
+        delayedEntry.setSequence(mem.getLong(address + SEQUENCE_OFFSET));
+        return delayedEntry;
+    }
+
+    private void freeBlock(long address) {
+        int valueSize = mem.getInt(address + VALUE_SIZE_OFFSET);
+        malloc.free(address, HEADER_SIZE + mem.getInt(address + KEY_SIZE_OFFSET) + Math.max(0, valueSize));
+    }
+
+    private long valueAddress(long address) {
+        return address + HEADER_SIZE + mem.getInt(address + KEY_SIZE_OFFSET);
+    }
+
+    private boolean valueEquals(long address, Object value) {
+        int valueSize = mem.getInt(address + VALUE_SIZE_OFFSET);
+        if (value == null || valueSize == NO_VALUE) {
+            return value == null && valueSize == NO_VALUE;
+        }
+        return bytesEqual(valueAddress(address), valueSize, toBytes(value));
+    }
+
+    private byte[] toBytes(Object value) {
+        Data data = serializationService.toData(value);
+        return data.toByteArray();
+    }
+
+    private byte[] readBytes(long address, int length) {
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            mem.copyToByteArray(address, bytes, 0, length);
+        }
+        return bytes;
+    }
+
+    private boolean bytesEqual(long address, int length, byte[] bytes) {
+        if (length != bytes.length) {
+            return false;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (mem.getByte(address + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void linkToChain(long address) {
+        if (!slotsAllocated) {
+            slots.gotoNew();
+            slotsAllocated = true;
+        }
+        long slotAddress = slots.ensure(mem.getLong(address + KEY_HASH_OFFSET));
+        if (slotAddress > 0) {
+            mem.putLong(slotAddress, address);
+        } else {
+            slotAddress = -slotAddress;
+            mem.putLong(address + CHAIN_NEXT_OFFSET, mem.getLong(slotAddress));
+            mem.putLong(slotAddress, address);
+        }
+    }
+
+    private void unlinkFromChain(long address) {
+        long hash = mem.getLong(address + KEY_HASH_OFFSET);
+        long slotAddress = slots.get(hash);
+        long next = mem.getLong(address + CHAIN_NEXT_OFFSET);
+        long previous = NULL_ADDRESS;
+        long current = mem.getLong(slotAddress);
+        while (current != address) {
+            previous = current;
+            current = mem.getLong(current + CHAIN_NEXT_OFFSET);
+        }
+        if (previous != NULL_ADDRESS) {
+            mem.putLong(previous + CHAIN_NEXT_OFFSET, next);
+        } else if (next != NULL_ADDRESS) {
+            mem.putLong(slotAddress, next);
+        } else {
+            slots.remove(hash);
+        }
+    }
+
+    private void linkFirst(long address) {
+        mem.putLong(address + PREV_OFFSET, NULL_ADDRESS);
+        mem.putLong(address + NEXT_OFFSET, head);
+        if (head == NULL_ADDRESS) {
+            tail = address;
+        } else {
+            mem.putLong(head + PREV_OFFSET, address);
+        }
+        head = address;
+    }
+
+    private void linkLast(long address) {
+        mem.putLong(address + PREV_OFFSET, tail);
+        mem.putLong(address + NEXT_OFFSET, NULL_ADDRESS);
+        if (tail == NULL_ADDRESS) {
+            head = address;
+        } else {
+            mem.putLong(tail + NEXT_OFFSET, address);
+        }
+        tail = address;
+    }
+
+    private void unlinkFromList(long address) {
+        long previous = mem.getLong(address + PREV_OFFSET);
+        long next = mem.getLong(address + NEXT_OFFSET);
+        if (previous == NULL_ADDRESS) {
+            head = next;
+        } else {
+            mem.putLong(previous + NEXT_OFFSET, next);
+        }
+        if (next == NULL_ADDRESS) {
+            tail = previous;
+        } else {
+            mem.putLong(next + PREV_OFFSET, previous);
+        }
+    }
+
+    private void replaceInList(long current, long address) {
+        long previous = mem.getLong(current + PREV_OFFSET);
+        long next = mem.getLong(current + NEXT_OFFSET);
+        mem.putLong(address + PREV_OFFSET, previous);
+        mem.putLong(address + NEXT_OFFSET, next);
+        if (previous == NULL_ADDRESS) {
+            head = address;
+        } else {
+            mem.putLong(previous + NEXT_OFFSET, address);
+        }
+        if (next == NULL_ADDRESS) {
+            tail = address;
+        } else {
+            mem.putLong(next + PREV_OFFSET, address);
+        }
+    }
+}
@@ -33,9 +33,13 @@ import com.hazelcast.util.Clock;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
 import static com.hazelcast.util.CollectionUtil.isEmpty;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -45,7 +49,15 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p/>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * The partitions of a map are sharded among the {@link StoreWorker} tasks of the map on a member, see
+ * {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_STORE_WORKER_COUNT}. A worker only processes
+ * the partitions whose id modulo the worker count is its worker index, so the workers can store in parallel
+ * while the store operations on a key are still done in order. The workers run on the
+ * {@link ExecutionService#MAP_WRITE_BEHIND_EXECUTOR}, so they don't occupy the threads of the shared scheduled executor.
+ * <p/>
+ * Entries which fail to be stored are left in place in their write-behind queues. After a run with failures, e.g.
+ * during a map-store outage, the following runs take at most one write batch of entries from the queues, until a
+ * run stores all of its entries again.
  */
 public class StoreWorker implements Runnable {
 
@@ -60,6 +72,9 @@ public class StoreWorker implements Runnable {
     private final long backupDelayMillis;
     private final long writeDelayMillis;
     private final int partitionCount;
+    private final int workerIndex;
+    private final int workerCount;
+    private final int writeBatchSize;
     /**
      * Entries are fetched from write-behind-queues according to highestStoreTime. If an entry
      * has a store-time which is smaller than or equal to the highestStoreTime, it will be processed.
@@ -67,9 +82,18 @@ public class StoreWorker implements Runnable {
      * @see #calculateHighestStoreTime
      */
     private long lastHighestStoreTime;
+    /**
+     * {@code true} if the last run failed to store some of its entries.
+     */
+    private boolean storeFailed;
     private volatile boolean running;
 
     public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor) {
+        this(mapStoreContext, writeBehindProcessor, 0, 1);
+    }
+
+    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor,
+                       int workerIndex, int workerCount) {
         this.mapName = mapStoreContext.getMapName();
         this.mapServiceContext = mapStoreContext.getMapServiceContext();
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
@@ -79,7 +103,10 @@ public class StoreWorker implements Runnable {
         this.backupDelayMillis = getReplicaWaitTimeMillis();
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
+        this.writeBatchSize = mapStoreContext.getMapStoreConfig().getWriteBatchSize();
         this.partitionCount = partitionService.getPartitionCount();
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
     }
 
 
@@ -108,7 +135,7 @@ public class StoreWorker implements Runnable {
     }
 
     private void schedule() {
-        executionService.schedule(this, 1, SECONDS);
+        executionService.schedule(MAP_WRITE_BEHIND_EXECUTOR, this, 1, SECONDS);
     }
 
     private void runInternal() {
@@ -119,11 +146,13 @@ public class StoreWorker implements Runnable {
         final long backupHighestStoreTime = ownerHighestStoreTime - backupDelayMillis;
 
         lastHighestStoreTime = ownerHighestStoreTime;
+        // probe a failing map store with a single batch instead of copying all due entries out of the queues
+        final int maxOwnerEntries = storeFailed ? writeBatchSize : Integer.MAX_VALUE;
 
         List<DelayedEntry> ownersList = null;
         List<DelayedEntry> backupsList = null;
 
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+        for (int partitionId = workerIndex; partitionId < partitionCount; partitionId += workerCount) {
             if (currentThread().isInterrupted()) {
                 break;
             }
@@ -137,17 +166,17 @@ public class StoreWorker implements Runnable {
 
             if (!localPartition) {
                 backupsList = initListIfNull(backupsList, partitionCount);
-                selectEntriesToStore(recordStore, backupsList, backupHighestStoreTime);
+                selectEntriesToStore(recordStore, backupsList, backupHighestStoreTime, Integer.MAX_VALUE);
             } else {
                 ownersList = initListIfNull(ownersList, partitionCount);
-                selectEntriesToStore(recordStore, ownersList, ownerHighestStoreTime);
+                selectEntriesToStore(recordStore, ownersList, ownerHighestStoreTime, maxOwnerEntries);
             }
         }
 
         if (!isEmpty(ownersList)) {
             Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
-            removeFinishedStoreOperationsFromQueues(mapName, ownersList);
-            reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
+            storeFailed = !failuresPerPartition.isEmpty();
+            removeFinishedStoreOperationsFromQueues(mapName, ownersList, failuresPerPartition);
         }
 
         if (!isEmpty(backupsList)) {
@@ -189,7 +218,7 @@ public class StoreWorker implements Runnable {
     }
 
     private void notifyFlush() {
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+        for (int partitionId = workerIndex; partitionId < partitionCount; partitionId += workerCount) {
             RecordStore recordStore = getRecordStoreOrNull(mapName, partitionId);
             if (recordStore != null) {
                 WriteBehindStore mapDataStore = ((WriteBehindStore) recordStore.getMapDataStore());
@@ -203,21 +232,22 @@ public class StoreWorker implements Runnable {
         return partition.isLocal();
     }
 
-    private void selectEntriesToStore(RecordStore recordStore, List<DelayedEntry> entries, long highestStoreTime) {
+    private void selectEntriesToStore(RecordStore recordStore, List<DelayedEntry> entries, long highestStoreTime,
+                                      int maxEntries) {
         WriteBehindQueue<DelayedEntry> queue = getWriteBehindQueue(recordStore);
         long nextSequenceToFlush = getSequenceToFlush(recordStore);
 
-        filterWriteBehindQueue(highestStoreTime, nextSequenceToFlush, entries, queue);
+        filterWriteBehindQueue(highestStoreTime, nextSequenceToFlush, maxEntries, entries, queue);
     }
 
-    private void filterWriteBehindQueue(final long highestStoreTime, final long sequence, Collection<DelayedEntry> collection,
-                                        WriteBehindQueue<DelayedEntry> queue) {
+    private void filterWriteBehindQueue(final long highestStoreTime, final long sequence, final int maxEntries,
+                                        final Collection<DelayedEntry> collection, WriteBehindQueue<DelayedEntry> queue) {
         if (sequence > 0) {
 
             queue.filter(new IPredicate<DelayedEntry>() {
                 @Override
                 public boolean test(DelayedEntry delayedEntry) {
-                    return delayedEntry.getSequence() <= sequence;
+                    return collection.size() < maxEntries && delayedEntry.getSequence() <= sequence;
                 }
             }, collection);
 
@@ -226,37 +256,34 @@ public class StoreWorker implements Runnable {
             queue.filter(new IPredicate<DelayedEntry>() {
                 @Override
                 public boolean test(DelayedEntry delayedEntry) {
-                    return delayedEntry.getStoreTime() <= highestStoreTime;
+                    return collection.size() < maxEntries && delayedEntry.getStoreTime() <= highestStoreTime;
                 }
             }, collection);
         }
     }
 
     private void removeFinishedStoreOperationsFromQueues(String mapName, List<DelayedEntry> entries) {
-        for (DelayedEntry entry : entries) {
-            RecordStore recordStore = getRecordStoreOrNull(mapName, entry.getPartitionId());
-            if (recordStore != null) {
-                getWriteBehindQueue(recordStore).removeFirstOccurrence(entry);
-            }
-        }
+        removeFinishedStoreOperationsFromQueues(mapName, entries, Collections.<Integer, List<DelayedEntry>>emptyMap());
     }
 
-    private void reAddFailedStoreOperationsToQueues(String mapName, Map<Integer, List<DelayedEntry>> failuresPerPartition) {
-        if (failuresPerPartition.isEmpty()) {
-            return;
+    /**
+     * Removes the stored entries from their queues. The failed entries are left in place, so they keep their position
+     * at the head of their queues without being copied out of and back into the queues.
+     */
+    private void removeFinishedStoreOperationsFromQueues(String mapName, List<DelayedEntry> entries,
+                                                         Map<Integer, List<DelayedEntry>> failuresPerPartition) {
+        Set<DelayedEntry> failures = Collections.newSetFromMap(new IdentityHashMap<DelayedEntry, Boolean>());
+        for (List<DelayedEntry> partitionFailures : failuresPerPartition.values()) {
+            failures.addAll(partitionFailures);
         }
-        for (Map.Entry<Integer, List<DelayedEntry>> entry : failuresPerPartition.entrySet()) {
-            Integer partitionId = entry.getKey();
-            List<DelayedEntry> failures = failuresPerPartition.get(partitionId);
-            if (isEmpty(failures)) {
+        for (DelayedEntry entry : entries) {
+            if (failures.contains(entry)) {
                 continue;
             }
-            RecordStore recordStore = getRecordStoreOrNull(mapName, partitionId);
-            if (recordStore == null) {
-                continue;
+            RecordStore recordStore = getRecordStoreOrNull(mapName, entry.getPartitionId());
+            if (recordStore != null) {
+                getWriteBehindQueue(recordStore).removeFirstOccurrence(entry);
             }
-            final WriteBehindQueue<DelayedEntry> queue = getWriteBehindQueue(recordStore);
-            queue.addFirst(failures);
         }
     }
 
@@ -299,6 +326,6 @@ public class StoreWorker implements Runnable {
 
     @Override
     public String toString() {
-        return "StoreWorker{" + "mapName='" + mapName + "'}";
+        return "StoreWorker{" + "mapName='" + mapName + "', workerIndex=" + workerIndex + "}";
     }
 }
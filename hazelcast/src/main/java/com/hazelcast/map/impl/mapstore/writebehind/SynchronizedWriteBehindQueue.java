@@ -84,6 +84,13 @@ class SynchronizedWriteBehindQueue<E> implements WriteBehindQueue<E> {
         }
     }
 
+    @Override
+    public E get(E e) {
+        synchronized (mutex) {
+            return queue.get(e);
+        }
+    }
+
     @Override
     public int size() {
         synchronized (mutex) {
@@ -24,37 +24,61 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.MapStoreManager;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.properties.GroupProperty;
 
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessors.createWriteBehindProcessor;
+import static com.hazelcast.util.Preconditions.checkPositive;
 
 /**
  * Write behind map store manager.
+ * <p/>
+ * Creates a {@link StoreWorker} and a {@link WriteBehindProcessor} per shard of the partitions, see
+ * {@link GroupProperty#MAP_WRITE_BEHIND_STORE_WORKER_COUNT}. The write-behind store of a partition uses the
+ * processor of its shard, so each processor adapts its batch size to the store latency observed by its shard.
  */
 public class WriteBehindManager implements MapStoreManager {
 
-    private final WriteBehindProcessor writeBehindProcessor;
-    private final StoreWorker storeWorker;
+    private final WriteBehindProcessor[] writeBehindProcessors;
+    private final StoreWorker[] storeWorkers;
     private final MapStoreContext mapStoreContext;
 
     public WriteBehindManager(MapStoreContext mapStoreContext) {
         this.mapStoreContext = mapStoreContext;
-        this.writeBehindProcessor = newWriteBehindProcessor(mapStoreContext);
-        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor);
+        int workerCount = getStoreWorkerCount(mapStoreContext);
+        this.writeBehindProcessors = new WriteBehindProcessor[workerCount];
+        this.storeWorkers = new StoreWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            writeBehindProcessors[i] = newWriteBehindProcessor(mapStoreContext);
+            storeWorkers[i] = new StoreWorker(mapStoreContext, writeBehindProcessors[i], i, workerCount);
+        }
+    }
+
+    private static int getStoreWorkerCount(MapStoreContext mapStoreContext) {
+        NodeEngine nodeEngine = mapStoreContext.getMapServiceContext().getNodeEngine();
+        int workerCount = nodeEngine.getProperties().getInteger(GroupProperty.MAP_WRITE_BEHIND_STORE_WORKER_COUNT);
+        checkPositive(workerCount, "Write-behind store worker count should be a positive number");
+        return Math.min(workerCount, nodeEngine.getPartitionService().getPartitionCount());
     }
 
     @Override
     public void start() {
-        storeWorker.start();
+        for (StoreWorker storeWorker : storeWorkers) {
+            storeWorker.start();
+        }
     }
 
     @Override
     public void stop() {
-        storeWorker.stop();
+        for (StoreWorker storeWorker : storeWorkers) {
+            storeWorker.stop();
+        }
     }
 
     //todo get this via constructor function.
     @Override
     public MapDataStore getMapDataStore(String mapName, int partitionId) {
+        WriteBehindProcessor writeBehindProcessor = writeBehindProcessors[partitionId % writeBehindProcessors.length];
         return MapDataStores.createWriteBehindStore(mapStoreContext, partitionId, writeBehindProcessor);
     }
 
@@ -74,6 +74,14 @@ public interface WriteBehindQueue<E> {
      */
     boolean contains(E e);
 
+    /**
+     * Returns the last element in this queue which has the same key as the given one.
+     *
+     * @param e item whose key is searched for
+     * @return the found element or {@code null} if there is no element with that key
+     */
+    E get(E e);
+
     /**
      * Returns the number of elements in this {@link WriteBehindQueue}.
      *
@@ -16,7 +16,9 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -39,6 +41,19 @@ public final class WriteBehindQueues {
         return createSynchronizedWriteBehindQueue(queue);
     }
 
+    /**
+     * Creates a write-coalescing queue which keeps its entries in native memory.
+     *
+     * @param memoryManager        manager of the native memory the entries are stored in
+     * @param serializationService used to serialize the values of the entries
+     * @return the created queue
+     */
+    public static WriteBehindQueue<DelayedEntry> createNativeWriteBehindQueue(MemoryManager memoryManager,
+                                                                              SerializationService serializationService) {
+        final WriteBehindQueue<DelayedEntry> queue = new NativeWriteBehindQueue(memoryManager, serializationService);
+        return createSynchronizedWriteBehindQueue(queue);
+    }
+
     private static <T> WriteBehindQueue<T> createSynchronizedWriteBehindQueue(WriteBehindQueue<T> queue) {
         return new SynchronizedWriteBehindQueue<T>(queue);
     }
@@ -36,6 +36,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +47,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createDefaultWriteBehindQueue;
 import static com.hazelcast.spi.impl.OperationResponseHandlerFactory.createEmptyResponseHandler;
 
 /**
@@ -110,6 +112,13 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
     private WriteBehindProcessor writeBehindProcessor;
     private WriteBehindQueue<DelayedEntry> writeBehindQueue;
 
+    /**
+     * {@code true} if the write-behind queue keeps its entries off-heap. The pending entries are then looked up
+     * in the queue instead of keeping an on-heap copy of them in the {@code stagingArea}, which only holds
+     * the transient entries.
+     */
+    private boolean stagingInQueue;
+
     public WriteBehindStore(MapStoreContext mapStoreContext, int partitionId) {
         super(mapStoreContext.getMapStoreWrapper(),
                 mapStoreContext.getMapServiceContext().getNodeEngine().getSerializationService());
@@ -153,10 +162,15 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
     }
 
     public void add(DelayedEntry<Data, Object> delayedEntry) {
-        writeBehindQueue.addLast(delayedEntry);
-        stagingArea.put(delayedEntry.getKey(), delayedEntry);
-
+        // the sequence is set first, since an off-heap queue copies the entry when it is added
         delayedEntry.setSequence(sequence.incrementAndGet());
+
+        writeBehindQueue.addLast(delayedEntry);
+        if (stagingInQueue) {
+            stagingArea.remove(delayedEntry.getKey());
+        } else {
+            stagingArea.put(delayedEntry.getKey(), delayedEntry);
+        }
     }
 
     @Override
@@ -306,7 +320,27 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
             return;
         }
 
-        writeBehindProcessor.flush(writeBehindQueue);
+        if (stagingInQueue) {
+            hardFlushStagingInQueue();
+        } else {
+            writeBehindProcessor.flush(writeBehindQueue);
+        }
+    }
+
+    /**
+     * The queue is drained before its entries are stored, so the pending entries are staged on-heap until they are
+     * stored. Otherwise a load in between would read the stale value from the map store.
+     */
+    private void hardFlushStagingInQueue() {
+        List<DelayedEntry> entries = writeBehindQueue.asList();
+        WriteBehindQueue<DelayedEntry> flushQueue = createDefaultWriteBehindQueue();
+        for (DelayedEntry entry : entries) {
+            // a later transient put keeps its marker
+            stagingArea.putIfAbsent((Data) entry.getKey(), entry);
+            flushQueue.addLast(entry);
+        }
+        writeBehindQueue.clear();
+        writeBehindProcessor.flush(flushQueue);
     }
 
     public WriteBehindQueue<DelayedEntry> getWriteBehindQueue() {
@@ -317,6 +351,10 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
         this.writeBehindQueue = writeBehindQueue;
     }
 
+    public void setStagingInQueue(boolean stagingInQueue) {
+        this.stagingInQueue = stagingInQueue;
+    }
+
     public void setWriteBehindProcessor(WriteBehindProcessor writeBehindProcessor) {
         this.writeBehindProcessor = writeBehindProcessor;
     }
@@ -382,9 +420,12 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
 
     private DelayedEntry getFromStagingArea(Data key) {
         DelayedEntry delayedEntry = stagingArea.get(key);
-        if (delayedEntry == null || delayedEntry == TRANSIENT) {
+        if (delayedEntry == TRANSIENT) {
             return null;
         }
+        if (delayedEntry == null && stagingInQueue) {
+            return writeBehindQueue.get(DelayedEntries.createWithoutValue(key));
+        }
         return delayedEntry;
     }
 
@@ -244,4 +244,9 @@ public class DefaultMapOperationProvider implements MapOperationProvider {
         return new MapFetchEntriesOperation(name, lastTableIndex, fetchSize);
     }
 
+    @Override
+    public MapOperation createFetchWithQueryOperation(String name, int lastTableIndex, int fetchSize, Predicate predicate) {
+        return new MapFetchWithQueryOperation(name, lastTableIndex, fetchSize, predicate);
+    }
+
 }
@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Triggers map store load of all given keys.
@@ -50,8 +51,17 @@ public class LoadAllOperation extends MapOperation implements PartitionAwareOper
 
     @Override
     public void run() throws Exception {
+        loadAllFromStore();
+    }
+
+    /**
+     * Starts loading the values of the given keys which belong to this partition.
+     *
+     * @return the future of the load or {@code null} if there are no keys to load.
+     */
+    protected Future<?> loadAllFromStore() {
         keys = selectThisPartitionsKeys();
-        recordStore.loadAllFromStore(keys, replaceExistingValues);
+        return recordStore.loadAllFromStore(keys, replaceExistingValues);
     }
 
     @Override
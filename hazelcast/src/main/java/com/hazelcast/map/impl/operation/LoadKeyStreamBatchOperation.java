@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.List;
+
+/**
+ * Loads the values of a batch of keys read from a key stream of a {@link com.hazelcast.core.ParallelMapLoader}.
+ * Unlike {@link LoadAllOperation}, it responds only once the values are loaded, so that the sender can bound
+ * the number of batches being loaded.
+ *
+ * @see com.hazelcast.map.impl.MapKeyStreamLoader
+ */
+public class LoadKeyStreamBatchOperation extends LoadAllOperation {
+
+    public LoadKeyStreamBatchOperation() {
+    }
+
+    public LoadKeyStreamBatchOperation(String name, List<Data> keys, boolean replaceExistingValues) {
+        super(name, keys, replaceExistingValues);
+    }
+
+    @Override
+    public void run() throws Exception {
+        mapServiceContext.getMapKeyStreamLoader().awaitBatchLoad(this, loadAllFromStore());
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        super.onExecutionFailure(e);
+        // the response is not sent by the operation runner, the caller would wait indefinitely
+        sendResponse(e);
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.LOAD_KEY_STREAM_BATCH;
+    }
+}
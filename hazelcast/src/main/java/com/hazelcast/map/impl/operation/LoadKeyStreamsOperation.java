@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+
+/**
+ * Loads the given key streams of a {@link com.hazelcast.core.ParallelMapLoader} on the target member
+ * and sends their keys to the partitions for loading. Responds once all keys are loaded.
+ *
+ * @see com.hazelcast.map.impl.MapKeyStreamLoader
+ **/
+public class LoadKeyStreamsOperation extends MapOperation {
+
+    private int[] keyStreams;
+    private boolean replaceExistingValues;
+    private int maxSize;
+
+    public LoadKeyStreamsOperation() {
+    }
+
+    public LoadKeyStreamsOperation(String name, int[] keyStreams, boolean replaceExistingValues, int maxSize) {
+        super(name);
+        this.keyStreams = keyStreams;
+        this.replaceExistingValues = replaceExistingValues;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void run() throws Exception {
+        mapServiceContext.getMapKeyStreamLoader().loadKeyStreams(this);
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    public int[] getKeyStreams() {
+        return keyStreams;
+    }
+
+    public boolean isReplaceExistingValues() {
+        return replaceExistingValues;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeIntArray(keyStreams);
+        out.writeBoolean(replaceExistingValues);
+        out.writeInt(maxSize);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        keyStreams = in.readIntArray();
+        replaceExistingValues = in.readBoolean();
+        maxSize = in.readInt();
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.LOAD_KEY_STREAMS;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.query.PartitionScanRunner;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.ReadonlyOperation;
+
+import java.io.IOException;
+
+/**
+ * Fetches the next chunk of the entries of a partition which match a predicate, starting from the
+ * given table index. The chunk holds at most {@code fetchSize} matching entries, so large query
+ * results can be streamed with bounded memory on both sides.
+ *
+ * @see PartitionScanRunner#run(String, Predicate, int, int, int)
+ */
+public class MapFetchWithQueryOperation extends MapOperation implements ReadonlyOperation {
+
+    private int fetchSize;
+    private int lastTableIndex;
+    private Predicate predicate;
+    private transient MapEntriesWithCursor response;
+
+    public MapFetchWithQueryOperation() {
+    }
+
+    public MapFetchWithQueryOperation(String name, int lastTableIndex, int fetchSize, Predicate predicate) {
+        super(name);
+        this.lastTableIndex = lastTableIndex;
+        this.fetchSize = fetchSize;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public void run() throws Exception {
+        PartitionScanRunner partitionScanRunner = mapServiceContext.getPartitionScanRunner();
+        response = partitionScanRunner.run(name, predicate, getPartitionId(), lastTableIndex, fetchSize);
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        fetchSize = in.readInt();
+        lastTableIndex = in.readInt();
+        predicate = in.readObject();
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(fetchSize);
+        out.writeInt(lastTableIndex);
+        out.writeObject(predicate);
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.FETCH_WITH_QUERY;
+    }
+}
@@ -78,6 +78,8 @@ public abstract class MapOperation extends AbstractNamedOperation implements Ide
             mapContainer = mapServiceContext.getMapContainer(name);
         } else {
             mapContainer = recordStore.getMapContainer();
+            // blocks of records removed by previous operations are not referenced anymore
+            recordStore.disposeDeferredBlocks();
         }
     }
 
@@ -93,6 +93,8 @@ public interface MapOperationProvider {
 
     MapOperation createFetchEntriesOperation(String name, int lastTableIndex, int fetchSize);
 
+    MapOperation createFetchWithQueryOperation(String name, int lastTableIndex, int fetchSize, Predicate predicate);
+
     OperationFactory createPartitionWideEntryOperationFactory(String name, EntryProcessor entryProcessor);
 
     OperationFactory createPartitionWideEntryWithPredicateOperationFactory(String name,
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Operation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+
+/**
+ * The replication operations of the IMap-states of a partition for a fragmented migration.
+ * <p>
+ * The records of every map are replicated by {@link MapChunkReplicationOperation}s of about the fragment size, which
+ * are built from the record store only when the iterator is advanced, so the source doesn't hold more than one chunk
+ * of the partition in serialized form. The keys are read in small batches with a cursor into the table of the record
+ * store, so neither the keys nor the records of a whole record store are copied to the heap at once. If the record
+ * store is resized between the chunks, the cursor may skip or repeat records. Repeated records are just overwritten
+ * on the replica and the records changed in between reach the replica through the regular backups. The remaining
+ * IMap-states, like the write-behind queues, are replicated by a final {@link MapReplicationOperation} without records.
+ */
+public class MapReplicationFragments implements Iterator<Operation> {
+
+    private static final int KEY_BATCH_SIZE = 100;
+
+    private final PartitionContainer container;
+    private final int partitionId;
+    private final int replicaIndex;
+    private final int fragmentSize;
+    private final MapService mapService;
+    private final Iterator<RecordStore> recordStores;
+
+    private RecordStore recordStore;
+    private int tableIndex;
+    private Iterator<Data> keys;
+    private boolean firstChunk;
+    private boolean done;
+
+    public MapReplicationFragments(PartitionContainer container, int partitionId, int replicaIndex, int fragmentSize,
+                                   MapService mapService) {
+        this.container = container;
+        this.partitionId = partitionId;
+        this.replicaIndex = replicaIndex;
+        this.fragmentSize = fragmentSize;
+        this.mapService = mapService;
+        this.recordStores = new ArrayList<RecordStore>(container.getMaps().values()).iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (recordStore == null && recordStores.hasNext()) {
+            RecordStore candidate = recordStores.next();
+            if (candidate.getMapContainer().getMapConfig().getTotalBackupCount() >= replicaIndex) {
+                recordStore = candidate;
+                tableIndex = Integer.MAX_VALUE;
+                keys = null;
+                firstChunk = true;
+            }
+        }
+        return recordStore != null || !done;
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Operation operation;
+        if (recordStore != null) {
+            operation = nextChunk();
+        } else {
+            done = true;
+            operation = new MapReplicationOperation(container, partitionId, replicaIndex, false);
+        }
+        operation.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+        operation.setService(mapService);
+        return operation;
+    }
+
+    private Operation nextChunk() {
+        MapServiceContext mapServiceContext = recordStore.getMapContainer().getMapServiceContext();
+        List<RecordReplicationInfo> records = new ArrayList<RecordReplicationInfo>();
+        int size = 0;
+        while (size < fragmentSize && hasNextKey()) {
+            Data key = keys.next();
+            Record record = recordStore.getRecord(key);
+            if (record == null) {
+                continue;
+            }
+            RecordReplicationInfo info = new RecordReplicationInfo(key, mapServiceContext.toData(record.getValue()),
+                    buildRecordInfo(record));
+            records.add(info);
+            size += key.totalSize() + (info.getValue() != null ? info.getValue().totalSize() : 0);
+        }
+
+        Operation operation = new MapChunkReplicationOperation(recordStore.getName(), firstChunk, recordStore.isLoaded(),
+                records);
+        firstChunk = false;
+        if (!hasNextKey()) {
+            recordStore = null;
+            keys = null;
+        }
+        return operation;
+    }
+
+    /**
+     * Fetches the next batch of keys from the record store when the current one is exhausted.
+     */
+    private boolean hasNextKey() {
+        while (keys == null || !keys.hasNext()) {
+            if (tableIndex < 0) {
+                return false;
+            }
+            MapKeysWithCursor batch = recordStore.fetchKeys(tableIndex, KEY_BATCH_SIZE);
+            keys = batch.getKeys().iterator();
+            tableIndex = batch.getNextTableIndexToReadFrom();
+        }
+        return true;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
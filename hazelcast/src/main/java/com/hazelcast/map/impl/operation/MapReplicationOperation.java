@@ -49,9 +49,17 @@ public class MapReplicationOperation extends Operation implements MutatingOperat
     }
 
     public MapReplicationOperation(PartitionContainer container, int partitionId, int replicaIndex) {
+        this(container, partitionId, replicaIndex, true);
+    }
+
+    /**
+     * @param includeRecords {@code false} if the records are replicated by {@link MapChunkReplicationOperation}s
+     *                       instead, so only the remaining IMap-states are replicated
+     */
+    public MapReplicationOperation(PartitionContainer container, int partitionId, int replicaIndex, boolean includeRecords) {
         setPartitionId(partitionId).setReplicaIndex(replicaIndex);
 
-        mapReplicationStateHolder.prepare(container, replicaIndex);
+        mapReplicationStateHolder.prepare(container, replicaIndex, includeRecords);
         writeBehindStateHolder.prepare(container, replicaIndex);
         mapNearCacheStateHolder.prepare(container, replicaIndex);
     }
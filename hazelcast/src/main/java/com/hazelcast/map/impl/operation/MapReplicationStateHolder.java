@@ -64,8 +64,15 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
     }
 
     void prepare(PartitionContainer container, int replicaIndex) {
+        prepare(container, replicaIndex, true);
+    }
+
+    void prepare(PartitionContainer container, int replicaIndex, boolean includeRecords) {
         data = new HashMap<String, Set<RecordReplicationInfo>>(container.getMaps().size());
         loaded = new HashMap<String, Boolean>(container.getMaps().size());
+        if (!includeRecords) {
+            return;
+        }
         for (Map.Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
             RecordStore recordStore = entry.getValue();
 
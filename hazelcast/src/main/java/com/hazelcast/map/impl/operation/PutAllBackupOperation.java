@@ -57,6 +57,7 @@ public class PutAllBackupOperation extends MapOperation implements PartitionAwar
             Data dataValue = entries.getValue(i);
             Record record = recordStore.putBackup(dataKey, dataValue);
             applyRecordInfo(record, recordInfos.get(i));
+            recordStore.onBackupRecordInfoApplied(dataKey, record);
             if (wanEnabled) {
                 Data dataValueAsData = mapServiceContext.toData(dataValue);
                 EntryView entryView = createSimpleEntryView(dataKey, dataValueAsData, record);
@@ -72,6 +72,7 @@ public final class PutBackupOperation extends MutatingKeyBasedMapOperation imple
         final Record record = recordStore.putBackup(dataKey, dataValue, ttl, putTransient);
         if (recordInfo != null) {
             Records.applyRecordInfo(record, recordInfo);
+            recordStore.onBackupRecordInfoApplied(dataKey, record);
         }
         if (unlockKey) {
             recordStore.forceUnlock(dataKey);
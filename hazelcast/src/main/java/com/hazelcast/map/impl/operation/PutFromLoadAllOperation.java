@@ -20,6 +20,7 @@ import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.map.impl.EntryViews;
 import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.nio.ObjectDataInput;
@@ -60,6 +61,9 @@ public class PutFromLoadAllOperation extends MapOperation implements PartitionAw
     @Override
     public void run() throws Exception {
         boolean hasInterceptor = mapServiceContext.hasInterceptor(name);
+        // entries loaded by key streams are not published, a parallel load may put hundreds of millions of entries
+        MapStoreWrapper storeWrapper = mapContainer.getMapStoreContext().getMapStoreWrapper();
+        boolean publishEntryEvents = storeWrapper == null || !storeWrapper.isParallelMapLoader();
 
         List<Data> keyValueSequence = this.keyValueSequence;
         for (int i = 0; i < keyValueSequence.size(); i += 2) {
@@ -74,7 +78,9 @@ public class PutFromLoadAllOperation extends MapOperation implements PartitionAw
             if (isPostProcessing(recordStore)) {
                 value = record.getValue();
             }
-            publishEntryEvent(key, previousValue, value);
+            if (publishEntryEvents) {
+                publishEntryEvent(key, previousValue, value);
+            }
             publishWanReplicationEvent(key, value, record);
             addInvalidation(key);
         }
@@ -31,6 +31,8 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
+import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.MapQueryEngine;
 import com.hazelcast.map.impl.query.Query;
@@ -899,6 +901,42 @@ public class MapProxyImpl<K, V> extends MapProxySupport implements IMap<K, V>, I
         return new MapPartitionIterator<K, V>(this, fetchSize, partitionId, prefetchValues);
     }
 
+    /**
+     * Returns an iterator over the entries of a partition which match the predicate. The predicate
+     * is evaluated on the partition owner and the matching entries are fetched in chunks of at most
+     * {@code fetchSize} entries, the next chunk being requested only when the previous one has been
+     * consumed. The query result size limit doesn't apply, since the result is never materialized.
+     *
+     * @param fetchSize   maximum number of entries fetched at once
+     * @param partitionId the partition to iterate
+     * @param predicate   the predicate, which must not be a {@link PagingPredicate}
+     * @return the iterator over the matching entries
+     */
+    public Iterator<Entry<K, V>> iterator(int fetchSize, int partitionId, Predicate<K, V> predicate) {
+        checkPositive(fetchSize, "fetchSize should be positive");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotInstanceOf(PagingPredicate.class, predicate, "predicate");
+
+        return new MapQueryPartitionIterator<K, V>(this, fetchSize, partitionId, predicate);
+    }
+
+    /**
+     * Returns an iterator over the entries of the map which match the predicate, which streams the
+     * result of {@link #entrySet(Predicate)} partition by partition instead of materializing it.
+     *
+     * @param fetchSize maximum number of entries fetched at once
+     * @param predicate the predicate, which must not be a {@link PagingPredicate}
+     * @return the iterator over the matching entries
+     * @see #iterator(int, int, Predicate)
+     */
+    public Iterator<Entry<K, V>> iterator(int fetchSize, Predicate<K, V> predicate) {
+        checkPositive(fetchSize, "fetchSize should be positive");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotInstanceOf(PagingPredicate.class, predicate, "predicate");
+
+        return new MapQueryIterator<K, V>(this, fetchSize, predicate);
+    }
+
     @Override
     public String toString() {
         return "IMap{name='" + name + '\'' + '}';
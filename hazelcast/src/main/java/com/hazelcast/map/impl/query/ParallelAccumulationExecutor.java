@@ -23,6 +23,7 @@ import com.hazelcast.util.executor.ManagedExecutorService;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
@@ -32,7 +33,9 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Implementation of the {@link AccumulationExecutor} that runs the accumulation in a multi-threaded way.
- * Entries are split into chunks and each chunk is sent as a task to the underlying executor.
+ * Entries are split into chunks by partition ranges and each chunk is sent as a task to the underlying
+ * executor. Index results are split before their not-indexed predicates are applied, so the predicates
+ * are evaluated by the tasks as well, see {@link PartitionRangeSplitter}.
  * At the end the result is merged to a single AggregationResult.
  */
 public class ParallelAccumulationExecutor implements AccumulationExecutor {
@@ -42,12 +45,14 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     private final ManagedExecutorService executor;
     private final SerializationService serializationService;
     private final int callTimeoutInMillis;
+    private final int partitionCount;
 
     public ParallelAccumulationExecutor(ManagedExecutorService executor, SerializationService serializationService,
-                                        int callTimeoutInMillis) {
+                                        int callTimeoutInMillis, int partitionCount) {
         this.executor = executor;
         this.serializationService = serializationService;
         this.callTimeoutInMillis = callTimeoutInMillis;
+        this.partitionCount = partitionCount;
     }
 
     @Override
@@ -72,14 +77,14 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
 
     protected Collection<Aggregator> accumulateParallel(Aggregator aggregator, Collection<QueryableEntry> entries) {
         Collection<Future<Aggregator>> futures = new ArrayList<Future<Aggregator>>();
-        Collection<QueryableEntry>[] chunks = split(entries, THREAD_SPLIT_COUNT);
+        List<Iterable<QueryableEntry>> chunks = PartitionRangeSplitter.split(entries, THREAD_SPLIT_COUNT, partitionCount);
         if (chunks == null) {
             // not enough elements for split
             AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), entries);
             futures.add(executor.submit(task));
         } else {
             // split elements
-            for (Collection<QueryableEntry> chunk : chunks) {
+            for (Iterable<QueryableEntry> chunk : chunks) {
                 AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), chunk);
                 futures.add(executor.submit(task));
             }
@@ -87,31 +92,15 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         return returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
     }
 
-    private Collection<QueryableEntry>[] split(Collection<QueryableEntry> entries, int chunkCount) {
-        if (entries.size() < chunkCount * 2) {
-            return null;
-        }
-        int counter = 0;
-        Collection<QueryableEntry>[] entriesSplit = new Collection[chunkCount];
-        int entriesPerChunk = entries.size() / chunkCount;
-        for (int i = 0; i < chunkCount; i++) {
-            entriesSplit[i] = new ArrayList<QueryableEntry>(entriesPerChunk);
-        }
-        for (QueryableEntry entry : entries) {
-            entriesSplit[counter++ % THREAD_SPLIT_COUNT].add(entry);
-        }
-        return entriesSplit;
-    }
-
     private Aggregator clone(Aggregator aggregator) {
         return serializationService.toObject(serializationService.toData(aggregator));
     }
 
     private static final class AccumulatePartitionCallable implements Callable<Aggregator> {
         private final Aggregator aggregator;
-        private final Collection<QueryableEntry> entries;
+        private final Iterable<QueryableEntry> entries;
 
-        private AccumulatePartitionCallable(Aggregator aggregator, Collection<QueryableEntry> entries) {
+        private AccumulatePartitionCallable(Aggregator aggregator, Iterable<QueryableEntry> entries) {
             this.aggregator = aggregator;
             this.entries = entries;
         }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.util.HashUtil.hashToIndex;
+
+/**
+ * Splits query result entries into chunks by ranges of partitions, so that they can be processed in
+ * parallel by the query executor. Every chunk holds the entries of a contiguous range of partitions.
+ * If the entries fall into a single range, e.g. the result of a query over a few partitions, they are
+ * split round-robin instead, so the chunks are still processed in parallel.
+ * <p>
+ * The entries of an index result for an AND predicate are only known once the not-indexed predicates
+ * have been applied to the candidates of its most selective index, see {@link AndResultSet}. Such a
+ * result is split by its candidates and the chunks filter them while being iterated, so the
+ * predicates are evaluated by the parallel tasks, once per candidate, rather than by the caller.
+ */
+final class PartitionRangeSplitter {
+
+    private PartitionRangeSplitter() {
+    }
+
+    /**
+     * @param entries        the entries to split
+     * @param chunkCount     the number of chunks
+     * @param partitionCount the number of partitions of the cluster
+     * @return the chunks or {@code null} if there are less than two entries per chunk
+     */
+    static List<Iterable<QueryableEntry>> split(Collection<QueryableEntry> entries, int chunkCount, int partitionCount) {
+        AndResultSet filter = entries instanceof AndResultSet ? (AndResultSet) entries : null;
+        Collection<QueryableEntry> candidates = filter == null ? entries : filter.getCandidates();
+        if (candidates.size() < chunkCount * 2) {
+            return null;
+        }
+
+        List<QueryableEntry>[] chunkEntries = new List[chunkCount];
+        int entriesPerChunk = candidates.size() / chunkCount;
+        for (int i = 0; i < chunkCount; i++) {
+            chunkEntries[i] = new ArrayList<QueryableEntry>(entriesPerChunk);
+        }
+        int nonEmptyChunkCount = 0;
+        for (QueryableEntry candidate : candidates) {
+            int partitionId = hashToIndex(candidate.getKeyData().getPartitionHash(), partitionCount);
+            List<QueryableEntry> chunk = chunkEntries[partitionId * chunkCount / partitionCount];
+            if (chunk.isEmpty()) {
+                nonEmptyChunkCount++;
+            }
+            chunk.add(candidate);
+        }
+        if (nonEmptyChunkCount < 2) {
+            splitRoundRobin(candidates, chunkEntries);
+        }
+
+        List<Iterable<QueryableEntry>> chunks = new ArrayList<Iterable<QueryableEntry>>(chunkCount);
+        for (List<QueryableEntry> chunk : chunkEntries) {
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            chunks.add(filter == null ? chunk : new FilteredChunk(chunk, filter));
+        }
+        return chunks;
+    }
+
+    private static void splitRoundRobin(Collection<QueryableEntry> candidates, List<QueryableEntry>[] chunkEntries) {
+        for (List<QueryableEntry> chunk : chunkEntries) {
+            chunk.clear();
+        }
+        int counter = 0;
+        for (QueryableEntry candidate : candidates) {
+            chunkEntries[counter++ % chunkEntries.length].add(candidate);
+        }
+    }
+
+    /**
+     * Candidates of an {@link AndResultSet} which are filtered while being iterated.
+     */
+    private static final class FilteredChunk implements Iterable<QueryableEntry> {
+
+        private final List<QueryableEntry> candidates;
+        private final AndResultSet filter;
+
+        FilteredChunk(List<QueryableEntry> candidates, AndResultSet filter) {
+            this.candidates = candidates;
+            this.filter = filter;
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            final Iterator<QueryableEntry> iterator = candidates.iterator();
+            return new Iterator<QueryableEntry>() {
+
+                private QueryableEntry next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && iterator.hasNext()) {
+                        QueryableEntry candidate = iterator.next();
+                        if (filter.isMatching(candidate)) {
+                            next = candidate;
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public QueryableEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    QueryableEntry result = next;
+                    next = null;
+                    return result;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -23,19 +23,25 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.ColumnarProjection;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator.Selection;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.util.Clock;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -51,6 +57,11 @@ import static com.hazelcast.util.SortingUtil.getSortedSubList;
  */
 public class PartitionScanRunner {
 
+    /**
+     * Minimum number of entries a single chunk of a cursor based scan may read, whatever the number of matches.
+     */
+    static final int MIN_SCANNED_ENTRIES_PER_CHUNK = 1000;
+
     protected final MapServiceContext mapServiceContext;
     protected final NodeEngine nodeEngine;
     protected final ILogger logger;
@@ -76,7 +87,14 @@ public class PartitionScanRunner {
 
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
-        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
+        RecordStore recordStore = partitionContainer.getRecordStore(mapName);
+        if (pagingPredicate == null && recordStore.getColumnarProjection() != null) {
+            Collection<QueryableEntry> result = runColumnar(mapName, predicate, recordStore, mapContainer);
+            if (result != null) {
+                return result;
+            }
+        }
+        Iterator<Record> iterator = recordStore.loadAwareIterator(getNow(), false);
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
@@ -98,6 +116,97 @@ public class PartitionScanRunner {
         return getSortedSubList(resultList, pagingPredicate, nearestAnchorEntry);
     }
 
+    /**
+     * Scans the partition starting from the given table index and collects the entries matching the
+     * predicate until {@code fetchSize} entries are found, at least {@code max(fetchSize, 1000)} entries
+     * have been scanned or the partition is exhausted. A selective predicate therefore doesn't make a single
+     * call scan the whole partition; the chunk may hold fewer than {@code fetchSize} entries, or none at all.
+     * The returned cursor points to the table index the next chunk should be read from and is negative once
+     * the whole partition has been scanned.
+     * <p>
+     * Entries which are added, removed or moved by a rehash between two chunks may be missed or
+     * returned twice, just like when iterating the partition with {@link MapEntriesWithCursor}.
+     *
+     * @param mapName     name of the map
+     * @param predicate   the predicate, which must not be a {@link PagingPredicate}
+     * @param partitionId the partition to scan
+     * @param tableIndex  the table index to start from, {@link Integer#MAX_VALUE} to start a new scan
+     * @param fetchSize   maximum number of matching entries to return
+     * @return the matching entries and the cursor of the next chunk
+     */
+    public MapEntriesWithCursor run(String mapName, Predicate predicate, int partitionId, int tableIndex, int fetchSize) {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        RecordStore recordStore = partitionContainer.getRecordStore(mapName);
+        recordStore.checkIfLoaded();
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+
+        List<Map.Entry<Data, Data>> resultList = new ArrayList<Map.Entry<Data, Data>>();
+        int scanLimit = Math.max(fetchSize, MIN_SCANNED_ENTRIES_PER_CHUNK);
+        int scannedCount = 0;
+        int nextTableIndex = tableIndex;
+        while (resultList.size() < fetchSize && scannedCount < scanLimit && nextTableIndex >= 0) {
+            int size = Math.min(fetchSize - resultList.size(), scanLimit - scannedCount);
+            MapEntriesWithCursor chunk = recordStore.fetchEntries(nextTableIndex, size);
+            nextTableIndex = chunk.getNextTableIndexToReadFrom();
+            scannedCount += chunk.getEntries().size();
+            for (Map.Entry<Data, Data> entry : chunk.getEntries()) {
+                QueryableEntry queryEntry = new CachedQueryEntry(serializationService, entry.getKey(), entry.getValue(),
+                        extractors);
+                if (predicate.apply(queryEntry)) {
+                    resultList.add(entry);
+                }
+            }
+        }
+        return new MapEntriesWithCursor(resultList, nextTableIndex);
+    }
+
+    /**
+     * Evaluates the predicate over the columnar projection of the partition and applies the
+     * residual predicate, if any, only to the entries of the selected rows.
+     *
+     * @return the matching entries or {@code null} if the predicate can't be evaluated over the projection
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<QueryableEntry> runColumnar(String mapName, Predicate predicate, RecordStore recordStore,
+                                                   MapContainer mapContainer) {
+        recordStore.checkIfLoaded();
+        ColumnarProjection projection = recordStore.getColumnarProjection();
+        Selection selection;
+        Data[] keys;
+        projection.takeReadLock();
+        try {
+            selection = ColumnarPredicateEvaluator.select(predicate, projection);
+            if (selection == null) {
+                return null;
+            }
+            keys = projection.getKeys(selection.getBitmap());
+        } finally {
+            projection.releaseReadLock();
+        }
+
+        List<QueryableEntry> resultList = new LinkedList<QueryableEntry>();
+        Predicate residualPredicate = selection.getResidualPredicate();
+        boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer);
+        Extractors extractors = mapServiceContext.getExtractors(mapName);
+        long now = getNow();
+        for (Data key : keys) {
+            Record record = recordStore.getRecord(key);
+            if (record == null || recordStore.isExpired(record, now, false)) {
+                continue;
+            }
+            Object value = toData(
+                    useCachedValues ? Records.getValueOrCachedValue(record, serializationService) : record.getValue());
+            if (value == null) {
+                continue;
+            }
+            QueryableEntry queryEntry = new CachedQueryEntry(serializationService, (Data) toData(key), value, extractors);
+            if (residualPredicate == null || residualPredicate.apply(queryEntry)) {
+                resultList.add(queryEntry);
+            }
+        }
+        return resultList;
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer) {
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         switch (cacheDeserializedValues) {
@@ -14,37 +14,117 @@
  * limitations under the License.
  */
 
+
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.executor.ManagedExecutorService;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
+import static com.hazelcast.util.FutureUtil.returnWithDeadline;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Responsible for populating {@link QueryResult}s
+ * <p>
+ * If an executor is given, projections are applied in a multi-threaded way: the entries are split into
+ * chunks by partition ranges and each chunk is projected by a task of the executor, using its own copy
+ * of the projection.
  */
 public class QueryResultProcessor implements ResultProcessor<QueryResult> {
 
+    private static final int THREAD_SPLIT_COUNT = 8;
+
     private final SerializationService serializationService;
+    private final ManagedExecutorService executor;
+    private final int callTimeoutInMillis;
+    private final int partitionCount;
 
     public QueryResultProcessor(SerializationService serializationService) {
+        this(serializationService, null, 0, 0);
+    }
+
+    public QueryResultProcessor(SerializationService serializationService, ManagedExecutorService executor,
+                                int callTimeoutInMillis, int partitionCount) {
         this.serializationService = serializationService;
+        this.executor = executor;
+        this.callTimeoutInMillis = callTimeoutInMillis;
+        this.partitionCount = partitionCount;
     }
 
     @Override
     public QueryResult populateResult(Query query, long resultLimit, Collection<QueryableEntry> entries,
                                       Collection<Integer> partitionIds) {
         QueryResult result = new QueryResult(query.getIterationType(), resultLimit);
-        for (QueryableEntry entry : entries) {
-            result.add(entry, query.getProjection(), serializationService);
+        List<Iterable<QueryableEntry>> chunks = null;
+        if (executor != null && query.isProjectionQuery()) {
+            chunks = PartitionRangeSplitter.split(entries, THREAD_SPLIT_COUNT, partitionCount);
+        }
+        if (chunks == null) {
+            for (QueryableEntry entry : entries) {
+                result.add(entry, query.getProjection(), serializationService);
+            }
+        } else {
+            populateParallel(query, resultLimit, chunks, result);
         }
         result.setPartitionIds(partitionIds);
         return result;
     }
 
+    private void populateParallel(Query query, long resultLimit, List<Iterable<QueryableEntry>> chunks,
+                                  QueryResult result) {
+        Collection<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>(chunks.size());
+        for (Iterable<QueryableEntry> chunk : chunks) {
+            Projection projection = serializationService.toObject(serializationService.toData(query.getProjection()));
+            QueryResult chunkResult = new QueryResult(query.getIterationType(), resultLimit);
+            futures.add(executor.submit(new ProjectChunkCallable(chunkResult, projection, chunk)));
+        }
+
+        Collection<QueryResult> chunkResults = returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS,
+                RETHROW_EVERYTHING);
+        long resultSize = 0;
+        for (QueryResult chunkResult : chunkResults) {
+            resultSize += chunkResult.size();
+            if (resultSize > resultLimit) {
+                throw new QueryResultSizeExceededException();
+            }
+            for (QueryResultRow row : chunkResult) {
+                result.addRow(row);
+            }
+        }
+    }
+
     @Override
     public QueryResult populateResult(Query query, long resultLimit) {
         return new QueryResult(query.getIterationType(), resultLimit);
     }
+
+    private final class ProjectChunkCallable implements Callable<QueryResult> {
+        private final QueryResult result;
+        private final Projection projection;
+        private final Iterable<QueryableEntry> entries;
+
+        private ProjectChunkCallable(QueryResult result, Projection projection, Iterable<QueryableEntry> entries) {
+            this.result = result;
+            this.projection = projection;
+            this.entries = entries;
+        }
+
+        @Override
+        public QueryResult call() throws Exception {
+            for (QueryableEntry entry : entries) {
+                result.add(entry, projection, serializationService);
+            }
+            return result;
+        }
+    }
 }
@@ -16,15 +16,22 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.ColumnarAggregator;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.LocalMapStatsProvider;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.ColumnarProjection;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator;
+import com.hazelcast.query.impl.predicates.ColumnarPredicateEvaluator.Selection;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.OperationService;
@@ -80,11 +87,23 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), mapContainer.getIndexes());
 
+        // aggregations over columnar attributes are computed directly from the columns
+        if (query.isAggregationQuery() && query.getAggregator() instanceof ColumnarAggregator
+                && !mapContainer.getMapConfig().getColumnarAttributes().isEmpty()) {
+            Result result = runColumnarAggregationSafely(query, predicate, initialPartitions, migrationStamp);
+            if (result != null) {
+                updateStatistics(mapContainer);
+                return result;
+            }
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         // This would be the point where a query-plan should be added. It should determine f a full table scan
         // or an index should be used.
         Collection<QueryableEntry> entries = runUsingIndexSafely(predicate, mapContainer, migrationStamp);
-        if (entries == null) {
+        if (entries == null && !isNativeInMemoryFormat(mapContainer)) {
+            // NATIVE record stores are confined to their partition threads, so for them
+            // the partition scan is left to the caller's partition thread fallback
             entries = runUsingPartitionScanSafely(query.getMapName(), predicate, initialPartitions, migrationStamp);
         }
 
@@ -134,6 +153,51 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * Accumulates the aggregator from the columnar projections of the given partitions.
+     *
+     * @return the result or {@code null} if the predicate or the aggregator can't be evaluated over
+     * the projections, or if the partitions have been migrated in the meantime
+     */
+    private AggregationResult runColumnarAggregationSafely(Query query, Predicate predicate,
+                                                           Collection<Integer> partitions, int migrationStamp) {
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        Aggregator aggregator = serializationService.toObject(serializationService.toData(query.getAggregator()));
+        for (Integer partitionId : partitions) {
+            RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore(query.getMapName());
+            ColumnarProjection projection = recordStore.getColumnarProjection();
+            if (projection == null) {
+                return null;
+            }
+            recordStore.checkIfLoaded();
+            projection.takeReadLock();
+            try {
+                // expired entries are only dropped from the projection when they are evicted
+                if (projection.hasExpirableEntries()) {
+                    return null;
+                }
+                Selection selection = ColumnarPredicateEvaluator.select(predicate, projection);
+                if (selection == null || selection.getResidualPredicate() != null
+                        || !((ColumnarAggregator) aggregator).accumulateColumnar(projection, selection.getBitmap())) {
+                    return null;
+                }
+            } finally {
+                projection.releaseReadLock();
+            }
+        }
+        aggregator.onAccumulationFinished();
+
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        AggregationResult result = new AggregationResult(aggregator);
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
     protected Collection<QueryableEntry> runUsingPartitionScanSafely(String name, Predicate predicate,
                                                                      Collection<Integer> partitions, int migrationStamp)
             throws InterruptedException, ExecutionException {
@@ -164,6 +228,10 @@ public class QueryRunner {
         return populateTheResult(query, entries, Collections.singletonList(partitionId));
     }
 
+    private static boolean isNativeInMemoryFormat(MapContainer mapContainer) {
+        return mapContainer.getMapConfig().getInMemoryFormat() == InMemoryFormat.NATIVE;
+    }
+
     private int getMigrationStamp() {
         return mapServiceContext.getService().getMigrationStamp();
     }
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.Clock;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Flyweight {@link Record} whose key, value and metadata live in a native memory block
+ * obtained from a {@link MemoryManager}. Only the block address is kept on-heap; every
+ * getter and setter reads or writes through to native memory.
+ * <p>
+ * Layout of the record block (all fields are 8 bytes wide):
+ * <pre>
+ * | key address | value address | next record address | key hash | version | ttl | creation time
+ * | hits | last access time | last update time | expiration time | last stored time | stamp |
+ * </pre>
+ * The stamp is written by the storage holding the record, see {@link #STAMP_OFFSET}.
+ * Key and value blobs are stored in separate blocks as {@code | size (int) | bytes |}.
+ * Both {@link #getKey()} and {@link #getValue()} return heap copies of these blobs.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeRecord implements Record<Data> {
+
+    public static final int KEY_ADDRESS_OFFSET = 0;
+    public static final int VALUE_ADDRESS_OFFSET = 8;
+    public static final int NEXT_OFFSET = 16;
+    public static final int KEY_HASH_OFFSET = 24;
+    /**
+     * Offset of the stamp the storage assigns to the record when it is linked, so that a record can be told apart
+     * from a record which was later allocated at the same address.
+     */
+    public static final int STAMP_OFFSET = 96;
+    public static final int SIZE = 104;
+
+    private static final int VERSION_OFFSET = 32;
+    private static final int TTL_OFFSET = 40;
+    private static final int CREATION_TIME_OFFSET = 48;
+    private static final int HITS_OFFSET = 56;
+    private static final int LAST_ACCESS_TIME_OFFSET = 64;
+    private static final int LAST_UPDATE_TIME_OFFSET = 72;
+    private static final int EXPIRATION_TIME_OFFSET = 80;
+    private static final int LAST_STORED_TIME_OFFSET = 88;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final long address;
+
+    public NativeRecord(MemoryManager memoryManager, long address) {
+        assert address != NULL_ADDRESS : "Native record address cannot be NULL_ADDRESS";
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.address = address;
+    }
+
+    /**
+     * Allocates a new, zeroed record block.
+     *
+     * @param memoryManager memory manager to allocate the block from
+     * @return flyweight positioned at the new block
+     */
+    public static NativeRecord allocate(MemoryManager memoryManager) {
+        long address = memoryManager.getAllocator().allocate(SIZE);
+        return new NativeRecord(memoryManager, address);
+    }
+
+    /**
+     * @return base address of the record block
+     */
+    public long address() {
+        return address;
+    }
+
+    @Override
+    public Data getKey() {
+        return readBlob(mem, mem.getLong(address + KEY_ADDRESS_OFFSET));
+    }
+
+    /**
+     * Stores a native copy of the given key in this record, replacing any previous one.
+     *
+     * @param key the key
+     */
+    public void setKey(Data key) {
+        long oldKeyAddress = mem.getLong(address + KEY_ADDRESS_OFFSET);
+        mem.putLong(address + KEY_ADDRESS_OFFSET, writeBlob(malloc, mem, key));
+        mem.putLong(address + KEY_HASH_OFFSET, key.hash64());
+        freeBlob(malloc, mem, oldKeyAddress);
+    }
+
+    /**
+     * @return {@code true} if the key stored in this record has the same bytes as the given key
+     */
+    public boolean keyEquals(Data key) {
+        return blobEquals(mem, mem.getLong(address + KEY_ADDRESS_OFFSET), key);
+    }
+
+    @Override
+    public Data getValue() {
+        return readBlob(mem, mem.getLong(address + VALUE_ADDRESS_OFFSET));
+    }
+
+    @Override
+    public void setValue(Data value) {
+        long oldValueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        mem.putLong(address + VALUE_ADDRESS_OFFSET, writeBlob(malloc, mem, value));
+        freeBlob(malloc, mem, oldValueAddress);
+    }
+
+    /**
+     * Frees the record block together with its key and value blobs. The flyweight
+     * must not be used after this call.
+     */
+    public void dispose() {
+        freeBlob(malloc, mem, mem.getLong(address + KEY_ADDRESS_OFFSET));
+        freeBlob(malloc, mem, mem.getLong(address + VALUE_ADDRESS_OFFSET));
+        malloc.free(address, SIZE);
+    }
+
+    @Override
+    public void onAccess(long now) {
+        setHits(getHits() + 1);
+        setLastAccessTime(now);
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        onAccess(now);
+        setVersion(getVersion() + 1);
+        setLastUpdateTime(now);
+    }
+
+    @Override
+    public void onStore() {
+        setLastStoredTime(Clock.currentTimeMillis());
+    }
+
+    /**
+     * Returns the number of native memory bytes occupied by this record, including its key and value.
+     */
+    @Override
+    public long getCost() {
+        return SIZE + blobCost(mem, mem.getLong(address + KEY_ADDRESS_OFFSET))
+                + blobCost(mem, mem.getLong(address + VALUE_ADDRESS_OFFSET));
+    }
+
+    @Override
+    public long getVersion() {
+        return mem.getLong(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        mem.putLong(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        return mem.getLong(address + TTL_OFFSET);
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        mem.putLong(address + TTL_OFFSET, ttl);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return mem.getLong(address + LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        mem.putLong(address + LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return mem.getLong(address + LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdatedTime) {
+        mem.putLong(address + LAST_UPDATE_TIME_OFFSET, lastUpdatedTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return mem.getLong(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        mem.putLong(address + CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public long getHits() {
+        return mem.getLong(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hits) {
+        mem.putLong(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return mem.getLong(address + EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        mem.putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return mem.getLong(address + LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        mem.putLong(address + LAST_STORED_TIME_OFFSET, lastStoredTime);
+    }
+
+    @Override
+    public long getSequence() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address == ((NativeRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{address=" + address + '}';
+    }
+
+    private static long writeBlob(MemoryAllocator malloc, MemoryAccessor mem, Data data) {
+        if (data == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = data.toByteArray();
+        int length = bytes == null ? 0 : bytes.length;
+        long blobAddress = malloc.allocate(INT_SIZE_IN_BYTES + length);
+        mem.putInt(blobAddress, length);
+        if (length > 0) {
+            mem.copyFromByteArray(bytes, 0, blobAddress + INT_SIZE_IN_BYTES, length);
+        }
+        return blobAddress;
+    }
+
+    private static Data readBlob(MemoryAccessor mem, long blobAddress) {
+        if (blobAddress == NULL_ADDRESS) {
+            return null;
+        }
+        int length = mem.getInt(blobAddress);
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            mem.copyToByteArray(blobAddress + INT_SIZE_IN_BYTES, bytes, 0, length);
+        }
+        return new HeapData(bytes);
+    }
+
+    private static boolean blobEquals(MemoryAccessor mem, long blobAddress, Data data) {
+        if (blobAddress == NULL_ADDRESS) {
+            return data == null;
+        }
+        int length = mem.getInt(blobAddress);
+        if (length != data.totalSize()) {
+            return false;
+        }
+        byte[] bytes = data.toByteArray();
+        long base = blobAddress + INT_SIZE_IN_BYTES;
+        for (int i = length - 1; i >= 0; i--) {
+            if (mem.getByte(base + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long blobCost(MemoryAccessor mem, long blobAddress) {
+        return blobAddress == NULL_ADDRESS ? 0L : INT_SIZE_IN_BYTES + mem.getInt(blobAddress);
+    }
+
+    private static void freeBlob(MemoryAllocator malloc, MemoryAccessor mem, long blobAddress) {
+        if (blobAddress != NULL_ADDRESS) {
+            malloc.free(blobAddress, INT_SIZE_IN_BYTES + mem.getInt(blobAddress));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * Creates {@link NativeRecord}s for maps configured with {@link com.hazelcast.config.InMemoryFormat#NATIVE}.
+ * Records created by this factory own native memory and must be released by the storage they are put into.
+ */
+public class NativeRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final MemoryManager memoryManager;
+
+    public NativeRecordFactory(SerializationService serializationService, PartitioningStrategy partitionStrategy,
+                               MemoryManager memoryManager) {
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.memoryManager = memoryManager;
+    }
+
+    @Override
+    public Record<Data> newRecord(Object value) {
+        assert value != null : "value can not be null";
+
+        NativeRecord record = NativeRecord.allocate(memoryManager);
+        try {
+            record.setValue(toData(value));
+        } catch (RuntimeException e) {
+            record.dispose();
+            throw e;
+        } catch (Error e) {
+            record.dispose();
+            throw e;
+        }
+        return record;
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        record.setValue(toData(value));
+    }
+
+    @Override
+    public boolean isEquals(Object value1, Object value2) {
+        if (value1 == null && value2 == null) {
+            return true;
+        }
+        if (value1 == null) {
+            return false;
+        }
+        if (value2 == null) {
+            return false;
+        }
+
+        return serializationService.toData(value1).equals(serializationService.toData(value2));
+    }
+
+    public MemoryManager getMemoryManager() {
+        return memoryManager;
+    }
+
+    private Data toData(Object value) {
+        if (value instanceof Data) {
+            return (Data) value;
+        }
+        return serializationService.toData(value, partitionStrategy);
+    }
+}
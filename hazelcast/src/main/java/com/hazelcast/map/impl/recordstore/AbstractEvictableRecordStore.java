@@ -17,10 +17,14 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.FrequencySketch;
+import com.hazelcast.map.eviction.TinyLFUEvictionPolicy;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.Evictor;
+import com.hazelcast.map.impl.eviction.ExpirationManager;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
@@ -33,8 +37,11 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.core.EntryEventType.EVICTED;
 import static com.hazelcast.core.EntryEventType.EXPIRED;
+import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateExpirationTime;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateExpirationWithDelay;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateMaxIdleMillis;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.getIdlenessStartTime;
@@ -49,15 +56,27 @@ import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
  */
 abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
+    private static final int FREQUENCY_SKETCH_DEFAULT_CAPACITY = 1024;
+
     protected final long expiryDelayMillis;
     protected final EventService eventService;
     protected final MapEventPublisher mapEventPublisher;
     protected final Address thisAddress;
     /**
-     * Iterates over a pre-set entry count/percentage in one round.
-     * Used in expiration logic for traversing entries. Initializes lazily.
+     * Keys of the records by their expiration times. Used in expiration logic to find the expired records.
+     * {@code null} for {@link com.hazelcast.config.InMemoryFormat#NATIVE} maps, the queue would keep
+     * on-heap copies of their off-heap keys.
+     */
+    protected final ExpirationQueue expirationQueue;
+    /**
+     * Iterates over a pre-set entry count/percentage in one round. Used in expiration logic for traversing
+     * entries if there is no {@link #expirationQueue}. Initializes lazily.
      */
     protected Iterator<Record> expirationIterator;
+    /**
+     * Read frequencies of the keys if the map uses the TinyLFU eviction policy, otherwise {@code null}.
+     */
+    protected final FrequencySketch frequencySketch;
     protected volatile boolean hasEntryWithCustomTTL;
 
     protected AbstractEvictableRecordStore(MapContainer mapContainer, int partitionId) {
@@ -68,6 +87,44 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         eventService = nodeEngine.getEventService();
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
         thisAddress = nodeEngine.getThisAddress();
+        frequencySketch = createFrequencySketch(mapContainer.getMapConfig(), nodeEngine);
+        expirationQueue = NATIVE == inMemoryFormat ? null : new ExpirationQueue();
+    }
+
+    /**
+     * Creates the frequency sketch sized to the max number of entries of this record store. The max number is estimated
+     * from the {@code PER_NODE} or {@code PER_PARTITION} max size, other max size policies don't limit the entry count.
+     */
+    private static FrequencySketch createFrequencySketch(MapConfig mapConfig, NodeEngine nodeEngine) {
+        if (!(mapConfig.getMapEvictionPolicy() instanceof TinyLFUEvictionPolicy)) {
+            return null;
+        }
+        MaxSizeConfig maxSizeConfig = mapConfig.getMaxSizeConfig();
+        int maxSize = maxSizeConfig.getSize();
+        if (maxSize == MaxSizeConfig.DEFAULT_MAX_SIZE) {
+            return new FrequencySketch(FREQUENCY_SKETCH_DEFAULT_CAPACITY);
+        }
+        switch (maxSizeConfig.getMaxSizePolicy()) {
+            case PER_PARTITION:
+                return new FrequencySketch(maxSize);
+            case PER_NODE:
+                int memberCount = nodeEngine.getClusterService().getSize(DATA_MEMBER_SELECTOR);
+                int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+                return new FrequencySketch((long) maxSize * memberCount / partitionCount);
+            default:
+                return new FrequencySketch(FREQUENCY_SKETCH_DEFAULT_CAPACITY);
+        }
+    }
+
+    @Override
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
+    }
+
+    protected void recordKeyAccess(Data key) {
+        if (frequencySketch != null) {
+            frequencySketch.increment(key.hashCode());
+        }
     }
 
     /**
@@ -83,14 +140,56 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     @Override
     public void evictExpiredEntries(int percentage, boolean backup) {
         final long now = getNow();
-        final int size = size();
-        final int maxIterationCount = getMaxIterationCount(size, percentage);
+        final int maxIterationCount = getMaxIterationCount(size(), percentage);
+        final ExpirationStats stats = new ExpirationStats(now);
+        if (expirationQueue == null) {
+            evictExpiredEntriesByScan(maxIterationCount, now, backup, stats);
+        } else {
+            evictExpiredEntriesByQueue(maxIterationCount, now, backup, stats);
+        }
+        if (stats.evictedEntryCount > 0) {
+            ExpirationManager expirationManager = mapServiceContext.getExpirationManager();
+            expirationManager.onExpiredEntriesEvicted(stats.evictedEntryCount, stats.totalLagMillis, stats.maxLagMillis);
+        }
+    }
+
+    private void evictExpiredEntriesByQueue(int maxIterationCount, long now, boolean backup, ExpirationStats stats) {
+        int checkedEntryCount = 0;
+        Data key;
+        while (checkedEntryCount < maxIterationCount && (key = expirationQueue.poll(now)) != null) {
+            checkedEntryCount++;
+            Record record = storage.get(key);
+            if (record == null) {
+                // removed since it was scheduled
+                continue;
+            }
+            long expirationTime = getExpirationTime(record);
+            if (getOrNullIfExpired(record, now, backup) == null) {
+                stats.onEvicted(expirationTime);
+            } else {
+                // accessed or updated since it was scheduled, locked or delayed on backup
+                rescheduleExpiration(key, expirationTime, now, backup);
+            }
+        }
+    }
+
+    private void evictExpiredEntriesByScan(int maxIterationCount, long now, boolean backup, ExpirationStats stats) {
         final int maxRetry = 3;
         int loop = 0;
-        int evictedEntryCount = 0;
         while (true) {
-            evictedEntryCount += evictExpiredEntriesInternal(maxIterationCount, now, backup);
-            if (evictedEntryCount >= maxIterationCount) {
+            int checkedEntryCount = 0;
+            if (expirationIterator == null || !expirationIterator.hasNext()) {
+                expirationIterator = storage.values().iterator();
+            }
+            while (checkedEntryCount < maxIterationCount && expirationIterator.hasNext()) {
+                checkedEntryCount++;
+                Record record = expirationIterator.next();
+                long expirationTime = getExpirationTime(record);
+                if (getOrNullIfExpired(record, now, backup) == null) {
+                    stats.onEvicted(expirationTime);
+                }
+            }
+            if (stats.evictedEntryCount >= maxIterationCount) {
                 break;
             }
             loop++;
@@ -100,6 +199,28 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         }
     }
 
+    private void rescheduleExpiration(Data key, long expirationTime, long now, boolean backup) {
+        if (expirationTime == Long.MAX_VALUE) {
+            return;
+        }
+        long nextCheckTime = backup ? calculateExpirationWithDelay(expirationTime, expiryDelayMillis, true) : expirationTime;
+        expirationQueue.schedule(key, Math.max(nextCheckTime, now));
+    }
+
+    /**
+     * Schedules the expiration of the given record, to be called whenever its expiration time may have moved earlier,
+     * e.g. when it is created or its TTL is updated.
+     */
+    protected void scheduleExpiration(Data key, Record record) {
+        if (expirationQueue != null) {
+            expirationQueue.schedule(key, getExpirationTime(record));
+        }
+    }
+
+    private long getExpirationTime(Record record) {
+        return calculateExpirationTime(record, calculateMaxIdleMillis(mapContainer.getMapConfig()));
+    }
+
     @Override
     public boolean isExpirable() {
         return isRecordStoreExpirable();
@@ -122,30 +243,6 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         return Math.round(maxIterationCount);
     }
 
-    private int evictExpiredEntriesInternal(int maxIterationCount, long now, boolean backup) {
-        int evictedCount = 0;
-        int checkedEntryCount = 0;
-        initExpirationIterator();
-        while (expirationIterator.hasNext()) {
-            if (checkedEntryCount >= maxIterationCount) {
-                break;
-            }
-            checkedEntryCount++;
-            Record record = expirationIterator.next();
-            record = getOrNullIfExpired(record, now, backup);
-            if (record == null) {
-                evictedCount++;
-            }
-        }
-        return evictedCount;
-    }
-
-    private void initExpirationIterator() {
-        if (expirationIterator == null || !expirationIterator.hasNext()) {
-            expirationIterator = storage.values().iterator();
-        }
-    }
-
     @Override
     public void evictEntries(Data excludedKey) {
         if (shouldEvict()) {
@@ -254,6 +351,7 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     protected void accessRecord(Record record, long now) {
         record.onAccess(now);
+        recordKeyAccess(record.getKey());
         updateStatsOnGet(now);
         long maxIdleMillis = calculateMaxIdleMillis(mapContainer.getMapConfig());
         setExpirationTime(record, maxIdleMillis);
@@ -347,4 +445,26 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         }
 
     }
+
+    /**
+     * Counts the entries evicted by a run of {@link #evictExpiredEntries(int, boolean)} and their lag behind their
+     * expiration times.
+     */
+    private static final class ExpirationStats {
+        private final long now;
+        private int evictedEntryCount;
+        private long totalLagMillis;
+        private long maxLagMillis;
+
+        ExpirationStats(long now) {
+            this.now = now;
+        }
+
+        void onEvicted(long expirationTime) {
+            long lagMillis = Math.max(0, now - expirationTime);
+            totalLagMillis += lagMillis;
+            maxLagMillis = Math.max(maxLagMillis, lagMillis);
+            evictedEntryCount++;
+        }
+    }
 }
@@ -21,16 +21,19 @@ import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.ExpirationTimeSetter;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.MapStoreManager;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.ColumnarProjection;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.DefaultObjectNamespace;
@@ -39,6 +42,7 @@ import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 
 import java.util.Collection;
+import java.util.List;
 
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateMaxIdleMillis;
@@ -62,6 +66,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected final MapStoreContext mapStoreContext;
     protected final InMemoryFormat inMemoryFormat;
     protected final int partitionId;
+    protected final ColumnarProjection columnarProjection;
 
     protected Storage<Data, Record> storage;
 
@@ -81,6 +86,15 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         MapStoreManager mapStoreManager = mapStoreContext.getMapStoreManager();
         this.mapDataStore = mapStoreManager.getMapDataStore(name, partitionId);
         this.lockStore = createLockStore();
+        this.columnarProjection = createColumnarProjection(mapContainer.getMapConfig());
+    }
+
+    private static ColumnarProjection createColumnarProjection(MapConfig mapConfig) {
+        List<String> columnarAttributes = mapConfig.getColumnarAttributes();
+        if (columnarAttributes.isEmpty() || NATIVE == mapConfig.getInMemoryFormat()) {
+            return null;
+        }
+        return new ColumnarProjection(columnarAttributes);
     }
 
     @Override
@@ -106,9 +120,17 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (NATIVE == memoryFormat) {
+            return new NativeStorageImpl((NativeRecordFactory) recordFactory, serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
+    @Override
+    public ColumnarProjection getColumnarProjection() {
+        return columnarProjection;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -153,9 +175,13 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
             QueryableEntry queryableEntry = mapContainer.newQueryEntry(dataKey, value);
             indexes.saveEntryIndex(queryableEntry, oldValue);
         }
+        if (columnarProjection != null) {
+            Object value = Records.getValueOrCachedValue(record, serializationService);
+            boolean expirable = ExpirationTimeSetter.isExpirable(record, mapContainer.getMapConfig());
+            columnarProjection.save(mapContainer.newQueryEntry(dataKey, value), expirable);
+        }
     }
 
-
     protected void removeIndex(Record record) {
         Indexes indexes = mapContainer.getIndexes();
         if (indexes.hasIndex()) {
@@ -167,6 +193,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
             }
             indexes.removeEntryIndex(key, value);
         }
+        if (columnarProjection != null) {
+            columnarProjection.remove(record.getKey());
+        }
     }
 
     protected Object copyToHeap(Object value) {
@@ -175,7 +204,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     protected void removeIndex(Collection<Record> records) {
         Indexes indexes = mapContainer.getIndexes();
-        if (!indexes.hasIndex()) {
+        if (!indexes.hasIndex() && columnarProjection == null) {
             return;
         }
 
@@ -138,15 +138,17 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     }
 
     @Override
-    public void loadAllFromStore(List<Data> keys, boolean replaceExistingValues) {
-        if (!keys.isEmpty()) {
-            Future f = recordStoreLoader.loadValues(keys, replaceExistingValues);
-            loadingFutures.add(f);
+    public Future<?> loadAllFromStore(List<Data> keys, boolean replaceExistingValues) {
+        if (keys.isEmpty()) {
+            return null;
         }
+        Future<?> f = recordStoreLoader.loadValues(keys, replaceExistingValues);
+        loadingFutures.add(f);
 
         // We should not track key loading here. IT's not key loading but values loading.
         // Apart from that it's irrelevant for RECEIVER nodes. SENDER and SENDER_BACKUP will track the key-loading anyway.
         // Fixes https://github.com/hazelcast/hazelcast/issues/9255
+        return f;
     }
 
     @Override
@@ -230,6 +232,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void putRecord(Data key, Record record) {
         markRecordStoreExpirable(record.getTtl());
         storage.put(key, record);
+        scheduleExpiration(key, record);
         updateStatsOnPut(record.getHits());
     }
 
@@ -247,6 +250,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (record == null) {
             record = createRecord(value, ttl, now);
             storage.put(key, record);
+            scheduleExpiration(key, record);
         } else {
             updateRecord(key, record, value, now);
         }
@@ -258,6 +262,12 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         return record;
     }
 
+    @Override
+    public void onBackupRecordInfoApplied(Data key, Record record) {
+        markRecordStoreExpirable(record.getTtl());
+        scheduleExpiration(key, record);
+    }
+
     public Iterator<Record> iterator() {
         return new ReadOnlyRecordIterator(storage.values());
     }
@@ -301,7 +311,13 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 indexes.removeEntryIndex(key, value);
             }
         }
+        if (columnarProjection != null) {
+            columnarProjection.clear();
+        }
         mapDataStore.reset();
+        if (expirationQueue != null) {
+            expirationQueue.clear();
+        }
 
         if (onShutdown) {
             NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
@@ -399,6 +415,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (value != null) {
             record = createRecord(value, DEFAULT_TTL, getNow());
             storage.put(key, record);
+            scheduleExpiration(key, record);
             if (!backup) {
                 saveIndex(record, null);
             }
@@ -499,6 +516,12 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void reset() {
         mapDataStore.reset();
         storage.clear(false);
+        if (expirationQueue != null) {
+            expirationQueue.clear();
+        }
+        if (columnarProjection != null) {
+            columnarProjection.clear();
+        }
         resetStats();
     }
 
@@ -609,6 +632,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
 
         Record record = getRecordOrNull(key, now, backup);
         if (record == null) {
+            recordKeyAccess(key);
             record = loadRecordOrNull(key, backup);
         } else {
             accessRecord(record, now);
@@ -775,6 +799,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
         }
+        scheduleExpiration(key, record);
 
         saveIndex(record, oldValue);
         return oldValue;
@@ -800,6 +825,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             record = createRecord(newValue, DEFAULT_TTL, now);
             mergeRecordExpiration(record, mergingEntry);
             storage.put(key, record);
+            scheduleExpiration(key, record);
         } else {
             oldValue = record.getValue();
             EntryView existingEntry = EntryViews.createLazyEntryView(record.getKey(), record.getValue(),
@@ -816,6 +842,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             }
             if (newValue == mergingEntry.getValue()) {
                 mergeRecordExpiration(record, mergingEntry);
+                scheduleExpiration(key, record);
             }
             // same with the existing entry so no need to map-store etc operations.
             if (recordFactory.isEquals(newValue, oldValue)) {
@@ -889,6 +916,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
         }
+        scheduleExpiration(key, record);
         saveIndex(record, oldValue);
         mapDataStore.addTransient(key, now);
     }
@@ -932,6 +960,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
         }
+        scheduleExpiration(key, record);
         if (!backup) {
             saveIndex(record, oldValue);
         }
@@ -971,6 +1000,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             if (oldValue != null) {
                 record = createRecord(oldValue, DEFAULT_TTL, now);
                 storage.put(key, record);
+                scheduleExpiration(key, record);
             }
         } else {
             accessRecord(record, now);
@@ -983,6 +1013,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             record = createRecord(value, ttl, now);
             storage.put(key, record);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
+            scheduleExpiration(key, record);
         }
         saveIndex(record, oldValue);
         return oldValue;
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.util.HashUtil.fastIntMix;
+
+/**
+ * Index of the keys of a {@link RecordStore} by the expiration times of their records, used to reclaim expired records
+ * without scanning the whole record store.
+ * <p>
+ * Keys are kept in buckets of {@link #BUCKET_WIDTH_MILLIS} milliseconds; a key is returned by {@link #poll(long)} once
+ * its bucket has passed completely. Each key is scheduled at most once: scheduling a key at a later time than it is
+ * already scheduled at is a no-op. So extending the expiration time of a record, e.g. on access with max-idle or on
+ * update, costs only a lookup; when its key is polled the record is found to be alive and the key is scheduled again.
+ * Removed records are not unscheduled either, their keys are dropped when polled.
+ * <p>
+ * The queue is kept on-heap and references the scheduled keys, so it is not meant for records stored off-heap.
+ * To keep the per-key overhead low, there are no per-key objects: a bucket is an array of keys and the bucket
+ * a key is scheduled in is kept in an open addressing table. A scheduled key costs about 30 bytes on a 64-bit JVM
+ * with compressed references, on top of the key itself. Moving a key to an earlier bucket leaves a stale entry
+ * in its former bucket, which is skipped when polled.
+ * <p>
+ * The queue is not thread-safe, it is confined to the partition thread of its record store.
+ */
+final class ExpirationQueue {
+
+    /**
+     * The width of the buckets keys are scheduled in.
+     */
+    static final long BUCKET_WIDTH_MILLIS = 1000;
+
+    private static final int INITIAL_TABLE_CAPACITY = 16;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<Long, Bucket>();
+
+    private Data[] keys = new Data[INITIAL_TABLE_CAPACITY];
+    private long[] bucketIndexes = new long[INITIAL_TABLE_CAPACITY];
+    private int size;
+
+    /**
+     * Schedules the given key to be polled once the given time has passed. If the key is already scheduled at an
+     * earlier time, it is left there.
+     *
+     * @param key            the key of the record
+     * @param expirationTime the expiration time of the record, {@code Long.MAX_VALUE} if it never expires
+     */
+    void schedule(Data key, long expirationTime) {
+        if (expirationTime == Long.MAX_VALUE) {
+            return;
+        }
+        long bucketIndex = expirationTime / BUCKET_WIDTH_MILLIS;
+        int slot = slotOf(key);
+        if (keys[slot] == null) {
+            keys[slot] = key;
+            size++;
+        } else if (bucketIndexes[slot] <= bucketIndex) {
+            return;
+        }
+        bucketIndexes[slot] = bucketIndex;
+        addToBucket(key, bucketIndex);
+        if (size * 3 > keys.length * 2) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes and returns a key whose bucket has passed at the given time.
+     *
+     * @param now the current time
+     * @return the key or {@code null} if no key is due
+     */
+    Data poll(long now) {
+        long dueBucketIndex = now / BUCKET_WIDTH_MILLIS;
+        Map.Entry<Long, Bucket> first;
+        while ((first = buckets.firstEntry()) != null && first.getKey() < dueBucketIndex) {
+            long bucketIndex = first.getKey();
+            Bucket bucket = first.getValue();
+            Data key = bucket.keys[--bucket.size];
+            bucket.keys[bucket.size] = null;
+            if (bucket.size == 0) {
+                buckets.remove(bucketIndex);
+            }
+            int slot = slotOf(key);
+            if (keys[slot] != null && bucketIndexes[slot] == bucketIndex) {
+                removeSlot(slot);
+                return key;
+            }
+            // stale entry of a key which has been moved to an earlier bucket
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of scheduled keys
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        buckets.clear();
+        keys = new Data[INITIAL_TABLE_CAPACITY];
+        bucketIndexes = new long[INITIAL_TABLE_CAPACITY];
+        size = 0;
+    }
+
+    private void addToBucket(Data key, long bucketIndex) {
+        Bucket bucket = buckets.get(bucketIndex);
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets.put(bucketIndex, bucket);
+        } else if (bucket.size == bucket.keys.length) {
+            Data[] newKeys = new Data[bucket.size << 1];
+            System.arraycopy(bucket.keys, 0, newKeys, 0, bucket.size);
+            bucket.keys = newKeys;
+        }
+        bucket.keys[bucket.size++] = key;
+    }
+
+    /**
+     * Returns the slot of the given key in the table, or the empty slot it would be put in.
+     */
+    private int slotOf(Data key) {
+        int mask = keys.length - 1;
+        int slot = homeSlotOf(key, mask);
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int homeSlotOf(Data key, int mask) {
+        return fastIntMix(key.hashCode()) & mask;
+    }
+
+    /**
+     * Empties the given slot and shifts back the following keys of its probe sequence, so that lookups don't
+     * need tombstones.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int emptySlot = slot;
+        keys[emptySlot] = null;
+        size--;
+        for (int i = (emptySlot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int homeSlot = homeSlotOf(keys[i], mask);
+            if (((i - homeSlot) & mask) >= ((i - emptySlot) & mask)) {
+                keys[emptySlot] = keys[i];
+                bucketIndexes[emptySlot] = bucketIndexes[i];
+                keys[i] = null;
+                emptySlot = i;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        Data[] oldKeys = keys;
+        long[] oldBucketIndexes = bucketIndexes;
+        keys = new Data[capacity];
+        bucketIndexes = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                bucketIndexes[slot] = oldBucketIndexes[i];
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private Data[] keys = new Data[INITIAL_BUCKET_CAPACITY];
+        private int size;
+    }
+}
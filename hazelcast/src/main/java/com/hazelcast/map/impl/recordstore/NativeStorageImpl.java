@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+import static com.hazelcast.map.impl.record.NativeRecord.KEY_HASH_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.NEXT_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.STAMP_OFFSET;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link Storage} implementation for {@link InMemoryFormat#NATIVE} maps which keeps keys, values
+ * and record metadata in native memory.
+ * <p>
+ * Records are {@link NativeRecord} blocks. They are indexed by a {@link HashSlotArray8byteKeyImpl}
+ * keyed by the 64-bit hash of the key; the value of each slot is the address of the first record
+ * in a singly-linked chain of records whose keys share that hash. The only on-heap state is a fixed
+ * number of fields, so the heap footprint of this storage does not grow with the number of entries.
+ * <p>
+ * Removed records are not freed immediately since the calling operation may still be reading
+ * them through their flyweights; they are freed on the next {@link #disposeDeferredBlocks()} call.
+ * Snapshots returned from {@link #values()} check each record for liveness before handing it out,
+ * so they are safe to keep across operations. A record is live if it is still linked and still has the
+ * stamp it got when it was put, since a freed block may be reused for another record at the same address.
+ * <p>
+ * This storage is confined to the partition thread owning it.
+ */
+public class NativeStorageImpl implements Storage<Data, NativeRecord> {
+
+    private final NativeRecordFactory recordFactory;
+    private final MemoryManager memoryManager;
+    private final MemoryAccessor mem;
+    private final SerializationService serializationService;
+    private final RecordSlots slots;
+    private final List<NativeRecord> deferredRecords = new ArrayList<NativeRecord>();
+    private final Random random = new Random();
+
+    private int size;
+    private long lastStamp;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    NativeStorageImpl(NativeRecordFactory recordFactory, SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.memoryManager = recordFactory.getMemoryManager();
+        this.mem = memoryManager.getAccessor();
+        this.serializationService = serializationService;
+        this.entryCostEstimator = createMapSizeEstimator(InMemoryFormat.NATIVE);
+        this.slots = new RecordSlots(memoryManager);
+        this.slots.gotoNew();
+    }
+
+    @Override
+    public void put(Data key, NativeRecord record) {
+        NativeRecord newRecord = toNativeRecord(record);
+        newRecord.setKey(key);
+        long newAddress = newRecord.address();
+
+        long slotAddress = slots.ensure(key.hash64());
+        if (slotAddress > 0) {
+            mem.putLong(newAddress + NEXT_OFFSET, NULL_ADDRESS);
+            stamp(newAddress);
+            mem.putLong(slotAddress, newAddress);
+            onAdded(key, newRecord);
+            return;
+        }
+
+        slotAddress = -slotAddress;
+        long previous = NULL_ADDRESS;
+        long current = mem.getLong(slotAddress);
+        while (current != NULL_ADDRESS) {
+            if (current == newAddress) {
+                // same record is put again, it is already linked
+                return;
+            }
+            NativeRecord currentRecord = new NativeRecord(memoryManager, current);
+            if (currentRecord.keyEquals(key)) {
+                mem.putLong(newAddress + NEXT_OFFSET, mem.getLong(current + NEXT_OFFSET));
+                stamp(newAddress);
+                link(slotAddress, previous, newAddress);
+                updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, currentRecord));
+                updateCostEstimate(entryCostEstimator.calculateEntryCost(key, newRecord));
+                deferredRecords.add(currentRecord);
+                return;
+            }
+            previous = current;
+            current = mem.getLong(current + NEXT_OFFSET);
+        }
+
+        mem.putLong(newAddress + NEXT_OFFSET, mem.getLong(slotAddress));
+        stamp(newAddress);
+        mem.putLong(slotAddress, newAddress);
+        onAdded(key, newRecord);
+    }
+
+    @Override
+    public void updateRecordValue(Data key, NativeRecord record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        recordFactory.setValue(record, value);
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public NativeRecord get(Data key) {
+        long address = findAddress(key);
+        return address == NULL_ADDRESS ? null : new NativeRecord(memoryManager, address);
+    }
+
+    @Override
+    public NativeRecord getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("NativeStorageImpl#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(NativeRecord record) {
+        if (record == null) {
+            return;
+        }
+
+        long address = record.address();
+        long hash = mem.getLong(address + KEY_HASH_OFFSET);
+        long slotAddress = slots.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return;
+        }
+        long previous = NULL_ADDRESS;
+        long current = mem.getLong(slotAddress);
+        while (current != NULL_ADDRESS && current != address) {
+            previous = current;
+            current = mem.getLong(current + NEXT_OFFSET);
+        }
+        if (current == NULL_ADDRESS) {
+            // already removed
+            return;
+        }
+
+        long next = mem.getLong(address + NEXT_OFFSET);
+        if (previous == NULL_ADDRESS && next == NULL_ADDRESS) {
+            slots.remove(hash);
+        } else {
+            link(slotAddress, previous, next);
+        }
+        size--;
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(null, record));
+        deferredRecords.add(record);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findAddress(key) != NULL_ADDRESS;
+    }
+
+    /**
+     * Returns a snapshot of the records currently in this storage. Records removed after the snapshot
+     * was taken are skipped during iteration. Removal through the iterator removes the record from
+     * this storage.
+     */
+    @Override
+    public Collection<NativeRecord> values() {
+        int count = 0;
+        long[] addresses = new long[size];
+        long[] hashes = new long[size];
+        long[] stamps = new long[size];
+        HashSlotCursor8byteKey cursor = slots.cursor();
+        while (cursor.advance()) {
+            long address = mem.getLong(cursor.valueAddress());
+            while (address != NULL_ADDRESS) {
+                if (count == addresses.length) {
+                    addresses = Arrays.copyOf(addresses, count * 2 + 1);
+                    hashes = Arrays.copyOf(hashes, count * 2 + 1);
+                    stamps = Arrays.copyOf(stamps, count * 2 + 1);
+                }
+                addresses[count] = address;
+                hashes[count] = cursor.key();
+                stamps[count] = mem.getLong(address + STAMP_OFFSET);
+                count++;
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return new RecordSnapshot(addresses, hashes, stamps, count);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        HashSlotCursor8byteKey cursor = slots.cursor();
+        while (cursor.advance()) {
+            long address = mem.getLong(cursor.valueAddress());
+            while (address != NULL_ADDRESS) {
+                long next = mem.getLong(address + NEXT_OFFSET);
+                new NativeRecord(memoryManager, address).dispose();
+                address = next;
+            }
+        }
+        slots.clear();
+        size = 0;
+        disposeDeferredBlocks();
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        slots.dispose();
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        if (deferredRecords.isEmpty()) {
+            return;
+        }
+        for (NativeRecord record : deferredRecords) {
+            record.dispose();
+        }
+        deferredRecords.clear();
+    }
+
+    @Override
+    public Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount) {
+        if (size == 0 || sampleCount <= 0) {
+            return Collections.emptyList();
+        }
+        List<LazyEntryViewFromRecord> samples = new ArrayList<LazyEntryViewFromRecord>(sampleCount);
+        long capacity = slots.capacity();
+        long mask = capacity - 1;
+        long start = random.nextInt((int) capacity);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long address = slots.headAt((start + i) & mask);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                NativeRecord record = new NativeRecord(memoryManager, address);
+                samples.add(new LazyEntryViewFromRecord<NativeRecord>(record, serializationService));
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        List<Data> keys = new ArrayList<Data>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && keys.size() < size) {
+            long address = slots.headAt(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                keys.add(new NativeRecord(memoryManager, address).getKey());
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return new MapKeysWithCursor(keys, nextTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && entries.size() < size) {
+            long address = slots.headAt(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                NativeRecord record = new NativeRecord(memoryManager, address);
+                entries.add(new AbstractMap.SimpleEntry<Data, Data>(record.getKey(), record.getValue()));
+                address = mem.getLong(address + NEXT_OFFSET);
+            }
+        }
+        return new MapEntriesWithCursor(entries, nextTableIndex);
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    private void onAdded(Data key, NativeRecord record) {
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+    }
+
+    private void stamp(long address) {
+        mem.putLong(address + STAMP_OFFSET, ++lastStamp);
+    }
+
+    private void link(long slotAddress, long previous, long address) {
+        if (previous == NULL_ADDRESS) {
+            mem.putLong(slotAddress, address);
+        } else {
+            mem.putLong(previous + NEXT_OFFSET, address);
+        }
+    }
+
+    private int startTableIndex(int tableIndex) {
+        int capacity = (int) slots.capacity();
+        return tableIndex >= 0 && tableIndex < capacity ? tableIndex : capacity - 1;
+    }
+
+    private long findAddress(Data key) {
+        long slotAddress = slots.get(key.hash64());
+        if (slotAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(slotAddress);
+        while (address != NULL_ADDRESS) {
+            if (new NativeRecord(memoryManager, address).keyEquals(key)) {
+                return address;
+            }
+            address = mem.getLong(address + NEXT_OFFSET);
+        }
+        return NULL_ADDRESS;
+    }
+
+    private boolean isLive(long hash, long address, long stamp) {
+        long slotAddress = slots.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return false;
+        }
+        long current = mem.getLong(slotAddress);
+        while (current != NULL_ADDRESS) {
+            if (current == address) {
+                // the block may have been freed and reused for a record put after the snapshot was taken
+                return mem.getLong(address + STAMP_OFFSET) == stamp;
+            }
+            current = mem.getLong(current + NEXT_OFFSET);
+        }
+        return false;
+    }
+
+    /**
+     * Converts records which were not created by a {@link NativeRecordFactory} (e.g. replicated ones)
+     * into a native record holding the same value and metadata.
+     */
+    private NativeRecord toNativeRecord(Record record) {
+        if (record instanceof NativeRecord) {
+            return (NativeRecord) record;
+        }
+        NativeRecord nativeRecord = (NativeRecord) recordFactory.newRecord(record.getValue());
+        Records.applyRecordInfo(nativeRecord, Records.buildRecordInfo(record));
+        return nativeRecord;
+    }
+
+    /**
+     * Hash slot array which additionally allows reading a slot by its index.
+     */
+    private static final class RecordSlots extends HashSlotArray8byteKeyImpl {
+
+        RecordSlots(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        }
+
+        /**
+         * @return address of the first record in the chain of the given slot or
+         * {@link com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS} if the slot is unassigned
+         */
+        long headAt(long slot) {
+            long baseAddress = address();
+            if (!isAssigned(baseAddress, slot)) {
+                return NULL_ADDRESS;
+            }
+            return mem().getLong(slotBase(baseAddress, slot) + LONG_SIZE_IN_BYTES);
+        }
+    }
+
+    /**
+     * Snapshot of record addresses and stamps which validates each record before returning it.
+     */
+    private final class RecordSnapshot extends AbstractCollection<NativeRecord> {
+
+        private final long[] addresses;
+        private final long[] hashes;
+        private final long[] stamps;
+        private final int count;
+
+        RecordSnapshot(long[] addresses, long[] hashes, long[] stamps, int count) {
+            this.addresses = addresses;
+            this.hashes = hashes;
+            this.stamps = stamps;
+            this.count = count;
+        }
+
+        @Override
+        public Iterator<NativeRecord> iterator() {
+            return new RecordSnapshotIterator();
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        private final class RecordSnapshotIterator implements Iterator<NativeRecord> {
+
+            private int index;
+            private NativeRecord next;
+            private NativeRecord lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < count) {
+                    long address = addresses[index];
+                    long hash = hashes[index];
+                    long stamp = stamps[index];
+                    index++;
+                    if (isLive(hash, address, stamp)) {
+                        next = new NativeRecord(memoryManager, address);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public NativeRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = null;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                removeRecord(lastReturned);
+                lastReturned = null;
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
@@ -28,11 +29,13 @@ import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.monitor.LocalRecordStoreStats;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.ColumnarProjection;
 import com.hazelcast.spi.exception.RetryableHazelcastException;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * Defines a record-store.
@@ -61,6 +64,16 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
      */
     R putBackup(Data key, Object value, long ttl, boolean putTransient);
 
+    /**
+     * Called after the record info of the primary replica, like the TTL and the creation time, has been applied to a
+     * backup record, e.g. by {@link com.hazelcast.map.impl.record.Records#applyRecordInfo}. Schedules the expiration of
+     * the record by its applied expiration time.
+     *
+     * @param key    the key of the backup record.
+     * @param record the backup record.
+     */
+    void onBackupRecordInfoApplied(Data key, R record);
+
     /**
      * Returns {@code true} if key doesn't exist previously, otherwise returns {@code false}.
      *
@@ -247,6 +260,14 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
 
     MapContainer getMapContainer();
 
+    /**
+     * Returns the columnar projection of the owned entries of this partition.
+     *
+     * @return the projection or {@code null} if no columnar attributes are configured for the map
+     * @see com.hazelcast.config.MapConfig#getColumnarAttributes()
+     */
+    ColumnarProjection getColumnarProjection();
+
     /**
      * @see MapDataStore#softFlush()
      */
@@ -278,9 +299,9 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
     boolean isEmpty();
 
     /**
-     * Do expiration operations.
+     * Do expiration operations. Only the entries whose expiration time has passed are checked.
      *
-     * @param percentage of max expirables according to the record store size.
+     * @param percentage of max checked entries according to the record store size.
      * @param backup     <code>true</code> if a backup partition, otherwise <code>false</code>.
      */
     void evictExpiredEntries(int percentage, boolean backup);
@@ -313,8 +334,9 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
      * Loads all given keys from defined map store.
      *
      * @param keys keys to be loaded.
+     * @return the future of the load or {@code null} if there are no keys to load.
      */
-    void loadAllFromStore(List<Data> keys, boolean replaceExistingValues);
+    Future<?> loadAllFromStore(List<Data> keys, boolean replaceExistingValues);
 
     void updateLoadStatus(boolean lastBatch, Throwable exception);
 
@@ -372,6 +394,14 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
 
     Storage getStorage();
 
+    /**
+     * Returns the read frequencies of the keys of this record store if the map uses the
+     * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} eviction policy.
+     *
+     * @return the frequency sketch or {@code null} if the map uses another eviction policy
+     */
+    FrequencySketch getFrequencySketch();
+
     /**
      * Starts mapLoader
      */
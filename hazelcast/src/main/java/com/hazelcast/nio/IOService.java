@@ -85,6 +85,22 @@ public interface IOService {
 
     boolean isSocketBufferDirect();
 
+    boolean isSocketGatheringWrite();
+
+    boolean isSocketWriteCoalescing();
+
+    /**
+     * @return {@code true} if large packets on member to member connections should be compressed
+     * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_COMPRESSION
+     */
+    boolean isSocketCompression();
+
+    /**
+     * @return the minimum payload size in bytes of a packet to be compressed
+     * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_COMPRESSION_THRESHOLD
+     */
+    int getSocketCompressionThreshold();
+
     /**
      * Size of receive buffers for connections opened by clients
      *
@@ -213,6 +213,26 @@ public class NodeIOService implements IOService {
         return node.getProperties().getBoolean(GroupProperty.SOCKET_BUFFER_DIRECT);
     }
 
+    @Override
+    public boolean isSocketGatheringWrite() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_GATHERING_WRITE);
+    }
+
+    @Override
+    public boolean isSocketWriteCoalescing() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_WRITE_COALESCING);
+    }
+
+    @Override
+    public boolean isSocketCompression() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_COMPRESSION);
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return node.getProperties().getInteger(GroupProperty.SOCKET_COMPRESSION_THRESHOLD);
+    }
+
     @Override
     public int getSocketClientReceiveBufferSize() {
         int clientSendBuffer = node.getProperties().getInteger(GroupProperty.SOCKET_CLIENT_RECEIVE_BUFFER_SIZE);
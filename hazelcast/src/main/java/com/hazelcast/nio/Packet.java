@@ -20,6 +20,7 @@ import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.spi.annotation.PrivateApi;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
@@ -45,15 +46,17 @@ public final class Packet extends HeapData implements OutboundFrame {
     //             PACKET HEADER FLAGS
     //
     // Flags are dispatched against in a cascade:
-    // 1. URGENT (bit 4)
+    // 1. URGENT (bit 4) and COMPRESSED (bit 7)
     // 2. Packet type (bits 0, 2, 5)
     // 3. Flags specific to a given packet type (bits 1, 6)
 
 
-    // 1. URGENT flag
+    // 1. URGENT and COMPRESSED flags
 
     /** Marks the packet as Urgent  */
     public static final int FLAG_URGENT = 1 << 4;
+    /** Marks the payload of the packet as compressed, see {@link com.hazelcast.nio.tcp.PacketCompressor} */
+    public static final int FLAG_COMPRESSED = 1 << 7;
 
 
     // 2. Packet type flags, encode up to 7 packet types.
@@ -88,18 +91,33 @@ public final class Packet extends HeapData implements OutboundFrame {
     public static final int FLAG_JET_FLOW_CONTROL = 1 << 1;
 
 
+    // 3.c Bind packet flags
+
+    /** Marks a Bind packet of a member which wants to receive compressed packets on the connection */
+    public static final int FLAG_BIND_COMPRESSION = 1 << 1;
+    /** Marks a Bind packet which answers a Bind packet, so the receiver doesn't answer it again */
+    public static final int FLAG_BIND_REPLY = 1 << 6;
+
+
     //            END OF HEADER FLAG SECTION
 
 
 
     private static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
+    private static final AtomicIntegerFieldUpdater<Packet> REF_COUNT
+            = AtomicIntegerFieldUpdater.newUpdater(Packet.class, "refCount");
+
     // char is a 16-bit unsigned integer. Here we use it as a bitfield.
     private char flags;
 
     private int partitionId;
     private transient Connection conn;
 
+    // The pool the payload is taken from and returned to on the last release. Null if the payload isn't pooled.
+    private transient PacketPayloadPool payloadPool;
+    private transient volatile int refCount = 1;
+
     // These 3 fields are only used during read/write. Otherwise they have no meaning.
     private int valueOffset;
     private int size;
@@ -140,6 +158,49 @@ public final class Packet extends HeapData implements OutboundFrame {
         return this;
     }
 
+    /**
+     * Sets the pool the payload of this Packet is allocated from when it is read, and returned to when the Packet is
+     * {@link #release() released} for the last time.
+     *
+     * @param payloadPool the payload pool
+     * @return {@code this} (for fluent interface)
+     */
+    public Packet setPayloadPool(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+        return this;
+    }
+
+    /**
+     * Adds a reference to this Packet, so the payload is retained until {@link #release()} has been called once more.
+     *
+     * @return {@code this} (for fluent interface)
+     */
+    public Packet retain() {
+        REF_COUNT.incrementAndGet(this);
+        return this;
+    }
+
+    /**
+     * Releases a reference to this Packet. When the last reference is released, a pooled payload is returned to its
+     * pool and the Packet must not be used anymore. Releasing a Packet without a pool has no effect, so its payload
+     * is just left to the garbage collector.
+     */
+    public void release() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool == null) {
+            return;
+        }
+
+        if (REF_COUNT.decrementAndGet(this) == 0) {
+            byte[] bytes = payload;
+            payload = null;
+            payloadPool = null;
+            if (bytes != null) {
+                pool.release(bytes);
+            }
+        }
+    }
+
     public Type getPacketType() {
         return Type.fromFlags(flags);
     }
@@ -236,17 +297,38 @@ public final class Packet extends HeapData implements OutboundFrame {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putChar(flags);
-            dst.putInt(partitionId);
-            size = totalSize();
-            dst.putInt(size);
-            headerComplete = true;
+            writeHeader(dst);
         }
 
         return writeValue(dst);
     }
 
+    /**
+     * Writes the packet header to the supplied {@code ByteBuffer} and returns a {@code ByteBuffer} wrapping the packet's
+     * value, so the value can be written to a channel without copying it. Afterwards the packet is considered written.
+     * @param dst the destination byte buffer for the header
+     * @return the value of the packet or {@code null} if the header doesn't fit or writing this packet already started.
+     */
+    public ByteBuffer writeHeaderAndWrapValue(ByteBuffer dst) {
+        if (headerComplete || dst.remaining() < HEADER_SIZE) {
+            return null;
+        }
+
+        writeHeader(dst);
+        ByteBuffer value = size > 0 ? ByteBuffer.wrap(toByteArray(), 0, size) : ByteBuffer.allocate(0);
+        valueOffset = size;
+        return value;
+    }
+
+    private void writeHeader(ByteBuffer dst) {
+        dst.put(VERSION);
+        dst.putChar(flags);
+        dst.putInt(partitionId);
+        size = totalSize();
+        dst.putInt(size);
+        headerComplete = true;
+    }
+
     /**
      * Reads the packet data from the supplied {@code ByteBuffer}. The buffer may not contain the complete packet.
      * If this method returns {@code false}, it should be called again to read more packet data.
@@ -278,7 +360,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            payload = payloadPool == null ? new byte[size] : payloadPool.allocate(size);
         }
 
         if (size > 0) {
@@ -385,6 +467,7 @@ public final class Packet extends HeapData implements OutboundFrame {
                 + ", conn=" + conn
                 + ", rawFlags=" + Integer.toBinaryString(flags)
                 + ", isUrgent=" + isUrgent()
+                + ", isCompressed=" + isFlagRaised(FLAG_COMPRESSED)
                 + ", packetType=" + type.name()
                 + ", typeSpecificFlags=" + type.describeFlags(flags)
                 + '}';
@@ -433,7 +516,13 @@ public final class Packet extends HeapData implements OutboundFrame {
          * <p>
          * {@code ordinal = 4}
          */
-        BIND,
+        BIND {
+            @Override
+            public String describeFlags(char flags) {
+                return "[isCompression=" + isFlagRaised(flags, FLAG_BIND_COMPRESSION)
+                        + ", isReply=" + isFlagRaised(flags, FLAG_BIND_REPLY) + ']';
+            }
+        },
         /**
          * Unused packet type. Available for future use.
          * <p>
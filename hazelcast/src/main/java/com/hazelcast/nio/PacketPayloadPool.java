@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.spi.annotation.PrivateApi;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * A pool of byte arrays used as {@link Packet} payloads for member to member traffic.
+ *
+ * A {@link Packet} is a {@link com.hazelcast.nio.serialization.Data} and its payload needs to have exactly the size of
+ * the data, so the arrays are pooled per size. Only small payloads are pooled; these are the ones churned by the
+ * small operations and responses that make up most of the traffic. Each size has a fixed number of slots, so the
+ * pool retains a bounded amount of memory; when a slot isn't available the array is allocated or dropped as usual.
+ *
+ * The pool is thread-safe: arrays are typically taken by an IO thread and returned by an operation thread.
+ */
+@PrivateApi
+public final class PacketPayloadPool {
+
+    /**
+     * The maximum size of a pooled payload in bytes.
+     */
+    public static final int MAX_POOLED_PAYLOAD_SIZE = 1024;
+
+    /**
+     * The number of arrays retained per payload size.
+     */
+    public static final int ARRAYS_PER_SIZE = 8;
+
+    @Probe
+    private final MwCounter hits = newMwCounter();
+    @Probe
+    private final MwCounter misses = newMwCounter();
+    @Probe
+    private final MwCounter releases = newMwCounter();
+
+    // index is the payload size; the slots of a size are created on first release of an array of that size.
+    private final AtomicReferenceArray<AtomicReferenceArray<byte[]>> slotsBySize
+            = new AtomicReferenceArray<AtomicReferenceArray<byte[]>>(MAX_POOLED_PAYLOAD_SIZE + 1);
+
+    /**
+     * Returns a byte array of exactly the given size. The content of the array is undefined.
+     *
+     * @param size the size of the array
+     * @return the array
+     */
+    public byte[] allocate(int size) {
+        if (size > 0 && size <= MAX_POOLED_PAYLOAD_SIZE) {
+            AtomicReferenceArray<byte[]> slots = slotsBySize.get(size);
+            if (slots != null) {
+                for (int i = 0; i < ARRAYS_PER_SIZE; i++) {
+                    if (slots.get(i) != null) {
+                        byte[] bytes = slots.getAndSet(i, null);
+                        if (bytes != null) {
+                            hits.inc();
+                            return bytes;
+                        }
+                    }
+                }
+            }
+            misses.inc();
+        }
+        return new byte[size];
+    }
+
+    /**
+     * Returns an array to the pool. The caller must not use the array afterwards.
+     *
+     * @param bytes the array to return
+     */
+    public void release(byte[] bytes) {
+        int size = bytes.length;
+        if (size == 0 || size > MAX_POOLED_PAYLOAD_SIZE) {
+            return;
+        }
+
+        AtomicReferenceArray<byte[]> slots = slotsBySize.get(size);
+        if (slots == null) {
+            slotsBySize.compareAndSet(size, null, new AtomicReferenceArray<byte[]>(ARRAYS_PER_SIZE));
+            slots = slotsBySize.get(size);
+        }
+
+        for (int i = 0; i < ARRAYS_PER_SIZE; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, bytes)) {
+                releases.inc();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.io.IOException;
+
+/**
+ * Compact provides a schema based serialization method with a dense binary format. The schema of a Compact class, the
+ * names and types of its fields, is derived from the fields written by {@link #writeCompact(CompactWriter)} and is
+ * identified in the serialized form by a 64-bit fingerprint only, so neither field names nor class names are sent.
+ *
+ * <p>
+ *
+ * Compact serialization has the following advantages:
+ * <ul>
+ *     <li>Fixed-size fields are written without any per-field overhead.</li>
+ *     <li>Every field can be read at a position computed from the schema, without reading the preceding ones.</li>
+ *     <li>Querying and indexing support without de-serialization.</li>
+ * </ul>
+ *
+ * <p>
+ *
+ * Compact classes need a public no-arg constructor, since they are instantiated by their class name when they are read.
+ * {@link #writeCompact(CompactWriter)} has to write the same fields for every instance, also for an instance created by
+ * the no-arg constructor: the schemas of the classes registered by
+ * {@link com.hazelcast.config.SerializationConfig#addCompactClass(Class)} are derived from such an instance when the
+ * serialization service is created. A member or client can only read the Compact classes it has registered or
+ * written itself.
+ *
+ * @see CompactWriter
+ * @see CompactReader
+ * @see com.hazelcast.nio.serialization.Portable
+ * @see com.hazelcast.config.SerializationConfig
+ */
+public interface Compact {
+
+    /**
+     * Serialize this compact object using CompactWriter
+     *
+     * @param writer CompactWriter
+     * @throws IOException
+     */
+    void writeCompact(CompactWriter writer) throws IOException;
+
+    /**
+     * Read compact fields using CompactReader
+     *
+     * @param reader CompactReader
+     * @throws IOException
+     */
+    void readCompact(CompactReader reader) throws IOException;
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of reading the fields of a {@link Compact} object. Fields can be read in any order, since the position
+ * of every field is known from the schema of the object.
+ */
+public interface CompactReader {
+
+    /**
+     * @param fieldName name of the field
+     * @return {@code true} if the schema of the object has the field
+     */
+    boolean hasField(String fieldName);
+
+    /**
+     * @param fieldName name of the field
+     * @return the type of the field
+     * @throws HazelcastSerializationException if the schema of the object doesn't have the field
+     */
+    FieldType getFieldType(String fieldName);
+
+    /**
+     * @param fieldName name of the field
+     * @return the byte value read
+     * @throws IOException
+     */
+    byte readByte(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the boolean value read
+     * @throws IOException
+     */
+    boolean readBoolean(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the char value read
+     * @throws IOException
+     */
+    char readChar(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the short value read
+     * @throws IOException
+     */
+    short readShort(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the int value read
+     * @throws IOException
+     */
+    int readInt(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the long value read
+     * @throws IOException
+     */
+    long readLong(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the float value read
+     * @throws IOException
+     */
+    float readFloat(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the double value read
+     * @throws IOException
+     */
+    double readDouble(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the utf string value read, may be {@code null}
+     * @throws IOException
+     */
+    String readUTF(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the byte array value read, may be {@code null}
+     * @throws IOException
+     */
+    byte[] readByteArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the boolean array value read, may be {@code null}
+     * @throws IOException
+     */
+    boolean[] readBooleanArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the char array value read, may be {@code null}
+     * @throws IOException
+     */
+    char[] readCharArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the short array value read, may be {@code null}
+     * @throws IOException
+     */
+    short[] readShortArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the int array value read, may be {@code null}
+     * @throws IOException
+     */
+    int[] readIntArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the long array value read, may be {@code null}
+     * @throws IOException
+     */
+    long[] readLongArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the float array value read, may be {@code null}
+     * @throws IOException
+     */
+    float[] readFloatArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the double array value read, may be {@code null}
+     * @throws IOException
+     */
+    double[] readDoubleArray(String fieldName) throws IOException;
+
+    /**
+     * @param fieldName name of the field
+     * @return the utf string array value read, may be {@code null}
+     * @throws IOException
+     */
+    String[] readUTFArray(String fieldName) throws IOException;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * DataSerializableFactory which also describes the serialized form of the IdentifiedDataSerializable
+ * instances it creates. Queries use the descriptions to read single attributes straight from the
+ * serialized values, without de-serializing them.
+ * <p>
+ * A description lists the fields in the order {@link IdentifiedDataSerializable#writeData} writes them,
+ * e.g. {@code new ClassDefinitionBuilder(FACTORY_ID, EMPLOYEE).addIntField("age").addUTFField("name").build()}
+ * for an object writing its age with {@code writeInt} and then its name with {@code writeUTF}. The names
+ * of the fields are the names of the attributes they provide to queries. A description may cover only
+ * the leading fields; the fields written after them are read by de-serializing the object.
+ * Portable fields are not supported.
+ *
+ * @see com.hazelcast.nio.serialization.IdentifiedDataSerializable
+ */
+public interface DescribedDataSerializableFactory extends DataSerializableFactory {
+
+    /**
+     * Describes the serialized form of the given type.
+     *
+     * @param typeId IdentifiedDataSerializable type id
+     * @return the description or null if the type is not described by this factory
+     */
+    ClassDefinition getClassDefinition(int typeId);
+}
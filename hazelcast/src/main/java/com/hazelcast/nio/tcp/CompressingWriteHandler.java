@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.WriteHandler;
+import com.hazelcast.nio.Packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link WriteHandler} decorator which compresses the payload of large packets before they are written by the
+ * decorated WriteHandler, see {@link PacketCompressor}.
+ * <p>
+ * Compression is negotiated when the connection is bound: packets are only compressed once the remote member has
+ * announced in its bind packet that it wants to receive compressed packets, see {@link Packet#FLAG_BIND_COMPRESSION}.
+ * Packets smaller than the threshold are never compressed; they gain little by compression and are mostly latency
+ * sensitive. The compressed packets are decompressed by the {@link MemberReadHandler} of the remote member.
+ */
+public class CompressingWriteHandler implements WriteHandler<Packet> {
+
+    private final TcpIpConnection connection;
+    private final WriteHandler<Packet> writeHandler;
+    private final int threshold;
+    private final PacketCompressor compressor = new PacketCompressor();
+
+    // a packet may take several calls to be written, so its compressed version is kept until it has been written
+    private Packet packet;
+    private Packet compressedPacket;
+
+    /**
+     * @param connection   the connection the packets are written to
+     * @param writeHandler the decorated WriteHandler
+     * @param threshold    the minimum payload size in bytes of a packet to be compressed
+     */
+    public CompressingWriteHandler(TcpIpConnection connection, WriteHandler<Packet> writeHandler, int threshold) {
+        this.connection = connection;
+        this.writeHandler = writeHandler;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean onWrite(Packet packet, ByteBuffer dst) throws Exception {
+        if (packet != this.packet) {
+            this.packet = packet;
+            this.compressedPacket = shouldCompress(packet) ? compressor.compress(packet) : packet;
+        }
+
+        if (!writeHandler.onWrite(compressedPacket, dst)) {
+            return false;
+        }
+
+        this.packet = null;
+        this.compressedPacket = null;
+        return true;
+    }
+
+    private boolean shouldCompress(Packet packet) {
+        return packet.totalSize() >= threshold && connection.isCompressionNegotiated();
+    }
+}
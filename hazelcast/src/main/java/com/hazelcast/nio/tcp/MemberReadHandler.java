@@ -20,9 +20,11 @@ import com.hazelcast.internal.networking.ReadHandler;
 import com.hazelcast.internal.networking.SocketReader;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.impl.packetdispatcher.PacketDispatcher;
 
 import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
 
 /**
  * The {@link ReadHandler} for member to member communication.
@@ -38,12 +40,23 @@ public class MemberReadHandler implements ReadHandler {
     protected Packet packet;
 
     private final PacketDispatcher packetDispatcher;
+    private final PacketPayloadPool payloadPool;
     private final Counter normalPacketsRead;
     private final Counter priorityPacketsRead;
+    private PacketCompressor compressor;
 
     public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher) {
+        this(connection, packetDispatcher, null);
+    }
+
+    /**
+     * @param payloadPool the pool the payloads of the read packets are allocated from, or {@code null} if the payloads
+     *                    should not be pooled. The packets are released by their consumers once deserialized.
+     */
+    public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.packetDispatcher = packetDispatcher;
+        this.payloadPool = payloadPool;
         SocketReader socketReader = connection.getSocketReader();
         this.normalPacketsRead = socketReader.getNormalFramesReadCounter();
         this.priorityPacketsRead = socketReader.getPriorityFramesReadCounter();
@@ -53,11 +66,11 @@ public class MemberReadHandler implements ReadHandler {
     public void onRead(ByteBuffer src) throws Exception {
         while (src.hasRemaining()) {
             if (packet == null) {
-                packet = new Packet();
+                packet = new Packet().setPayloadPool(payloadPool);
             }
             boolean complete = packet.readFrom(src);
             if (complete) {
-                handlePacket(packet);
+                handlePacket(packet.isFlagRaised(Packet.FLAG_COMPRESSED) ? decompress(packet) : packet);
                 packet = null;
             } else {
                 break;
@@ -65,6 +78,13 @@ public class MemberReadHandler implements ReadHandler {
         }
     }
 
+    private Packet decompress(Packet packet) throws DataFormatException {
+        if (compressor == null) {
+            compressor = new PacketCompressor();
+        }
+        return compressor.decompress(packet);
+    }
+
     protected void handlePacket(Packet packet) {
         if (packet.isFlagRaised(Packet.FLAG_URGENT)) {
             priorityPacketsRead.inc();
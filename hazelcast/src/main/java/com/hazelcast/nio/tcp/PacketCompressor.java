@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.annotation.PrivateApi;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.writeIntB;
+
+/**
+ * Compresses and decompresses the payload of member to member {@link Packet packets} using the deflate algorithm.
+ * <p>
+ * The payload of a compressed packet consists of the length of the original payload followed by the deflated
+ * payload, and the packet has the {@link Packet#FLAG_COMPRESSED} flag raised. A packet whose payload doesn't get
+ * smaller by compression is left as it is.
+ * <p>
+ * A PacketCompressor is owned by a single handler, so it doesn't need to be thread-safe. The deflater and inflater
+ * are created lazily and reused for all packets, since creating them is expensive.
+ */
+@PrivateApi
+public final class PacketCompressor {
+
+    /**
+     * The maximum size of the buffer compressed payloads are written to, which is retained between packets. Larger
+     * payloads are compressed into a buffer which is allocated just for them.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The maximum ratio between the original and the deflated size the deflate algorithm can achieve. A compressed
+     * payload claiming a larger original size is corrupt, so no buffer is allocated for it.
+     */
+    static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private Deflater deflater;
+    private Inflater inflater;
+    private byte[] buffer;
+
+    /**
+     * Compresses the payload of the given packet.
+     *
+     * @param packet the packet to compress
+     * @return a new packet with the compressed payload, or the given packet if compressing doesn't make it smaller
+     */
+    public Packet compress(Packet packet) {
+        int size = packet.totalSize();
+        if (size <= INT_SIZE_IN_BYTES || packet.isFlagRaised(Packet.FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        byte[] output = getBuffer(size);
+        int length = INT_SIZE_IN_BYTES;
+        deflater.setInput(packet.toByteArray(), 0, size);
+        deflater.finish();
+        // the output is cut off at the original size, since a larger compressed payload isn't of any use
+        while (!deflater.finished() && length < size) {
+            length += deflater.deflate(output, length, size - length);
+        }
+        boolean smaller = deflater.finished() && length < size;
+        deflater.reset();
+        if (!smaller) {
+            return packet;
+        }
+
+        writeIntB(output, 0, size);
+        return new Packet(Arrays.copyOf(output, length), packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() | Packet.FLAG_COMPRESSED);
+    }
+
+    /**
+     * Decompresses the payload of the given packet and {@link Packet#release() releases} the given packet.
+     *
+     * @param packet the packet to decompress, which has the {@link Packet#FLAG_COMPRESSED} flag raised
+     * @return a new packet with the original payload
+     * @throws DataFormatException if the compressed payload is corrupt, or its original size exceeds what the
+     *                             deflate algorithm can compress to the size of the payload
+     */
+    public Packet decompress(Packet packet) throws DataFormatException {
+        byte[] input = packet.toByteArray();
+        int inputLength = packet.totalSize();
+        if (inputLength < INT_SIZE_IN_BYTES) {
+            throw new DataFormatException("Compressed payload of " + packet + " is truncated");
+        }
+        int size = readIntB(input, 0);
+        if (size < 0 || size > (long) (inputLength - INT_SIZE_IN_BYTES) * MAX_COMPRESSION_RATIO) {
+            throw new DataFormatException("Compressed payload of " + packet + " has an invalid original size " + size);
+        }
+        byte[] payload = new byte[size];
+
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.setInput(input, INT_SIZE_IN_BYTES, inputLength - INT_SIZE_IN_BYTES);
+        try {
+            int length = 0;
+            while (length < size) {
+                int inflated = inflater.inflate(payload, length, size - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Compressed payload of " + packet + " is truncated");
+                }
+                length += inflated;
+            }
+        } finally {
+            inflater.reset();
+        }
+
+        Packet decompressed = new Packet(payload, packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() & ~Packet.FLAG_COMPRESSED);
+        packet.release();
+        return decompressed;
+    }
+
+    private byte[] getBuffer(int size) {
+        if (size > MAX_RETAINED_BUFFER_SIZE) {
+            return new byte[size];
+        }
+        if (buffer == null) {
+            buffer = new byte[MAX_RETAINED_BUFFER_SIZE];
+        }
+        return buffer;
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.nio.tcp;
 import com.hazelcast.internal.networking.SocketWriter;
 import com.hazelcast.internal.networking.SocketWriterInitializer;
 import com.hazelcast.internal.networking.WriteHandler;
+import com.hazelcast.internal.networking.nonblocking.NonBlockingSocketWriter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.Protocols;
@@ -47,6 +48,7 @@ public class SocketWriterInitializerImpl implements SocketWriterInitializer<TcpI
 
         initHandler(connection, writer, protocol);
         initOutputBuffer(connection, writer, protocol);
+        initWriteMode(connection, writer, protocol);
     }
 
     private void initHandler(TcpIpConnection connection, SocketWriter writer, String protocol) {
@@ -54,6 +56,9 @@ public class SocketWriterInitializerImpl implements SocketWriterInitializer<TcpI
         if (CLUSTER.equals(protocol)) {
             IOService ioService = connection.getConnectionManager().getIoService();
             handler = ioService.createWriteHandler(connection);
+            if (ioService.isSocketCompression()) {
+                handler = new CompressingWriteHandler(connection, handler, ioService.getSocketCompressionThreshold());
+            }
         } else if (CLIENT_BINARY_NEW.equals(protocol)) {
             handler = new ClientWriteHandler();
         } else {
@@ -62,6 +67,20 @@ public class SocketWriterInitializerImpl implements SocketWriterInitializer<TcpI
         writer.initWriteHandler(handler);
     }
 
+    private void initWriteMode(TcpIpConnection connection, SocketWriter writer, String protocol) {
+        if (!CLUSTER.equals(protocol) || !(writer instanceof NonBlockingSocketWriter)) {
+            return;
+        }
+
+        IOService ioService = connection.getConnectionManager().getIoService();
+        NonBlockingSocketWriter nonBlockingWriter = (NonBlockingSocketWriter) writer;
+        nonBlockingWriter.setWriteCoalescing(ioService.isSocketWriteCoalescing());
+        // the payload of a packet can only be written as it is, if the packet isn't transformed by the WriteHandler
+        if (writer.getWriteHandler().getClass() == MemberWriteHandler.class) {
+            nonBlockingWriter.setGatheringWrite(ioService.isSocketGatheringWrite());
+        }
+    }
+
     private void initOutputBuffer(TcpIpConnection connection, SocketWriter writer, String protocol) {
         IOService ioService = connection.getConnectionManager().getIoService();
         int sizeKb = CLUSTER.equals(protocol)
@@ -80,6 +80,8 @@ public final class TcpIpConnection implements SocketConnection, MetricsProvider,
 
     private volatile String closeReason;
 
+    private volatile boolean compressionNegotiated;
+
     public TcpIpConnection(TcpIpConnectionManager connectionManager,
                            int connectionId,
                            SocketChannelWrapper socketChannel,
@@ -183,6 +185,21 @@ public final class TcpIpConnection implements SocketConnection, MetricsProvider,
         this.endPoint = endPoint;
     }
 
+    /**
+     * Returns {@code true} if the remote member announced in its bind packet that it wants to receive compressed
+     * packets on this connection.
+     *
+     * @return {@code true} if packets may be compressed, {@code false} otherwise.
+     * @see CompressingWriteHandler
+     */
+    public boolean isCompressionNegotiated() {
+        return compressionNegotiated;
+    }
+
+    public void setCompressionNegotiated(boolean compressionNegotiated) {
+        this.compressionNegotiated = compressionNegotiated;
+    }
+
     public void setMonitor(TcpIpConnectionMonitor monitor) {
         this.monitor = monitor;
     }
@@ -225,7 +225,15 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         assert packet.getPacketType() == Packet.Type.BIND;
 
         BindMessage bind = ioService.getSerializationService().toObject(packet);
-        bind((TcpIpConnection) packet.getConn(), bind.getLocalAddress(), bind.getTargetAddress(), bind.shouldReply());
+        TcpIpConnection connection = (TcpIpConnection) packet.getConn();
+        boolean compression = packet.isFlagRaised(Packet.FLAG_BIND_COMPRESSION) && ioService.isSocketCompression();
+        if (compression) {
+            connection.setCompressionNegotiated(true);
+        }
+        // a compression request is always answered, so the remote member compresses as well; the answer is a bind
+        // reply with the compression flag raised, which isn't answered again
+        boolean reply = bind.shouldReply() || (compression && !packet.isFlagRaised(Packet.FLAG_BIND_REPLY));
+        bind(connection, bind.getLocalAddress(), bind.getTargetAddress(), reply);
     }
 
     /**
@@ -246,7 +254,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         connection.setEndPoint(remoteEndPoint);
         ioService.onSuccessfulConnection(remoteEndPoint);
         if (reply) {
-            sendBindRequest(connection, remoteEndPoint, false);
+            sendBind(connection, remoteEndPoint, false, true);
         }
         if (checkAlreadyConnected(connection, remoteEndPoint)) {
             return false;
@@ -319,6 +327,10 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     }
 
     void sendBindRequest(TcpIpConnection connection, Address remoteEndPoint, boolean replyBack) {
+        sendBind(connection, remoteEndPoint, replyBack, false);
+    }
+
+    private void sendBind(TcpIpConnection connection, Address remoteEndPoint, boolean replyBack, boolean reply) {
         connection.setEndPoint(remoteEndPoint);
         ioService.onSuccessfulConnection(remoteEndPoint);
         //make sure bind packet is the first packet sent to the end point.
@@ -328,6 +340,13 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         BindMessage bind = new BindMessage(ioService.getThisAddress(), remoteEndPoint, replyBack);
         byte[] bytes = ioService.getSerializationService().toBytes(bind);
         Packet packet = new Packet(bytes).setPacketType(Packet.Type.BIND);
+        if (ioService.isSocketCompression()) {
+            // members which don't know the flag ignore it, so they never receive compressed packets
+            packet.raiseFlags(Packet.FLAG_BIND_COMPRESSION);
+        }
+        if (reply) {
+            packet.raiseFlags(Packet.FLAG_BIND_REPLY);
+        }
         connection.write(packet);
         //now you can send anything...
     }
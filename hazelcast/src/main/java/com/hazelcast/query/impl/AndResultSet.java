@@ -75,6 +75,51 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
         return new It();
     }
 
+    /**
+     * @return the result of the most selective index, which is a superset of this result set
+     */
+    public Set<QueryableEntry> getCandidates() {
+        return setSmallest;
+    }
+
+    /**
+     * Checks whether a candidate returned by {@link #getCandidates()} is part of this result set.
+     * Allows the candidates to be filtered in parallel instead of by iterating this result set.
+     *
+     * @param candidate the candidate
+     * @return {@code true} if the candidate matches the other indexed results and not-indexed predicates
+     */
+    public boolean isMatching(QueryableEntry candidate) {
+        return checkOtherIndexedResults(candidate) && checkNoIndexPredicates(candidate);
+    }
+
+    private boolean checkNoIndexPredicates(QueryableEntry currentEntry) {
+        if (lsNoIndexPredicates == null) {
+            return true;
+        }
+
+        for (Predicate noIndexPredicate : lsNoIndexPredicates) {
+            if (!noIndexPredicate.apply(currentEntry)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean checkOtherIndexedResults(QueryableEntry currentEntry) {
+        if (otherIndexedResults == null) {
+            return true;
+        }
+
+        for (Set<QueryableEntry> otherIndexedResult : otherIndexedResults) {
+            if (!otherIndexedResult.contains(currentEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     class It implements Iterator<QueryableEntry> {
 
         QueryableEntry currentEntry;
@@ -98,33 +143,6 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
             return false;
         }
 
-        private boolean checkNoIndexPredicates(QueryableEntry currentEntry) {
-            if (lsNoIndexPredicates == null) {
-                return true;
-            }
-
-            for (Predicate noIndexPredicate : lsNoIndexPredicates) {
-                if (!noIndexPredicate.apply(currentEntry)) {
-                    return false;
-                }
-            }
-
-            return true;
-        }
-
-        private boolean checkOtherIndexedResults(QueryableEntry currentEntry) {
-            if (otherIndexedResults == null) {
-                return true;
-            }
-
-            for (Set<QueryableEntry> otherIndexedResult : otherIndexedResults) {
-                if (!otherIndexedResult.contains(currentEntry)) {
-                    return false;
-                }
-            }
-            return true;
-        }
-
         @Override
         public QueryableEntry next() {
             if (!hasNext()) {
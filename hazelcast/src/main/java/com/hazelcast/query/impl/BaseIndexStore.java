@@ -35,6 +35,8 @@ public abstract class BaseIndexStore implements IndexStore {
     private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
     private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
 
+    final IndexStatistics statistics = new IndexStatistics();
+
     private boolean multiResultHasToDetectDuplicates;
 
     abstract void newIndexInternal(Comparable newValue, QueryableEntry record);
@@ -100,6 +102,10 @@ public abstract class BaseIndexStore implements IndexStore {
         }
     }
 
+    @Override
+    public final IndexStatistics getStatistics() {
+        return statistics;
+    }
 
     void takeWriteLock() {
         writeLock.lock();
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+/**
+ * Utilities for bitmaps of rows of a {@link ColumnarProjection}. A bitmap is a {@code long[]}
+ * whose bit {@code i % 64} of word {@code i / 64} is set if row {@code i} is selected. Bits beyond
+ * the number of rows are always clear.
+ */
+public final class Bitmaps {
+
+    /**
+     * Shift converting a row to the index of its word.
+     */
+    public static final int WORD_SHIFT = 6;
+
+    private static final int WORD_SIZE = 1 << WORD_SHIFT;
+
+    private Bitmaps() {
+    }
+
+    /**
+     * @param rowCount number of rows
+     * @return number of words of a bitmap of the given number of rows
+     */
+    public static int wordCount(int rowCount) {
+        return (rowCount + WORD_SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * @param rowCount number of rows
+     * @return a bitmap selecting all rows
+     */
+    public static long[] all(int rowCount) {
+        long[] bitmap = new long[wordCount(rowCount)];
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = -1L;
+        }
+        clearTail(bitmap, rowCount);
+        return bitmap;
+    }
+
+    /**
+     * Inverts the selection of the given number of rows in place.
+     *
+     * @return the given bitmap
+     */
+    public static long[] not(long[] bitmap, int rowCount) {
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = ~bitmap[i];
+        }
+        clearTail(bitmap, rowCount);
+        return bitmap;
+    }
+
+    /**
+     * Intersects the first bitmap with the second one in place.
+     *
+     * @return the first bitmap
+     */
+    public static long[] and(long[] bitmap, long[] other) {
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] &= other[i];
+        }
+        return bitmap;
+    }
+
+    /**
+     * Unites the first bitmap with the second one in place.
+     *
+     * @return the first bitmap
+     */
+    public static long[] or(long[] bitmap, long[] other) {
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] |= other[i];
+        }
+        return bitmap;
+    }
+
+    /**
+     * Removes the rows selected by the second bitmap from the first one in place.
+     *
+     * @return the first bitmap
+     */
+    public static long[] andNot(long[] bitmap, long[] other) {
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] &= ~other[i];
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return number of selected rows
+     */
+    public static int cardinality(long[] bitmap) {
+        int cardinality = 0;
+        for (long word : bitmap) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    private static void clearTail(long[] bitmap, int rowCount) {
+        int tail = rowCount & (WORD_SIZE - 1);
+        if (tail != 0) {
+            bitmap[bitmap.length - 1] &= (1L << tail) - 1;
+        }
+    }
+}
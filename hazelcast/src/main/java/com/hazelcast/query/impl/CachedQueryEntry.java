@@ -17,6 +17,7 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.impl.getters.Extractors;
@@ -113,6 +114,35 @@ public class CachedQueryEntry extends QueryableEntry {
         return targetObject;
     }
 
+    /**
+     * Attributes of compact and described IdentifiedDataSerializable keys and values are read from the serialized
+     * form if possible, all other attributes are extracted from the cached de-serialized key or value.
+     */
+    @Override
+    protected Object getTargetObject(boolean key, String attributeName) {
+        if (key) {
+            //keyData is never null
+            if (keyData.isPortable() || extractors.isReadableFromData(serializationService, keyData, attributeName)) {
+                return keyData;
+            }
+            return getKey();
+        }
+        if (valueObject == null) {
+            if (valueData.isPortable() || extractors.isReadableFromData(serializationService, valueData, attributeName)) {
+                return valueData;
+            }
+            return getValue();
+        }
+        if (valueObject instanceof Portable) {
+            return getValueData();
+        }
+        if (valueObject instanceof Compact
+                && extractors.isReadableFromData(serializationService, getValueData(), attributeName)) {
+            return valueData;
+        }
+        return valueObject;
+    }
+
     @Override
     public Object setValue(Object value) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.QueryException;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar projection of the entries of a partition. The values of the configured attributes are
+ * kept in primitive arrays, one {@link Column} per attribute, and the entries occupy consecutive
+ * rows of the columns, so predicates and aggregations can be evaluated over the arrays in tight
+ * loops instead of deserializing every entry.
+ * <p>
+ * A column holds {@code long} values for integral, boolean and date attributes and {@code double}
+ * values for floating point attributes. A column becomes unsupported, and is ignored from then on,
+ * as soon as it sees a value of another type, values of different classes or a multi-value
+ * attribute.
+ * <p>
+ * The projection is updated by the partition thread and read by the query threads; the readers
+ * have to hold the read lock of the projection while they access the columns.
+ */
+public final class ColumnarProjection {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+
+    private final Map<String, Column> columnsByAttribute = new LinkedHashMap<String, Column>();
+    private final Column[] columns;
+    private final Map<Data, Integer> rows = new HashMap<Data, Integer>();
+
+    private Data[] keys = new Data[INITIAL_CAPACITY];
+    private int size;
+    private boolean expirableEntries;
+
+    public ColumnarProjection(Collection<String> attributeNames) {
+        for (String attributeName : attributeNames) {
+            columnsByAttribute.put(attributeName, new Column(attributeName, INITIAL_CAPACITY));
+        }
+        this.columns = columnsByAttribute.values().toArray(new Column[columnsByAttribute.size()]);
+    }
+
+    /**
+     * Adds the entry to the projection or updates its row.
+     *
+     * @param entry     the entry
+     * @param expirable {@code true} if the entry may expire
+     */
+    public void save(QueryableEntry entry, boolean expirable) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = extractValue(columns[i], entry);
+        }
+
+        writeLock.lock();
+        try {
+            Data key = entry.getKeyData();
+            Integer row = rows.get(key);
+            if (row == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                keys[row] = key;
+                rows.put(key, row);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].set(row, values[i]);
+            }
+            expirableEntries |= expirable;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Object extractValue(Column column, QueryableEntry entry) {
+        if (!column.isSupported()) {
+            return null;
+        }
+        try {
+            return entry.getAttributeValue(column.attributeName);
+        } catch (QueryException e) {
+            return Column.UNSUPPORTED_VALUE;
+        } catch (IllegalArgumentException e) {
+            return Column.UNSUPPORTED_VALUE;
+        }
+    }
+
+    /**
+     * Removes the entry with the given key from the projection. The last row is moved into
+     * the row of the removed entry, so the rows stay consecutive.
+     *
+     * @param key the key of the entry
+     */
+    public void remove(Data key) {
+        writeLock.lock();
+        try {
+            Integer row = rows.remove(key);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                Data movedKey = keys[last];
+                keys[row] = movedKey;
+                rows.put(movedKey, row);
+                for (Column column : columns) {
+                    column.move(last, row);
+                }
+            } else {
+                for (Column column : columns) {
+                    column.clearRow(last);
+                }
+            }
+            keys[last] = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            rows.clear();
+            keys = new Data[INITIAL_CAPACITY];
+            size = 0;
+            expirableEntries = false;
+            for (Column column : columns) {
+                column.reset(INITIAL_CAPACITY);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int newCapacity = keys.length << 1;
+        Data[] newKeys = new Data[newCapacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        keys = newKeys;
+        for (Column column : columns) {
+            column.grow(newCapacity);
+        }
+    }
+
+    public void takeReadLock() {
+        readLock.lock();
+    }
+
+    public void releaseReadLock() {
+        readLock.unlock();
+    }
+
+    /**
+     * @return the number of rows, i.e. of projected entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param attributeName the attribute
+     * @return the column of the attribute or {@code null} if the attribute is not projected
+     */
+    public Column getColumn(String attributeName) {
+        return columnsByAttribute.get(attributeName);
+    }
+
+    /**
+     * @return {@code true} if some of the projected entries may expire, so the projection may
+     * contain rows of expired entries which haven't been evicted yet
+     */
+    public boolean hasExpirableEntries() {
+        return expirableEntries;
+    }
+
+    /**
+     * @param selection bitmap of the selected rows
+     * @return keys of the entries in the selected rows
+     */
+    public Data[] getKeys(long[] selection) {
+        Data[] selectedKeys = new Data[Bitmaps.cardinality(selection)];
+        int i = 0;
+        for (int word = 0; word < selection.length; word++) {
+            long bits = selection[word];
+            while (bits != 0) {
+                selectedKeys[i++] = keys[(word << Bitmaps.WORD_SHIFT) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+        }
+        return selectedKeys;
+    }
+
+    /**
+     * Column of the values of a single attribute.
+     */
+    public static final class Column {
+
+        static final Object UNSUPPORTED_VALUE = new Object();
+
+        private final String attributeName;
+
+        private long[] longValues;
+        private double[] doubleValues;
+        private long[] nulls;
+        private int nullCount;
+        private int capacity;
+
+        private Class<?> valueClass;
+        private AttributeType attributeType;
+        private boolean unsupported;
+
+        Column(String attributeName, int capacity) {
+            this.attributeName = attributeName;
+            reset(capacity);
+        }
+
+        public String getAttributeName() {
+            return attributeName;
+        }
+
+        /**
+         * @return {@code false} if the values of the attribute can't be kept in the column
+         */
+        public boolean isSupported() {
+            return !unsupported;
+        }
+
+        /**
+         * @return {@code true} if the column holds no non-null value yet, so its type is unknown
+         */
+        public boolean isEmpty() {
+            return valueClass == null;
+        }
+
+        public boolean isLongValued() {
+            return longValues != null;
+        }
+
+        public boolean isDoubleValued() {
+            return doubleValues != null;
+        }
+
+        /**
+         * @return the class of the attribute values or {@code null} if the column is empty
+         */
+        public Class<?> getValueClass() {
+            return valueClass;
+        }
+
+        /**
+         * @return the type of the attribute values or {@code null} if the column is empty
+         */
+        public AttributeType getAttributeType() {
+            return attributeType;
+        }
+
+        /**
+         * @return the values of a {@code long} valued column, see {@link #toLong(Object)}
+         */
+        public long[] getLongValues() {
+            return longValues;
+        }
+
+        public double[] getDoubleValues() {
+            return doubleValues;
+        }
+
+        /**
+         * @return bitmap of the rows with a {@code null} attribute value
+         */
+        public long[] getNulls() {
+            return nulls;
+        }
+
+        public int getNullCount() {
+            return nullCount;
+        }
+
+        /**
+         * Encodes a value of a {@code long} valued column. Booleans are encoded as {@code 0} and
+         * {@code 1} and dates as their millisecond time, which preserves their order.
+         *
+         * @param value a number, boolean or date
+         * @return the encoded value
+         */
+        public static long toLong(Object value) {
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            }
+            return ((Date) value).getTime();
+        }
+
+        void set(int row, Object value) {
+            if (unsupported) {
+                return;
+            }
+            if (value == UNSUPPORTED_VALUE) {
+                markUnsupported();
+                return;
+            }
+            if (value == null) {
+                setNull(row, true);
+                return;
+            }
+            Class<?> clazz = value.getClass();
+            if (valueClass == null) {
+                if (!initType(clazz)) {
+                    markUnsupported();
+                    return;
+                }
+            } else if (clazz != valueClass) {
+                markUnsupported();
+                return;
+            }
+
+            setNull(row, false);
+            if (longValues != null) {
+                longValues[row] = toLong(value);
+            } else {
+                doubleValues[row] = ((Number) value).doubleValue();
+            }
+        }
+
+        private boolean initType(Class<?> clazz) {
+            AttributeType type = toAttributeType(clazz);
+            if (type == null) {
+                return false;
+            }
+            if (type == AttributeType.DOUBLE || type == AttributeType.FLOAT) {
+                doubleValues = new double[capacity];
+            } else {
+                longValues = new long[capacity];
+            }
+            valueClass = clazz;
+            attributeType = type;
+            return true;
+        }
+
+        private static AttributeType toAttributeType(Class<?> clazz) {
+            if (clazz == Long.class) {
+                return AttributeType.LONG;
+            } else if (clazz == Integer.class) {
+                return AttributeType.INTEGER;
+            } else if (clazz == Short.class) {
+                return AttributeType.SHORT;
+            } else if (clazz == Byte.class) {
+                return AttributeType.BYTE;
+            } else if (clazz == Boolean.class) {
+                return AttributeType.BOOLEAN;
+            } else if (clazz == Double.class) {
+                return AttributeType.DOUBLE;
+            } else if (clazz == Float.class) {
+                return AttributeType.FLOAT;
+            } else if (clazz == Date.class) {
+                return AttributeType.DATE;
+            } else if (clazz == java.sql.Date.class) {
+                return AttributeType.SQL_DATE;
+            }
+            return null;
+        }
+
+        private void markUnsupported() {
+            unsupported = true;
+            longValues = null;
+            doubleValues = null;
+            nulls = null;
+            nullCount = 0;
+        }
+
+        private void setNull(int row, boolean isNull) {
+            int word = row >>> Bitmaps.WORD_SHIFT;
+            long mask = 1L << row;
+            boolean wasNull = (nulls[word] & mask) != 0;
+            if (isNull && !wasNull) {
+                nulls[word] |= mask;
+                nullCount++;
+            } else if (!isNull && wasNull) {
+                nulls[word] &= ~mask;
+                nullCount--;
+            }
+        }
+
+        void move(int from, int to) {
+            if (unsupported) {
+                return;
+            }
+            setNull(to, (nulls[from >>> Bitmaps.WORD_SHIFT] & (1L << from)) != 0);
+            if (longValues != null) {
+                longValues[to] = longValues[from];
+            } else if (doubleValues != null) {
+                doubleValues[to] = doubleValues[from];
+            }
+            clearRow(from);
+        }
+
+        void clearRow(int row) {
+            if (unsupported) {
+                return;
+            }
+            setNull(row, false);
+            if (longValues != null) {
+                longValues[row] = 0;
+            } else if (doubleValues != null) {
+                doubleValues[row] = 0;
+            }
+        }
+
+        void grow(int newCapacity) {
+            capacity = newCapacity;
+            if (unsupported) {
+                return;
+            }
+            if (longValues != null) {
+                long[] newValues = new long[newCapacity];
+                System.arraycopy(longValues, 0, newValues, 0, longValues.length);
+                longValues = newValues;
+            } else if (doubleValues != null) {
+                double[] newValues = new double[newCapacity];
+                System.arraycopy(doubleValues, 0, newValues, 0, doubleValues.length);
+                doubleValues = newValues;
+            }
+            long[] newNulls = new long[Bitmaps.wordCount(newCapacity)];
+            System.arraycopy(nulls, 0, newNulls, 0, nulls.length);
+            nulls = newNulls;
+        }
+
+        void reset(int capacity) {
+            this.capacity = capacity;
+            longValues = null;
+            doubleValues = null;
+            nulls = new long[Bitmaps.wordCount(capacity)];
+            nullCount = 0;
+            valueClass = null;
+            attributeType = null;
+            unsupported = false;
+        }
+    }
+}
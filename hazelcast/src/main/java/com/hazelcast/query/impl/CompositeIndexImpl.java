@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Index over a tuple of attributes, configured with a comma separated attribute list such as
+ * {@code "a, b"}. Entries are indexed by a {@link CompositeValue} of their attribute values.
+ * <p>
+ * Equality on all attributes can be answered by both ordered and unordered composite indexes.
+ * Ordered composite indexes can also answer equality on a prefix of the attributes, optionally
+ * followed by a range on the next attribute; see {@link #getRecords(Comparable[], Comparable, boolean,
+ * Comparable, boolean)}. Multi-value attributes, e.g. {@code [any]} collections, are not supported.
+ */
+public class CompositeIndexImpl implements Index {
+
+    private static final char SEPARATOR = ',';
+
+    private final String name;
+    private final String[] attributeNames;
+    private final boolean ordered;
+    private final IndexStore indexStore;
+    private final TypeConverter[] converters;
+
+    private final InternalSerializationService ss;
+    private final Extractors extractors;
+
+    private volatile TypeConverter converter;
+
+    public CompositeIndexImpl(String[] attributeNames, boolean ordered, InternalSerializationService ss,
+                              Extractors extractors) {
+        this.name = toName(attributeNames);
+        this.attributeNames = attributeNames;
+        this.ordered = ordered;
+        this.indexStore = ordered ? new SortedIndexStore() : new UnsortedIndexStore();
+        this.converters = new TypeConverter[attributeNames.length];
+        this.ss = ss;
+        this.extractors = extractors;
+    }
+
+    /**
+     * @param attribute index attribute from the configuration
+     * @return {@code true} if the attribute denotes a composite index
+     */
+    public static boolean isComposite(String attribute) {
+        return attribute.indexOf(SEPARATOR) >= 0;
+    }
+
+    /**
+     * Splits the attribute list of a composite index into trimmed attribute names.
+     *
+     * @param attribute comma separated attribute list
+     * @return the attribute names
+     */
+    public static String[] parseAttributeNames(String attribute) {
+        List<String> attributeNames = new ArrayList<String>();
+        int start = 0;
+        for (int end = attribute.indexOf(SEPARATOR); end >= 0; end = attribute.indexOf(SEPARATOR, start)) {
+            attributeNames.add(attribute.substring(start, end).trim());
+            start = end + 1;
+        }
+        attributeNames.add(attribute.substring(start).trim());
+        return attributeNames.toArray(new String[attributeNames.size()]);
+    }
+
+    /**
+     * @param attributeNames the indexed attributes
+     * @return the canonical name of the composite index, which is used as its attribute name
+     */
+    public static String toName(String[] attributeNames) {
+        StringBuilder sb = new StringBuilder();
+        for (String attributeName : attributeNames) {
+            if (sb.length() > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(attributeName);
+        }
+        return sb.toString();
+    }
+
+    public String[] getAttributeNames() {
+        return attributeNames;
+    }
+
+    @Override
+    public void saveEntryIndex(QueryableEntry entry, Object oldRecordValue) throws QueryException {
+        initConverters(entry);
+
+        CompositeValue newValue = extractCompositeValue(entry);
+        if (oldRecordValue == null) {
+            indexStore.newIndex(newValue, entry);
+        } else {
+            CompositeValue oldValue = extractCompositeValue(entry.getKeyData(), oldRecordValue);
+            indexStore.updateIndex(oldValue, newValue, entry);
+        }
+    }
+
+    private void initConverters(QueryableEntry entry) {
+        if (converter != null) {
+            return;
+        }
+        boolean initialized = true;
+        for (int i = 0; i < attributeNames.length; i++) {
+            if (converters[i] == null || converters[i] == NULL_CONVERTER) {
+                converters[i] = entry.getConverter(attributeNames[i]);
+            }
+            initialized &= converters[i] != null && converters[i] != NULL_CONVERTER;
+        }
+        if (initialized) {
+            converter = new CompositeConverter(converters.clone());
+        }
+    }
+
+    @Override
+    public void removeEntryIndex(Data key, Object value) {
+        indexStore.removeIndex(extractCompositeValue(key, value), key);
+    }
+
+    private CompositeValue extractCompositeValue(QueryableEntry entry) {
+        Comparable[] components = new Comparable[attributeNames.length];
+        for (int i = 0; i < attributeNames.length; i++) {
+            Object target = entry.getTargetObject(false, attributeNames[i]);
+            Object attributeValue = QueryableEntry.extractAttributeValue(extractors, ss, attributeNames[i],
+                    entry.getKeyData(), target);
+            components[i] = sanitizeComponent(attributeNames[i], attributeValue);
+        }
+        return new CompositeValue(components);
+    }
+
+    private CompositeValue extractCompositeValue(Data key, Object value) {
+        Comparable[] components = new Comparable[attributeNames.length];
+        for (int i = 0; i < attributeNames.length; i++) {
+            Object attributeValue = QueryableEntry.extractAttributeValue(extractors, ss, attributeNames[i], key, value);
+            components[i] = sanitizeComponent(attributeNames[i], attributeValue);
+        }
+        return new CompositeValue(components);
+    }
+
+    private static Comparable sanitizeComponent(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            return IndexImpl.NULL;
+        }
+        if (attributeValue instanceof MultiResult) {
+            throw new QueryException("Composite indexes do not support multi-value attribute: " + attributeName);
+        }
+        if (!(attributeValue instanceof Comparable)) {
+            throw new IllegalArgumentException("It is not allowed to used a type that is not Comparable: "
+                    + attributeValue.getClass());
+        }
+        Comparable value = (Comparable) attributeValue;
+        if (value.getClass().isEnum()) {
+            value = TypeConverters.ENUM_CONVERTER.convert(value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the records whose leading attributes are equal to the given values and whose next
+     * attribute lies in the given range. Both bounds of the range are optional. Only ordered
+     * indexes support lookups which don't pin all attributes to a single value.
+     *
+     * @param equalValues   values of the leading attributes
+     * @param from          lower bound of the next attribute or {@code null} if it has none
+     * @param fromInclusive {@code true} if the lower bound is part of the range
+     * @param to            upper bound of the next attribute or {@code null} if it has none
+     * @param toInclusive   {@code true} if the upper bound is part of the range
+     * @return matching records
+     */
+    public Set<QueryableEntry> getRecords(Comparable[] equalValues, Comparable from, boolean fromInclusive,
+                                          Comparable to, boolean toInclusive) {
+        CompositeConverter converter = (CompositeConverter) this.converter;
+        if (converter == null) {
+            return Collections.EMPTY_SET;
+        }
+
+        int rangeIndex = equalValues.length;
+        if (rangeIndex == attributeNames.length) {
+            return indexStore.getRecords(converter.convert(new CompositeValue(equalValues)));
+        }
+        if (!ordered) {
+            throw new UnsupportedOperationException("Range lookups require an ordered composite index: " + name);
+        }
+
+        Comparable[] lower = new Comparable[attributeNames.length];
+        Comparable[] upper = new Comparable[attributeNames.length];
+        System.arraycopy(equalValues, 0, lower, 0, rangeIndex);
+        System.arraycopy(equalValues, 0, upper, 0, rangeIndex);
+        // range predicates never match null, so a missing lower bound starts right after the NULL component
+        boolean lowerInclusive = from != null && fromInclusive;
+        lower[rangeIndex] = from == null ? IndexImpl.NULL : from;
+        upper[rangeIndex] = to == null ? CompositeValue.POSITIVE_INFINITY : to;
+        // padding the remaining components turns exclusive bounds into inclusive ones
+        for (int i = rangeIndex + 1; i < attributeNames.length; i++) {
+            lower[i] = lowerInclusive ? CompositeValue.NEGATIVE_INFINITY : CompositeValue.POSITIVE_INFINITY;
+            upper[i] = toInclusive ? CompositeValue.POSITIVE_INFINITY : CompositeValue.NEGATIVE_INFINITY;
+        }
+        return ((SortedIndexStore) indexStore).getSubRecords(converter.convert(new CompositeValue(lower)), lowerInclusive,
+                converter.convert(new CompositeValue(upper)), toInclusive);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable[] values) {
+        if (values.length == 1) {
+            return getRecords(values[0]);
+        }
+        TypeConverter converter = this.converter;
+        if (converter == null) {
+            return Collections.EMPTY_SET;
+        }
+        Set<Comparable> convertedValues = new HashSet<Comparable>(values.length);
+        for (Comparable value : values) {
+            convertedValues.add(converter.convert(value));
+        }
+        return indexStore.getRecords(convertedValues);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        TypeConverter converter = this.converter;
+        if (converter == null) {
+            return new SingleResultSet(null);
+        }
+        return indexStore.getRecords(converter.convert(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        TypeConverter converter = this.converter;
+        if (converter == null) {
+            return Collections.EMPTY_SET;
+        }
+        return indexStore.getSubRecordsBetween(converter.convert(from), converter.convert(to));
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        TypeConverter converter = this.converter;
+        if (converter == null) {
+            return Collections.EMPTY_SET;
+        }
+        return indexStore.getSubRecords(comparisonType, converter.convert(searchedValue));
+    }
+
+    /**
+     * Returns the converter of {@link CompositeValue}s, which becomes available once every
+     * attribute of the index has been seen with a non-null value.
+     */
+    @Override
+    public TypeConverter getConverter() {
+        return converter;
+    }
+
+    @Override
+    public void clear() {
+        indexStore.clear();
+        for (int i = 0; i < converters.length; i++) {
+            converters[i] = null;
+        }
+        converter = null;
+    }
+
+    @Override
+    public String getAttributeName() {
+        return name;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public IndexStatistics getStatistics() {
+        return indexStore.getStatistics();
+    }
+
+    /**
+     * Converts every component of a {@link CompositeValue} with the converter of its attribute.
+     */
+    private static final class CompositeConverter implements TypeConverter {
+
+        private final TypeConverter[] converters;
+
+        CompositeConverter(TypeConverter[] converters) {
+            this.converters = converters;
+        }
+
+        @Override
+        public Comparable convert(Comparable value) {
+            Comparable[] components = ((CompositeValue) value).getComponents();
+            Comparable[] converted = new Comparable[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Comparable component = components[i];
+                if (component == null) {
+                    converted[i] = IndexImpl.NULL;
+                } else if (component == CompositeValue.NEGATIVE_INFINITY || component == CompositeValue.POSITIVE_INFINITY
+                        || component instanceof IndexImpl.NullObject) {
+                    converted[i] = component;
+                } else {
+                    converted[i] = converters[i].convert(component);
+                }
+            }
+            return new CompositeValue(converted);
+        }
+    }
+}
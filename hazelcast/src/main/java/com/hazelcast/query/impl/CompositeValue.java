@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Tuple of attribute values indexed by a {@link CompositeIndexImpl}. Values are ordered
+ * lexicographically by their components, {@link IndexImpl#NULL} components sort before all
+ * other values of the same component.
+ * <p>
+ * The special {@link #NEGATIVE_INFINITY} and {@link #POSITIVE_INFINITY} components are never
+ * stored in an index; they pad the bounds of range queries over a prefix of the components.
+ */
+@SuppressWarnings("unchecked")
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * Component sorting before any other component value, including {@code null}.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new SpecialValue("-Infinity");
+
+    /**
+     * Component sorting after any other component value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new SpecialValue("+Infinity");
+
+    private final Comparable[] components;
+
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    public Comparable[] getComponents() {
+        return components;
+    }
+
+    @Override
+    public int compareTo(CompositeValue that) {
+        int length = Math.min(components.length, that.components.length);
+        for (int i = 0; i < length; i++) {
+            int order = compareComponents(components[i], that.components[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return components.length - that.components.length;
+    }
+
+    private static int compareComponents(Comparable left, Comparable right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left == NEGATIVE_INFINITY || right == POSITIVE_INFINITY) {
+            return -1;
+        }
+        if (left == POSITIVE_INFINITY || right == NEGATIVE_INFINITY) {
+            return 1;
+        }
+        if (left instanceof IndexImpl.NullObject) {
+            return right instanceof IndexImpl.NullObject ? 0 : -1;
+        }
+        if (right instanceof IndexImpl.NullObject) {
+            return 1;
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class SpecialValue implements Comparable {
+
+        private final String name;
+
+        SpecialValue(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            throw new UnsupportedOperationException("Special composite value components are compared by CompositeValue");
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
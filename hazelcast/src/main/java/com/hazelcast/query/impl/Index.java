@@ -58,4 +58,12 @@ public interface Index {
     String getAttributeName();
 
     boolean isOrdered();
+
+    /**
+     * Returns the statistics of the indexed values, which are used to estimate the cost of
+     * queries. It can return <code>null</code> if no entry has been saved yet.
+     *
+     * @return the index statistics
+     */
+    IndexStatistics getStatistics();
 }
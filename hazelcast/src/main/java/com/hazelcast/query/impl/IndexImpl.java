@@ -37,11 +37,11 @@ public class IndexImpl implements Index {
 
     public static final NullObject NULL = new NullObject();
 
-    private final IndexStore indexStore;
     private final String attributeName;
     private final boolean ordered;
 
     private volatile TypeConverter converter;
+    private volatile IndexStore indexStore;
 
     private final InternalSerializationService ss;
     private final Extractors extractors;
@@ -50,7 +50,7 @@ public class IndexImpl implements Index {
         this.attributeName = attributeName;
         this.ordered = ordered;
         this.ss = ss;
-        this.indexStore = ordered ? new SortedIndexStore() : new UnsortedIndexStore();
+        this.indexStore = ordered ? null : new UnsortedIndexStore();
         this.extractors = extractors;
     }
 
@@ -63,11 +63,14 @@ public class IndexImpl implements Index {
          * another thread can query over indexes without knowing the converter and
          * this causes to class cast exceptions.
          */
-        if (converter == null || converter == NULL_CONVERTER) {
-            converter = entry.getConverter(attributeName);
+        TypeConverter entryConverter = converter;
+        if (entryConverter == null || entryConverter == NULL_CONVERTER) {
+            entryConverter = entry.getConverter(attributeName);
+            converter = entryConverter;
         }
+        IndexStore indexStore = getOrCreateIndexStore(entryConverter);
 
-        Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
+        Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false, attributeName));
         if (oldRecordValue == null) {
             indexStore.newIndex(newAttributeValue, entry);
         } else {
@@ -78,10 +81,47 @@ public class IndexImpl implements Index {
 
     @Override
     public void removeEntryIndex(Data key, Object value) {
+        IndexStore indexStore = this.indexStore;
+        if (indexStore == null) {
+            return;
+        }
         Object attributeValue = extractAttributeValue(key, value);
         indexStore.removeIndex(attributeValue, key);
     }
 
+    /**
+     * Returns the index store, creating it on the first saved entry for ordered indexes.
+     * Ordered indexes over numeric and date attributes get a {@link PrimitiveSortedIndexStore};
+     * all other attribute types, and indexes whose first entry has a {@code null} attribute value,
+     * use a {@link SortedIndexStore}.
+     */
+    private IndexStore getOrCreateIndexStore(TypeConverter entryConverter) {
+        IndexStore indexStore = this.indexStore;
+        if (indexStore != null) {
+            return indexStore;
+        }
+        synchronized (this) {
+            indexStore = this.indexStore;
+            if (indexStore == null) {
+                AttributeType attributeType = toAttributeType(entryConverter);
+                indexStore = PrimitiveSortedIndexStore.isSupported(attributeType)
+                        ? new PrimitiveSortedIndexStore(attributeType)
+                        : new SortedIndexStore();
+                this.indexStore = indexStore;
+            }
+            return indexStore;
+        }
+    }
+
+    private static AttributeType toAttributeType(TypeConverter converter) {
+        for (AttributeType attributeType : AttributeType.values()) {
+            if (attributeType.getConverter() == converter) {
+                return attributeType;
+            }
+        }
+        return null;
+    }
+
     private Object extractAttributeValue(Data key, Object value) {
         return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
     }
@@ -91,7 +131,8 @@ public class IndexImpl implements Index {
         if (values.length == 1) {
             return getRecords(values[0]);
         } else {
-            if (converter != null) {
+            IndexStore indexStore = this.indexStore;
+            if (converter != null && indexStore != null) {
                 Set<Comparable> convertedValues = new HashSet<Comparable>(values.length);
                 for (Comparable value : values) {
                     convertedValues.add(convert(value));
@@ -104,7 +145,8 @@ public class IndexImpl implements Index {
 
     @Override
     public Set<QueryableEntry> getRecords(Comparable attributeValue) {
-        if (converter == null) {
+        IndexStore indexStore = this.indexStore;
+        if (converter == null || indexStore == null) {
             return new SingleResultSet(null);
         }
         return indexStore.getRecords(convert(attributeValue));
@@ -112,7 +154,8 @@ public class IndexImpl implements Index {
 
     @Override
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedAttributeValue) {
-        if (converter == null) {
+        IndexStore indexStore = this.indexStore;
+        if (converter == null || indexStore == null) {
             return Collections.EMPTY_SET;
         }
         return indexStore.getSubRecords(comparisonType, convert(searchedAttributeValue));
@@ -120,7 +163,8 @@ public class IndexImpl implements Index {
 
     @Override
     public Set<QueryableEntry> getSubRecordsBetween(Comparable fromAttributeValue, Comparable toAttributeValue) {
-        if (converter == null) {
+        IndexStore indexStore = this.indexStore;
+        if (converter == null || indexStore == null) {
             return Collections.EMPTY_SET;
         }
         return indexStore.getSubRecordsBetween(convert(fromAttributeValue), convert(toAttributeValue));
@@ -147,7 +191,16 @@ public class IndexImpl implements Index {
 
     @Override
     public void clear() {
-        indexStore.clear();
+        synchronized (this) {
+            IndexStore indexStore = this.indexStore;
+            if (indexStore != null) {
+                indexStore.clear();
+            }
+            if (ordered) {
+                // the attribute type may change with the next entries, so the store is chosen again
+                this.indexStore = null;
+            }
+        }
         converter = null;
     }
 
@@ -161,6 +214,12 @@ public class IndexImpl implements Index {
         return ordered;
     }
 
+    @Override
+    public IndexStatistics getStatistics() {
+        IndexStore indexStore = this.indexStore;
+        return indexStore != null ? indexStore.getStatistics() : null;
+    }
+
     public static final class NullObject implements Comparable, IdentifiedDataSerializable {
         @Override
         public int compareTo(Object o) {
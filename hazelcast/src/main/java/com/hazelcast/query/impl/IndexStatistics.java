@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Date;
+
+/**
+ * Statistics of an index store, used by the cost-based query optimizer to estimate how many
+ * entries a predicate matches.
+ * <p>
+ * The statistics track the number of index mappings, the number of distinct non-null attribute
+ * values and, as long as all values are numbers or dates, an equi-width histogram of the values.
+ * The histogram starts narrow and doubles the width of its buckets whenever a value falls outside
+ * of its range, so it adapts to the value domain without a configured minimum or maximum.
+ * <p>
+ * The statistics are updated by the index store while it holds its write lock, so synchronizing
+ * on the statistics is uncontended apart from the occasional estimation by the query optimizer.
+ */
+public final class IndexStatistics {
+
+    /**
+     * Selectivity assumed for range predicates if there is no histogram to estimate it from.
+     */
+    public static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3;
+
+    static final int BUCKET_COUNT = 64;
+
+    private static final double INITIAL_BUCKET_WIDTH = 1.0;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long entryCount;
+    private long distinctValueCount;
+
+    private boolean histogramEnabled = true;
+    private boolean histogramEmpty = true;
+    private double lowerBound;
+    private double bucketWidth = INITIAL_BUCKET_WIDTH;
+    private long histogramCount;
+
+    /**
+     * @return number of index mappings, i.e. the number of indexed entries, counting entries with
+     * multi-value attributes once per value
+     */
+    public synchronized long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return number of distinct non-null attribute values
+     */
+    public synchronized long getDistinctValueCount() {
+        return distinctValueCount;
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries which have the given attribute value,
+     * assuming the values are distributed uniformly.
+     *
+     * @return the estimated fraction between {@code 0} and {@code 1}
+     */
+    public synchronized double estimateEqualSelectivity() {
+        if (entryCount == 0) {
+            return 0;
+        }
+        return 1.0 / Math.max(1, distinctValueCount);
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries whose attribute value lies in the given range.
+     *
+     * @param from lower bound of the range or {@code null} if it is unbounded
+     * @param to   upper bound of the range or {@code null} if it is unbounded
+     * @return the estimated fraction between {@code 0} and {@code 1}, or {@link #DEFAULT_RANGE_SELECTIVITY}
+     * if there is no histogram for the indexed values
+     */
+    public synchronized double estimateRangeSelectivity(Comparable from, Comparable to) {
+        if (entryCount == 0) {
+            return 0;
+        }
+        if (!histogramEnabled || histogramCount == 0) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        double lower = from == null ? Double.NEGATIVE_INFINITY : toDouble(from);
+        double upper = to == null ? Double.POSITIVE_INFINITY : toDouble(to);
+        if (Double.isNaN(lower) || Double.isNaN(upper)) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        if (lower > upper) {
+            return 0;
+        }
+
+        double matching = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            double bucketLower = lowerBound + i * bucketWidth;
+            double bucketUpper = bucketLower + bucketWidth;
+            double overlap = Math.min(upper, bucketUpper) - Math.max(lower, bucketLower);
+            if (overlap > 0) {
+                matching += buckets[i] * Math.min(1.0, overlap / bucketWidth);
+            } else if (lower == upper && bucketLower <= lower && lower < bucketUpper) {
+                // a single value is matched against the bucket containing it
+                matching += buckets[i] * estimateEqualSelectivity();
+            }
+        }
+        return Math.min(1.0, matching / histogramCount);
+    }
+
+    synchronized void onEntryAdded(Comparable value, boolean newValue) {
+        entryCount++;
+        if (value instanceof IndexImpl.NullObject) {
+            return;
+        }
+        if (newValue) {
+            distinctValueCount++;
+        }
+        addToHistogram(value);
+    }
+
+    synchronized void onEntryRemoved(Comparable value, boolean lastOfValue) {
+        entryCount--;
+        if (value instanceof IndexImpl.NullObject) {
+            return;
+        }
+        if (lastOfValue) {
+            distinctValueCount--;
+        }
+        removeFromHistogram(value);
+    }
+
+    synchronized void clear() {
+        entryCount = 0;
+        distinctValueCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = 0;
+        }
+        histogramEnabled = true;
+        histogramEmpty = true;
+        lowerBound = 0;
+        bucketWidth = INITIAL_BUCKET_WIDTH;
+        histogramCount = 0;
+    }
+
+    private void addToHistogram(Comparable value) {
+        if (!histogramEnabled) {
+            return;
+        }
+        double doubleValue = toDouble(value);
+        if (Double.isNaN(doubleValue)) {
+            // the histogram can't represent the value domain, estimations fall back to defaults
+            histogramEnabled = false;
+            return;
+        }
+        if (Double.isInfinite(doubleValue)) {
+            return;
+        }
+        if (histogramEmpty) {
+            lowerBound = Math.floor(doubleValue / bucketWidth) * bucketWidth;
+            histogramEmpty = false;
+        }
+        while (doubleValue < lowerBound) {
+            growDownwards();
+        }
+        while (doubleValue >= lowerBound + BUCKET_COUNT * bucketWidth) {
+            growUpwards();
+        }
+        buckets[bucketOf(doubleValue)]++;
+        histogramCount++;
+    }
+
+    private void removeFromHistogram(Comparable value) {
+        if (!histogramEnabled || histogramEmpty) {
+            return;
+        }
+        double doubleValue = toDouble(value);
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)
+                || doubleValue < lowerBound || doubleValue >= lowerBound + BUCKET_COUNT * bucketWidth) {
+            return;
+        }
+        int bucket = bucketOf(doubleValue);
+        if (buckets[bucket] > 0) {
+            buckets[bucket]--;
+            histogramCount--;
+        }
+    }
+
+    private int bucketOf(double value) {
+        int bucket = (int) ((value - lowerBound) / bucketWidth);
+        return Math.min(BUCKET_COUNT - 1, Math.max(0, bucket));
+    }
+
+    /**
+     * Doubles the bucket width keeping the lower bound; the current range becomes the lower half.
+     */
+    private void growUpwards() {
+        int half = BUCKET_COUNT / 2;
+        for (int i = 0; i < half; i++) {
+            buckets[i] = buckets[2 * i] + buckets[2 * i + 1];
+        }
+        for (int i = half; i < BUCKET_COUNT; i++) {
+            buckets[i] = 0;
+        }
+        bucketWidth *= 2;
+    }
+
+    /**
+     * Doubles the bucket width keeping the upper bound; the current range becomes the upper half.
+     */
+    private void growDownwards() {
+        int half = BUCKET_COUNT / 2;
+        for (int i = BUCKET_COUNT - 1; i >= half; i--) {
+            int source = 2 * (i - half);
+            buckets[i] = buckets[source] + buckets[source + 1];
+        }
+        for (int i = 0; i < half; i++) {
+            buckets[i] = 0;
+        }
+        lowerBound -= BUCKET_COUNT * bucketWidth;
+        bucketWidth *= 2;
+    }
+
+    private static double toDouble(Comparable value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        return Double.NaN;
+    }
+}
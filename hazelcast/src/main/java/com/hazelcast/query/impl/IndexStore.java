@@ -34,4 +34,9 @@ public interface IndexStore {
     Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue);
     Set<QueryableEntry> getRecords(Comparable value);
     Set<QueryableEntry> getRecords(Set<Comparable> values);
+
+    /**
+     * @return statistics of the values kept in this store
+     */
+    IndexStatistics getStatistics();
 }
@@ -23,6 +23,8 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -33,8 +35,10 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class Indexes {
     private static final Index[] EMPTY_INDEX = {};
+    private static final CompositeIndexImpl[] EMPTY_COMPOSITE_INDEX = {};
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>(EMPTY_INDEX);
+    private volatile CompositeIndexImpl[] compositeIndexes = EMPTY_COMPOSITE_INDEX;
     private volatile boolean hasIndex;
     private final InternalSerializationService serializationService;
     private Extractors extractors;
@@ -45,16 +49,37 @@ public class Indexes {
     }
 
     public synchronized Index destroyIndex(String attribute) {
-        return mapIndexes.remove(attribute);
+        Index index = mapIndexes.remove(canonicalName(attribute));
+        if (index instanceof CompositeIndexImpl) {
+            updateCompositeIndexes();
+        }
+        return index;
     }
 
+    /**
+     * Returns the index of the given attribute, creating it if it doesn't exist yet. A comma separated
+     * attribute list, e.g. {@code "a, b"}, denotes a {@link CompositeIndexImpl composite index}.
+     *
+     * @param attribute the attribute or the attribute list of a composite index
+     * @param ordered   {@code true} if the index should be ordered
+     * @return the index
+     */
     public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
-        Index index = mapIndexes.get(attribute);
+        String name = canonicalName(attribute);
+        Index index = mapIndexes.get(name);
         if (index != null) {
             return index;
         }
-        index = new IndexImpl(attribute, ordered, serializationService, extractors);
-        mapIndexes.put(attribute, index);
+        if (CompositeIndexImpl.isComposite(name)) {
+            index = new CompositeIndexImpl(CompositeIndexImpl.parseAttributeNames(name), ordered,
+                    serializationService, extractors);
+        } else {
+            index = new IndexImpl(name, ordered, serializationService, extractors);
+        }
+        mapIndexes.put(name, index);
+        if (index instanceof CompositeIndexImpl) {
+            updateCompositeIndexes();
+        }
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
         for (int i = 0; i < indexObjects.length; i++) {
@@ -69,12 +94,37 @@ public class Indexes {
         return indexes.get();
     }
 
+    /**
+     * @return all composite indexes, never {@code null}
+     */
+    public CompositeIndexImpl[] getCompositeIndexes() {
+        return compositeIndexes;
+    }
+
     public void clearIndexes() {
         indexes.set(EMPTY_INDEX);
+        compositeIndexes = EMPTY_COMPOSITE_INDEX;
         mapIndexes.clear();
         hasIndex = false;
     }
 
+    private void updateCompositeIndexes() {
+        List<CompositeIndexImpl> composites = new ArrayList<CompositeIndexImpl>();
+        for (Index index : mapIndexes.values()) {
+            if (index instanceof CompositeIndexImpl) {
+                composites.add((CompositeIndexImpl) index);
+            }
+        }
+        compositeIndexes = composites.toArray(new CompositeIndexImpl[composites.size()]);
+    }
+
+    private static String canonicalName(String attribute) {
+        if (CompositeIndexImpl.isComposite(attribute)) {
+            return CompositeIndexImpl.toName(CompositeIndexImpl.parseAttributeNames(attribute));
+        }
+        return attribute;
+    }
+
     public void removeEntryIndex(Data key, Object value) throws QueryException {
         Index[] indexes = getIndexes();
         for (Index index : indexes) {
@@ -100,7 +150,7 @@ public class Indexes {
      * @return Index for attribute or null if the index does not exist.
      */
     public Index getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        return mapIndexes.get(canonicalName(attribute));
     }
 
     public Set<QueryableEntry> query(Predicate predicate) {
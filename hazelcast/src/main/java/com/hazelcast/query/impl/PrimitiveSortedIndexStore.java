@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.collection.Long2ObjectSortedMap;
+import com.hazelcast.util.function.Consumer;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sorted index store for numeric and date attributes. Attribute values are encoded into
+ * order-preserving {@code long} keys and kept in a {@link Long2ObjectSortedMap}, so the store
+ * holds no boxed attribute values, skip-list nodes or per-value concurrent maps.
+ * <p>
+ * An attribute value with a single matching entry maps directly to that {@link QueryableEntry};
+ * only values shared by several entries get a {@code Map<Data, QueryableEntry>} bucket. The
+ * structures are not thread-safe on their own and are guarded by the read-write lock of
+ * {@link BaseIndexStore}.
+ */
+public class PrimitiveSortedIndexStore extends BaseIndexStore {
+
+    private final Map<Data, QueryableEntry> recordsWithNullValue = new HashMap<Data, QueryableEntry>();
+
+    private final Long2ObjectSortedMap<Object> recordMap = new Long2ObjectSortedMap<Object>();
+
+    private final AttributeType attributeType;
+
+    public PrimitiveSortedIndexStore(AttributeType attributeType) {
+        if (!isSupported(attributeType)) {
+            throw new IllegalArgumentException("Unsupported attribute type: " + attributeType);
+        }
+        this.attributeType = attributeType;
+    }
+
+    /**
+     * @param attributeType the attribute type, may be {@code null}
+     * @return {@code true} if attribute values of the given type can be kept in this store
+     */
+    public static boolean isSupported(AttributeType attributeType) {
+        if (attributeType == null) {
+            return false;
+        }
+        switch (attributeType) {
+            case LONG:
+            case INTEGER:
+            case SHORT:
+            case BYTE:
+            case DOUBLE:
+            case FLOAT:
+            case DATE:
+            case SQL_DATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    void newIndexInternal(Comparable newValue, QueryableEntry record) {
+        if (newValue instanceof IndexImpl.NullObject) {
+            if (recordsWithNullValue.put(record.getKeyData(), record) == null) {
+                statistics.onEntryAdded(newValue, false);
+            }
+        } else {
+            mapAttributeToEntry(newValue, record);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
+        long key = toKey(attribute);
+        Object records = recordMap.get(key);
+        if (records == null) {
+            recordMap.put(key, entry);
+            statistics.onEntryAdded(attribute, true);
+        } else if (records instanceof QueryableEntry) {
+            QueryableEntry existing = (QueryableEntry) records;
+            if (existing.getKeyData().equals(entry.getKeyData())) {
+                recordMap.put(key, entry);
+            } else {
+                Map<Data, QueryableEntry> bucket = new HashMap<Data, QueryableEntry>();
+                bucket.put(existing.getKeyData(), existing);
+                bucket.put(entry.getKeyData(), entry);
+                recordMap.put(key, bucket);
+                statistics.onEntryAdded(attribute, false);
+            }
+        } else if (((Map<Data, QueryableEntry>) records).put(entry.getKeyData(), entry) == null) {
+            statistics.onEntryAdded(attribute, false);
+        }
+    }
+
+    @Override
+    void removeIndexInternal(Comparable oldValue, Data indexKey) {
+        if (oldValue instanceof IndexImpl.NullObject) {
+            if (recordsWithNullValue.remove(indexKey) != null) {
+                statistics.onEntryRemoved(oldValue, false);
+            }
+        } else {
+            removeMappingForAttribute(oldValue, indexKey);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeMappingForAttribute(Comparable attribute, Data indexKey) {
+        long key = toKey(attribute);
+        Object records = recordMap.get(key);
+        if (records == null) {
+            return;
+        }
+        if (records instanceof QueryableEntry) {
+            if (((QueryableEntry) records).getKeyData().equals(indexKey)) {
+                recordMap.remove(key);
+                statistics.onEntryRemoved(attribute, true);
+            }
+            return;
+        }
+
+        Map<Data, QueryableEntry> bucket = (Map<Data, QueryableEntry>) records;
+        if (bucket.remove(indexKey) == null) {
+            return;
+        }
+        if (bucket.size() == 1) {
+            recordMap.put(key, bucket.values().iterator().next());
+        } else if (bucket.isEmpty()) {
+            recordMap.remove(key);
+        }
+        statistics.onEntryRemoved(attribute, bucket.isEmpty());
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            recordsWithNullValue.clear();
+            recordMap.clear();
+            statistics.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            ResultSetCollector collector = new ResultSetCollector(createMultiResultSet());
+            if (!isNull(from) && !isNull(to)) {
+                recordMap.forEachInRange(toKey(from), true, toKey(to), true, collector);
+            }
+            return collector.results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            ResultSetCollector collector = new ResultSetCollector(createMultiResultSet());
+            if (isNull(searchedValue)) {
+                return collector.results;
+            }
+            long key = toKey(searchedValue);
+            switch (comparisonType) {
+                case LESSER:
+                    recordMap.forEachInRange(Long.MIN_VALUE, true, key, false, collector);
+                    break;
+                case LESSER_EQUAL:
+                    recordMap.forEachInRange(Long.MIN_VALUE, true, key, true, collector);
+                    break;
+                case GREATER:
+                    recordMap.forEachInRange(key, false, Long.MAX_VALUE, true, collector);
+                    break;
+                case GREATER_EQUAL:
+                    recordMap.forEachInRange(key, true, Long.MAX_VALUE, true, collector);
+                    break;
+                case NOT_EQUAL:
+                    recordMap.forEachInRange(Long.MIN_VALUE, true, key, false, collector);
+                    recordMap.forEachInRange(key, false, Long.MAX_VALUE, true, collector);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+            }
+            return collector.results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            if (isNull(value)) {
+                return toSingleResultSet(recordsWithNullValue);
+            } else {
+                return toSingleResultSet(toMap(recordMap.get(toKey(value))));
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            ResultSetCollector collector = new ResultSetCollector(createMultiResultSet());
+            for (Comparable value : values) {
+                if (isNull(value)) {
+                    copyToMultiResultSet(collector.results, recordsWithNullValue);
+                } else {
+                    Object records = recordMap.get(toKey(value));
+                    if (records != null) {
+                        collector.accept(records);
+                    }
+                }
+            }
+            return collector.results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Encodes an attribute value into a {@code long} key whose signed order matches the natural
+     * order of the value. Floating point values are mapped so that the order of the keys matches
+     * {@link Double#compare(double, double)}, the order the boxed values have.
+     */
+    private long toKey(Comparable value) {
+        switch (attributeType) {
+            case DOUBLE:
+            case FLOAT:
+                if (value instanceof Double || value instanceof Float) {
+                    long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                    return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+                }
+                break;
+            case DATE:
+            case SQL_DATE:
+                if (value instanceof Date) {
+                    return ((Date) value).getTime();
+                }
+                break;
+            default:
+                if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    return ((Number) value).longValue();
+                }
+        }
+        throw new ClassCastException("Cannot use " + value.getClass().getName() + " in an index of "
+                + attributeType + " attribute values");
+    }
+
+    private static boolean isNull(Comparable value) {
+        return value instanceof IndexImpl.NullObject;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Data, QueryableEntry> toMap(Object records) {
+        if (records == null || records instanceof Map) {
+            return (Map<Data, QueryableEntry>) records;
+        }
+        QueryableEntry entry = (QueryableEntry) records;
+        Map<Data, QueryableEntry> map = new HashMap<Data, QueryableEntry>(1);
+        map.put(entry.getKeyData(), entry);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveSortedIndexStore{"
+                + "attributeType=" + attributeType
+                + ", recordMap=" + recordMap.size()
+                + '}';
+    }
+
+    /**
+     * Adds the entries of visited {@link #recordMap} values to a result set.
+     */
+    private final class ResultSetCollector implements Consumer<Object> {
+
+        private final MultiResultSet results;
+
+        ResultSetCollector(MultiResultSet results) {
+            this.results = results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(Object records) {
+            if (records instanceof QueryableEntry) {
+                // the singleton map is private to the result set, no need to copy it
+                results.addResultSet(toMap(records));
+            } else {
+                copyToMultiResultSet(results, (Map<Data, QueryableEntry>) records);
+            }
+        }
+    }
+}
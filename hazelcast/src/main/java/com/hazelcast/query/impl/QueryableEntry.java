@@ -63,6 +63,18 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     protected abstract Object getTargetObject(boolean key);
 
+    /**
+     * Returns the object the given attribute is extracted from. Entries which can read some attributes from
+     * their serialized form override this method to choose the serialized or the de-serialized form per attribute.
+     *
+     * @param key           {@code true} if the attribute belongs to the key
+     * @param attributeName name of the attribute without the key prefix
+     * @return the extraction target
+     */
+    protected Object getTargetObject(boolean key, String attributeName) {
+        return getTargetObject(key);
+    }
+
     TypeConverter getConverter(String attributeName) {
         Object attribute = getAttributeValue(attributeName);
         if (attribute == null) {
@@ -78,7 +90,7 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         if (result == null) {
             boolean isKey = startsWithKeyConstant(attributeName);
             attributeName = getAttributeName(isKey, attributeName);
-            Object target = getTargetObject(isKey);
+            Object target = getTargetObject(isKey, attributeName);
             result = extractAttributeValueFromTargetObject(extractors, serializationService, attributeName, target);
         }
         return result;
@@ -40,7 +40,9 @@ public class SortedIndexStore extends BaseIndexStore {
     @Override
     void newIndexInternal(Comparable newValue, QueryableEntry record) {
         if (newValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.put(record.getKeyData(), record);
+            if (recordsWithNullValue.put(record.getKeyData(), record) == null) {
+                statistics.onEntryAdded(newValue, false);
+            }
         } else {
             mapAttributeToEntry(newValue, record);
         }
@@ -48,17 +50,22 @@ public class SortedIndexStore extends BaseIndexStore {
 
     private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
-        if (records == null) {
+        boolean newValue = records == null;
+        if (newValue) {
             records = new ConcurrentHashMap<Data, QueryableEntry>(1, LOAD_FACTOR, 1);
             recordMap.put(attribute, records);
         }
-        records.put(entry.getKeyData(), entry);
+        if (records.put(entry.getKeyData(), entry) == null) {
+            statistics.onEntryAdded(attribute, newValue);
+        }
     }
 
     @Override
     void removeIndexInternal(Comparable oldValue, Data indexKey) {
         if (oldValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.remove(indexKey);
+            if (recordsWithNullValue.remove(indexKey) != null) {
+                statistics.onEntryRemoved(oldValue, false);
+            }
         } else {
             removeMappingForAttribute(oldValue, indexKey);
         }
@@ -67,10 +74,14 @@ public class SortedIndexStore extends BaseIndexStore {
     private void removeMappingForAttribute(Comparable attribute, Data indexKey) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
         if (records != null) {
-            records.remove(indexKey);
-            if (records.size() == 0) {
+            if (records.remove(indexKey) == null) {
+                return;
+            }
+            boolean lastOfValue = records.size() == 0;
+            if (lastOfValue) {
                 recordMap.remove(attribute);
             }
+            statistics.onEntryRemoved(attribute, lastOfValue);
         }
     }
 
@@ -80,6 +91,7 @@ public class SortedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            statistics.clear();
         } finally {
             releaseWriteLock();
         }
@@ -101,6 +113,33 @@ public class SortedIndexStore extends BaseIndexStore {
         }
     }
 
+    /**
+     * Returns the records whose attribute values lie in the given range.
+     *
+     * @param from          lower bound of the range
+     * @param fromInclusive {@code true} if the lower bound is part of the range
+     * @param to            upper bound of the range
+     * @param toInclusive   {@code true} if the upper bound is part of the range
+     * @return records in the range
+     */
+    public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            MultiResultSet results = createMultiResultSet();
+            if (from.compareTo(to) > 0) {
+                return results;
+            }
+            SortedMap<Comparable, ConcurrentMap<Data, QueryableEntry>> subMap =
+                    recordMap.subMap(from, fromInclusive, to, toInclusive);
+            for (ConcurrentMap<Data, QueryableEntry> value : subMap.values()) {
+                copyToMultiResultSet(results, value);
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
     @Override
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
         takeReadLock();
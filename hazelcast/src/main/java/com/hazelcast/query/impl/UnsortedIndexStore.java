@@ -37,7 +37,9 @@ public class UnsortedIndexStore extends BaseIndexStore {
     @Override
     void newIndexInternal(Comparable newValue, QueryableEntry record) {
         if (newValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.put(record.getKeyData(), record);
+            if (recordsWithNullValue.put(record.getKeyData(), record) == null) {
+                statistics.onEntryAdded(newValue, false);
+            }
         } else {
             mapAttributeToEntry(newValue, record);
         }
@@ -45,17 +47,22 @@ public class UnsortedIndexStore extends BaseIndexStore {
 
     private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
-        if (records == null) {
+        boolean newValue = records == null;
+        if (newValue) {
             records = new ConcurrentHashMap<Data, QueryableEntry>(1, LOAD_FACTOR, 1);
             recordMap.put(attribute, records);
         }
-        records.put(entry.getKeyData(), entry);
+        if (records.put(entry.getKeyData(), entry) == null) {
+            statistics.onEntryAdded(attribute, newValue);
+        }
     }
 
     @Override
     void removeIndexInternal(Comparable oldValue, Data indexKey) {
         if (oldValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.remove(indexKey);
+            if (recordsWithNullValue.remove(indexKey) != null) {
+                statistics.onEntryRemoved(oldValue, false);
+            }
         } else {
             removeMappingForAttribute(oldValue, indexKey);
         }
@@ -64,10 +71,14 @@ public class UnsortedIndexStore extends BaseIndexStore {
     private void removeMappingForAttribute(Object attribute, Data indexKey) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
         if (records != null) {
-            records.remove(indexKey);
-            if (records.size() == 0) {
+            if (records.remove(indexKey) == null) {
+                return;
+            }
+            boolean lastOfValue = records.size() == 0;
+            if (lastOfValue) {
                 recordMap.remove(attribute);
             }
+            statistics.onEntryRemoved((Comparable) attribute, lastOfValue);
         }
     }
 
@@ -77,6 +88,7 @@ public class UnsortedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            statistics.clear();
         } finally {
             releaseWriteLock();
         }
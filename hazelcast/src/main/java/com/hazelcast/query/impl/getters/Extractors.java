@@ -18,6 +18,10 @@ package com.hazelcast.query.impl.getters;
 
 import com.hazelcast.config.MapAttributeConfig;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.CompactSchema;
+import com.hazelcast.internal.serialization.impl.DataSerializableFieldReader;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
@@ -28,6 +32,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_COMPACT;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
 
@@ -39,6 +44,8 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private volatile DataSerializableGetter genericDataSerializableGetter;
+    private volatile CompactGetter genericCompactGetter;
 
     /**
      * Maps the extractorAttributeName WITHOUT the arguments to a ValueExtractor instance.
@@ -58,7 +65,7 @@ public final class Extractors {
     }
 
     public Object extract(InternalSerializationService serializationService, Object target, String attributeName) {
-        Object targetObject = getTargetObject(serializationService, target);
+        Object targetObject = getTargetObject(serializationService, target, attributeName);
         if (targetObject != null) {
             Getter getter = getGetter(serializationService, targetObject, attributeName);
             try {
@@ -71,9 +78,10 @@ public final class Extractors {
     }
 
     /**
-     * @return Data (in this case it's portable) or Object (in this case it's non-portable)
+     * @return Data (in this case it's portable or a described IdentifiedDataSerializable or compact object the
+     * attribute can be read from) or Object (in this case it's non-portable)
      */
-    private static Object getTargetObject(InternalSerializationService serializationService, Object target) {
+    private Object getTargetObject(InternalSerializationService serializationService, Object target, String attributeName) {
         Data targetData;
         if (target instanceof Portable) {
             targetData = serializationService.toData(target);
@@ -82,9 +90,17 @@ public final class Extractors {
             }
         }
 
+        if (target instanceof Compact) {
+            targetData = serializationService.toData(target);
+            if (isReadableFromData(serializationService, targetData, attributeName)) {
+                return targetData;
+            }
+            return target;
+        }
+
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable()) {
+            if (targetData.isPortable() || isReadableFromData(serializationService, targetData, attributeName)) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -95,6 +111,26 @@ public final class Extractors {
         return target;
     }
 
+    /**
+     * Checks if the given attribute of an object can be read from its serialized form without de-serializing it.
+     *
+     * @param serializationService the serialization service
+     * @param data                 the serialized object
+     * @param attributeName        the name of the attribute
+     * @return {@code true} if the attribute is read from the serialized form, {@code false} otherwise
+     */
+    public boolean isReadableFromData(InternalSerializationService serializationService, Data data, String attributeName) {
+        if (extractors.containsKey(attributeName)) {
+            return false;
+        }
+        CompactSchema schema = serializationService.lookupCompactSchema(data);
+        if (schema != null) {
+            return schema.hasField(attributeName);
+        }
+        ClassDefinition classDefinition = serializationService.lookupDataSerializableClassDefinition(data);
+        return classDefinition != null && DataSerializableFieldReader.isReadable(classDefinition, attributeName);
+    }
+
     Getter getGetter(InternalSerializationService serializationService, Object targetObject, String attributeName) {
         Getter getter = getterCache.getGetter(targetObject.getClass(), attributeName);
         if (getter == null) {
@@ -115,6 +151,20 @@ public final class Extractors {
             return new ExtractorGetter(serializationService, valueExtractor, arguments);
         } else {
             if (targetObject instanceof Data) {
+                if (((Data) targetObject).getType() == CONSTANT_TYPE_COMPACT) {
+                    if (genericCompactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        genericCompactGetter = new CompactGetter(serializationService);
+                    }
+                    return genericCompactGetter;
+                }
+                if (!((Data) targetObject).isPortable()) {
+                    if (genericDataSerializableGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        genericDataSerializableGetter = new DataSerializableGetter(serializationService);
+                    }
+                    return genericDataSerializableGetter;
+                }
                 if (genericPortableGetter == null) {
                     // will be initialised a couple of times in the worst case
                     genericPortableGetter = new PortableGetter(serializationService);
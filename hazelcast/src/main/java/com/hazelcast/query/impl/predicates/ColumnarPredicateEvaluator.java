@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.Bitmaps;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.ColumnarProjection.Column;
+import com.hazelcast.query.impl.FalsePredicate;
+import com.hazelcast.query.impl.IndexImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates predicates over the columns of a {@link ColumnarProjection}.
+ * <p>
+ * Equal, not-equal, greater/less, between and in predicates on projected attributes are evaluated
+ * by loops over the primitive column arrays, which produce bitmaps of the matching rows; and, or
+ * and not predicates combine these bitmaps. The given values are converted to the type of the
+ * attribute in the same way the predicates convert them when they are applied to an entry, so
+ * both evaluations match the same entries.
+ * <p>
+ * The evaluation has to be done while holding the read lock of the projection.
+ */
+public final class ColumnarPredicateEvaluator {
+
+    private ColumnarPredicateEvaluator() {
+    }
+
+    /**
+     * Selects the rows of the projection matching the predicate. The children of a top-level
+     * {@link AndPredicate} which can't be evaluated over the projection are returned as the
+     * residual predicate, which has to be applied to the entries of the selected rows.
+     *
+     * @param predicate  the predicate
+     * @param projection the projection
+     * @return the selection or {@code null} if the predicate can't be evaluated over the projection
+     */
+    public static Selection select(Predicate predicate, ColumnarProjection projection) {
+        Predicate unwrapped = unwrap(predicate);
+        if (!(unwrapped instanceof AndPredicate)) {
+            long[] bitmap = evaluate(unwrapped, projection);
+            return bitmap == null ? null : new Selection(bitmap, null);
+        }
+
+        long[] bitmap = null;
+        List<Predicate> residual = new ArrayList<Predicate>();
+        for (Predicate child : ((AndPredicate) unwrapped).predicates) {
+            long[] childBitmap = evaluate(unwrap(child), projection);
+            if (childBitmap == null) {
+                residual.add(child);
+            } else {
+                bitmap = bitmap == null ? childBitmap : Bitmaps.and(bitmap, childBitmap);
+            }
+        }
+        if (bitmap == null) {
+            return null;
+        }
+        Predicate residualPredicate;
+        if (residual.isEmpty()) {
+            residualPredicate = null;
+        } else if (residual.size() == 1) {
+            residualPredicate = residual.get(0);
+        } else {
+            residualPredicate = new AndPredicate(residual.toArray(new Predicate[residual.size()]));
+        }
+        return new Selection(bitmap, residualPredicate);
+    }
+
+    private static Predicate unwrap(Predicate predicate) {
+        if (predicate instanceof SkipIndexPredicate) {
+            return ((SkipIndexPredicate) predicate).getPredicate();
+        }
+        if (predicate instanceof CompositeIndexPredicate) {
+            return new AndPredicate(((CompositeIndexPredicate) predicate).getPredicates());
+        }
+        return predicate;
+    }
+
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    private static long[] evaluate(Predicate predicate, ColumnarProjection projection) {
+        int size = projection.size();
+        if (predicate instanceof TruePredicate) {
+            return Bitmaps.all(size);
+        }
+        if (predicate instanceof FalsePredicate) {
+            return new long[Bitmaps.wordCount(size)];
+        }
+        if (predicate instanceof AndPredicate) {
+            return evaluateAll(((AndPredicate) predicate).predicates, projection, true);
+        }
+        if (predicate instanceof OrPredicate) {
+            return evaluateAll(((OrPredicate) predicate).predicates, projection, false);
+        }
+        if (predicate instanceof NotPredicate) {
+            long[] bitmap = evaluate(unwrap(((NotPredicate) predicate).predicate), projection);
+            return bitmap == null ? null : Bitmaps.not(bitmap, size);
+        }
+        if (!(predicate instanceof AbstractPredicate)) {
+            return null;
+        }
+
+        Column column = projection.getColumn(((AbstractPredicate) predicate).attributeName);
+        if (column == null || !column.isSupported()) {
+            return null;
+        }
+        try {
+            if (predicate instanceof NotEqualPredicate) {
+                long[] bitmap = evaluateEqual(column, ((NotEqualPredicate) predicate).value, size);
+                return bitmap == null ? null : Bitmaps.not(bitmap, size);
+            }
+            if (predicate instanceof EqualPredicate) {
+                return evaluateEqual(column, ((EqualPredicate) predicate).value, size);
+            }
+            if (predicate instanceof GreaterLessPredicate) {
+                GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) predicate;
+                return evaluateGreaterLess(column, greaterLessPredicate.value, greaterLessPredicate.equal,
+                        greaterLessPredicate.less, size);
+            }
+            if (predicate instanceof BetweenPredicate) {
+                BetweenPredicate betweenPredicate = (BetweenPredicate) predicate;
+                return evaluateBetween(column, betweenPredicate.from, betweenPredicate.to, size);
+            }
+            if (predicate instanceof InPredicate) {
+                return evaluateIn(column, ((InPredicate) predicate).values, size);
+            }
+        } catch (RuntimeException e) {
+            // the value can't be converted to the attribute type, the predicate reports it when it is applied
+            return null;
+        }
+        return null;
+    }
+
+    private static long[] evaluateAll(Predicate[] predicates, ColumnarProjection projection, boolean and) {
+        long[] bitmap = null;
+        for (Predicate predicate : predicates) {
+            long[] predicateBitmap = evaluate(unwrap(predicate), projection);
+            if (predicateBitmap == null) {
+                return null;
+            }
+            if (bitmap == null) {
+                bitmap = predicateBitmap;
+            } else if (and) {
+                Bitmaps.and(bitmap, predicateBitmap);
+            } else {
+                Bitmaps.or(bitmap, predicateBitmap);
+            }
+        }
+        return bitmap != null ? bitmap : new long[Bitmaps.wordCount(projection.size())];
+    }
+
+    private static long[] evaluateEqual(Column column, Comparable value, int size) {
+        long[] bitmap = new long[Bitmaps.wordCount(size)];
+        if (value == null || value instanceof IndexImpl.NullObject) {
+            // only null attribute values are equal to null
+            System.arraycopy(column.getNulls(), 0, bitmap, 0, bitmap.length);
+            return bitmap;
+        }
+        if (column.isEmpty()) {
+            return bitmap;
+        }
+        Comparable converted = convert(column, value);
+        if (column.isLongValued()) {
+            long x = Column.toLong(converted);
+            selectLongRange(column.getLongValues(), size, x, x, bitmap);
+        } else {
+            selectDoubleRange(column.getDoubleValues(), size, toDouble(converted), true, toDouble(converted), true, bitmap);
+        }
+        return Bitmaps.andNot(bitmap, column.getNulls());
+    }
+
+    private static long[] evaluateGreaterLess(Column column, Comparable value, boolean equal, boolean less, int size) {
+        if (value == null || value instanceof IndexImpl.NullObject) {
+            return null;
+        }
+        long[] bitmap = new long[Bitmaps.wordCount(size)];
+        if (column.isEmpty()) {
+            return bitmap;
+        }
+        Comparable converted = convert(column, value);
+        if (column.isLongValued()) {
+            long x = Column.toLong(converted);
+            if (less) {
+                if (equal || x != Long.MIN_VALUE) {
+                    selectLongRange(column.getLongValues(), size, Long.MIN_VALUE, equal ? x : x - 1, bitmap);
+                }
+            } else if (equal || x != Long.MAX_VALUE) {
+                selectLongRange(column.getLongValues(), size, equal ? x : x + 1, Long.MAX_VALUE, bitmap);
+            }
+        } else {
+            double x = toDouble(converted);
+            if (less) {
+                selectDoubleRange(column.getDoubleValues(), size, Double.NEGATIVE_INFINITY, true, x, equal, bitmap);
+            } else {
+                selectDoubleRange(column.getDoubleValues(), size, x, equal, Double.NaN, true, bitmap);
+            }
+        }
+        return Bitmaps.andNot(bitmap, column.getNulls());
+    }
+
+    private static long[] evaluateBetween(Column column, Comparable from, Comparable to, int size) {
+        long[] bitmap = new long[Bitmaps.wordCount(size)];
+        if (column.isEmpty() || from == null || to == null) {
+            return bitmap;
+        }
+        if (from instanceof IndexImpl.NullObject || to instanceof IndexImpl.NullObject) {
+            return null;
+        }
+        Comparable convertedFrom = convert(column, from);
+        Comparable convertedTo = convert(column, to);
+        if (column.isLongValued()) {
+            selectLongRange(column.getLongValues(), size, Column.toLong(convertedFrom), Column.toLong(convertedTo), bitmap);
+        } else {
+            selectDoubleRange(column.getDoubleValues(), size, toDouble(convertedFrom), true, toDouble(convertedTo), true,
+                    bitmap);
+        }
+        return Bitmaps.andNot(bitmap, column.getNulls());
+    }
+
+    private static long[] evaluateIn(Column column, Comparable[] values, int size) {
+        long[] bitmap = new long[Bitmaps.wordCount(size)];
+        if (column.isEmpty()) {
+            return bitmap;
+        }
+        // doubles are compared by their bits, as Double.equals() does
+        long[] sortedValues = new long[values.length];
+        int count = 0;
+        for (Comparable value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof IndexImpl.NullObject) {
+                return null;
+            }
+            Comparable converted = convert(column, value);
+            sortedValues[count++] = column.isLongValued()
+                    ? Column.toLong(converted) : Double.doubleToLongBits(toDouble(converted));
+        }
+        Arrays.sort(sortedValues, 0, count);
+
+        if (column.isLongValued()) {
+            long[] columnValues = column.getLongValues();
+            for (int row = 0; row < size; row++) {
+                if (Arrays.binarySearch(sortedValues, 0, count, columnValues[row]) >= 0) {
+                    bitmap[row >>> Bitmaps.WORD_SHIFT] |= 1L << row;
+                }
+            }
+        } else {
+            double[] columnValues = column.getDoubleValues();
+            for (int row = 0; row < size; row++) {
+                if (Arrays.binarySearch(sortedValues, 0, count, Double.doubleToLongBits(columnValues[row])) >= 0) {
+                    bitmap[row >>> Bitmaps.WORD_SHIFT] |= 1L << row;
+                }
+            }
+        }
+        return Bitmaps.andNot(bitmap, column.getNulls());
+    }
+
+    /**
+     * Selects the rows whose values lie in the inclusive range.
+     */
+    private static void selectLongRange(long[] values, int size, long from, long to, long[] bitmap) {
+        for (int row = 0; row < size; row++) {
+            long value = values[row];
+            long match = from <= value && value <= to ? 1L : 0L;
+            bitmap[row >>> Bitmaps.WORD_SHIFT] |= match << row;
+        }
+    }
+
+    /**
+     * Selects the rows whose values lie in the range. The values are compared by {@link Double#compare},
+     * like {@link Double#compareTo} does; a {@code NaN} upper bound stands for an unbounded range.
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    private static void selectDoubleRange(double[] values, int size, double from, boolean fromInclusive,
+                                          double to, boolean toInclusive, long[] bitmap) {
+        boolean unboundedTo = Double.isNaN(to) && toInclusive && !Double.isNaN(from);
+        for (int row = 0; row < size; row++) {
+            double value = values[row];
+            int fromOrder = Double.compare(value, from);
+            int toOrder = unboundedTo ? -1 : Double.compare(value, to);
+            boolean match = (fromInclusive ? fromOrder >= 0 : fromOrder > 0) && (toInclusive ? toOrder <= 0 : toOrder < 0);
+            if (match) {
+                bitmap[row >>> Bitmaps.WORD_SHIFT] |= 1L << row;
+            }
+        }
+    }
+
+    private static Comparable convert(Column column, Comparable value) {
+        if (column.getValueClass().isAssignableFrom(value.getClass())) {
+            return value;
+        }
+        return column.getAttributeType().getConverter().convert(value);
+    }
+
+    private static double toDouble(Comparable value) {
+        return ((Number) value).doubleValue();
+    }
+
+    /**
+     * Rows of a {@link ColumnarProjection} selected by a predicate.
+     */
+    public static final class Selection {
+
+        private final long[] bitmap;
+        private final Predicate residualPredicate;
+
+        Selection(long[] bitmap, Predicate residualPredicate) {
+            this.bitmap = bitmap;
+            this.residualPredicate = residualPredicate;
+        }
+
+        /**
+         * @return bitmap of the selected rows
+         */
+        public long[] getBitmap() {
+            return bitmap;
+        }
+
+        /**
+         * @return the part of the predicate which still has to be applied to the entries of the
+         * selected rows, or {@code null} if the selected rows match the whole predicate
+         */
+        public Predicate getResidualPredicate() {
+            return residualPredicate;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeIndexImpl;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunction of predicates over the attributes of a {@link CompositeIndexImpl}, answered by a
+ * single lookup in that index. It is created by {@link CompositeIndexVisitor} during query
+ * optimization and is never sent over the wire.
+ * <p>
+ * The leading attributes of the index are matched by equality, the next one may be matched by
+ * a range. When the index is not available the predicate is evaluated as the conjunction of
+ * the predicates it replaced.
+ */
+@SuppressWarnings("checkstyle:parameternumber")
+public final class CompositeIndexPredicate implements IndexAwarePredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String indexName;
+    private final Comparable[] equalValues;
+    private final Comparable from;
+    private final boolean fromInclusive;
+    private final Comparable to;
+    private final boolean toInclusive;
+    private final Predicate[] predicates;
+
+    CompositeIndexPredicate(String indexName, Comparable[] equalValues, Comparable from, boolean fromInclusive,
+                            Comparable to, boolean toInclusive, Predicate[] predicates) {
+        this.indexName = indexName;
+        this.equalValues = equalValues;
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+        this.predicates = predicates;
+    }
+
+    String getIndexName() {
+        return indexName;
+    }
+
+    int getEqualValueCount() {
+        return equalValues.length;
+    }
+
+    Predicate[] getPredicates() {
+        return predicates;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        CompositeIndexImpl index = (CompositeIndexImpl) queryContext.getIndex(indexName);
+        return index.getRecords(equalValues, from, fromInclusive, to, toInclusive);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        return index instanceof CompositeIndexImpl;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("COMPOSITE[").append(indexName).append("](");
+        for (int i = 0; i < predicates.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(predicates[i]);
+        }
+        return sb.append(')').toString();
+    }
+}
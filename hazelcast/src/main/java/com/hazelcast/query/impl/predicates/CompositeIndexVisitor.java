@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeIndexImpl;
+import com.hazelcast.query.impl.Indexes;
+
+/**
+ * Replaces predicates of an AND over the attributes of a composite index with a single
+ * {@link CompositeIndexPredicate}.
+ *
+ * Imagine an ordered composite index on (a, b). The predicate (a = X and b between Y Z and c = W)
+ * is rewritten as (composite[a,b](a = X and b between Y Z) and c = W), so the matching entries
+ * are found by one index lookup instead of intersecting the results of two single-attribute
+ * index lookups.
+ *
+ * An index matches when equality predicates cover a prefix of its attributes and, for ordered
+ * indexes, the next attribute is optionally restricted by a between or greater/less predicate.
+ * Unordered indexes need equality predicates on all of their attributes. At least two attributes
+ * have to be covered; when several indexes match, the one covering most attributes wins.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    private static final int MINIMUM_NUMBER_OF_COVERED_ATTRIBUTES = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        CompositeIndexImpl[] compositeIndexes = indexes.getCompositeIndexes();
+        if (compositeIndexes.length == 0) {
+            return andPredicate;
+        }
+
+        Predicate[] originalPredicates = andPredicate.predicates;
+        Match bestMatch = null;
+        for (CompositeIndexImpl index : compositeIndexes) {
+            if (index.getConverter() == null) {
+                continue;
+            }
+            Match match = match(index, originalPredicates);
+            if (match != null && (bestMatch == null || match.covered > bestMatch.covered)) {
+                bestMatch = match;
+            }
+        }
+        if (bestMatch == null) {
+            return andPredicate;
+        }
+
+        int newLength = originalPredicates.length - bestMatch.replaced.length + 1;
+        if (newLength == 1) {
+            return bestMatch.createPredicate();
+        }
+        Predicate[] newPredicates = new Predicate[newLength];
+        newPredicates[0] = bestMatch.createPredicate();
+        int i = 1;
+        for (Predicate predicate : originalPredicates) {
+            if (!bestMatch.replaces(predicate)) {
+                newPredicates[i++] = predicate;
+            }
+        }
+        return new AndPredicate(newPredicates);
+    }
+
+    private static Match match(CompositeIndexImpl index, Predicate[] predicates) {
+        String[] attributeNames = index.getAttributeNames();
+        Predicate[] matched = new Predicate[attributeNames.length];
+        int equalCount = 0;
+        while (equalCount < attributeNames.length) {
+            EqualPredicate equalPredicate = findEqualPredicate(attributeNames[equalCount], predicates);
+            if (equalPredicate == null) {
+                break;
+            }
+            matched[equalCount++] = equalPredicate;
+        }
+
+        int covered = equalCount;
+        if (equalCount < attributeNames.length) {
+            if (!index.isOrdered()) {
+                return null;
+            }
+            Predicate rangePredicate = findRangePredicate(attributeNames[equalCount], predicates);
+            if (rangePredicate != null) {
+                matched[covered++] = rangePredicate;
+            }
+        }
+        if (covered < MINIMUM_NUMBER_OF_COVERED_ATTRIBUTES) {
+            return null;
+        }
+
+        Predicate[] replaced = new Predicate[covered];
+        System.arraycopy(matched, 0, replaced, 0, covered);
+        return new Match(index.getAttributeName(), equalCount, replaced);
+    }
+
+    private static EqualPredicate findEqualPredicate(String attributeName, Predicate[] predicates) {
+        for (Predicate predicate : predicates) {
+            // NotEqualPredicate is a subclass of EqualPredicate, so the exact class is checked
+            if (predicate.getClass() == EqualPredicate.class
+                    && attributeName.equals(((EqualPredicate) predicate).attributeName)) {
+                return (EqualPredicate) predicate;
+            }
+        }
+        return null;
+    }
+
+    private static Predicate findRangePredicate(String attributeName, Predicate[] predicates) {
+        for (Predicate predicate : predicates) {
+            if (predicate instanceof BetweenPredicate) {
+                BetweenPredicate betweenPredicate = (BetweenPredicate) predicate;
+                if (attributeName.equals(betweenPredicate.attributeName)
+                        && betweenPredicate.from != null && betweenPredicate.to != null) {
+                    return betweenPredicate;
+                }
+            } else if (predicate instanceof GreaterLessPredicate) {
+                GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) predicate;
+                if (attributeName.equals(greaterLessPredicate.attributeName) && greaterLessPredicate.value != null) {
+                    return greaterLessPredicate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Predicates of an AND matched to the attributes of a composite index: equality predicates
+     * on the leading attributes, optionally followed by a range predicate.
+     */
+    private static final class Match {
+
+        private final String indexName;
+        private final int equalCount;
+        private final Predicate[] replaced;
+        private final int covered;
+
+        Match(String indexName, int equalCount, Predicate[] replaced) {
+            this.indexName = indexName;
+            this.equalCount = equalCount;
+            this.replaced = replaced;
+            this.covered = replaced.length;
+        }
+
+        boolean replaces(Predicate predicate) {
+            for (Predicate replacedPredicate : replaced) {
+                if (replacedPredicate == predicate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        CompositeIndexPredicate createPredicate() {
+            Comparable[] equalValues = new Comparable[equalCount];
+            for (int i = 0; i < equalCount; i++) {
+                equalValues[i] = ((EqualPredicate) replaced[i]).value;
+            }
+
+            Comparable from = null;
+            boolean fromInclusive = false;
+            Comparable to = null;
+            boolean toInclusive = false;
+            if (covered > equalCount) {
+                Predicate rangePredicate = replaced[equalCount];
+                if (rangePredicate instanceof BetweenPredicate) {
+                    BetweenPredicate betweenPredicate = (BetweenPredicate) rangePredicate;
+                    from = betweenPredicate.from;
+                    fromInclusive = true;
+                    to = betweenPredicate.to;
+                    toInclusive = true;
+                } else {
+                    GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) rangePredicate;
+                    if (greaterLessPredicate.less) {
+                        to = greaterLessPredicate.value;
+                        toInclusive = greaterLessPredicate.equal;
+                    } else {
+                        from = greaterLessPredicate.value;
+                        fromInclusive = greaterLessPredicate.equal;
+                    }
+                }
+            }
+            return new CompositeIndexPredicate(indexName, equalValues, from, fromInclusive, to, toInclusive, replaced);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeIndexImpl;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cost based optimizer. It applies the rewrites of the {@link RuleBasedQueryOptimizer} and then
+ * uses the {@link IndexStatistics} of the map indexes to estimate the selectivity of the indexed
+ * predicates, i.e. the fraction of the entries they match.
+ * <p>
+ * For an {@link AndPredicate} the most selective indexed predicate drives the query. Other indexed
+ * predicates are only looked up in their index if they are about as selective; otherwise they are
+ * evaluated on the candidates found by the driving index, which is cheaper than materializing
+ * a large index result just to intersect it. The predicates are ordered by their selectivity, so
+ * the most selective ones are evaluated first.
+ * <p>
+ * When even the driving index is expected to match a large part of the map, the whole query is
+ * executed as a partition scan instead of an index lookup.
+ * <p>
+ * Predicates whose selectivity can't be estimated are left untouched and still use their indexes.
+ */
+public final class CostBasedQueryOptimizer implements QueryOptimizer {
+
+    /**
+     * Selectivity above which a partition scan is expected to be cheaper than an index lookup.
+     */
+    static final double FULL_SCAN_SELECTIVITY = 0.5;
+
+    /**
+     * How many times more entries than the driving index an indexed predicate of an AND may match
+     * and still be answered by its index rather than evaluated on the candidates.
+     */
+    static final double INDEX_INTERSECTION_RATIO = 10;
+
+    private static final double UNKNOWN = Double.NaN;
+
+    private final QueryOptimizer ruleBasedOptimizer = new RuleBasedQueryOptimizer();
+
+    @Override
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
+        Predicate optimized = ruleBasedOptimizer.optimize(predicate, indexes);
+        if (!indexes.hasIndex()) {
+            return optimized;
+        }
+
+        QueryContext queryContext = new QueryContext(indexes);
+        if (optimized instanceof AndPredicate) {
+            optimized = optimizeAnd((AndPredicate) optimized, queryContext);
+        }
+        if (estimateIndexSelectivity(optimized, queryContext) > FULL_SCAN_SELECTIVITY) {
+            return new SkipIndexPredicate(optimized);
+        }
+        return optimized;
+    }
+
+    private Predicate optimizeAnd(AndPredicate andPredicate, QueryContext queryContext) {
+        Predicate[] predicates = andPredicate.predicates;
+        List<EstimatedPredicate> estimated = new ArrayList<EstimatedPredicate>(predicates.length);
+        List<Predicate> others = new ArrayList<Predicate>(predicates.length);
+        for (Predicate predicate : predicates) {
+            double selectivity = estimateIndexSelectivity(predicate, queryContext);
+            if (Double.isNaN(selectivity)) {
+                others.add(predicate);
+            } else {
+                estimated.add(new EstimatedPredicate(predicate, selectivity));
+            }
+        }
+        if (estimated.size() < 2) {
+            return andPredicate;
+        }
+
+        EstimatedPredicate[] sorted = estimated.toArray(new EstimatedPredicate[estimated.size()]);
+        Arrays.sort(sorted, EstimatedPredicate.BY_SELECTIVITY);
+        double maxIndexedSelectivity = sorted[0].selectivity * INDEX_INTERSECTION_RATIO;
+        Predicate[] result = new Predicate[predicates.length];
+        result[0] = sorted[0].predicate;
+        int i = 1;
+        for (int j = 1; j < sorted.length; j++) {
+            EstimatedPredicate estimatedPredicate = sorted[j];
+            result[i++] = estimatedPredicate.selectivity <= maxIndexedSelectivity
+                    ? estimatedPredicate.predicate
+                    : new SkipIndexPredicate(estimatedPredicate.predicate);
+        }
+        for (Predicate predicate : others) {
+            result[i++] = predicate;
+        }
+        return new AndPredicate(result);
+    }
+
+    /**
+     * Estimates the fraction of the entries which an index lookup of the predicate returns.
+     *
+     * @return the selectivity or {@link #UNKNOWN} if the predicate is not answered by an index or
+     * if its selectivity can't be estimated
+     */
+    private double estimateIndexSelectivity(Predicate predicate, QueryContext queryContext) {
+        if (!(predicate instanceof IndexAwarePredicate) || !((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+            return UNKNOWN;
+        }
+        if (predicate instanceof AndPredicate) {
+            return estimateAndSelectivity((AndPredicate) predicate, queryContext);
+        }
+        if (predicate instanceof OrPredicate) {
+            return estimateOrSelectivity((OrPredicate) predicate, queryContext);
+        }
+        if (predicate instanceof CompositeIndexPredicate) {
+            return estimateCompositeSelectivity((CompositeIndexPredicate) predicate, queryContext);
+        }
+        if (predicate instanceof AbstractPredicate) {
+            return estimateAttributeSelectivity((AbstractPredicate) predicate, queryContext);
+        }
+        return UNKNOWN;
+    }
+
+    private double estimateAndSelectivity(AndPredicate andPredicate, QueryContext queryContext) {
+        // the smallest indexed result drives the query, unless some indexed result can't be estimated
+        double selectivity = UNKNOWN;
+        for (Predicate predicate : andPredicate.predicates) {
+            if (predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+                double predicateSelectivity = estimateIndexSelectivity(predicate, queryContext);
+                if (Double.isNaN(predicateSelectivity)) {
+                    return UNKNOWN;
+                }
+                selectivity = Double.isNaN(selectivity) ? predicateSelectivity : Math.min(selectivity, predicateSelectivity);
+            }
+        }
+        return selectivity;
+    }
+
+    private double estimateOrSelectivity(OrPredicate orPredicate, QueryContext queryContext) {
+        double selectivity = 0;
+        for (Predicate predicate : orPredicate.predicates) {
+            double predicateSelectivity = estimateIndexSelectivity(predicate, queryContext);
+            if (Double.isNaN(predicateSelectivity)) {
+                return UNKNOWN;
+            }
+            selectivity += predicateSelectivity;
+        }
+        return Math.min(1.0, selectivity);
+    }
+
+    private double estimateCompositeSelectivity(CompositeIndexPredicate predicate, QueryContext queryContext) {
+        Index index = queryContext.getIndex(predicate.getIndexName());
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return 0;
+        }
+        if (predicate.getEqualValueCount() == ((CompositeIndexImpl) index).getAttributeNames().length) {
+            return statistics.estimateEqualSelectivity();
+        }
+        // statistics are kept for the whole tuple, lookups by a prefix can't be estimated
+        return UNKNOWN;
+    }
+
+    private double estimateAttributeSelectivity(AbstractPredicate predicate, QueryContext queryContext) {
+        Index index = queryContext.getIndex(predicate.attributeName);
+        if (index == null) {
+            return UNKNOWN;
+        }
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return 0;
+        }
+        TypeConverter converter = index.getConverter();
+        if (predicate instanceof EqualPredicate) {
+            return statistics.estimateEqualSelectivity();
+        }
+        if (predicate instanceof InPredicate) {
+            return Math.min(1.0, ((InPredicate) predicate).values.length * statistics.estimateEqualSelectivity());
+        }
+        if (predicate instanceof GreaterLessPredicate) {
+            GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) predicate;
+            Comparable value = convert(converter, greaterLessPredicate.value);
+            return greaterLessPredicate.less
+                    ? statistics.estimateRangeSelectivity(null, value)
+                    : statistics.estimateRangeSelectivity(value, null);
+        }
+        if (predicate instanceof BetweenPredicate) {
+            BetweenPredicate betweenPredicate = (BetweenPredicate) predicate;
+            return statistics.estimateRangeSelectivity(convert(converter, betweenPredicate.from),
+                    convert(converter, betweenPredicate.to));
+        }
+        return UNKNOWN;
+    }
+
+    private static Comparable convert(TypeConverter converter, Comparable value) {
+        return converter == null || value == null ? value : converter.convert(value);
+    }
+
+    /**
+     * An indexed predicate with its estimated selectivity.
+     */
+    private static final class EstimatedPredicate {
+
+        static final Comparator<EstimatedPredicate> BY_SELECTIVITY = new Comparator<EstimatedPredicate>() {
+            @Override
+            public int compare(EstimatedPredicate o1, EstimatedPredicate o2) {
+                return Double.compare(o1.selectivity, o2.selectivity);
+            }
+        };
+
+        final Predicate predicate;
+        final double selectivity;
+
+        EstimatedPredicate(Predicate predicate, double selectivity) {
+            this.predicate = predicate;
+            this.selectivity = selectivity;
+        }
+    }
+}
@@ -79,6 +79,17 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * The name of the executor that loads the key streams of a {@link com.hazelcast.core.ParallelMapLoader}
+     */
+    String MAP_LOAD_KEY_STREAMS_EXECUTOR = "hz:map-loadKeyStreams";
+
+    /**
+     * The name of the executor that runs the write-behind store workers of the maps. Its pool size bounds the number
+     * of write-behind {@link com.hazelcast.core.MapStore} calls running in parallel.
+     */
+    String MAP_WRITE_BEHIND_EXECUTOR = "hz:map-writeBehind";
+
     ManagedExecutorService register(String name, int poolSize, int queueCapacity, ExecutorType type);
 
     ManagedExecutorService getExecutor(String name);
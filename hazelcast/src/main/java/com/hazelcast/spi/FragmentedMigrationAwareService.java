@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi;
+
+import java.util.Iterator;
+
+/**
+ * A {@link MigrationAwareService} which can replicate the data of a partition replica in fragments, so a migration
+ * doesn't have to build and send a single operation holding all the data of the partition.
+ * <p>
+ * When fragmented migrations are enabled, see
+ * {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_FRAGMENTED_MIGRATION_ENABLED}, the operations returned by
+ * {@link #prepareReplicationOperations(PartitionReplicationEvent, int)} are sent to the destination one by one. The next
+ * operation is only built after the previous one has been run on the destination, and the migration is committed after
+ * the last one has been run. If one of them fails, the migration is rolled back just like a failed
+ * {@link #prepareReplicationOperation(PartitionReplicationEvent) replication operation}.
+ * <p>
+ * The replica synchronization of a backup replica uses the same operations. In contrast to a migration, the partition
+ * keeps serving operations between the fragments of a replica synchronization and the changes made meanwhile reach the
+ * backup replica by backup operations. So every operation has to replicate the current state of its fragment at the
+ * time it is built, and data which exists during the whole replication must not be skipped.
+ * <p>
+ * {@link #prepareReplicationOperation(PartitionReplicationEvent)} is still used when fragmented migrations are disabled.
+ */
+public interface FragmentedMigrationAwareService extends MigrationAwareService {
+
+    /**
+     * Returns the operations to replicate service data and/or state for a specific partition replica on another
+     * cluster member, each of which replicates a fragment of about the given size.
+     * <p>
+     * The iterator is only advanced by the partition thread of the partition. The operations are run on the destination
+     * in the order of the iterator.
+     *
+     * @param event        the replication event
+     * @param fragmentSize the approximate size in bytes of the data replicated by a single operation
+     * @return the replication operations, which may be built lazily while the iterator is advanced
+     */
+    Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, int fragmentSize);
+}
@@ -16,18 +16,21 @@
 
 package com.hazelcast.spi.impl;
 
+import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link MigrationAwareService} that delegates to another {@link MigrationAwareService} and keeps track of the number of
  * migrations concerning the partition owner (either as current or new replica index) currently in-flight.
  */
-public class CountingMigrationAwareService implements MigrationAwareService {
+public class CountingMigrationAwareService implements FragmentedMigrationAwareService {
 
     static final int PRIMARY_REPLICA_INDEX = 0;
     static final int IN_FLIGHT_MIGRATION_STAMP = -1;
@@ -49,6 +52,15 @@ public class CountingMigrationAwareService implements MigrationAwareService {
         return migrationAwareService.prepareReplicationOperation(event);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, int fragmentSize) {
+        if (migrationAwareService instanceof FragmentedMigrationAwareService) {
+            return ((FragmentedMigrationAwareService) migrationAwareService).prepareReplicationOperations(event, fragmentSize);
+        }
+        Operation operation = migrationAwareService.prepareReplicationOperation(event);
+        return operation != null ? Collections.singleton(operation).iterator() : Collections.<Operation>emptyList().iterator();
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         if (isPrimaryReplicaMigrationEvent(event)) {
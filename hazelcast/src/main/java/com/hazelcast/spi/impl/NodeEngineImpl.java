@@ -55,6 +55,7 @@ import com.hazelcast.logging.LoggingService;
 import com.hazelcast.logging.LoggingServiceImpl;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.quorum.impl.QuorumServiceImpl;
 import com.hazelcast.spi.NodeEngine;
@@ -222,6 +223,10 @@ public class NodeEngineImpl implements NodeEngine {
         return packetDispatcher;
     }
 
+    public PacketPayloadPool getPacketPayloadPool() {
+        return operationService.getPacketPayloadPool();
+    }
+
     public void start() {
         RuntimeMetricSet.register(metricsRegistry);
         GarbageCollectionMetricSet.register(metricsRegistry);
@@ -230,7 +235,7 @@ public class NodeEngineImpl implements NodeEngine {
         ClassLoadingMetricSet.register(metricsRegistry);
         FileMetricSet.register(metricsRegistry);
 
-        metricsRegistry.collectMetrics(operationService, proxyService, eventService, operationParker);
+        metricsRegistry.collectMetrics(operationService, proxyService, eventService, operationParker, serializationService);
 
         serviceManager.start();
         proxyService.init();
@@ -90,4 +90,25 @@ public final class DefaultOperationQueue implements OperationQueue {
             return normalItem;
         }
     }
+
+    @Override
+    public Object poll(boolean priorityOnly) {
+        if (priorityOnly) {
+            return priorityQueue.poll();
+        }
+
+        for (; ; ) {
+            Object priorityItem = priorityQueue.poll();
+            if (priorityItem != null) {
+                return priorityItem;
+            }
+
+            Object normalItem = normalQueue.poll();
+            if (normalItem == TRIGGER_TASK) {
+                continue;
+            }
+
+            return normalItem;
+        }
+    }
 }
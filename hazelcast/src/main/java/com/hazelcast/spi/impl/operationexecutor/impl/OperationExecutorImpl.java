@@ -42,9 +42,13 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.spi.impl.operationservice.impl.AsyncInboundResponseHandler.getIdleStrategy;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_BATCH_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_IDLE_STRATEGY;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -70,6 +74,11 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * </li>
  *
  * </ol>
+ *
+ * By default a partition is always processed by the same partition operation thread. If a rebalance interval is
+ * configured using {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS},
+ * partitions are moved from overloaded partition threads to less busy ones; see {@link PartitionThreadBalancer}. Operations
+ * for the same partition are still processed in order and by a single thread at any time.
  */
 @SuppressWarnings("checkstyle:methodcount")
 public final class OperationExecutorImpl implements OperationExecutor, MetricsProvider {
@@ -81,6 +90,8 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null if partitions are not rebalanced between the partition threads
+    private final PartitionThreadBalancer balancer;
 
     private final OperationQueue genericQueue
             = new DefaultOperationQueue(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>());
@@ -106,6 +117,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         this.partitionThreads = initPartitionThreads(properties, threadGroup, nodeExtension);
+        this.balancer = initBalancer(properties, threadGroup);
 
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
@@ -147,15 +159,19 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             threadCount = Math.max(2, coreSize);
         }
 
+        int batchSize = properties.getInteger(PARTITION_OPERATION_THREAD_BATCH_SIZE);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = threadGroup.getThreadPoolNamePrefix("partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(null);
+            // by default the normalQueue will be a blocking queue. We don't want to idle, because there are many operation
+            // threads. If there is a core per partition thread, spinning reduces the latency of waking up the thread.
+            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(
+                    getIdleStrategy(properties, PARTITION_OPERATION_THREAD_IDLE_STRATEGY));
             OperationQueue operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
 
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
                     threadGroup, nodeExtension, partitionOperationRunners);
+            partitionThread.batchSize = Math.max(1, batchSize);
 
             threads[threadId] = partitionThread;
             normalQueue.setConsumerThread(partitionThread);
@@ -176,6 +192,20 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return partitionId % partitionThreadCount;
     }
 
+    private PartitionThreadBalancer initBalancer(HazelcastProperties properties, HazelcastThreadGroup threadGroup) {
+        long intervalMillis = properties.getMillis(PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS);
+        if (intervalMillis <= 0 || partitionThreads.length == 1) {
+            return null;
+        }
+
+        PartitionThreadBalancer balancer = new PartitionThreadBalancer(threadGroup, partitionThreads,
+                partitionOperationRunners, intervalMillis, logger);
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            partitionThread.setBalancer(balancer);
+        }
+        return balancer;
+    }
+
     private GenericOperationThread[] initGenericThreads(HazelcastThreadGroup threadGroup, NodeExtension nodeExtension) {
         // we created as many generic operation handlers, as there are generic threads
         int threadCount = genericOperationRunners.length;
@@ -322,7 +352,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     @Override
     public int getPartitionThreadId(int partitionId) {
-        return getPartitionThreadId(partitionId, partitionThreads.length);
+        return toPartitionThreadIndex(partitionId);
     }
 
     @Override
@@ -347,6 +377,8 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     private void execute(Object task, int partitionId, boolean priority) {
         if (partitionId < 0) {
             genericQueue.add(task, priority);
+        } else if (balancer != null) {
+            balancer.execute(task, partitionId, priority);
         } else {
             OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
             partitionThread.queue.add(task, priority);
@@ -438,7 +470,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
         // so it's a partition operation thread, now we need to make sure that this operation thread is allowed
         // to execute operations for this particular partitionId
-        return toPartitionThreadIndex(partitionId) == partitionThread.threadId;
+        return isPartitionThreadOf(partitionThread, partitionId);
     }
 
     @Override
@@ -475,11 +507,22 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             return runner.getPartitionId() == op.getPartitionId();
         }
 
-        return toPartitionThreadIndex(op.getPartitionId()) == partitionThread.threadId;
+        return isPartitionThreadOf(partitionThread, op.getPartitionId());
+    }
+
+    private boolean isPartitionThreadOf(PartitionOperationThread partitionThread, int partitionId) {
+        if (balancer != null) {
+            // the runner knows which thread currently owns the partition, also while it is handed over
+            return partitionOperationRunners[partitionId].currentThread() == partitionThread;
+        }
+        return toPartitionThreadIndex(partitionId) == partitionThread.threadId;
     }
 
     // public for testing purposes
     public int toPartitionThreadIndex(int partitionId) {
+        if (balancer != null) {
+            return balancer.threadIndex(partitionId);
+        }
         return partitionId % partitionThreads.length;
     }
 
@@ -487,6 +530,10 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public void start() {
         logger.info("Starting " + partitionThreads.length + " partition threads");
         startAll(partitionThreads);
+        if (balancer != null) {
+            logger.info("Rebalancing partitions between partition threads");
+            balancer.start();
+        }
 
         logger.info("Starting " + genericThreads.length + " generic threads ("
                 + priorityThreadCount + " dedicated for priority tasks)");
@@ -501,6 +548,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
 
     @Override
     public void shutdown() {
+        if (balancer != null) {
+            balancer.shutdown();
+        }
         shutdownAll(partitionThreads);
         shutdownAll(genericThreads);
         awaitTermination(partitionThreads);
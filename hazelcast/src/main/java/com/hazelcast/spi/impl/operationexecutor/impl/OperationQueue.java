@@ -53,6 +53,16 @@ public interface OperationQueue {
      */
     Object take(boolean priorityOnly) throws InterruptedException;
 
+    /**
+     * Takes an item from this queue if one is available. Just like {@link #take(boolean)} priority items are taken first.
+     * <p/>
+     * This method should always be called by the same thread.
+     *
+     * @param priorityOnly true if only priority items should be taken.
+     * @return the taken item or null if there is no item available.
+     */
+    Object poll(boolean priorityOnly);
+
     /**
      * returns the number of normal operations pending.
      * <p/>
@@ -50,6 +50,8 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     // This field wil only be accessed by the thread itself when doing 'self' calls. So no need
     // for any form of synchronization.
     OperationRunner currentRunner;
+    // the maximum number of tasks processed back to back after a wake-up; only set before the thread is started
+    int batchSize = 1;
 
     // All these counters are updated by this OperationThread (so a single writer) and are read by the MetricsRegistry.
     @Probe
@@ -68,6 +70,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     private final boolean priority;
     private final NodeExtension nodeExtension;
     private final ILogger logger;
+    private final ResponseBatch responseBatch;
     private volatile boolean shutdown;
 
     public OperationThread(String name, int threadId, OperationQueue queue, ILogger logger, HazelcastThreadGroup threadGroup,
@@ -78,6 +81,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         this.threadId = threadId;
         this.logger = logger;
         this.nodeExtension = nodeExtension;
+        this.responseBatch = new ResponseBatch(logger);
         this.priority = priority;
     }
 
@@ -87,6 +91,14 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner getOperationRunner(int partitionId);
 
+    /**
+     * Returns the batch collecting the responses sent by the tasks this thread is processing. Responses are only
+     * collected while more than a single task is processed back to back.
+     */
+    public final ResponseBatch getResponseBatch() {
+        return responseBatch;
+    }
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
@@ -99,7 +111,12 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                     continue;
                 }
 
-                process(task);
+                Object nextTask = batchSize > 1 ? queue.poll(priority) : null;
+                if (nextTask == null) {
+                    process(task);
+                } else {
+                    processBatch(task, nextTask);
+                }
             }
         } catch (Throwable t) {
             inspectOutOfMemoryError(t);
@@ -109,7 +126,31 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
-    private void process(Object task) {
+    /**
+     * Processes the given tasks and the tasks that are available in the queue without blocking, up to the batch size.
+     * Responses of the batch are written once all its tasks have been processed.
+     */
+    private void processBatch(Object firstTask, Object secondTask) {
+        responseBatch.open();
+        try {
+            process(firstTask);
+            Object task = secondTask;
+            for (int count = 2; ; count++) {
+                process(task);
+                if (count == batchSize) {
+                    break;
+                }
+                task = queue.poll(priority);
+                if (task == null) {
+                    break;
+                }
+            }
+        } finally {
+            responseBatch.flush();
+        }
+    }
+
+    void process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
                 Packet packet = (Packet) task;
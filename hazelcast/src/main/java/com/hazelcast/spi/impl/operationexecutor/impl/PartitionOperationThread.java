@@ -20,15 +20,28 @@ import com.hazelcast.instance.HazelcastThreadGroup;
 import com.hazelcast.instance.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * An {@link OperationThread} that executes Operations for a particular partition, e.g. a map.get operation.
  */
 public final class PartitionOperationThread extends OperationThread {
 
     private final OperationRunner[] partitionOperationRunners;
+    // tasks of partitions which are handed over to this thread, but not yet released by their previous thread.
+    // Only accessed by this thread.
+    private final Map<Integer, List<Object>> deferredTasks = new HashMap<Integer, List<Object>>();
+    // only set if partitions can move between threads; it is set before the thread is started
+    private PartitionThreadBalancer balancer;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name, int threadId,
@@ -48,6 +61,64 @@ public final class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    void setBalancer(PartitionThreadBalancer balancer) {
+        this.balancer = balancer;
+    }
+
+    @Override
+    void process(Object task) {
+        if (balancer == null) {
+            super.process(task);
+            return;
+        }
+
+        int partitionId = getPartitionId(task);
+        if (partitionId < 0) {
+            super.process(task);
+            return;
+        }
+
+        List<Object> deferred = deferredTasks.get(partitionId);
+        if (deferred != null || partitionOperationRunners[partitionId].currentThread() != this) {
+            // the partition was moved to this thread, but its previous thread didn't finish with it yet
+            if (deferred == null) {
+                deferred = new LinkedList<Object>();
+                deferredTasks.put(partitionId, deferred);
+            }
+            deferred.add(task);
+            return;
+        }
+
+        super.process(task);
+        balancer.onCompleted(partitionId);
+    }
+
+    /**
+     * Takes over the partition after its previous thread processed all of its tasks, and processes the tasks that were
+     * deferred in the meantime.
+     */
+    void resume(int partitionId) {
+        partitionOperationRunners[partitionId].setCurrentThread(this);
+        List<Object> deferred = deferredTasks.remove(partitionId);
+        if (deferred == null) {
+            return;
+        }
+        for (Object task : deferred) {
+            process(task);
+        }
+    }
+
+    private static int getPartitionId(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        }
+        return -1;
+    }
+
     @Probe
     int priorityPendingCount() {
         return queue.prioritySize();
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+import static com.hazelcast.util.EmptyStatement.ignore;
+
+/**
+ * Moves partitions between {@link PartitionOperationThread}s when a few hot partitions overload the thread they are
+ * mapped to, while other partition threads have capacity left.
+ *
+ * Every partition starts on the thread given by {@code partitionId % threadCount}. The balancer periodically compares
+ * the number of tasks every thread completed since the previous round; if the busiest thread did considerably more work
+ * than the average, partitions are moved from the busiest to the least busy thread as long as this reduces the
+ * imbalance.
+ *
+ * Moving a partition needs to preserve the order of its tasks and guarantee that a partition is never processed by two
+ * threads at the same time. This is done by a handover:
+ * <ol>
+ * <li>the mapping of the partition is set to {@link #MOVING}, producers back off until the move has completed</li>
+ * <li>the balancer waits till producers that already read the old mapping have offered their task</li>
+ * <li>a handover task is offered to the old thread, so it is processed after all tasks already queued there</li>
+ * <li>the partition is mapped to the new thread; tasks it receives for the partition are deferred</li>
+ * <li>when the old thread processes the handover task, it asks the new thread to resume the partition; the new thread
+ * then becomes the thread of the partition's {@link OperationRunner} and processes the deferred tasks in order</li>
+ * </ol>
+ */
+final class PartitionThreadBalancer extends Thread implements OperationHostileThread {
+
+    static final int MOVING = -1;
+
+    // the busiest thread needs to complete this much more than the average before partitions are moved
+    private static final double IMBALANCE_RATIO = 1.25;
+    // limits the number of handovers in flight, so rebalancing doesn't disturb the threads it tries to relieve
+    private static final int MAX_MOVES_PER_ROUND = 4;
+
+    private final PartitionOperationThread[] threads;
+    private final OperationRunner[] partitionOperationRunners;
+    private final AtomicIntegerArray threadIndexes;
+    private final AtomicIntegerArray inFlightCounts;
+    // written by the thread owning the partition, read by the balancer
+    private final AtomicLongArray completedCounts;
+    // only accessed by the balancer
+    private final long[] lastCompletedCounts;
+    private final long intervalMillis;
+    private final ILogger logger;
+    private volatile boolean shutdown;
+
+    PartitionThreadBalancer(HazelcastThreadGroup threadGroup, PartitionOperationThread[] threads,
+                            OperationRunner[] partitionOperationRunners, long intervalMillis, ILogger logger) {
+        super(threadGroup.getInternalThreadGroup(), threadGroup.getThreadNamePrefix("partition-thread-balancer"));
+        setContextClassLoader(threadGroup.getClassLoader());
+        this.threads = threads;
+        this.partitionOperationRunners = partitionOperationRunners;
+        this.intervalMillis = intervalMillis;
+        this.logger = logger;
+
+        int partitionCount = partitionOperationRunners.length;
+        this.threadIndexes = new AtomicIntegerArray(partitionCount);
+        this.inFlightCounts = new AtomicIntegerArray(partitionCount);
+        this.completedCounts = new AtomicLongArray(partitionCount);
+        this.lastCompletedCounts = new long[partitionCount];
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            threadIndexes.set(partitionId, partitionId % threads.length);
+        }
+    }
+
+    /**
+     * Returns the index of the thread the partition is currently mapped to. Tasks which are offered to that thread
+     * are processed in order with all earlier tasks of the partition, even if a handover is still pending.
+     */
+    int threadIndex(int partitionId) {
+        int threadIndex = threadIndexes.get(partitionId);
+        while (threadIndex == MOVING) {
+            Thread.yield();
+            threadIndex = threadIndexes.get(partitionId);
+        }
+        return threadIndex;
+    }
+
+    void execute(Object task, int partitionId, boolean priority) {
+        for (; ; ) {
+            int threadIndex = threadIndex(partitionId);
+            inFlightCounts.incrementAndGet(partitionId);
+            try {
+                // the mapping is checked again, since the partition could have been moved after it was read
+                if (threadIndexes.get(partitionId) == threadIndex) {
+                    threads[threadIndex].queue.add(task, priority);
+                    return;
+                }
+            } finally {
+                inFlightCounts.decrementAndGet(partitionId);
+            }
+        }
+    }
+
+    /**
+     * Called by the thread owning the partition after it completed a task of that partition.
+     */
+    void onCompleted(int partitionId) {
+        completedCounts.lazySet(partitionId, completedCounts.get(partitionId) + 1);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!shutdown) {
+                Thread.sleep(intervalMillis);
+                rebalance();
+            }
+        } catch (InterruptedException e) {
+            ignore(e);
+        } catch (Throwable t) {
+            inspectOutOfMemoryError(t);
+            logger.severe(t);
+        }
+    }
+
+    void rebalance() {
+        long[] deltas = new long[lastCompletedCounts.length];
+        long[] loads = new long[threads.length];
+        long totalLoad = 0;
+        for (int partitionId = 0; partitionId < deltas.length; partitionId++) {
+            long completedCount = completedCounts.get(partitionId);
+            deltas[partitionId] = completedCount - lastCompletedCounts[partitionId];
+            lastCompletedCounts[partitionId] = completedCount;
+            loads[threadIndexes.get(partitionId)] += deltas[partitionId];
+            totalLoad += deltas[partitionId];
+        }
+
+        int hotThread = indexOfMax(loads);
+        if (totalLoad == 0 || loads[hotThread] <= IMBALANCE_RATIO * totalLoad / threads.length) {
+            return;
+        }
+
+        for (int moves = 0; moves < MAX_MOVES_PER_ROUND; moves++) {
+            int coldThread = indexOfMin(loads);
+            int partitionId = findPartitionToMove(deltas, loads, hotThread, coldThread);
+            if (partitionId < 0) {
+                return;
+            }
+            move(partitionId, hotThread, coldThread);
+            loads[hotThread] -= deltas[partitionId];
+            loads[coldThread] += deltas[partitionId];
+        }
+    }
+
+    /**
+     * Finds the busiest partition of the hot thread which makes the load of both threads more equal when it is moved.
+     * Partitions with a pending handover are skipped.
+     */
+    private int findPartitionToMove(long[] deltas, long[] loads, int hotThread, int coldThread) {
+        int result = -1;
+        for (int partitionId = 0; partitionId < deltas.length; partitionId++) {
+            long delta = deltas[partitionId];
+            if (threadIndexes.get(partitionId) != hotThread
+                    || partitionOperationRunners[partitionId].currentThread() != threads[hotThread]
+                    || delta == 0
+                    || loads[coldThread] + delta >= loads[hotThread] - delta) {
+                continue;
+            }
+            if (result == -1 || delta > deltas[result]) {
+                result = partitionId;
+            }
+        }
+        return result;
+    }
+
+    void move(int partitionId, int fromThreadIndex, int toThreadIndex) {
+        threadIndexes.set(partitionId, MOVING);
+        while (inFlightCounts.get(partitionId) != 0) {
+            Thread.yield();
+        }
+        threads[fromThreadIndex].queue.add(new HandoverTask(partitionId, threads[toThreadIndex]), false);
+        threadIndexes.set(partitionId, toThreadIndex);
+
+        if (logger.isFinestEnabled()) {
+            logger.finest("Moving partition " + partitionId + " from " + threads[fromThreadIndex].getName()
+                    + " to " + threads[toThreadIndex].getName());
+        }
+    }
+
+    private static int indexOfMax(long[] values) {
+        int result = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[result]) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private static int indexOfMin(long[] values) {
+        int result = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[result]) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    void shutdown() {
+        shutdown = true;
+        interrupt();
+    }
+
+    /**
+     * Processed by the old thread of a partition after all tasks it received for that partition.
+     */
+    private static final class HandoverTask implements Runnable {
+
+        private final int partitionId;
+        private final PartitionOperationThread newThread;
+
+        HandoverTask(int partitionId, PartitionOperationThread newThread) {
+            this.partitionId = partitionId;
+            this.newThread = newThread;
+        }
+
+        @Override
+        public void run() {
+            newThread.queue.add(new ResumeTask(partitionId, newThread), true);
+        }
+    }
+
+    /**
+     * Processed by the new thread of a partition once the old thread is done with it.
+     */
+    private static final class ResumeTask implements Runnable {
+
+        private final int partitionId;
+        private final PartitionOperationThread newThread;
+
+        ResumeTask(int partitionId, PartitionOperationThread newThread) {
+            this.partitionId = partitionId;
+            this.newThread = newThread;
+        }
+
+        @Override
+        public void run() {
+            newThread.resume(partitionId);
+        }
+    }
+}
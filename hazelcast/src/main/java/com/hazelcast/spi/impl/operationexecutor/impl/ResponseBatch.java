@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the response packets sent while an {@link OperationThread} processes a batch of tasks, so the responses
+ * for the same connection are written back to back once the batch is completed.
+ *
+ * Writing the responses of a batch in a single burst means the first write schedules the connection's writer on its
+ * IO thread and the other responses are picked up by the same run of the writer, so they end up in a single write to
+ * the socket instead of waking up the IO thread and writing to the socket for every response.
+ *
+ * A ResponseBatch is only accessed by the OperationThread owning it.
+ */
+public final class ResponseBatch {
+
+    private final List<Connection> connections = new ArrayList<Connection>();
+    private final List<Packet> packets = new ArrayList<Packet>();
+    private final ILogger logger;
+    private boolean open;
+
+    ResponseBatch(ILogger logger) {
+        this.logger = logger;
+    }
+
+    void open() {
+        open = true;
+    }
+
+    /**
+     * Adds a response packet to this batch.
+     *
+     * @param connection the connection to write the packet to
+     * @param packet     the response packet
+     * @return true if the packet is going to be written when the batch completes, false if there is no batch in
+     * progress and the caller should write the packet itself.
+     */
+    public boolean add(Connection connection, Packet packet) {
+        if (!open) {
+            return false;
+        }
+        connections.add(connection);
+        packets.add(packet);
+        return true;
+    }
+
+    /**
+     * Writes the collected packets grouped by connection and closes the batch. The order of the packets for a single
+     * connection is preserved.
+     */
+    void flush() {
+        open = false;
+        int size = packets.size();
+        for (int i = 0; i < size; i++) {
+            Connection connection = connections.get(i);
+            if (connection == null) {
+                // already written together with an earlier packet for the same connection
+                continue;
+            }
+            for (int j = i; j < size; j++) {
+                if (connections.get(j) == connection) {
+                    write(connection, packets.get(j));
+                    connections.set(j, null);
+                }
+            }
+        }
+        connections.clear();
+        packets.clear();
+    }
+
+    private void write(Connection connection, Packet packet) {
+        if (!connection.write(packet)) {
+            logger.warning("Cannot send response: " + packet + " to " + connection.getEndPoint());
+        }
+    }
+}
@@ -78,6 +78,7 @@ public final class InboundResponseHandler implements PacketHandler, MetricsProvi
     public void handle(Packet packet) throws Exception {
         Response response = serializationService.toObject(packet);
         Address sender = packet.getConn().getEndPoint();
+        packet.release();
         try {
             if (response instanceof NormalResponse) {
                 NormalResponse normalResponse = (NormalResponse) response;
@@ -409,6 +409,8 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            // the operation has been deserialized, so a pooled payload can be reused
+            packet.release();
         }
     }
 
@@ -33,6 +33,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.InternalCompletableFuture;
 import com.hazelcast.spi.InvocationBuilder;
@@ -71,6 +72,7 @@ import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_COUNT;
 import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS;
 import static com.hazelcast.spi.impl.operationutil.Operations.isJoinOperation;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.PACKET_PAYLOAD_POOL_ENABLED;
 import static com.hazelcast.util.CollectionUtil.toIntegerList;
 import static com.hazelcast.util.Preconditions.checkNotNegative;
 import static com.hazelcast.util.Preconditions.checkNotNull;
@@ -133,6 +135,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     private final InternalSerializationService serializationService;
     private final InboundResponseHandler inboundResponseHandler;
     private final Address thisAddress;
+    private final PacketPayloadPool packetPayloadPool;
 
     // contains the current executing asyncOperations. This information is needed for the operation-ping.
     // this is a temporary solution till we found a better async operation abstraction
@@ -146,6 +149,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         this.thisAddress = node.getThisAddress();
         this.logger = node.getLogger(OperationService.class);
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
+        this.packetPayloadPool = node.getProperties().getBoolean(PACKET_PAYLOAD_POOL_ENABLED) ? new PacketPayloadPool() : null;
 
         this.backpressureRegulator = new BackpressureRegulator(
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
@@ -404,9 +408,15 @@ public final class OperationServiceImpl implements InternalOperationService, Met
             throw new IllegalArgumentException("Target is this node! -> " + target + ", op: " + op);
         }
 
-        byte[] bytes = serializationService.toBytes(op);
+        Packet packet;
         int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        if (packetPayloadPool == null) {
+            packet = new Packet(serializationService.toBytes(op), partitionId);
+        } else {
+            packet = new Packet(serializationService.toPooledBytes(op, packetPayloadPool), partitionId)
+                    .setPayloadPool(packetPayloadPool);
+        }
+        packet.setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
@@ -417,6 +427,15 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         return connectionManager.transmit(packet, connection);
     }
 
+    /**
+     * Returns the pool for the payloads of operation packets.
+     *
+     * @return the pool or {@code null} if payloads are not pooled
+     */
+    public PacketPayloadPool getPacketPayloadPool() {
+        return packetPayloadPool;
+    }
+
     public void onMemberLeft(MemberImpl member) {
         invocationMonitor.onMemberLeft(member);
     }
@@ -428,6 +447,9 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     @Override
     public void provideMetrics(MetricsRegistry registry) {
         registry.scanAndRegister(this, "operation");
+        if (packetPayloadPool != null) {
+            registry.scanAndRegister(packetPayloadPool, "operation.packetPayloadPool");
+        }
         registry.collectMetrics(invocationRegistry, invocationMonitor, inboundResponseHandler, asyncInboundResponseHandler,
                 operationExecutor);
     }
@@ -25,6 +25,7 @@ import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
@@ -96,6 +97,14 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         ConnectionManager connectionManager = node.getConnectionManager();
         Connection connection = connectionManager.getOrConnect(target);
+        if (connection != null && !response.isUrgent()) {
+            // when the operation thread is processing a batch, the response is written together with the other responses
+            Thread currentThread = Thread.currentThread();
+            if (currentThread instanceof OperationThread
+                    && ((OperationThread) currentThread).getResponseBatch().add(connection, packet)) {
+                return true;
+            }
+        }
         return connectionManager.transmit(packet, connection);
     }
 }
@@ -91,6 +91,29 @@ public final class GroupProperty {
     public static final HazelcastProperty PRIORITY_GENERIC_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.priority.generic.thread.count", 1);
 
+    /**
+     * The idle strategy of the partition operation threads: 'block' parks an idle thread immediately, 'backoff' spins,
+     * yields and then parks with an increasing period, 'busyspin' never parks. Spinning reduces the latency of waking up
+     * a partition thread at the cost of burning CPU, so it only makes sense if there is a core for every partition thread.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_IDLE_STRATEGY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+
+    /**
+     * The interval in milliseconds at which the load of the partition operation threads is compared and partitions are
+     * moved from the busiest to the least busy thread. Rebalancing is disabled if the value is 0 or less.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.operation.partitionthread.rebalance.interval.millis", 0, MILLISECONDS);
+
+    /**
+     * The maximum number of tasks a partition operation thread processes back to back after it woke up. The responses of
+     * the operations in such a batch are written once the batch is completed, so they reach the IO threads together.
+     * A value of 1 disables batching.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.batch.size", 16);
+
     /**
      * The number of threads that the client engine has available for processing requests that are not partition specific.
      * Most of the requests, such as map.put and map.get, are partition specific and will use a partition-operation-thread, but
@@ -161,6 +184,36 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * If the {@link com.hazelcast.internal.networking.nonblocking.iobalancer.IOBalancer IOBalancer} should weigh the
+     * bytes transferred, the processing time and the pending frames of the connections instead of only counting their
+     * events, and scale the number of active I/O threads between {@link #IO_THREAD_COUNT_MIN} and the configured
+     * number of I/O threads. Tracking the processing time costs two clock reads per I/O event.
+     */
+    public static final HazelcastProperty IO_BALANCER_ADAPTIVE
+            = new HazelcastProperty("hazelcast.io.balancer.adaptive", false);
+
+    /**
+     * The minimum number of active input and output threads when {@link #IO_BALANCER_ADAPTIVE} is enabled. Threads above
+     * this number are deactivated when the I/O threads are mostly idle and reactivated when they get busy. A value
+     * smaller than 1 keeps all I/O threads active.
+     */
+    public static final HazelcastProperty IO_THREAD_COUNT_MIN
+            = new HazelcastProperty("hazelcast.io.thread.count.min", -1);
+
+    /**
+     * The threading model of the member to member and client connections:
+     * <ul>
+     * <li>{@code nonblocking}: IO threads block on a {@link java.nio.channels.Selector}. This is the default.</li>
+     * <li>{@code epoll}: like {@code nonblocking}, but tuned for Linux; see
+     * {@link com.hazelcast.internal.networking.nonblocking.EpollIOThreadingModel EpollIOThreadingModel}. Falls back to
+     * the default Selector if epoll isn't available.</li>
+     * <li>{@code spinning}: experimental; IO threads spin over their connections instead of blocking.</li>
+     * </ul>
+     */
+    public static final HazelcastProperty IO_THREADING_MODEL
+            = new HazelcastProperty("hazelcast.io.threading.model", "nonblocking");
+
     @SuppressWarnings("checkstyle:constantname")
     public static final HazelcastProperty PREFER_IPv4_STACK
             = new HazelcastProperty("hazelcast.prefer.ipv4.stack", true);
@@ -186,6 +239,14 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_LOAD_CHUNK_SIZE
             = new HazelcastProperty("hazelcast.map.load.chunk.size", 1000);
 
+    /**
+     * The maximum number of key batches a member sends out while loading the key streams of a
+     * {@link com.hazelcast.core.ParallelMapLoader} and whose values are not loaded yet. A batch holds at most
+     * {@link #MAP_LOAD_CHUNK_SIZE} keys of a single partition.
+     */
+    public static final HazelcastProperty MAP_LOAD_MAX_INFLIGHT_BATCHES
+            = new HazelcastProperty("hazelcast.map.load.max.inflight.batches", 64);
+
     /** The delay until the first run of the {@link com.hazelcast.internal.cluster.impl.SplitBrainHandler} */
     public static final HazelcastProperty MERGE_FIRST_RUN_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.merge.first.run.delay.seconds", 300, SECONDS);
@@ -227,6 +288,45 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.buffer.direct", false);
 
+    /**
+     * If large packets on member to member connections should be written using gathering writes, so their payload is
+     * written to the socket directly instead of being copied into the socket buffer first.
+     */
+    public static final HazelcastProperty SOCKET_GATHERING_WRITE
+            = new HazelcastProperty("hazelcast.socket.gathering.write", false);
+
+    /**
+     * If small writes on member to member connections should be delayed for one round of the IO thread when the
+     * connection has been written to very recently, so more frames are coalesced into a single write. This reduces the
+     * number of write system calls under a high rate of small operations, at the cost of a slightly higher latency.
+     */
+    public static final HazelcastProperty SOCKET_WRITE_COALESCING
+            = new HazelcastProperty("hazelcast.socket.write.coalescing", false);
+
+    /**
+     * If the payload of large packets on member to member connections should be compressed, which trades CPU time for
+     * bandwidth on saturated links, e.g. between racks or data centers. Compression is negotiated when a connection is
+     * bound, so packets are only compressed if the property is enabled on both members. Gathering writes are not used
+     * on compressed connections.
+     */
+    public static final HazelcastProperty SOCKET_COMPRESSION
+            = new HazelcastProperty("hazelcast.socket.compression", false);
+
+    /**
+     * The minimum payload size in bytes of a packet to be compressed when {@link #SOCKET_COMPRESSION} is enabled.
+     * Smaller packets gain little by compression and are mostly latency sensitive.
+     */
+    public static final HazelcastProperty SOCKET_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.socket.compression.threshold", 1024);
+
+    /**
+     * If the payloads of operation packets exchanged between members should be taken from a pool and returned to it
+     * once the operation has been deserialized or written to the socket, instead of allocating a byte array per
+     * packet. This reduces the garbage produced by a high rate of small operations.
+     */
+    public static final HazelcastProperty PACKET_PAYLOAD_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.packet.payload.pool.enabled", false);
+
 
     /**
      * Overrides receive buffer size for connections opened by clients.
@@ -397,6 +497,25 @@ public final class GroupProperty {
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
 
+    /**
+     * If the data of a partition should be migrated in fragments by the services supporting it, see
+     * {@link com.hazelcast.spi.FragmentedMigrationAwareService}. The fragments are sent one after another, each once the
+     * previous one has been applied by the destination, so the source never holds more than one fragment of the partition
+     * in serialized form. The migration is committed after the last fragment has been applied.
+     * <p>
+     * The replica synchronizations of backup replicas, e.g. after a member restart, are sent in fragments in the same way,
+     * see {@link com.hazelcast.internal.partition.operation.ReplicaSyncRequest}.
+     */
+    public static final HazelcastProperty PARTITION_FRAGMENTED_MIGRATION_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.fragments.enabled", false);
+
+    /**
+     * The approximate size in bytes of the data sent in a single fragment when
+     * {@link #PARTITION_FRAGMENTED_MIGRATION_ENABLED} is enabled.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_FRAGMENT_SIZE
+            = new HazelcastProperty("hazelcast.partition.migration.fragment.size", 1024 * 1024);
+
     public static final HazelcastProperty PARTITION_TABLE_SEND_INTERVAL
             = new HazelcastProperty("hazelcast.partition.table.send.interval", 15, SECONDS);
     public static final HazelcastProperty PARTITION_BACKUP_SYNC_INTERVAL
@@ -475,6 +594,34 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Keeps the write-behind queues of maps with write-coalescing enabled in native memory instead of on the heap,
+     * so the queues can grow during a map-store outage without increasing garbage collection pressure. The entries
+     * are allocated from the native memory configured by {@link com.hazelcast.config.NativeMemoryConfig}, which has
+     * to be enabled.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_NATIVE
+            = new HazelcastProperty("hazelcast.map.write.behind.queue.native", false);
+
+    /**
+     * The number of store workers which write the write-behind queues of a map to its map-store in parallel.
+     * The partitions of the map are distributed among the workers, so the store operations on a key are still
+     * done in order. The map-store must be able to handle that many concurrent calls.
+     * <p/>
+     * The value is capped by the partition count.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_STORE_WORKER_COUNT
+            = new HazelcastProperty("hazelcast.map.write.behind.store.worker.count", 1);
+
+    /**
+     * The target duration of a batch store operation when {@link com.hazelcast.config.MapStoreConfig#writeBatchSize}
+     * is greater than 1. The batch size is halved while batches take longer than this and doubled, up to the
+     * configured write batch size, while they take less than half of it. Setting it to 0 always uses the configured
+     * write batch size.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_BATCH_TARGET_LATENCY_MILLIS
+            = new HazelcastProperty("hazelcast.map.write.behind.batch.target.latency.millis", 1000, MILLISECONDS);
+
     /**
      * Defines cache invalidation event batch sending is enabled or not.
      */
@@ -602,6 +749,17 @@ public final class GroupProperty {
     public static final HazelcastProperty AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.aggregation.accumulation.parallel.evaluation", true);
 
+    /**
+     * Run projections of query results for multiple entries in parallel.
+     * <p/>
+     * Otherwise each Hazelcast member applies the projection of a query to its matching entries using a single
+     * thread. Like the accumulation of aggregations, it pays off to do it in parallel in most cases.
+     * <p/>
+     * The default is true.
+     */
+    public static final HazelcastProperty QUERY_PROJECTION_PARALLEL_EVALUATION
+            = new HazelcastProperty("hazelcast.query.projection.parallel.evaluation", true);
+
 
     /**
      * Result size limit for query operations on maps.
@@ -644,6 +802,7 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for the static rules followed by index selection based on index statistics</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p/>
@@ -692,6 +851,14 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.serialization.version",
             BuildInfoProvider.getBuildInfo().getSerializationVersion());
 
+    /**
+     * The maximum size in KB of the grown serialization buffers each thread keeps for reuse. Serializing values larger
+     * than the initial output buffer then reuses a buffer of the same size class instead of allocating a new one.
+     * Setting it to 0 disables the retention of grown buffers.
+     */
+    public static final HazelcastProperty SERIALIZATION_BUFFER_POOL_MAX_RETAINED_SIZE
+            = new HazelcastProperty("hazelcast.serialization.bufferpool.max.retained.size", 4096);
+
     /**
      * Override cluster version to use while node is not yet member of a cluster. The cluster version assumed before joining
      * a cluster may affect the serialization format of cluster discovery & join operations and its compatibility with members
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util.collection;
+
+import com.hazelcast.util.function.Consumer;
+
+import java.util.Arrays;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Sorted map specialised for primitive {@code long} keys. Keys are kept in ascending signed order
+ * in fixed-size leaves of parallel {@code long[]}/{@code Object[]} arrays; a second level holds the
+ * first key of every leaf. Lookups are two binary searches and range scans walk the leaves in order,
+ * so no key is ever boxed and no per-entry node is allocated.
+ * <p>
+ * This map is not thread-safe and doesn't support {@code null} values.
+ *
+ * @param <V> type of the values stored in the map
+ */
+public class Long2ObjectSortedMap<V> {
+
+    /** Maximum number of mappings kept in a single leaf */
+    static final int LEAF_CAPACITY = 64;
+
+    private static final int INITIAL_LEAF_SLOTS = 4;
+
+    private long[] leafFirstKeys = new long[INITIAL_LEAF_SLOTS];
+    private Leaf[] leaves = new Leaf[INITIAL_LEAF_SLOTS];
+    private int leafCount;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the value mapped to the key or {@code null} if there is no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (leafCount == 0) {
+            return null;
+        }
+        Leaf leaf = leaves[leafIndexFor(key)];
+        int pos = leaf.indexOf(key);
+        return pos >= 0 ? (V) leaf.values[pos] : null;
+    }
+
+    /**
+     * Maps the given value to the key, replacing any previous mapping.
+     *
+     * @param key   the key
+     * @param value the value, must not be {@code null}
+     * @return the previously mapped value or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkNotNull(value, "Null values are not supported!");
+
+        if (leafCount == 0) {
+            insertLeaf(0, new Leaf());
+        }
+        int leafIndex = leafIndexFor(key);
+        Leaf leaf = leaves[leafIndex];
+        int pos = leaf.indexOf(key);
+        if (pos >= 0) {
+            Object oldValue = leaf.values[pos];
+            leaf.values[pos] = value;
+            return (V) oldValue;
+        }
+
+        pos = -(pos + 1);
+        if (leaf.size == LEAF_CAPACITY) {
+            Leaf right = leaf.split();
+            insertLeaf(leafIndex + 1, right);
+            if (pos > leaf.size) {
+                pos -= leaf.size;
+                leaf = right;
+                leafIndex++;
+            }
+        }
+        leaf.insert(pos, key, value);
+        leafFirstKeys[leafIndex] = leaf.keys[0];
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @param key the key
+     * @return the removed value or {@code null} if there was no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (leafCount == 0) {
+            return null;
+        }
+        int leafIndex = leafIndexFor(key);
+        Leaf leaf = leaves[leafIndex];
+        int pos = leaf.indexOf(key);
+        if (pos < 0) {
+            return null;
+        }
+
+        Object oldValue = leaf.values[pos];
+        leaf.remove(pos);
+        size--;
+        if (leaf.size == 0) {
+            removeLeaf(leafIndex);
+        } else {
+            leafFirstKeys[leafIndex] = leaf.keys[0];
+            if (!mergeWithNext(leafIndex) && leafIndex > 0) {
+                mergeWithNext(leafIndex - 1);
+            }
+        }
+        return (V) oldValue;
+    }
+
+    public void clear() {
+        Arrays.fill(leaves, 0, leafCount, null);
+        leafCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Passes every value to the consumer in ascending key order.
+     * The map must not be modified by the consumer.
+     *
+     * @param consumer the consumer of the values
+     */
+    public void forEach(Consumer<? super V> consumer) {
+        forEachInRange(Long.MIN_VALUE, true, Long.MAX_VALUE, true, consumer);
+    }
+
+    /**
+     * Passes every value whose key lies in the given range to the consumer in ascending key order.
+     * The map must not be modified by the consumer.
+     *
+     * @param from          lower bound of the range
+     * @param fromInclusive {@code true} if the lower bound is part of the range
+     * @param to            upper bound of the range
+     * @param toInclusive   {@code true} if the upper bound is part of the range
+     * @param consumer      the consumer of the values
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRange(long from, boolean fromInclusive, long to, boolean toInclusive,
+                               Consumer<? super V> consumer) {
+        if (leafCount == 0) {
+            return;
+        }
+        int leafIndex = leafIndexFor(from);
+        int pos = leaves[leafIndex].indexOf(from);
+        if (pos < 0) {
+            pos = -(pos + 1);
+        } else if (!fromInclusive) {
+            pos++;
+        }
+
+        for (; leafIndex < leafCount; leafIndex++, pos = 0) {
+            Leaf leaf = leaves[leafIndex];
+            for (; pos < leaf.size; pos++) {
+                long key = leaf.keys[pos];
+                if (key > to || (key == to && !toInclusive)) {
+                    return;
+                }
+                consumer.accept((V) leaf.values[pos]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Long2ObjectSortedMap{size=" + size + ", leafCount=" + leafCount + '}';
+    }
+
+    /**
+     * Returns the index of the last leaf whose first key is not greater than the given key,
+     * or {@code 0} if the key is smaller than all keys in the map.
+     */
+    private int leafIndexFor(long key) {
+        int pos = Arrays.binarySearch(leafFirstKeys, 0, leafCount, key);
+        if (pos >= 0) {
+            return pos;
+        }
+        int insertionPoint = -(pos + 1);
+        return insertionPoint == 0 ? 0 : insertionPoint - 1;
+    }
+
+    private void insertLeaf(int leafIndex, Leaf leaf) {
+        if (leafCount == leaves.length) {
+            int newLength = leaves.length << 1;
+            leaves = Arrays.copyOf(leaves, newLength);
+            leafFirstKeys = Arrays.copyOf(leafFirstKeys, newLength);
+        }
+        System.arraycopy(leaves, leafIndex, leaves, leafIndex + 1, leafCount - leafIndex);
+        System.arraycopy(leafFirstKeys, leafIndex, leafFirstKeys, leafIndex + 1, leafCount - leafIndex);
+        leaves[leafIndex] = leaf;
+        leafFirstKeys[leafIndex] = leaf.size > 0 ? leaf.keys[0] : 0;
+        leafCount++;
+    }
+
+    private void removeLeaf(int leafIndex) {
+        int moved = leafCount - leafIndex - 1;
+        System.arraycopy(leaves, leafIndex + 1, leaves, leafIndex, moved);
+        System.arraycopy(leafFirstKeys, leafIndex + 1, leafFirstKeys, leafIndex, moved);
+        leaves[--leafCount] = null;
+    }
+
+    /**
+     * Merges the leaf at the given index with its successor if both are at most a quarter full,
+     * so that removals don't leave the map fragmented into many sparse leaves.
+     */
+    private boolean mergeWithNext(int leafIndex) {
+        if (leafIndex + 1 >= leafCount) {
+            return false;
+        }
+        Leaf leaf = leaves[leafIndex];
+        Leaf next = leaves[leafIndex + 1];
+        if (leaf.size + next.size > LEAF_CAPACITY / 2) {
+            return false;
+        }
+        System.arraycopy(next.keys, 0, leaf.keys, leaf.size, next.size);
+        System.arraycopy(next.values, 0, leaf.values, leaf.size, next.size);
+        leaf.size += next.size;
+        removeLeaf(leafIndex + 1);
+        return true;
+    }
+
+    private static final class Leaf {
+
+        private final long[] keys = new long[LEAF_CAPACITY];
+        private final Object[] values = new Object[LEAF_CAPACITY];
+        private int size;
+
+        int indexOf(long key) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        void insert(int pos, long key, Object value) {
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            keys[pos] = key;
+            values[pos] = value;
+            size++;
+        }
+
+        void remove(int pos) {
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            values[--size] = null;
+        }
+
+        /**
+         * Moves the upper half of this leaf into a new leaf and returns it.
+         */
+        Leaf split() {
+            Leaf right = new Leaf();
+            int half = size >>> 1;
+            right.size = size - half;
+            System.arraycopy(keys, half, right.keys, 0, right.size);
+            System.arraycopy(values, half, right.values, 0, right.size);
+            Arrays.fill(values, half, size, null);
+            size = half;
+            return right;
+        }
+    }
+}
@@ -29,4 +29,14 @@ public class MapIndexConfigTest {
         assertEquals("__key#value", validateIndexAttribute("__key#value"));
     }
 
+    @Test
+    public void testValidation_withCompositeAttributes() {
+        assertEquals("name, age", validateIndexAttribute("name, age"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidation_withEmptyCompositeAttribute() {
+        validateIndexAttribute("name,");
+    }
+
 }
\ No newline at end of file
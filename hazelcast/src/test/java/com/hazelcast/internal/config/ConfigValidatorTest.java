@@ -20,6 +20,7 @@ import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.eviction.EvictableEntryView;
 import com.hazelcast.internal.eviction.EvictionPolicyComparator;
@@ -63,13 +64,23 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Requires native memory to be enabled, so test is expected to throw exception.
      */
     @Test(expected = IllegalArgumentException.class)
     public void checkMapConfig_NATIVE() {
         checkMapConfig(getMapConfig(NATIVE));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_NATIVE_withNativeMemoryDisabled() {
+        checkMapConfig(getMapConfig(NATIVE), new NativeMemoryConfig());
+    }
+
+    @Test
+    public void checkMapConfig_NATIVE_withNativeMemoryEnabled() {
+        checkMapConfig(getMapConfig(NATIVE), new NativeMemoryConfig().setEnabled(true));
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     public void checkMapConfig_withIgnoredConfigMinEvictionCheckMillis() {
@@ -97,7 +108,7 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Requires native memory to be enabled, so test is expected to throw exception.
      */
     @Test(expected = IllegalArgumentException.class)
     public void checkNearCacheConfig_NATIVE() {
@@ -1,6 +1,7 @@
 package com.hazelcast.internal.eviction;
 
 import com.hazelcast.cache.impl.record.CacheObjectRecord;
+import com.hazelcast.internal.eviction.impl.comparator.TinyLFUEvictionPolicyComparator;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -225,4 +226,61 @@ public class EvictionPolicyEvaluatorTest extends HazelcastTestSupport {
         }
     }
 
+    @Test
+    public void test_leastFrequentlyAccessedKey_isSelected_when_evictionPolicy_is_TINY_LFU() {
+        final int RECORD_COUNT = 100;
+        final int EXPECTED_EVICTED_RECORD_VALUE = RECORD_COUNT / 2;
+
+        EvictionConfiguration evictionConfig = new EvictionConfiguration() {
+            @Override
+            public EvictionStrategyType getEvictionStrategyType() {
+                return null;
+            }
+
+            @Override
+            public EvictionPolicyType getEvictionPolicyType() {
+                return EvictionPolicyType.TINY_LFU;
+            }
+
+            @Override
+            public String getComparatorClassName() {
+                return null;
+            }
+
+            @Override
+            public EvictionPolicyComparator getComparator() {
+                return null;
+            }
+        };
+        EvictionPolicyEvaluator evictionPolicyEvaluator =
+                EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator(evictionConfig, null);
+        TinyLFUEvictionPolicyComparator comparator =
+                (TinyLFUEvictionPolicyComparator) evictionPolicyEvaluator.getEvictionPolicyComparator();
+        List<EvictionCandidate<Integer, CacheObjectRecord>> records =
+                new ArrayList<EvictionCandidate<Integer, CacheObjectRecord>>();
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            CacheObjectRecord record = new CacheObjectRecord(i, now, Long.MAX_VALUE);
+            // the accesses are recorded by the accessors of the candidates, their keys are never deserialized
+            if (i != EXPECTED_EVICTED_RECORD_VALUE) {
+                comparator.recordAccess(i);
+                comparator.recordAccess(i);
+            }
+            records.add(new SimpleEvictionCandidate<Integer, CacheObjectRecord>(i, record));
+        }
+
+        Iterable<EvictionCandidate<Integer, CacheObjectRecord>> evictedRecords =
+                evictionPolicyEvaluator.evaluate(records);
+
+        assertNotNull(evictedRecords);
+
+        Iterator<EvictionCandidate<Integer, CacheObjectRecord>> evictedRecordsIterator = evictedRecords.iterator();
+        assertTrue(evictedRecordsIterator.hasNext());
+
+        EvictionCandidate<Integer, CacheObjectRecord> candidateEvictedRecord = evictedRecordsIterator.next();
+        assertFalse(evictedRecordsIterator.hasNext());
+        assertEquals(EXPECTED_EVICTED_RECORD_VALUE, candidateEvictedRecord.getEvictable().getValue());
+    }
+
 }
@@ -0,0 +1,80 @@
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class FrequencySketchTest {
+
+    @Test
+    public void frequency_isZero_whenNotIncremented() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(5, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_isCappedAtMaxFrequency() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 0; i < 2 * FrequencySketch.MAX_FREQUENCY; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_isHalved_whenSampleSizeIsReached() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42);
+        }
+
+        // 10 increments per table slot trigger the aging
+        for (int i = 0; i < 10 * 64; i++) {
+            sketch.increment(1000 + i);
+        }
+
+        assertTrue(sketch.frequency(42) < 10);
+    }
+
+    @Test
+    public void ensureCapacity_resetsFrequencies_whenGrowing() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        sketch.increment(42);
+
+        sketch.ensureCapacity(1024);
+
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void ensureCapacity_keepsFrequencies_whenNotGrowing() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        sketch.increment(42);
+
+        sketch.ensureCapacity(32);
+
+        assertEquals(1, sketch.frequency(42));
+    }
+}
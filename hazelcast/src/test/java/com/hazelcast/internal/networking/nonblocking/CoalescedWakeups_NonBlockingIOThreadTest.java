@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nonblocking;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CoalescedWakeups_NonBlockingIOThreadTest extends NonBlockingIOThreadAbstractTest {
+
+    @Override
+    protected SelectorMode selectorMode() {
+        return SelectorMode.SELECT;
+    }
+
+    @Override
+    protected void beforeStartThread() {
+        thread.setCoalesceWakeups(true);
+    }
+
+    @Test
+    public void whenTasksAddedConcurrently_thenAllExecuted() throws Exception {
+        final int taskCount = 10000;
+        final CountDownLatch completed = new CountDownLatch(2 * taskCount);
+        startThread();
+
+        Thread[] producers = new Thread[2];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < taskCount; k++) {
+                        thread.addTaskAndWakeup(new Runnable() {
+                            @Override
+                            public void run() {
+                                completed.countDown();
+                            }
+                        });
+                    }
+                }
+            };
+            producers[i].start();
+        }
+
+        assertOpenEventually(completed);
+        assertStillRunning();
+    }
+}
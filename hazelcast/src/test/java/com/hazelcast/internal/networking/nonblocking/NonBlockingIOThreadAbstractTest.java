@@ -67,7 +67,7 @@ public abstract class NonBlockingIOThreadAbstractTest extends HazelcastTestSuppo
 
     }
 
-    private void startThread() {
+    void startThread() {
         thread = new NonBlockingIOThread(null, "foo", logger, oomeHandler, selectorMode(), selector);
         beforeStartThread();
         thread.start();
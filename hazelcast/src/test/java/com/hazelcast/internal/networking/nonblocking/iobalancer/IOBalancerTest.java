@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nonblocking.iobalancer;
+
+import com.hazelcast.internal.networking.nonblocking.MigratableHandler;
+import com.hazelcast.internal.networking.nonblocking.NonBlockingIOThread;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IOBalancerTest {
+
+    private NonBlockingIOThread thread1;
+    private NonBlockingIOThread thread2;
+    private NonBlockingIOThread thread3;
+
+    private IOBalancer ioBalancer;
+
+    @Before
+    public void setUp() {
+        thread1 = mock(NonBlockingIOThread.class);
+        thread2 = mock(NonBlockingIOThread.class);
+        thread3 = mock(NonBlockingIOThread.class);
+        NonBlockingIOThread[] threads = {thread1, thread2, thread3};
+
+        LoggingService loggingService = mock(LoggingService.class);
+        when(loggingService.getLogger(IOBalancer.class)).thenReturn(mock(ILogger.class));
+
+        ioBalancer = new IOBalancer(threads, threads, null, 1, loggingService, true, 1);
+        ioBalancer.getInLoadTracker().setActiveThreadCount(2);
+    }
+
+    @Test
+    public void testDrainInactiveThreads_movesHandlersToLeastLoadedActiveThread() {
+        MigratableHandler busyHandler = addHandler(thread1, 1000);
+        MigratableHandler handler1 = addHandler(thread3, 10);
+        MigratableHandler handler2 = addHandler(thread3, 10);
+
+        ioBalancer.checkReadHandlers();
+
+        verify(busyHandler, never()).requestMigration(any(NonBlockingIOThread.class));
+        verify(handler1).requestMigration(thread2);
+        verify(handler2).requestMigration(thread2);
+    }
+
+    @Test
+    public void testDrainInactiveThreads_skipsHandlersWithPendingMigration() {
+        MigratableHandler handler = addHandler(thread3, 10);
+        when(handler.isMigrationPending()).thenReturn(true);
+
+        ioBalancer.checkReadHandlers();
+
+        verify(handler, never()).requestMigration(any(NonBlockingIOThread.class));
+    }
+
+    private MigratableHandler addHandler(NonBlockingIOThread owner, long eventCount) {
+        MigratableHandler handler = mock(MigratableHandler.class);
+        when(handler.getOwner()).thenReturn(owner);
+        when(handler.getEventCount()).thenReturn(eventCount);
+        ioBalancer.connectionAdded(handler, mock(MigratableHandler.class));
+        return handler;
+    }
+}
@@ -115,4 +115,57 @@ public class LoadTrackerTest {
         assertEquals(selector2, loadImbalance.destinationSelector);
         assertEquals(selector2, loadImbalance.sourceSelector);
     }
+
+    @Test
+    public void testUpdateImbalance_weighted() throws Exception {
+        loadTracker = new LoadTracker(selectors, mock(ILogger.class), true);
+
+        MigratableHandler handler = mock(MigratableHandler.class);
+        when(handler.getEventCount()).thenReturn(0L).thenReturn(10L);
+        when(handler.getBytesTransferred()).thenReturn(0L).thenReturn(20L * LoadTracker.BYTES_PER_LOAD_UNIT);
+        when(handler.getProcessingNanos()).thenReturn(0L).thenReturn(30L * LoadTracker.NANOS_PER_LOAD_UNIT);
+        when(handler.getPendingFrameCount()).thenReturn(0).thenReturn(5);
+        when(handler.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(handler);
+
+        loadTracker.updateImbalance();
+        assertEquals(0, loadTracker.getHandlerEventsCounter().get(handler));
+
+        loadTracker.updateImbalance();
+        assertEquals(10 + 20 + 30 + 5, loadTracker.getHandlerEventsCounter().get(handler));
+    }
+
+    @Test
+    public void testUpdateImbalance_onlyActiveSelectorsAreDestination() throws Exception {
+        MigratableHandler selector1Handler1 = mock(MigratableHandler.class);
+        when(selector1Handler1.getEventCount()).thenReturn(1000L);
+        when(selector1Handler1.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(selector1Handler1);
+
+        MigratableHandler selector1Handler2 = mock(MigratableHandler.class);
+        when(selector1Handler2.getEventCount()).thenReturn(1000L);
+        when(selector1Handler2.getOwner()).thenReturn(selector1);
+        loadTracker.addHandler(selector1Handler2);
+
+        loadTracker.setActiveThreadCount(1);
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        assertEquals(2000, loadImbalance.minimumEvents);
+        assertEquals(selector1, loadImbalance.destinationSelector);
+        assertEquals(selector1, loadImbalance.sourceSelector);
+    }
+
+    @Test
+    public void testAverageUtilization() throws Exception {
+        assertEquals(-1, loadTracker.getAverageUtilization(), 0);
+
+        when(selector1.getProcessingNanos()).thenReturn(0L);
+        loadTracker.updateImbalance();
+        assertEquals(-1, loadTracker.getAverageUtilization(), 0);
+
+        when(selector1.getProcessingNanos()).thenReturn(Long.MAX_VALUE);
+        loadTracker.updateImbalance();
+        // the first selector has been busy all the time, the second one not at all
+        assertEquals(0.5, loadTracker.getAverageUtilization(), 0);
+    }
 }
\ No newline at end of file
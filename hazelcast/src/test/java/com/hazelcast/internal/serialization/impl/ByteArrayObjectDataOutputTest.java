@@ -1,6 +1,7 @@
 package com.hazelcast.internal.serialization.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.Bits;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
@@ -358,6 +359,20 @@ public class ByteArrayObjectDataOutputTest {
         assertEquals(10 * 8, out.available());
     }
 
+    @Test
+    public void testClear_withArrayPool_shrinksToInitialSizeClass() throws Exception {
+        ByteArrayPool arrayPool = new ByteArrayPool(1 << 20);
+        arrayPool.release(new byte[1 << 16]);
+        out.setArrayPool(arrayPool);
+        out.ensureAvailable(10 * 10);
+        int grownLength = out.buffer.length;
+
+        out.clear();
+
+        assertEquals(16, out.buffer.length);
+        assertEquals(grownLength + (1 << 16) - 16, arrayPool.getRetainedBytes());
+    }
+
     @Test
     public void testClose() throws Exception {
         out.close();
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactSerializationTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testRoundTrip() {
+        AllTypes allTypes = AllTypes.newInstance();
+
+        AllTypes deserialized = ss.toObject(ss.toData(allTypes));
+
+        assertAllTypesEquals(allTypes, deserialized);
+    }
+
+    @Test
+    public void testRoundTrip_withNullValues() {
+        AllTypes deserialized = ss.toObject(ss.toData(new AllTypes()));
+
+        assertAllTypesEquals(new AllTypes(), deserialized);
+    }
+
+    @Test
+    public void testSerializedForm_hasNoPerFieldOverhead() {
+        Data data = ss.toData(new Point(1, 2, 3));
+
+        // schema id, length and the fields
+        assertEquals(8 + 4 + 4 + 4 + 8, data.dataSize());
+        assertEquals(SerializationConstants.CONSTANT_TYPE_COMPACT, data.getType());
+    }
+
+    @Test
+    public void testLookupSchema() {
+        CompactSchema schema = ss.lookupCompactSchema(ss.toData(new Point(1, 2, 3)));
+
+        assertNotNull(schema);
+        assertEquals(Point.class.getName(), schema.getTypeName());
+        assertEquals(FieldType.LONG, schema.getFieldType("id"));
+        assertTrue(schema.hasField("x"));
+        assertFalse(schema.hasField("z"));
+        assertNull(ss.lookupCompactSchema(ss.toData("string")));
+    }
+
+    @Test
+    public void testReadFields() throws IOException {
+        Data data = ss.toData(AllTypes.newInstance());
+
+        assertEquals(42, ss.readCompactField(data, "int"));
+        assertEquals("Jos\u00e9 \u20ac", ss.readCompactField(data, "utf"));
+        assertEquals(Long.MAX_VALUE, ss.readCompactField(data, "long"));
+        assertEquals((byte) 1, ss.readCompactField(data, "byte"));
+        assertEquals(true, ss.readCompactField(data, "boolean"));
+        assertArrayEquals(new String[]{"a", null, "\u00fcber"}, (String[]) ss.readCompactField(data, "utfArray"));
+        assertEquals(2.5, ss.readCompactField(data, "double"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testReadField_whenUnknown() throws IOException {
+        ss.readCompactField(ss.toData(new Point(1, 2, 3)), "z");
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_whenSchemaIsUnknown() {
+        Data data = ss.toData(new Point(1, 2, 3));
+
+        new DefaultSerializationServiceBuilder().build().toObject(data);
+    }
+
+    @Test
+    public void testRead_whenClassIsRegistered() {
+        AllTypes allTypes = AllTypes.newInstance();
+        Data data = ss.toData(allTypes);
+        SerializationConfig config = new SerializationConfig().addCompactClass(AllTypes.class);
+        InternalSerializationService other = new DefaultSerializationServiceBuilder().setConfig(config).build();
+
+        AllTypes deserialized = other.toObject(data);
+
+        assertAllTypesEquals(allTypes, deserialized);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testWrite_whenFieldsDependOnState() {
+        ss.toData(new Inconsistent(false));
+        ss.toData(new Inconsistent(true));
+    }
+
+    @Test
+    public void testQuery_readsFieldsWithoutDeserialization() {
+        Data key = ss.toData(1);
+        Data value = ss.toData(new Point(1, 2, 3));
+        Predicate predicate = and(equal("x", 1), greaterThan("id", 2L));
+
+        Point.deserializationCount = 0;
+        QueryEntry queryEntry = new QueryEntry(ss, key, value, Extractors.empty());
+        assertTrue(predicate.apply(queryEntry));
+        CachedQueryEntry cachedQueryEntry = new CachedQueryEntry(ss, key, value, Extractors.empty());
+        assertTrue(predicate.apply(cachedQueryEntry));
+        assertFalse(equal("y", 3).apply(cachedQueryEntry));
+        assertEquals(0, Point.deserializationCount);
+    }
+
+    private static void assertAllTypesEquals(AllTypes expected, AllTypes actual) {
+        assertEquals(expected.b, actual.b);
+        assertEquals(expected.bool, actual.bool);
+        assertEquals(expected.c, actual.c);
+        assertEquals(expected.s, actual.s);
+        assertEquals(expected.i, actual.i);
+        assertEquals(expected.l, actual.l);
+        assertEquals(expected.f, actual.f, 0);
+        assertEquals(expected.d, actual.d, 0);
+        assertEquals(expected.utf, actual.utf);
+        assertArrayEquals(expected.bytes, actual.bytes);
+        assertArrayEquals(expected.booleans, actual.booleans);
+        assertArrayEquals(expected.chars, actual.chars);
+        assertArrayEquals(expected.shorts, actual.shorts);
+        assertArrayEquals(expected.ints, actual.ints);
+        assertArrayEquals(expected.longs, actual.longs);
+        assertArrayEquals(expected.floats, actual.floats, 0);
+        assertArrayEquals(expected.doubles, actual.doubles, 0);
+        assertArrayEquals(expected.utfs, actual.utfs);
+    }
+
+    public static class Point implements Compact {
+
+        static volatile int deserializationCount;
+
+        private int x;
+        private int y;
+        private long id;
+
+        public Point() {
+        }
+
+        Point(int x, int y, long id) {
+            this.x = x;
+            this.y = y;
+            this.id = id;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeInt("x", x);
+            writer.writeInt("y", y);
+            writer.writeLong("id", id);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            deserializationCount++;
+            id = reader.readLong("id");
+            y = reader.readInt("y");
+            x = reader.readInt("x");
+        }
+    }
+
+    public static class Inconsistent implements Compact {
+
+        private boolean withExtraField;
+
+        public Inconsistent() {
+        }
+
+        Inconsistent(boolean withExtraField) {
+            this.withExtraField = withExtraField;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeBoolean("withExtraField", withExtraField);
+            if (withExtraField) {
+                writer.writeInt("extra", 1);
+            }
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            withExtraField = reader.readBoolean("withExtraField");
+        }
+    }
+
+    public static class AllTypes implements Compact {
+
+        private byte b;
+        private boolean bool;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private String utf;
+        private byte[] bytes;
+        private boolean[] booleans;
+        private char[] chars;
+        private short[] shorts;
+        private int[] ints;
+        private long[] longs;
+        private float[] floats;
+        private double[] doubles;
+        private String[] utfs;
+
+        public AllTypes() {
+        }
+
+        static AllTypes newInstance() {
+            AllTypes allTypes = new AllTypes();
+            allTypes.b = 1;
+            allTypes.bool = true;
+            allTypes.c = 'A';
+            allTypes.s = 7;
+            allTypes.i = 42;
+            allTypes.l = Long.MAX_VALUE;
+            allTypes.f = 1.5f;
+            allTypes.d = 2.5;
+            allTypes.utf = "Jos\u00e9 \u20ac";
+            allTypes.bytes = new byte[]{1, 2};
+            allTypes.booleans = new boolean[]{true, false};
+            allTypes.chars = new char[]{'a', 'b'};
+            allTypes.shorts = new short[]{3, 4};
+            allTypes.ints = new int[]{5, 6};
+            allTypes.longs = new long[]{7, 8};
+            allTypes.floats = new float[]{9.5f};
+            allTypes.doubles = new double[]{10.5};
+            allTypes.utfs = new String[]{"a", null, "\u00fcber"};
+            return allTypes;
+        }
+
+        @Override
+        public void writeCompact(CompactWriter writer) throws IOException {
+            writer.writeByte("byte", b);
+            writer.writeUTF("utf", utf);
+            writer.writeBoolean("boolean", bool);
+            writer.writeChar("char", c);
+            writer.writeByteArray("byteArray", bytes);
+            writer.writeShort("short", s);
+            writer.writeInt("int", i);
+            writer.writeLong("long", l);
+            writer.writeFloat("float", f);
+            writer.writeDouble("double", d);
+            writer.writeBooleanArray("booleanArray", booleans);
+            writer.writeCharArray("charArray", chars);
+            writer.writeShortArray("shortArray", shorts);
+            writer.writeIntArray("intArray", ints);
+            writer.writeLongArray("longArray", longs);
+            writer.writeFloatArray("floatArray", floats);
+            writer.writeDoubleArray("doubleArray", doubles);
+            writer.writeUTFArray("utfArray", utfs);
+        }
+
+        @Override
+        public void readCompact(CompactReader reader) throws IOException {
+            utfs = reader.readUTFArray("utfArray");
+            doubles = reader.readDoubleArray("doubleArray");
+            floats = reader.readFloatArray("floatArray");
+            longs = reader.readLongArray("longArray");
+            ints = reader.readIntArray("intArray");
+            shorts = reader.readShortArray("shortArray");
+            chars = reader.readCharArray("charArray");
+            booleans = reader.readBooleanArray("booleanArray");
+            bytes = reader.readByteArray("byteArray");
+            utf = reader.readUTF("utf");
+            d = reader.readDouble("double");
+            f = reader.readFloat("float");
+            l = reader.readLong("long");
+            i = reader.readInt("int");
+            s = reader.readShort("short");
+            c = reader.readChar("char");
+            bool = reader.readBoolean("boolean");
+            b = reader.readByte("byte");
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.ClassDefinitionBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DescribedDataSerializableFactory;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DataSerializableFieldReaderTest {
+
+    private static final int FACTORY_ID = 1;
+    private static final int PERSON = 1;
+    private static final int UNDESCRIBED = 2;
+
+    private static final ClassDefinition PERSON_DEFINITION = new ClassDefinitionBuilder(FACTORY_ID, PERSON)
+            .addUTFField("name")
+            .addIntArrayField("scores")
+            .addUTFArrayField("tags")
+            .addBooleanField("active")
+            .addLongField("id")
+            .addDoubleField("salary")
+            .addCharField("grade")
+            .addUTFField("city")
+            .build();
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder()
+            .addDataSerializableFactory(FACTORY_ID, new PersonFactory())
+            .build();
+
+    @Test
+    public void testLookupClassDefinition() {
+        assertEquals(PERSON_DEFINITION, ss.lookupDataSerializableClassDefinition(ss.toData(newPerson())));
+        assertNull(ss.lookupDataSerializableClassDefinition(ss.toData(new Person(UNDESCRIBED))));
+        assertNull(ss.lookupDataSerializableClassDefinition(ss.toData("string")));
+    }
+
+    @Test
+    public void testReadFields() throws IOException {
+        Data data = ss.toData(newPerson());
+
+        assertEquals("Jos\u00e9 \u20ac", ss.readDataSerializableField(data, "name"));
+        assertEquals(true, ss.readDataSerializableField(data, "active"));
+        assertEquals(42L, ss.readDataSerializableField(data, "id"));
+        assertEquals(1500.5, ss.readDataSerializableField(data, "salary"));
+        assertEquals('A', ss.readDataSerializableField(data, "grade"));
+        assertEquals("London", ss.readDataSerializableField(data, "city"));
+    }
+
+    @Test
+    public void testReadFields_withNullValues() throws IOException {
+        Person person = new Person(PERSON);
+        person.salary = 10;
+        Data data = ss.toData(person);
+
+        assertNull(ss.readDataSerializableField(data, "name"));
+        assertEquals(10.0, ss.readDataSerializableField(data, "salary"));
+        assertNull(ss.readDataSerializableField(data, "city"));
+    }
+
+    @Test
+    public void testIsReadable() {
+        assertTrue(DataSerializableFieldReader.isReadable(PERSON_DEFINITION, "city"));
+        assertFalse(DataSerializableFieldReader.isReadable(PERSON_DEFINITION, "scores"));
+        assertFalse(DataSerializableFieldReader.isReadable(PERSON_DEFINITION, "age"));
+    }
+
+    @Test
+    public void testIsReadable_afterPortableField() {
+        ClassDefinition classDefinition = new ClassDefinitionBuilder(FACTORY_ID, PERSON)
+                .addIntField("before")
+                .addPortableField("address", new ClassDefinitionBuilder(FACTORY_ID, 3).build())
+                .addIntField("after")
+                .build();
+
+        assertTrue(DataSerializableFieldReader.isReadable(classDefinition, "before"));
+        assertFalse(DataSerializableFieldReader.isReadable(classDefinition, "address"));
+        assertFalse(DataSerializableFieldReader.isReadable(classDefinition, "after"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testReadField_whenNotReadable() throws IOException {
+        ss.readDataSerializableField(ss.toData(newPerson()), "age");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadField_whenNotDescribed() throws IOException {
+        ss.readDataSerializableField(ss.toData(new Person(UNDESCRIBED)), "name");
+    }
+
+    @Test
+    public void testQuery_readsDescribedFieldsWithoutDeserialization() {
+        Data key = ss.toData(1);
+        Data value = ss.toData(newPerson());
+        Predicate predicate = and(equal("city", "London"), greaterThan("salary", 1000));
+
+        Person.deserializationCount = 0;
+        QueryEntry queryEntry = new QueryEntry(ss, key, value, Extractors.empty());
+        assertTrue(predicate.apply(queryEntry));
+        CachedQueryEntry cachedQueryEntry = new CachedQueryEntry(ss, key, value, Extractors.empty());
+        assertTrue(predicate.apply(cachedQueryEntry));
+        assertEquals(0, Person.deserializationCount);
+
+        // undescribed attributes are read from the de-serialized object
+        assertTrue(equal("age", 30).apply(queryEntry));
+        assertFalse(equal("age", 31).apply(cachedQueryEntry));
+    }
+
+    @Test
+    public void testCachedQueryEntry_deserializesOnce_forUndescribedAttributes() {
+        Data key = ss.toData(1);
+        Data value = ss.toData(newPerson());
+        CachedQueryEntry cachedQueryEntry = new CachedQueryEntry(ss, key, value, Extractors.empty());
+
+        Person.deserializationCount = 0;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(equal("age", 30).apply(cachedQueryEntry));
+            assertTrue(equal("city", "London").apply(cachedQueryEntry));
+        }
+        assertEquals(1, Person.deserializationCount);
+    }
+
+    private static Person newPerson() {
+        Person person = new Person(PERSON);
+        person.name = "Jos\u00e9 \u20ac";
+        person.scores = new int[]{1, 2, 3};
+        person.tags = new String[]{"a", null, "\u00fcber"};
+        person.active = true;
+        person.id = 42;
+        person.salary = 1500.5;
+        person.grade = 'A';
+        person.city = "London";
+        person.age = 30;
+        return person;
+    }
+
+    private static class PersonFactory implements DescribedDataSerializableFactory {
+
+        @Override
+        public IdentifiedDataSerializable create(int typeId) {
+            return new Person(typeId);
+        }
+
+        @Override
+        public ClassDefinition getClassDefinition(int typeId) {
+            return typeId == PERSON ? PERSON_DEFINITION : null;
+        }
+    }
+
+    public static class Person implements IdentifiedDataSerializable {
+
+        static volatile int deserializationCount;
+
+        private final int id0;
+
+        private String name;
+        private int[] scores;
+        private String[] tags;
+        private boolean active;
+        private long id;
+        private double salary;
+        private char grade;
+        private String city;
+        private int age;
+
+        Person(int id0) {
+            this.id0 = id0;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public double getSalary() {
+            return salary;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return id0;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeUTF(name);
+            out.writeIntArray(scores);
+            out.writeUTFArray(tags);
+            out.writeBoolean(active);
+            out.writeLong(id);
+            out.writeDouble(salary);
+            out.writeChar(grade);
+            out.writeUTF(city);
+            out.writeInt(age);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            deserializationCount++;
+            name = in.readUTF();
+            scores = in.readIntArray();
+            tags = in.readUTFArray();
+            active = in.readBoolean();
+            id = in.readLong();
+            salary = in.readDouble();
+            grade = in.readChar();
+            city = in.readUTF();
+            age = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SerializerAdapterCacheTest {
+
+    private final SerializerAdapterCache cache = new SerializerAdapterCache();
+    private final SerializerAdapter integerAdapter = new StreamSerializerAdapter(null,
+            new ConstantSerializers.IntegerSerializer());
+    private final SerializerAdapter stringAdapter = new StreamSerializerAdapter(null,
+            new ConstantSerializers.StringSerializer());
+
+    @Test
+    public void testGet_whenNotCached() {
+        assertNull(cache.get(Integer.class));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        cache.put(Integer.class, integerAdapter);
+        cache.put(String.class, stringAdapter);
+
+        assertSame(integerAdapter, cache.get(Integer.class));
+        assertSame(stringAdapter, cache.get(String.class));
+        assertNull(cache.get(Long.class));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testPut_keepsFirstSerializer() {
+        cache.put(Integer.class, integerAdapter);
+        cache.put(Integer.class, stringAdapter);
+
+        assertSame(integerAdapter, cache.get(Integer.class));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPut_growsTable() {
+        int count = 200;
+        for (int i = 1; i <= count; i++) {
+            cache.put(arrayClass(i), i % 2 == 0 ? integerAdapter : stringAdapter);
+        }
+
+        assertEquals(count, cache.size());
+        for (int i = 1; i <= count; i++) {
+            assertSame(i % 2 == 0 ? integerAdapter : stringAdapter, cache.get(arrayClass(i)));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        cache.put(Integer.class, integerAdapter);
+
+        cache.clear();
+
+        assertNull(cache.get(Integer.class));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSerializerFor_isCachedPerClass() {
+        AbstractSerializationService ss = (AbstractSerializationService) new DefaultSerializationServiceBuilder().build();
+
+        SerializerAdapter adapter = ss.serializerFor(new SerializableObject());
+
+        assertSame(adapter, ss.serializerFor(new SerializableObject()));
+        assertEquals(SerializationConstants.JAVA_DEFAULT_TYPE_SERIALIZABLE, adapter.getTypeId());
+        assertEquals(SerializationConstants.CONSTANT_TYPE_INTEGER, ss.serializerFor(1).getTypeId());
+        assertEquals(SerializationConstants.CONSTANT_TYPE_NULL, ss.serializerFor(null).getTypeId());
+    }
+
+    private static Class arrayClass(int dimensions) {
+        return Array.newInstance(Integer.class, new int[dimensions]).getClass();
+    }
+
+    private static class SerializableObject implements Serializable {
+    }
+}
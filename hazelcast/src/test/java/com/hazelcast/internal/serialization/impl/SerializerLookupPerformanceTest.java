@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.test.HazelcastTestSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serializer lookup of {@link AbstractSerializationService#serializerFor(Object)} for small values, next
+ * to serializing the same values with {@link ConstantSerializers} directly and through the serialization service.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializerLookupPerformanceTest extends HazelcastTestSupport {
+
+    private static final int WARMUP_ITERATIONS_COUNT = 500;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 2000;
+
+    private final Integer integer = 42;
+    private final String string = "value";
+    private final DataSerializable dataSerializable = new SmallDataSerializable();
+    private final Serializable serializable = new SmallSerializable();
+
+    private final ConstantSerializers.IntegerSerializer integerSerializer = new ConstantSerializers.IntegerSerializer();
+    private final ConstantSerializers.StringSerializer stringSerializer = new ConstantSerializers.StringSerializer();
+
+    private AbstractSerializationService ss;
+    private ByteArrayObjectDataOutput out;
+
+    @Setup
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        ss = (AbstractSerializationService) serializationService;
+        out = new ByteArrayObjectDataOutput(100, serializationService, ByteOrder.BIG_ENDIAN);
+    }
+
+    @Benchmark
+    public Object lookupInteger() {
+        return ss.serializerFor(integer);
+    }
+
+    @Benchmark
+    public Object lookupString() {
+        return ss.serializerFor(string);
+    }
+
+    @Benchmark
+    public Object lookupDataSerializable() {
+        return ss.serializerFor(dataSerializable);
+    }
+
+    @Benchmark
+    public Object lookupSerializable() {
+        return ss.serializerFor(serializable);
+    }
+
+    @Benchmark
+    public int writeInteger_withConstantSerializer() throws IOException {
+        out.clear();
+        integerSerializer.write(out, integer);
+        return out.position();
+    }
+
+    @Benchmark
+    public int writeString_withConstantSerializer() throws IOException {
+        out.clear();
+        stringSerializer.write(out, string);
+        return out.position();
+    }
+
+    @Benchmark
+    public Object toDataInteger() {
+        return ss.toData(integer);
+    }
+
+    @Benchmark
+    public Object toDataString() {
+        return ss.toData(string);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SerializerLookupPerformanceTest.class.getSimpleName())
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .warmupTime(TimeValue.milliseconds(2))
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .measurementTime(TimeValue.milliseconds(2))
+                .verbosity(VerboseMode.NORMAL)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    private static class SmallDataSerializable implements DataSerializable {
+
+        private int value;
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            value = in.readInt();
+        }
+    }
+
+    private static class SmallSerializable implements Serializable {
+    }
+}
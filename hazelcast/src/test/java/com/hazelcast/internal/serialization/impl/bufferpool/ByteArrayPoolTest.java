@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ByteArrayPoolTest {
+
+    private ByteArrayPool pool;
+
+    @Before
+    public void setup() {
+        pool = new ByteArrayPool(1024);
+    }
+
+    @Test
+    public void take_whenEmpty_allocatesSizeClass() {
+        byte[] array = pool.take(100);
+
+        assertEquals(128, array.length);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void take_whenReleased_returnsSameArray() {
+        byte[] array = pool.take(100);
+        pool.release(array);
+
+        assertEquals(128, pool.getRetainedBytes());
+        assertSame(array, pool.take(65));
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void take_returnsSmallestArrayLargeEnough() {
+        byte[] small = new byte[32];
+        byte[] medium = new byte[128];
+        byte[] large = new byte[512];
+        pool.release(large);
+        pool.release(small);
+        pool.release(medium);
+
+        assertSame(medium, pool.take(100));
+        assertSame(large, pool.take(100));
+        assertNotSame(small, pool.take(100));
+        assertSame(small, pool.take(20));
+    }
+
+    @Test
+    public void takeExactSizeClass_doesNotReturnLargerArray() {
+        byte[] medium = new byte[128];
+        byte[] large = new byte[512];
+        pool.release(large);
+
+        assertNotSame(large, pool.takeExactSizeClass(100));
+        assertEquals(512, pool.getRetainedBytes());
+
+        pool.release(medium);
+        assertSame(medium, pool.takeExactSizeClass(100));
+    }
+
+    @Test
+    public void take_whenArrayNotPowerOfTwo_fitsRequestOfItsSizeClass() {
+        byte[] array = new byte[100];
+        pool.release(array);
+
+        assertSame(array, pool.take(64));
+    }
+
+    @Test
+    public void release_whenMaxRetainedBytesExceeded_dropsArray() {
+        pool.release(new byte[512]);
+        pool.release(new byte[256]);
+        pool.release(new byte[512]);
+
+        assertEquals(768, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void release_whenSizeClassFull_dropsArray() {
+        for (int i = 0; i < ByteArrayPool.ARRAYS_PER_SIZE_CLASS + 1; i++) {
+            pool.release(new byte[16]);
+        }
+
+        assertEquals(ByteArrayPool.ARRAYS_PER_SIZE_CLASS * 16, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void release_whenEmptyArray_dropsArray() {
+        pool.release(new byte[0]);
+
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void bufferPool_reusesGrownBuffers() throws IOException {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        BufferPoolImpl bufferPool = new BufferPoolImpl(serializationService, 1 << 20);
+        ByteArrayPool arrayPool = bufferPool.getArrayPool();
+        byte[] bytes = new byte[100000];
+        bytes[bytes.length - 1] = 1;
+
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        out.write(bytes);
+        assertArrayEquals(bytes, out.toByteArray());
+        bufferPool.returnOutputBuffer(out);
+        assertTrue(arrayPool.getRetainedBytes() > 0);
+
+        long misses = arrayPool.getMisses();
+        out = bufferPool.takeOutputBuffer();
+        out.write(bytes);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(misses, arrayPool.getMisses());
+    }
+
+    @Test
+    public void bufferPool_whenNoRetainedBytes_hasNoArrayPool() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+        assertNull(new BufferPoolImpl(serializationService, 0).getArrayPool());
+    }
+}
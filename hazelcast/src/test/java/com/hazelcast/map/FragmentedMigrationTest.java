@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.partition.AntiEntropyCorrectnessTest.setBackupPacketDropFilter;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class FragmentedMigrationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testMigration_whenAddingInstances() {
+        Config config = newConfig();
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+        fill(instance1.<Integer, String>getMap("map1"));
+        fill(instance1.<Integer, String>getMap("map2"));
+
+        HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        HazelcastInstance instance3 = nodeFactory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2, instance3);
+
+        assertEntries(instance3.<Integer, String>getMap("map1"));
+        assertEntries(instance3.<Integer, String>getMap("map2"));
+        assertEntryCounts("map1", instance1, instance2, instance3);
+        assertEntryCounts("map2", instance1, instance2, instance3);
+    }
+
+    @Test
+    public void testMigration_whenRemovingInstance() {
+        Config config = newConfig();
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+        HazelcastInstance instance3 = nodeFactory.newHazelcastInstance(config);
+        fill(instance1.<Integer, String>getMap("map"));
+
+        instance3.shutdown();
+        waitAllForSafeState(instance1, instance2);
+
+        assertEntries(instance2.<Integer, String>getMap("map"));
+        assertEntryCounts("map", instance1, instance2);
+    }
+
+    @Test
+    public void testReplicaSync_whenBackupsAreLost() {
+        Config config = newConfig();
+        config.setProperty(GroupProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1");
+        config.getMapConfig("map").setBackupCount(0).setAsyncBackupCount(1);
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        final HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+        final HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+        warmUpPartitions(instance1, instance2);
+        // all backups are dropped, so the backup replicas can only be restored by fragmented replica syncs
+        setBackupPacketDropFilter(instance1, 1);
+        setBackupPacketDropFilter(instance2, 1);
+
+        fill(instance1.<Integer, String>getMap("map"));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEntryCounts("map", instance1, instance2);
+            }
+        });
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "11");
+        config.setProperty(GroupProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED.getName(), "true");
+        // a few records per fragment, so the maps are migrated in many chunks
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_FRAGMENT_SIZE.getName(), "256");
+        return config;
+    }
+
+    private static void fill(IMap<Integer, String> map) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    private static void assertEntries(IMap<Integer, String> map) {
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+    }
+
+    private static void assertEntryCounts(String mapName, HazelcastInstance... instances) {
+        long ownedEntryCount = 0;
+        long backupEntryCount = 0;
+        for (HazelcastInstance instance : instances) {
+            ownedEntryCount += instance.getMap(mapName).getLocalMapStats().getOwnedEntryCount();
+            backupEntryCount += instance.getMap(mapName).getLocalMapStats().getBackupEntryCount();
+        }
+        assertEquals(ENTRY_COUNT, ownedEntryCount);
+        assertEquals(ENTRY_COUNT, backupEntryCount);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    @Test
+    public void testIterator_returnsMatchingEntriesOfAllPartitions() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<Integer>();
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator(7, greaterEqual("this", 500));
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            assertEquals(entry.getKey(), entry.getValue());
+            assertTrue(keys.add(entry.getKey()));
+        }
+
+        assertEquals(500, keys.size());
+        for (int i = 500; i < 1000; i++) {
+            assertTrue(keys.contains(i));
+        }
+    }
+
+    @Test
+    public void testPartitionIterator_returnsMatchingEntriesOfPartition() {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        MapProxyImpl<String, Integer> map = (MapProxyImpl<String, Integer>) instance.<String, Integer>getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(generateKeyForPartition(instance, 1), i);
+            map.put(generateKeyForPartition(instance, 2), i);
+        }
+
+        int count = 0;
+        Iterator<Map.Entry<String, Integer>> iterator = map.iterator(3, 1, greaterEqual("this", 90));
+        while (iterator.hasNext()) {
+            assertTrue(iterator.next().getValue() >= 90);
+            count++;
+        }
+
+        assertEquals(10, count);
+    }
+
+    @Test
+    public void testIterator_withoutMatches() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        assertFalse(map.iterator(10, greaterEqual("this", 100)).hasNext());
+    }
+
+    @Test
+    public void testIterator_withSelectivePredicate_skipsChunksWithoutMatches() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(randomMapName());
+        for (int i = 0; i < 5000; i++) {
+            map.put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<Integer>();
+        Iterator<Map.Entry<Integer, Integer>> iterator = ((MapProxyImpl<Integer, Integer>) map)
+                .iterator(10, greaterEqual("this", 4998));
+        while (iterator.hasNext()) {
+            assertTrue(keys.add(iterator.next().getKey()));
+        }
+
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains(4998));
+        assertTrue(keys.contains(4999));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNext_onEmptyMap() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+
+        map.iterator(10, TruePredicate.INSTANCE).next();
+    }
+
+    @Test
+    public void testRemove() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator(10, greaterEqual("this", 50));
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        assertEquals(50, map.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(map.containsKey(i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRemove_withoutNext() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+        map.put(1, 1);
+
+        map.iterator(10, TruePredicate.INSTANCE).remove();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withPagingPredicate() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+
+        map.iterator(10, new PagingPredicate(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withNonPositiveFetchSize() {
+        MapProxyImpl<Integer, Integer> map = createMap();
+
+        map.iterator(0, TruePredicate.INSTANCE);
+    }
+
+    private MapProxyImpl<Integer, Integer> createMap() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "11");
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(randomMapName());
+        return (MapProxyImpl<Integer, Integer>) map;
+    }
+}
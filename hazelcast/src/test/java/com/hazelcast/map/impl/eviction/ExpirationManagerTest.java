@@ -26,6 +26,7 @@ import com.hazelcast.map.listener.EntryExpiredListener;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
 import org.junit.Rule;
@@ -249,6 +250,41 @@ public class ExpirationManagerTest extends HazelcastTestSupport {
         });
     }
 
+    @Test
+    public void expires_promotedBackup_whenTtlWasSetOnExistingEntry() throws Exception {
+        Config config = new Config();
+        config.setProperty(SYS_PROP_EXPIRATION_TASK_PERIOD_SECONDS, "1");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance owner = factory.newHazelcastInstance(config);
+        HazelcastInstance backup = factory.newHazelcastInstance(config);
+        String key = generateKeyOwnedBy(owner);
+
+        final AtomicInteger expirationCounter = new AtomicInteger();
+
+        IMap<String, String> backupMap = backup.getMap("test");
+        backupMap.addEntryListener(new EntryExpiredListener() {
+            @Override
+            public void entryExpired(EntryEvent event) {
+                expirationCounter.incrementAndGet();
+            }
+        }, true);
+
+        IMap<String, String> map = owner.getMap("test");
+        map.put(key, "value");
+        // the backup record exists already, so only the record info of the primary gives it a TTL
+        map.put(key, "value", 3, SECONDS);
+
+        owner.getLifecycleService().terminate();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                int expirationCount = expirationCounter.get();
+                assertEquals(format("Expecting 1 expiration but found:%d", expirationCount), 1, expirationCount);
+            }
+        });
+    }
+
     private ExpirationManager newExpirationManager(HazelcastInstance node) {
         return new ExpirationManager(getPartitionContainers(node), getNodeEngineImpl(node));
     }
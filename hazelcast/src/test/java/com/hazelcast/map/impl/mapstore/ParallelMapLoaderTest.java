@@ -0,0 +1,165 @@
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ParallelMapLoader;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.hazelcast.config.MaxSizeConfig.MaxSizePolicy.PER_NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ParallelMapLoaderTest extends HazelcastTestSupport {
+
+    private static final int KEY_STREAM_COUNT = 7;
+    private static final int ENTRY_COUNT = 10000;
+
+    @Test
+    public void testInitialLoad_loadsAllKeyStreams() {
+        String name = randomMapName();
+        KeyStreamMapLoader loader = new KeyStreamMapLoader(KEY_STREAM_COUNT, ENTRY_COUNT);
+        Config config = createConfig(name, loader);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(3).newInstances(config);
+
+        IMap<Integer, Integer> map = instances[0].getMap(name);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(0, loader.loadAllKeysCalls.get());
+        for (int i = 0; i < KEY_STREAM_COUNT; i++) {
+            assertEquals(1, loader.keyStreamCalls.get(i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 997) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testLoadAll_doesNotPublishEntryEvents() {
+        String name = randomMapName();
+        KeyStreamMapLoader loader = new KeyStreamMapLoader(KEY_STREAM_COUNT, ENTRY_COUNT);
+        Config config = createConfig(name, loader);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+
+        IMap<Integer, Integer> map = instances[0].getMap(name);
+        map.size();
+        map.clear();
+
+        final AtomicInteger addedEvents = new AtomicInteger();
+        map.addEntryListener(new EntryAddedListener<Integer, Integer>() {
+            @Override
+            public void entryAdded(EntryEvent<Integer, Integer> event) {
+                addedEvents.incrementAndGet();
+            }
+        }, false);
+        map.loadAll(true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, addedEvents.get());
+            }
+        }, 3);
+    }
+
+    @Test
+    public void testInitialLoad_respectsMaxSizePerNode() {
+        String name = randomMapName();
+        int maxSizePerNode = 1000;
+        KeyStreamMapLoader loader = new KeyStreamMapLoader(KEY_STREAM_COUNT, ENTRY_COUNT);
+        Config config = createConfig(name, loader);
+        config.getMapConfig(name).setMaxSizeConfig(new MaxSizeConfig(maxSizePerNode, PER_NODE));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+
+        IMap<Integer, Integer> map = instances[0].getMap(name);
+
+        assertTrue(map.size() <= 2 * maxSizePerNode);
+    }
+
+    private static Config createConfig(String name, ParallelMapLoader loader) {
+        Config config = new Config();
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(loader)
+                .setInitialLoadMode(MapStoreConfig.InitialLoadMode.EAGER);
+        MapConfig mapConfig = config.getMapConfig(name);
+        mapConfig.setMapStoreConfig(mapStoreConfig);
+        return config;
+    }
+
+    private static class KeyStreamMapLoader implements ParallelMapLoader<Integer, Integer> {
+
+        private final int keyStreamCount;
+        private final int size;
+        private final AtomicInteger loadAllKeysCalls = new AtomicInteger();
+        private final AtomicIntegerArray keyStreamCalls;
+
+        KeyStreamMapLoader(int keyStreamCount, int size) {
+            this.keyStreamCount = keyStreamCount;
+            this.size = size;
+            this.keyStreamCalls = new AtomicIntegerArray(keyStreamCount);
+        }
+
+        @Override
+        public int getKeyStreamCount() {
+            return keyStreamCount;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys(int keyStream) {
+            keyStreamCalls.incrementAndGet(keyStream);
+            List<Integer> keys = new ArrayList<Integer>();
+            for (int i = keyStream; i < size; i += keyStreamCount) {
+                keys.add(i);
+            }
+            return keys;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            loadAllKeysCalls.incrementAndGet();
+            List<Integer> keys = new ArrayList<Integer>();
+            for (int i = 0; i < size; i++) {
+                keys.add(i);
+            }
+            return keys;
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            return key < size ? key : null;
+        }
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+            for (Integer key : keys) {
+                result.put(key, key);
+            }
+            return result;
+        }
+    }
+}
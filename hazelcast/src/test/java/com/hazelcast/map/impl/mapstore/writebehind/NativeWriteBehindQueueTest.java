@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.TestIgnoreRuleAccordingToUnsafeAvailability;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntries.createDefault;
+import static com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntries.createWithoutValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeWriteBehindQueueTest {
+
+    @ClassRule
+    public static final TestIgnoreRuleAccordingToUnsafeAvailability UNSAFE_AVAILABILITY_RULE
+            = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private static final long CAPACITY = 16 << 20;
+
+    private SerializationService serializationService;
+    private UnsafeMemoryAllocator allocator;
+    private NativeWriteBehindQueue queue;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        allocator = new UnsafeMemoryAllocator(CAPACITY);
+        MemoryManagerBean memoryManager = new MemoryManagerBean(allocator, GlobalMemoryAccessorRegistry.MEM);
+        queue = new NativeWriteBehindQueue(memoryManager, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        queue.clear();
+        allocator.dispose();
+    }
+
+    @Test
+    public void testAddLast_andPeek() {
+        DelayedEntry entry = newEntry(1, "value", 100);
+        entry.setSequence(7);
+        queue.addLast(entry);
+
+        DelayedEntry head = queue.peek();
+        assertEquals(1, queue.size());
+        assertEquals(toData(1), head.getKey());
+        assertEquals("value", serializationService.toObject(head.getValue()));
+        assertEquals(100, head.getStoreTime());
+        assertEquals(7, head.getSequence());
+        assertEquals(1, head.getPartitionId());
+    }
+
+    @Test
+    public void testAddLast_coalescesByKey_keepingPositionAndStoreTime() {
+        queue.addLast(newEntry(1, "value1", 100));
+        queue.addLast(newEntry(2, "value2", 200));
+        queue.addLast(newEntry(1, "value3", 300));
+
+        List<DelayedEntry> entries = queue.asList();
+        assertEquals(2, entries.size());
+        assertEquals(toData(1), entries.get(0).getKey());
+        assertEquals("value3", serializationService.toObject(entries.get(0).getValue()));
+        assertEquals(100, entries.get(0).getStoreTime());
+        assertEquals(toData(2), entries.get(1).getKey());
+    }
+
+    @Test
+    public void testDeletedEntry_hasNoValue() {
+        queue.addLast(newEntry(1, "value", 100));
+        queue.addLast(createWithoutValue(toData(1), 200, 1));
+
+        DelayedEntry entry = queue.get(createWithoutValue(toData(1)));
+        assertNull(entry.getValue());
+        assertEquals(100, entry.getStoreTime());
+    }
+
+    @Test
+    public void testRemoveFirstOccurrence_onlyRemovesSameValue() {
+        queue.addLast(newEntry(1, "value1", 100));
+
+        assertFalse(queue.removeFirstOccurrence(newEntry(1, "value2", 100)));
+        assertFalse(queue.removeFirstOccurrence(createWithoutValue(toData(1), 100, 1)));
+        assertTrue(queue.removeFirstOccurrence(queue.peek()));
+        assertEquals(0, queue.size());
+        assertFalse(queue.contains(newEntry(1, "value1", 100)));
+    }
+
+    @Test
+    public void testAddFirst_keepsValuesOfQueuedKeys() {
+        queue.addLast(newEntry(3, "value3", 300));
+        queue.addLast(newEntry(2, "new", 400));
+
+        queue.addFirst(Arrays.asList(newEntry(1, "value1", 100), newEntry(2, "old", 200)));
+
+        List<DelayedEntry> entries = queue.asList();
+        assertEquals(3, entries.size());
+        assertEquals(toData(1), entries.get(0).getKey());
+        assertEquals(toData(2), entries.get(1).getKey());
+        assertEquals("new", serializationService.toObject(entries.get(1).getValue()));
+        assertEquals(toData(3), entries.get(2).getKey());
+    }
+
+    @Test
+    public void testFilter_stopsAtFirstMismatch() {
+        queue.addLast(newEntry(1, "value1", 100));
+        queue.addLast(newEntry(2, "value2", 300));
+        queue.addLast(newEntry(3, "value3", 200));
+
+        List<DelayedEntry> entries = new ArrayList<DelayedEntry>();
+        queue.filter(new IPredicate<DelayedEntry>() {
+            @Override
+            public boolean test(DelayedEntry delayedEntry) {
+                return delayedEntry.getStoreTime() <= 200;
+            }
+        }, entries);
+
+        assertEquals(1, entries.size());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void testDrainTo() {
+        for (int i = 0; i < 100; i++) {
+            queue.addLast(newEntry(i, "value" + i, i));
+        }
+
+        List<DelayedEntry> entries = new ArrayList<DelayedEntry>();
+        assertEquals(100, queue.drainTo(entries));
+
+        assertEquals(0, queue.size());
+        assertNull(queue.peek());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(toData(i), entries.get(i).getKey());
+        }
+    }
+
+    @Test
+    public void testClear_freesNativeMemory() {
+        for (int i = 0; i < 100; i++) {
+            queue.addLast(newEntry(i, "value" + i, i));
+        }
+
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertEquals(0, allocator.getUsedMemory());
+        queue.addLast(newEntry(1, "value", 100));
+        assertTrue(queue.contains(newEntry(1, "value", 100)));
+    }
+
+    private DelayedEntry<Data, Object> newEntry(int key, Object value, long storeTime) {
+        return createDefault(toData(key), value, storeTime, 1);
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+}
@@ -22,6 +22,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createBoundedWriteBehindQueue;
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createDefaultWriteBehindQueue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -104,6 +106,22 @@ public class WriteBehindQueueTest extends HazelcastTestSupport {
         assertEquals(0, counter.intValue());
     }
 
+    @Test
+    public void testRemoveFirstOccurrence_onBoundedWBQ_keepsFailedEntryAtHead() {
+        final WriteBehindQueue<DelayedEntry> queue = createBoundedWBQ();
+        List<DelayedEntry> delayedEntries = createDelayedEntryList(3);
+        for (DelayedEntry entry : delayedEntries) {
+            queue.addLast(entry);
+        }
+
+        // the first entry failed to be stored and is left in place
+        assertTrue(queue.removeFirstOccurrence(delayedEntries.get(1)));
+        assertTrue(queue.removeFirstOccurrence(delayedEntries.get(2)));
+
+        assertEquals(1, queue.size());
+        assertSame(delayedEntries.get(0), queue.peek());
+    }
+
     @Test
     public void testClear() {
         final WriteBehindQueue<DelayedEntry> queue = createWBQ();
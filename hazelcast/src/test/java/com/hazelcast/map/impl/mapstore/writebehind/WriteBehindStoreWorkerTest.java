@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.executor.ManagedExecutorService;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class WriteBehindStoreWorkerTest extends HazelcastTestSupport {
+
+    @Test
+    public void testParallelStoreWorkers_storeConcurrently_eachOnItsOwnPartitions() {
+        final int workerCount = 4;
+        final ConcurrencyRecordingMapStore mapStore = new ConcurrencyRecordingMapStore();
+        Config config = newConfig(mapStore, 1000);
+        config.setProperty(GroupProperty.MAP_WRITE_BEHIND_STORE_WORKER_COUNT.getName(), String.valueOf(workerCount));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("default");
+
+        final int numberOfItems = 1000;
+        populateMap(map, numberOfItems);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(numberOfItems, mapStore.size());
+            }
+        });
+        assertTrue("Expected concurrent store calls but there were at most " + mapStore.maxConcurrentCalls,
+                mapStore.maxConcurrentCalls.get() > 1);
+        PartitionService partitionService = instance.getPartitionService();
+        for (Collection<Integer> keys : mapStore.storedKeys) {
+            Set<Integer> shards = new HashSet<Integer>();
+            for (Integer key : keys) {
+                shards.add(partitionService.getPartition(key).getPartitionId() % workerCount);
+            }
+            assertEquals("Expected the keys of a single shard in a store call but were " + keys, 1, shards.size());
+        }
+        ManagedExecutorService executor = getNodeEngineImpl(instance).getExecutionService()
+                .getExecutor(MAP_WRITE_BEHIND_EXECUTOR);
+        assertTrue(executor.getCompletedTaskCount() > 0);
+    }
+
+    @Test
+    public void testBatchSize_shrinks_whenStoreIsSlow() {
+        final int writeBatchSize = 64;
+        final MapStoreWithCounter<Integer, Integer> mapStore = new SlowMapStore();
+        Config config = newConfig(mapStore, writeBatchSize);
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        config.setProperty(GroupProperty.MAP_WRITE_BEHIND_BATCH_TARGET_LATENCY_MILLIS.getName(), "10");
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap("default");
+
+        final int numberOfItems = 256;
+        populateMap(map, numberOfItems);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(numberOfItems, mapStore.size());
+            }
+        });
+        boolean shrunk = false;
+        for (int batchSize : mapStore.getBatchOpCountMap().values()) {
+            shrunk |= batchSize < writeBatchSize;
+        }
+        assertTrue("Expected batches smaller than " + writeBatchSize + " but were " + mapStore.getBatchOpCountMap(), shrunk);
+    }
+
+    private static Config newConfig(MapStoreWithCounter<Integer, Integer> mapStore, int writeBatchSize) {
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setImplementation(mapStore)
+                .setWriteDelaySeconds(1)
+                .setWriteBatchSize(writeBatchSize);
+        Config config = new Config();
+        config.getMapConfig("default").setMapStoreConfig(mapStoreConfig);
+        return config;
+    }
+
+    private static void populateMap(IMap<Integer, Integer> map, int numberOfItems) {
+        for (int i = 0; i < numberOfItems; i++) {
+            map.put(i, i);
+        }
+    }
+
+    /**
+     * Records the keys of every store call and the maximum number of store calls running at the same time.
+     */
+    private static class ConcurrencyRecordingMapStore extends MapStoreWithCounter<Integer, Integer> {
+
+        private final Queue<Collection<Integer>> storedKeys = new ConcurrentLinkedQueue<Collection<Integer>>();
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        @Override
+        public void store(Integer key, Integer value) {
+            beforeStore(Collections.singleton(key));
+            try {
+                super.store(key, value);
+            } finally {
+                concurrentCalls.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            beforeStore(new ArrayList<Integer>(map.keySet()));
+            try {
+                super.storeAll(map);
+            } finally {
+                concurrentCalls.decrementAndGet();
+            }
+        }
+
+        private void beforeStore(Collection<Integer> keys) {
+            storedKeys.add(keys);
+            int calls = concurrentCalls.incrementAndGet();
+            int max;
+            do {
+                max = maxConcurrentCalls.get();
+            } while (calls > max && !maxConcurrentCalls.compareAndSet(max, calls));
+            // keeps the call running long enough to overlap with the calls of the other workers
+            sleepMillis(200);
+        }
+    }
+
+    private static class SlowMapStore extends MapStoreWithCounter<Integer, Integer> {
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            sleepMillis(50);
+            super.storeAll(map);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.like;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ColumnarQueryTest extends HazelcastTestSupport {
+
+    private IMap<Integer, Employee> columnarMap;
+    private IMap<Integer, Employee> map;
+
+    @Before
+    public void setUp() {
+        Config config = getConfig();
+        config.getMapConfig("columnar*").addColumnarAttribute("age").addColumnarAttribute("salary")
+                .addColumnarAttribute("active");
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+
+        columnarMap = instance.getMap("columnarMap");
+        map = instance.getMap("map");
+        for (int i = 0; i < 1000; i++) {
+            Employee employee = new Employee(i, "name" + i, i % 80, i % 2 == 0, i * 10.5);
+            columnarMap.put(i, employee);
+            map.put(i, employee);
+        }
+        for (int i = 0; i < 1000; i += 7) {
+            columnarMap.remove(i);
+            map.remove(i);
+        }
+        for (int i = 0; i < 1000; i += 5) {
+            Employee employee = new Employee(i, "updated" + i, 100 - i % 80, true, i);
+            columnarMap.set(i, employee);
+            map.set(i, employee);
+        }
+    }
+
+    @Test
+    public void testQuery() {
+        assertQuery(equal("age", 42));
+        assertQuery(greaterThan("salary", 5000.0));
+        assertQuery(and(between("age", 20, 40), equal("active", true)));
+        assertQuery(and(greaterThan("age", 30), like("name", "updated%")));
+    }
+
+    @Test
+    public void testAggregation() {
+        Predicate predicate = and(between("age", 20, 40), equal("active", true));
+
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count()),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count()));
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count("age"), predicate),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>count("age"), predicate));
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>integerSum("age"), predicate),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>integerSum("age"), predicate));
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>integerAvg("age")),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>integerAvg("age")));
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>doubleSum("salary"), predicate),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>doubleSum("salary"), predicate), 0.001);
+        assertEquals(map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>numberAvg("salary")),
+                columnarMap.aggregate(Aggregators.<Map.Entry<Integer, Employee>>numberAvg("salary")), 0.001);
+    }
+
+    private void assertQuery(Predicate predicate) {
+        assertEquals(predicate.toString(), map.entrySet(predicate), columnarMap.entrySet(predicate));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.strategy.StringPartitioningStrategy;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.util.HashUtil.hashToIndex;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionRangeSplitterTest {
+
+    private static final int PARTITION_COUNT = 271;
+    private static final int CHUNK_COUNT = 4;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testSplit_whenTooFewEntries() {
+        assertNull(PartitionRangeSplitter.split(createEntries(CHUNK_COUNT * 2 - 1), CHUNK_COUNT, PARTITION_COUNT));
+    }
+
+    @Test
+    public void testSplit_byPartitionRanges() {
+        Set<QueryableEntry> entries = createEntries(1000);
+
+        List<Iterable<QueryableEntry>> chunks = PartitionRangeSplitter.split(entries, CHUNK_COUNT, PARTITION_COUNT);
+
+        assertEquals(CHUNK_COUNT, chunks.size());
+        Set<QueryableEntry> splitEntries = new HashSet<QueryableEntry>();
+        int previousMaxPartitionId = -1;
+        for (Iterable<QueryableEntry> chunk : chunks) {
+            int minPartitionId = Integer.MAX_VALUE;
+            int maxPartitionId = -1;
+            for (QueryableEntry entry : chunk) {
+                assertTrue(splitEntries.add(entry));
+                int partitionId = hashToIndex(entry.getKeyData().getPartitionHash(), PARTITION_COUNT);
+                minPartitionId = Math.min(minPartitionId, partitionId);
+                maxPartitionId = Math.max(maxPartitionId, partitionId);
+            }
+            assertTrue(minPartitionId > previousMaxPartitionId);
+            previousMaxPartitionId = maxPartitionId;
+        }
+        assertEquals(entries, splitEntries);
+    }
+
+    @Test
+    public void testSplit_roundRobin_whenEntriesAreInSinglePartition() {
+        Set<QueryableEntry> entries = new HashSet<QueryableEntry>();
+        for (int i = 0; i < 100; i++) {
+            // all keys have the same partition key, so they are in the same partition
+            Data key = serializationService.toData("key" + i + "@key", StringPartitioningStrategy.INSTANCE);
+            entries.add(new QueryEntry(serializationService, key, i, Extractors.empty()));
+        }
+
+        List<Iterable<QueryableEntry>> chunks = PartitionRangeSplitter.split(entries, CHUNK_COUNT, PARTITION_COUNT);
+
+        assertEquals(CHUNK_COUNT, chunks.size());
+        Set<QueryableEntry> splitEntries = new HashSet<QueryableEntry>();
+        for (Iterable<QueryableEntry> chunk : chunks) {
+            int chunkSize = 0;
+            for (QueryableEntry entry : chunk) {
+                assertTrue(splitEntries.add(entry));
+                chunkSize++;
+            }
+            assertEquals(100 / CHUNK_COUNT, chunkSize);
+        }
+        assertEquals(entries, splitEntries);
+    }
+
+    @Test
+    public void testSplit_filtersAndResultSetCandidates() {
+        Set<QueryableEntry> candidates = createEntries(1000);
+        Predicate predicate = lessThan("this", 100);
+        AndResultSet entries = new AndResultSet(candidates, null, singletonList(predicate));
+
+        List<Iterable<QueryableEntry>> chunks = PartitionRangeSplitter.split(entries, CHUNK_COUNT, PARTITION_COUNT);
+
+        Set<QueryableEntry> splitEntries = new HashSet<QueryableEntry>();
+        for (Iterable<QueryableEntry> chunk : chunks) {
+            for (QueryableEntry entry : chunk) {
+                assertTrue(predicate.apply(entry));
+                assertTrue(splitEntries.add(entry));
+            }
+        }
+        assertEquals(100, splitEntries.size());
+        assertEquals(new HashSet<QueryableEntry>(entries), splitEntries);
+    }
+
+    private Set<QueryableEntry> createEntries(int count) {
+        Set<QueryableEntry> entries = new HashSet<QueryableEntry>();
+        for (int i = 0; i < count; i++) {
+            entries.add(new QueryEntry(serializationService, serializationService.toData(i), i, Extractors.empty()));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.map.impl.recordstore.ExpirationQueue.BUCKET_WIDTH_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ExpirationQueueTest {
+
+    private final ExpirationQueue queue = new ExpirationQueue();
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(queue.poll(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void poll_returnsKeyOnceBucketHasPassed() {
+        Data key = toData(1);
+        queue.schedule(key, 10 * BUCKET_WIDTH_MILLIS + 1);
+
+        assertNull(queue.poll(10 * BUCKET_WIDTH_MILLIS + 2));
+        assertNull(queue.poll(11 * BUCKET_WIDTH_MILLIS - 1));
+        assertEquals(key, queue.poll(11 * BUCKET_WIDTH_MILLIS));
+        assertNull(queue.poll(11 * BUCKET_WIDTH_MILLIS));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void poll_returnsOnlyDueKeys() {
+        for (int i = 0; i < 10; i++) {
+            queue.schedule(toData(i), i * BUCKET_WIDTH_MILLIS);
+        }
+
+        Set<Data> polled = new HashSet<Data>();
+        Data key;
+        while ((key = queue.poll(5 * BUCKET_WIDTH_MILLIS)) != null) {
+            polled.add(key);
+        }
+
+        assertEquals(5, polled.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(polled.contains(toData(i)));
+        }
+        assertEquals(5, queue.size());
+    }
+
+    @Test
+    public void poll_returnsEachOfManyKeysOnce() {
+        for (int i = 0; i < 1000; i++) {
+            queue.schedule(toData(i), (i % 10) * BUCKET_WIDTH_MILLIS);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            queue.schedule(toData(i), 0);
+        }
+        assertEquals(1000, queue.size());
+
+        Set<Data> polled = new HashSet<Data>();
+        Data key;
+        while ((key = queue.poll(10 * BUCKET_WIDTH_MILLIS)) != null) {
+            assertTrue(polled.add(key));
+        }
+
+        assertEquals(1000, polled.size());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void schedule_whenNeverExpires_isIgnored() {
+        queue.schedule(toData(1), Long.MAX_VALUE);
+
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void schedule_whenLater_keepsEarlierTime() {
+        Data key = toData(1);
+        queue.schedule(key, BUCKET_WIDTH_MILLIS);
+        queue.schedule(key, 10 * BUCKET_WIDTH_MILLIS);
+
+        assertEquals(1, queue.size());
+        assertEquals(key, queue.poll(2 * BUCKET_WIDTH_MILLIS));
+    }
+
+    @Test
+    public void schedule_whenEarlier_movesKey() {
+        Data key = toData(1);
+        queue.schedule(toData(2), 10 * BUCKET_WIDTH_MILLIS);
+        queue.schedule(key, 10 * BUCKET_WIDTH_MILLIS);
+        queue.schedule(key, BUCKET_WIDTH_MILLIS);
+
+        assertEquals(2, queue.size());
+        assertEquals(key, queue.poll(2 * BUCKET_WIDTH_MILLIS));
+        assertNull(queue.poll(2 * BUCKET_WIDTH_MILLIS));
+        assertEquals(toData(2), queue.poll(11 * BUCKET_WIDTH_MILLIS));
+    }
+
+    @Test
+    public void clear() {
+        queue.schedule(toData(1), BUCKET_WIDTH_MILLIS);
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertNull(queue.poll(Long.MAX_VALUE));
+    }
+}
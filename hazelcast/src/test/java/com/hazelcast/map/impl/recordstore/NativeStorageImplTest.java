@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.TestIgnoreRuleAccordingToUnsafeAvailability;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeStorageImplTest {
+
+    @ClassRule
+    public static final TestIgnoreRuleAccordingToUnsafeAvailability UNSAFE_AVAILABILITY_RULE
+            = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private static final long CAPACITY = 64 << 20;
+
+    private SerializationService serializationService;
+    private UnsafeMemoryAllocator allocator;
+    private NativeRecordFactory recordFactory;
+    private NativeStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        allocator = new UnsafeMemoryAllocator(CAPACITY);
+        MemoryManagerBean memoryManager = new MemoryManagerBean(allocator, GlobalMemoryAccessorRegistry.MEM);
+        recordFactory = new NativeRecordFactory(serializationService, mock(PartitioningStrategy.class), memoryManager);
+        storage = new NativeStorageImpl(recordFactory, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        NativeRecord record = storage.get(key);
+        assertEquals(key, record.getKey());
+        assertEquals("value", serializationService.toObject(record.getValue()));
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(key));
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value1"));
+        storage.put(key, newRecord("value2"));
+
+        assertEquals(1, storage.size());
+        assertEquals("value2", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testMetadata_isWrittenThrough() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        NativeRecord record = storage.get(key);
+        record.onUpdate(42);
+        record.setTtl(1000);
+
+        NativeRecord sameRecord = storage.get(key);
+        assertEquals(1, sameRecord.getHits());
+        assertEquals(1, sameRecord.getVersion());
+        assertEquals(42, sameRecord.getLastUpdateTime());
+        assertEquals(1000, sameRecord.getTtl());
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        storage.updateRecordValue(key, storage.get(key), "newValue");
+
+        assertEquals("newValue", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testRemoveRecord() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        NativeRecord record = storage.get(key);
+        storage.removeRecord(record);
+
+        assertNull(storage.get(key));
+        assertEquals(0, storage.size());
+        // removed record stays readable until deferred blocks are disposed
+        assertEquals("value", serializationService.toObject(record.getValue()));
+    }
+
+    @Test
+    public void testValues_skipsRemovedRecords() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+        Collection<NativeRecord> values = storage.values();
+        assertEquals(100, values.size());
+
+        for (int i = 0; i < 50; i++) {
+            storage.removeRecord(storage.get(toData(i)));
+        }
+        storage.disposeDeferredBlocks();
+
+        Set<Object> keys = new HashSet<Object>();
+        for (NativeRecord record : values) {
+            keys.add(serializationService.toObject(record.getKey()));
+        }
+        assertEquals(50, keys.size());
+        assertFalse(keys.contains(0));
+        assertTrue(keys.contains(99));
+    }
+
+    @Test
+    public void testValues_skipsRecordsPutAfterSnapshot_evenIfTheyReuseFreedBlocks() {
+        for (int i = 0; i < 10; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+        Collection<NativeRecord> values = storage.values();
+
+        for (int i = 0; i < 10; i++) {
+            storage.removeRecord(storage.get(toData(i)));
+        }
+        storage.disposeDeferredBlocks();
+        for (int i = 0; i < 10; i++) {
+            storage.put(toData(i), newRecord(i + 10));
+        }
+
+        assertFalse(values.iterator().hasNext());
+    }
+
+    @Test
+    public void testValues_iteratorRemove() {
+        for (int i = 0; i < 10; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Iterator<NativeRecord> iterator = storage.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testFetchKeys() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            MapKeysWithCursor cursor = storage.fetchKeys(tableIndex, 10);
+            keys.addAll(cursor.getKeys());
+            tableIndex = cursor.getNextTableIndexToReadFrom();
+        } while (tableIndex >= 0);
+
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        int count = 0;
+        for (LazyEntryViewFromRecord ignored : storage.getRandomSamples(15)) {
+            count++;
+        }
+        assertEquals(15, count);
+    }
+
+    @Test
+    public void testEntryCostEstimate_reflectsNativeMemory() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+
+        storage.removeRecord(storage.get(key));
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testDestroy_freesAllNativeMemory() {
+        for (int i = 0; i < 1000; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+        storage.removeRecord(storage.get(toData(0)));
+        assertTrue(allocator.getUsedMemory() > 0);
+
+        storage.destroy(false);
+
+        assertEquals(0, allocator.getUsedMemory());
+        storage = new NativeStorageImpl(recordFactory, serializationService);
+    }
+
+    private NativeRecord newRecord(Object value) {
+        return (NativeRecord) recordFactory.newRecord(value);
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.nio.PacketPayloadPool.ARRAYS_PER_SIZE;
+import static com.hazelcast.nio.PacketPayloadPool.MAX_POOLED_PAYLOAD_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketPayloadPoolTest {
+
+    private final PacketPayloadPool pool = new PacketPayloadPool();
+
+    @Test
+    public void allocate_returnsArrayOfExactSize() {
+        assertEquals(0, pool.allocate(0).length);
+        assertEquals(100, pool.allocate(100).length);
+        assertEquals(MAX_POOLED_PAYLOAD_SIZE + 1, pool.allocate(MAX_POOLED_PAYLOAD_SIZE + 1).length);
+    }
+
+    @Test
+    public void allocate_reusesReleasedArray() {
+        byte[] bytes = pool.allocate(100);
+        pool.release(bytes);
+
+        assertSame(bytes, pool.allocate(100));
+        assertNotSame(bytes, pool.allocate(100));
+    }
+
+    @Test
+    public void allocate_doesNotReuseArrayOfOtherSize() {
+        byte[] bytes = pool.allocate(100);
+        pool.release(bytes);
+
+        assertNotSame(bytes, pool.allocate(101));
+    }
+
+    @Test
+    public void release_largeArrayIsNotPooled() {
+        byte[] bytes = new byte[MAX_POOLED_PAYLOAD_SIZE + 1];
+        pool.release(bytes);
+
+        assertNotSame(bytes, pool.allocate(bytes.length));
+    }
+
+    @Test
+    public void release_retainsBoundedNumberOfArrays() {
+        byte[][] arrays = new byte[ARRAYS_PER_SIZE + 1][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = new byte[10];
+            pool.release(arrays[i]);
+        }
+
+        for (int i = 0; i < ARRAYS_PER_SIZE; i++) {
+            assertSame(arrays[i], pool.allocate(10));
+        }
+        assertNotSame(arrays[ARRAYS_PER_SIZE], pool.allocate(10));
+    }
+
+    @Test
+    public void packet_readsPayloadFromPool() {
+        byte[] pooled = pool.allocate(16);
+        pool.release(pooled);
+
+        Packet packet = readPacket(new Packet(payload(16), 1).setPacketType(Packet.Type.OPERATION));
+
+        assertSame(pooled, packet.toByteArray());
+        assertArrayEquals(payload(16), packet.toByteArray());
+        assertEquals(1, packet.getPartitionId());
+    }
+
+    @Test
+    public void packet_releaseReturnsPayloadToPool() {
+        Packet packet = readPacket(new Packet(payload(16)));
+        byte[] bytes = packet.toByteArray();
+
+        packet.release();
+
+        assertNull(packet.toByteArray());
+        assertSame(bytes, pool.allocate(16));
+    }
+
+    @Test
+    public void packet_retainDefersRelease() {
+        Packet packet = readPacket(new Packet(payload(16)));
+        byte[] bytes = packet.toByteArray();
+
+        packet.retain();
+        packet.release();
+        assertSame(bytes, packet.toByteArray());
+
+        packet.release();
+        assertNull(packet.toByteArray());
+        assertSame(bytes, pool.allocate(16));
+    }
+
+    @Test
+    public void packet_releaseWithoutPool_keepsPayload() {
+        Packet packet = new Packet(payload(16));
+
+        packet.release();
+
+        assertNotNull(packet.toByteArray());
+    }
+
+    private Packet readPacket(Packet original) {
+        ByteBuffer buffer = ByteBuffer.allocate(original.packetSize());
+        assertTrue(original.writeTo(buffer));
+        buffer.flip();
+
+        Packet packet = new Packet().setPayloadPool(pool);
+        assertTrue(packet.readFrom(buffer));
+        return packet;
+    }
+
+    private static byte[] payload(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+}
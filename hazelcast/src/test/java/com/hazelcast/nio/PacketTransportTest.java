@@ -14,6 +14,8 @@ import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -97,6 +99,37 @@ public class PacketTransportTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    /**
+     * Verifies that a Packet written as header and wrapped value, as done by gathering writes, can be read as a whole.
+     */
+    @Test
+    public void writeHeaderAndWrapValue() {
+        Packet originalPacket = new Packet(generateRandomString(5000).getBytes());
+
+        ByteBuffer header = ByteBuffer.allocate(100);
+        ByteBuffer value = originalPacket.writeHeaderAndWrapValue(header);
+        assertNotNull(value);
+        // the packet is completely written
+        assertNull(originalPacket.writeHeaderAndWrapValue(header));
+        assertTrue(originalPacket.writeTo(header));
+
+        header.flip();
+        ByteBuffer bb = ByteBuffer.allocate(header.remaining() + value.remaining());
+        bb.put(header).put(value);
+        bb.flip();
+
+        Packet clonedPacket = new Packet();
+        assertTrue(clonedPacket.readFrom(bb));
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
+    @Test
+    public void writeHeaderAndWrapValue_whenHeaderDoesNotFit() {
+        Packet packet = new Packet("foobarbaz".getBytes());
+
+        assertNull(packet.writeHeaderAndWrapValue(ByteBuffer.allocate(5)));
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
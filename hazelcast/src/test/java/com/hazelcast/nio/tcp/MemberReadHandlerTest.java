@@ -104,6 +104,21 @@ public class MemberReadHandlerTest extends TcpIpConnection_AbstractTest {
         assertEquals(oldPriorityPacketsRead + 1, socketReader.getPriorityFramesReadCounter().get());
     }
 
+    @Test
+    public void whenCompressedPacket() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        Packet packet = new Packet(serializationService.toBytes(new String(new char[5000]).replace((char) 0, 'a')));
+        Packet compressed = new PacketCompressor().compress(packet);
+        compressed.writeTo(buffer);
+
+        buffer.flip();
+        readHandler.onRead(buffer);
+
+        assertEquals(1, dispatcher.packets.size());
+        Packet found = dispatcher.packets.get(0);
+        assertEquals(packet, found);
+    }
+
     class MockPacketDispatcher implements PacketDispatcher {
         private List<Packet> packets = new LinkedList<Packet>();
 
@@ -43,6 +43,10 @@ public class MockIOService implements IOService {
     public final HazelcastThreadGroup hazelcastThreadGroup;
     public final ConcurrentHashMap<Long, DummyPayload> payloads = new ConcurrentHashMap<Long, DummyPayload>();
     public volatile PacketHandler packetHandler;
+    public volatile boolean gatheringWrite;
+    public volatile boolean writeCoalescing;
+    public volatile boolean compression;
+    public volatile int compressionThreshold = 1024;
 
     public MockIOService(int port) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j2", BuildInfoProvider.getBuildInfo());
@@ -188,6 +192,26 @@ public class MockIOService implements IOService {
         return false;
     }
 
+    @Override
+    public boolean isSocketGatheringWrite() {
+        return gatheringWrite;
+    }
+
+    @Override
+    public boolean isSocketWriteCoalescing() {
+        return writeCoalescing;
+    }
+
+    @Override
+    public boolean isSocketCompression() {
+        return compression;
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return compressionThreshold;
+    }
+
     @Override
     public int getSocketLingerSeconds() {
         return 0;
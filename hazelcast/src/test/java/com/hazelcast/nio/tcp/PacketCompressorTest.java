@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.nio.Bits.writeIntB;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketCompressorTest {
+
+    private final PacketCompressor compressor = new PacketCompressor();
+
+    @Test
+    public void compress_thenDecompress() throws Exception {
+        Packet packet = new Packet(new byte[10000], 5)
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(Packet.FLAG_OP_RESPONSE | Packet.FLAG_URGENT);
+
+        Packet compressed = compressor.compress(packet);
+
+        assertNotSame(packet, compressed);
+        assertTrue(compressed.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < packet.totalSize());
+        assertEquals(5, compressed.getPartitionId());
+
+        Packet decompressed = compressor.decompress(compressed);
+
+        assertFalse(decompressed.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertEquals(packet.getFlags(), decompressed.getFlags());
+        assertEquals(5, decompressed.getPartitionId());
+        assertArrayEquals(packet.toByteArray(), decompressed.toByteArray());
+    }
+
+    @Test
+    public void compress_largerThanRetainedBuffer() throws Exception {
+        byte[] payload = new byte[PacketCompressor.MAX_RETAINED_BUFFER_SIZE * 2];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 10);
+        }
+        Packet packet = new Packet(payload);
+
+        Packet decompressed = compressor.decompress(compressor.compress(packet));
+
+        assertArrayEquals(payload, decompressed.toByteArray());
+    }
+
+    @Test
+    public void compress_whenIncompressible_thenPacketUnchanged() {
+        byte[] payload = new byte[1000];
+        new Random(1).nextBytes(payload);
+        Packet packet = new Packet(payload);
+
+        assertSame(packet, compressor.compress(packet));
+        assertFalse(packet.isFlagRaised(Packet.FLAG_COMPRESSED));
+    }
+
+    @Test
+    public void compress_whenAlreadyCompressed_thenPacketUnchanged() {
+        Packet compressed = compressor.compress(new Packet(new byte[10000]));
+
+        assertSame(compressed, compressor.compress(compressed));
+    }
+
+    @Test
+    public void compress_reusesDeflater() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            byte[] payload = new byte[1000 + i];
+            payload[i] = (byte) i;
+            Packet decompressed = compressor.decompress(compressor.compress(new Packet(payload)));
+            assertArrayEquals(payload, decompressed.toByteArray());
+        }
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void decompress_whenCorrupt() throws Exception {
+        Packet compressed = compressor.compress(new Packet(new byte[10000]));
+        byte[] corrupt = compressed.toByteArray().clone();
+        for (int i = 4; i < corrupt.length; i++) {
+            corrupt[i] = (byte) i;
+        }
+
+        compressor.decompress(new Packet(corrupt).resetFlagsTo(compressed.getFlags()));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void decompress_whenOriginalSizeExceedsCompressionRatio() throws Exception {
+        Packet compressed = compressor.compress(new Packet(new byte[10000]));
+        byte[] payload = compressed.toByteArray().clone();
+        writeIntB(payload, 0, Integer.MAX_VALUE);
+
+        compressor.decompress(new Packet(payload).resetFlagsTo(compressed.getFlags()));
+    }
+}
@@ -116,4 +116,34 @@ public abstract class TcpIpConnectionManager_ConnectMemberBaseTest extends TcpIp
         assertEquals(connManagerA.getIoService().getThisAddress(), connBA.getEndPoint());
         assertEquals(connManagerB.getIoService().getThisAddress(), connAB.getEndPoint());
     }
+
+    @Test
+    public void connect_whenBothMembersCompress_thenCompressionNegotiatedOnBothSides() throws UnknownHostException {
+        ioServiceA.compression = true;
+        ioServiceB.compression = true;
+        startAllConnectionManagers();
+
+        final TcpIpConnection connAB = connect(connManagerA, addressB);
+        final TcpIpConnection connBA = (TcpIpConnection) connManagerB.getConnection(addressA);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(connAB.isCompressionNegotiated());
+                assertTrue(connBA.isCompressionNegotiated());
+            }
+        });
+    }
+
+    @Test
+    public void connect_whenOnlyOneMemberCompresses_thenCompressionNotNegotiated() throws UnknownHostException {
+        ioServiceA.compression = true;
+        startAllConnectionManagers();
+
+        TcpIpConnection connAB = connect(connManagerA, addressB);
+        TcpIpConnection connBA = (TcpIpConnection) connManagerB.getConnection(addressA);
+
+        assertFalse(connAB.isCompressionNegotiated());
+        assertFalse(connBA.isCompressionNegotiated());
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.CompositeIndexPredicate;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RuleBasedQueryOptimizer optimizer = new RuleBasedQueryOptimizer();
+
+    @Test
+    public void testAddOrGetIndex_withCompositeAttributeList() {
+        Indexes indexes = new Indexes(serializationService, Extractors.empty());
+        Index index = indexes.addOrGetIndex("city, age", true);
+
+        assertTrue(index instanceof CompositeIndexImpl);
+        assertEquals("city,age", index.getAttributeName());
+        assertSame(index, indexes.getIndex("city,age"));
+        assertSame(index, indexes.addOrGetIndex(" city ,age ", true));
+        assertEquals(1, indexes.getCompositeIndexes().length);
+    }
+
+    @Test
+    public void testEqualAndBetween_usesCompositeIndex() {
+        Indexes indexes = createIndexes(true);
+
+        Predicate predicate = optimize(and(equal("city", "city3"), between("age", 20, 60)), indexes);
+
+        assertTrue(predicate instanceof CompositeIndexPredicate);
+        assertAges(indexes.query(predicate), 23, 33, 43, 53);
+    }
+
+    @Test
+    public void testEqualAndGreaterThan_usesCompositeIndex() {
+        Indexes indexes = createIndexes(true);
+
+        Predicate predicate = optimize(and(equal("city", "city3"), greaterThan("age", 63)), indexes);
+
+        assertTrue(predicate instanceof CompositeIndexPredicate);
+        assertAges(indexes.query(predicate), 73, 83, 93);
+    }
+
+    @Test
+    public void testEqualAndLessEqual_withRemainingPredicate() {
+        Indexes indexes = createIndexes(true);
+
+        Predicate predicate = optimize(and(equal("city", "city3"), lessEqual("age", 33), equal("name", "name13")),
+                indexes);
+
+        assertTrue(predicate instanceof AndPredicate);
+        assertAges(indexes.query(predicate), 13);
+    }
+
+    @Test
+    public void testEqualOnAllAttributes_usesUnorderedCompositeIndex() {
+        Indexes indexes = createIndexes(false);
+
+        Predicate predicate = optimize(and(equal("age", 42), equal("city", "city2")), indexes);
+
+        assertTrue(predicate instanceof CompositeIndexPredicate);
+        assertAges(indexes.query(predicate), 42);
+    }
+
+    @Test
+    public void testRangeOnUnorderedCompositeIndex_isNotRewritten() {
+        Indexes indexes = createIndexes(false);
+
+        Predicate predicate = optimize(and(equal("city", "city3"), between("age", 20, 60)), indexes);
+
+        assertFalse(predicate instanceof CompositeIndexPredicate);
+    }
+
+    @Test
+    public void testCompositeIndexPredicate_applyMatchesReplacedPredicates() {
+        Indexes indexes = createIndexes(true);
+        Predicate predicate = optimize(and(equal("city", "city3"), between("age", 20, 60)), indexes);
+
+        assertTrue(predicate.apply(newEntry(33)));
+        assertFalse(predicate.apply(newEntry(34)));
+        assertFalse(predicate.apply(newEntry(73)));
+    }
+
+    @Test
+    public void testRemoveAndUpdateEntryIndex() {
+        Indexes indexes = createIndexes(true);
+        Predicate predicate = optimize(and(equal("city", "city3"), between("age", 20, 60)), indexes);
+
+        Employee oldValue = newEmployee(23);
+        indexes.removeEntryIndex(toData(23), oldValue);
+        assertAges(indexes.query(predicate), 33, 43, 53);
+
+        Employee newValue = new Employee("name", "city3", 25, true, 100);
+        indexes.saveEntryIndex(new QueryEntry(serializationService, toData(33), newValue, Extractors.empty()),
+                newEmployee(33));
+        assertAges(indexes.query(predicate), 25, 43, 53);
+    }
+
+    @Test
+    public void testEqualAndLessThan_doesNotMatchNullValues() {
+        Indexes indexes = new Indexes(serializationService, Extractors.empty());
+        indexes.addOrGetIndex("city, name", true);
+        for (int i = 0; i < 100; i++) {
+            String name = i % 20 == 3 ? null : "name" + i;
+            Employee employee = new Employee(name, "city" + (i % 10), i, true, 100);
+            indexes.saveEntryIndex(new QueryEntry(serializationService, toData(i), employee, Extractors.empty()), null);
+        }
+
+        Predicate predicate = optimize(and(equal("city", "city3"), lessThan("name", "name5")), indexes);
+
+        assertTrue(predicate instanceof CompositeIndexPredicate);
+        assertAges(indexes.query(predicate), 13, 33);
+    }
+
+    private Indexes createIndexes(boolean ordered) {
+        Indexes indexes = new Indexes(serializationService, Extractors.empty());
+        indexes.addOrGetIndex("city, age", ordered);
+        for (int i = 0; i < 100; i++) {
+            indexes.saveEntryIndex(newEntry(i), null);
+        }
+        return indexes;
+    }
+
+    private QueryEntry newEntry(int age) {
+        return new QueryEntry(serializationService, toData(age), newEmployee(age), Extractors.empty());
+    }
+
+    private static Employee newEmployee(int age) {
+        return new Employee("name" + age, "city" + (age % 10), age, age % 2 == 0, 100);
+    }
+
+    private Predicate optimize(Predicate predicate, Indexes indexes) {
+        return optimizer.optimize(predicate, indexes);
+    }
+
+    private static void assertAges(Set<QueryableEntry> results, int... expectedAges) {
+        Set<Integer> ages = new HashSet<Integer>();
+        for (QueryableEntry entry : results) {
+            ages.add(((Employee) entry.getValue()).getAge());
+        }
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int age : expectedAges) {
+            expected.add(age);
+        }
+        assertEquals(expected, ages);
+    }
+}
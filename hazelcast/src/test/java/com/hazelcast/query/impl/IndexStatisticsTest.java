@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IndexStatisticsTest {
+
+    private static final double DELTA = 0.02;
+
+    private final IndexStatistics statistics = new IndexStatistics();
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.getDistinctValueCount());
+        assertEquals(0, statistics.estimateEqualSelectivity(), 0);
+        assertEquals(0, statistics.estimateRangeSelectivity(1, 10), 0);
+    }
+
+    @Test
+    public void testCounts() {
+        statistics.onEntryAdded(1, true);
+        statistics.onEntryAdded(1, false);
+        statistics.onEntryAdded(2, true);
+        statistics.onEntryAdded(IndexImpl.NULL, false);
+
+        assertEquals(4, statistics.getEntryCount());
+        assertEquals(2, statistics.getDistinctValueCount());
+        assertEquals(0.5, statistics.estimateEqualSelectivity(), 0);
+
+        statistics.onEntryRemoved(2, true);
+        statistics.onEntryRemoved(IndexImpl.NULL, false);
+
+        assertEquals(2, statistics.getEntryCount());
+        assertEquals(1, statistics.getDistinctValueCount());
+    }
+
+    @Test
+    public void testRangeSelectivity_withUniformValues() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onEntryAdded(i, true);
+        }
+
+        assertEquals(0.1, statistics.estimateRangeSelectivity(null, 1000), DELTA);
+        assertEquals(0.5, statistics.estimateRangeSelectivity(2500, 7500), DELTA);
+        assertEquals(0.1, statistics.estimateRangeSelectivity(9000, null), DELTA);
+        assertEquals(1.0, statistics.estimateRangeSelectivity(null, null), DELTA);
+        assertEquals(0, statistics.estimateRangeSelectivity(-100, -5), 0);
+        assertEquals(0, statistics.estimateRangeSelectivity(20000, 30000), 0);
+    }
+
+    @Test
+    public void testRangeSelectivity_afterRemovals() {
+        for (int i = 0; i < 10000; i++) {
+            statistics.onEntryAdded((double) -i, true);
+        }
+        for (int i = 0; i < 5000; i++) {
+            statistics.onEntryRemoved((double) -i, true);
+        }
+
+        assertEquals(5000, statistics.getEntryCount());
+        assertEquals(1.0, statistics.estimateRangeSelectivity(null, -5000.0), DELTA);
+        assertEquals(0.5, statistics.estimateRangeSelectivity(-7500.0, null), DELTA);
+    }
+
+    @Test
+    public void testRangeSelectivity_withNonNumericValues() {
+        statistics.onEntryAdded("a", true);
+        statistics.onEntryAdded("b", true);
+
+        assertEquals(IndexStatistics.DEFAULT_RANGE_SELECTIVITY, statistics.estimateRangeSelectivity("a", "b"), 0);
+    }
+
+    @Test
+    public void testClear() {
+        statistics.onEntryAdded("a", true);
+        statistics.clear();
+        statistics.onEntryAdded(1, true);
+        statistics.onEntryAdded(3, true);
+
+        assertEquals(2, statistics.getEntryCount());
+        assertEquals(0.5, statistics.estimateRangeSelectivity(null, 2), DELTA);
+    }
+}
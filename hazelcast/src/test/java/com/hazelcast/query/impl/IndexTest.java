@@ -77,6 +77,38 @@ public class IndexTest {
         testIt(false);
     }
 
+    @Test
+    public void testOrderedIndex_withFloatingPointValues() {
+        IndexImpl index = new IndexImpl(QueryConstants.THIS_ATTRIBUTE_NAME.value(), true, ss, Extractors.empty());
+        double[] values = {-Double.MAX_VALUE, -1.5d, -0.0d, 0.0d, 1.5d, Double.POSITIVE_INFINITY};
+        for (int i = 0; i < values.length; i++) {
+            index.saveEntryIndex(newRecord((long) i, values[i]), null);
+        }
+
+        assertEquals(1, index.getRecords(-0.0d).size());
+        assertEquals(3, index.getSubRecords(ComparisonType.LESSER, 0.0d).size());
+        assertEquals(2, index.getSubRecords(ComparisonType.GREATER, 0.0d).size());
+        assertEquals(5, index.getSubRecords(ComparisonType.NOT_EQUAL, 1.5d).size());
+        assertEquals(4, index.getSubRecordsBetween(-1.5d, 1.5d).size());
+        assertEquals(6, index.getSubRecordsBetween(-Double.MAX_VALUE, Double.POSITIVE_INFINITY).size());
+    }
+
+    @Test
+    public void testOrderedIndex_withSharedIntegerValues() {
+        IndexImpl index = new IndexImpl(QueryConstants.THIS_ATTRIBUTE_NAME.value(), true, ss, Extractors.empty());
+        index.saveEntryIndex(newRecord(1L, 10), null);
+        index.saveEntryIndex(newRecord(2L, 20), null);
+        index.saveEntryIndex(newRecord(3L, 20), null);
+
+        assertEquals(2, index.getRecords(20).size());
+        assertEquals(3, index.getSubRecords(ComparisonType.GREATER_EQUAL, 10).size());
+        assertEquals(1, index.getSubRecords(ComparisonType.LESSER, 20).size());
+
+        index.removeEntryIndex(toData(2L), 20);
+        assertEquals(1, index.getRecords(20).size());
+        assertEquals(2, index.getSubRecordsBetween(0, 100).size());
+    }
+
     private QueryRecord newRecord(Object key, final Comparable attributeValue) {
         return new QueryRecord(toData(key), attributeValue);
     }
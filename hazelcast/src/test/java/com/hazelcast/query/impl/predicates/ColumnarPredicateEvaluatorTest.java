@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.ColumnarProjection;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ColumnarPredicateEvaluatorTest {
+
+    private static final int ENTRY_COUNT = 200;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final List<QueryEntry> entries = new ArrayList<QueryEntry>();
+
+    private ColumnarProjection projection;
+
+    @Before
+    public void setUp() {
+        projection = new ColumnarProjection(Arrays.asList("age", "score", "name"));
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Value value = new Value(i % 7 == 0 ? null : i, i * 0.5, "name" + i);
+            QueryEntry entry = new QueryEntry(serializationService, serializationService.toData(i), value,
+                    Extractors.empty());
+            entries.add(entry);
+            projection.save(entry, false);
+        }
+        // removals move rows around, the selection has to follow them
+        for (int i = 0; i < ENTRY_COUNT; i += 3) {
+            projection.remove(serializationService.toData(i));
+        }
+    }
+
+    @Test
+    public void testColumns() {
+        assertEquals(ENTRY_COUNT - (ENTRY_COUNT + 2) / 3, projection.size());
+        assertTrue(projection.getColumn("age").isLongValued());
+        assertTrue(projection.getColumn("score").isDoubleValued());
+        assertFalse(projection.getColumn("name").isSupported());
+        assertNull(projection.getColumn("unknown"));
+    }
+
+    @Test
+    public void testEqual() {
+        assertSelection(equal("age", 41));
+        assertSelection(equal("age", "41"));
+        assertSelection(equal("age", null));
+        assertSelection(equal("score", 20.5));
+    }
+
+    @Test
+    public void testNotEqual() {
+        assertSelection(notEqual("age", 41));
+        assertSelection(notEqual("age", null));
+    }
+
+    @Test
+    public void testGreaterLess() {
+        assertSelection(greaterThan("age", 150));
+        assertSelection(greaterEqual("age", 150L));
+        assertSelection(lessThan("score", 10));
+        assertSelection(lessEqual("score", 10.0));
+        assertSelection(greaterThan("age", Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testBetween() {
+        assertSelection(between("age", 20, 80));
+        assertSelection(between("score", 10.0, 20));
+        assertSelection(between("age", 80, 20));
+    }
+
+    @Test
+    public void testIn() {
+        assertSelection(in("age", 1, 2, 5L, 199, null));
+        assertSelection(in("score", 0.5, 1.0, 99.5));
+    }
+
+    @Test
+    public void testAndOrNot() {
+        assertSelection(and(greaterEqual("age", 10), lessThan("score", 40)));
+        assertSelection(or(equal("age", 8), not(greaterThan("age", 3))));
+        assertSelection(not(and(greaterThan("age", 20), lessThan("age", 40))));
+        assertSelection(TruePredicate.INSTANCE);
+    }
+
+    @Test
+    public void testAnd_withUnsupportedPredicate_returnsResidual() {
+        Predicate residual = like("name", "name1%");
+        ColumnarPredicateEvaluator.Selection selection = assertSelection(and(greaterThan("age", 100), residual));
+
+        assertEquals(residual, selection.getResidualPredicate());
+    }
+
+    @Test
+    public void testUnsupportedPredicate() {
+        assertNull(ColumnarPredicateEvaluator.select(like("name", "name1%"), projection));
+        assertNull(ColumnarPredicateEvaluator.select(equal("name", "name1"), projection));
+        assertNull(ColumnarPredicateEvaluator.select(or(equal("age", 1), equal("name", "name1")), projection));
+        assertNull(ColumnarPredicateEvaluator.select(equal("unknown", 1), projection));
+    }
+
+    @Test
+    public void testClear() {
+        projection.clear();
+
+        ColumnarPredicateEvaluator.Selection selection = ColumnarPredicateEvaluator.select(equal("age", 1), projection);
+        assertEquals(0, projection.size());
+        assertEquals(0, projection.getKeys(selection.getBitmap()).length);
+    }
+
+    private ColumnarPredicateEvaluator.Selection assertSelection(Predicate predicate) {
+        ColumnarPredicateEvaluator.Selection selection = ColumnarPredicateEvaluator.select(predicate, projection);
+        assertNotNull(predicate.toString(), selection);
+
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 3 != 0 && predicate.apply(entries.get(i))) {
+                expected.add(i);
+            }
+        }
+        Set<Integer> actual = new HashSet<Integer>();
+        Predicate residualPredicate = selection.getResidualPredicate();
+        for (Data key : projection.getKeys(selection.getBitmap())) {
+            int i = (Integer) serializationService.toObject(key);
+            if (residualPredicate == null || residualPredicate.apply(entries.get(i))) {
+                actual.add(i);
+            }
+        }
+        assertEquals(predicate.toString(), expected, actual);
+        return selection;
+    }
+
+    public static class Value implements Serializable {
+
+        private final Integer age;
+        private final double score;
+        private final String name;
+
+        Value(Integer age, double score, String name) {
+            this.age = age;
+            this.score = score;
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CostBasedQueryOptimizerTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final CostBasedQueryOptimizer optimizer = new CostBasedQueryOptimizer();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new Indexes(serializationService, Extractors.empty());
+        indexes.addOrGetIndex("age", true);
+        indexes.addOrGetIndex("city", false);
+        indexes.addOrGetIndex("active", false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            indexes.saveEntryIndex(newEntry(i), null);
+        }
+    }
+
+    @Test
+    public void optimize_whenNoIndexes_thenPredicateIsNotWrapped() {
+        Predicate predicate = equal("age", 42);
+
+        Predicate optimized = optimizer.optimize(predicate, new Indexes(serializationService, Extractors.empty()));
+
+        assertSame(predicate, optimized);
+    }
+
+    @Test
+    public void optimize_whenPredicateIsNotIndexed_thenPredicateIsUnchanged() {
+        Predicate predicate = equal("name", "name42");
+
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    @Test
+    public void optimize_whenUnselectivePredicateInAnd_thenItIsNotLookedUpInIndex() {
+        Predicate optimized = optimizer.optimize(and(equal("active", true), equal("age", 42)), indexes);
+
+        assertThat(optimized, instanceOf(AndPredicate.class));
+        Predicate[] predicates = ((AndPredicate) optimized).predicates;
+        assertThat(predicates[0], instanceOf(EqualPredicate.class));
+        assertEquals("age", ((EqualPredicate) predicates[0]).attributeName);
+        assertThat(predicates[1], instanceOf(SkipIndexPredicate.class));
+        assertAges(indexes.query(optimized), 42);
+    }
+
+    @Test
+    public void optimize_whenPredicatesInAndAreSimilarlySelective_thenAllAreLookedUpInIndex() {
+        Predicate optimized = optimizer.optimize(and(lessThan("age", 100), equal("city", "city3")), indexes);
+
+        assertThat(optimized, instanceOf(AndPredicate.class));
+        for (Predicate predicate : ((AndPredicate) optimized).predicates) {
+            assertThat(predicate, not(instanceOf(SkipIndexPredicate.class)));
+        }
+        assertAges(indexes.query(optimized), 3, 13, 23, 33, 43, 53, 63, 73, 83, 93);
+    }
+
+    @Test
+    public void optimize_whenIndexMatchesMostEntries_thenPartitionScanIsUsed() {
+        Predicate optimized = optimizer.optimize(greaterThan("age", 100), indexes);
+
+        assertThat(optimized, instanceOf(SkipIndexPredicate.class));
+        assertNull(indexes.query(optimized));
+        assertTrue(optimized.apply(newEntry(101)));
+        assertFalse(optimized.apply(newEntry(100)));
+    }
+
+    @Test
+    public void optimize_whenAllIndexedPredicatesAreUnselective_thenPartitionScanIsUsed() {
+        Predicate optimized = optimizer.optimize(and(greaterThan("age", 100), notEqual("city", "city3")), indexes);
+
+        assertThat(optimized, instanceOf(SkipIndexPredicate.class));
+        assertTrue(optimized.apply(newEntry(102)));
+        assertFalse(optimized.apply(newEntry(103)));
+    }
+
+    @Test
+    public void optimize_whenOrIsSelective_thenIndexIsUsed() {
+        Predicate optimized = optimizer.optimize(or(equal("age", 1), between("age", 10, 12)), indexes);
+
+        assertThat(optimized, not(instanceOf(SkipIndexPredicate.class)));
+        assertAges(indexes.query(optimized), 1, 10, 11, 12);
+    }
+
+    @Test
+    public void optimize_whenMapIsUpdated_thenStatisticsAreUpdated() {
+        for (int i = 100; i < ENTRY_COUNT; i++) {
+            indexes.removeEntryIndex(toData(i), newEmployee(i));
+        }
+
+        Predicate optimized = optimizer.optimize(greaterThan("age", 90), indexes);
+
+        assertThat(optimized, not(instanceOf(SkipIndexPredicate.class)));
+        assertAges(indexes.query(optimized), 91, 92, 93, 94, 95, 96, 97, 98, 99);
+    }
+
+    private QueryEntry newEntry(int age) {
+        return new QueryEntry(serializationService, toData(age), newEmployee(age), Extractors.empty());
+    }
+
+    private static Employee newEmployee(int age) {
+        return new Employee("name" + age, "city" + (age % 10), age, age % 2 == 0, 100);
+    }
+
+    private static void assertAges(Set<QueryableEntry> results, int... expectedAges) {
+        Set<Integer> ages = new HashSet<Integer>();
+        for (QueryableEntry entry : results) {
+            ages.add(((Employee) entry.getValue()).getAge());
+        }
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int age : expectedAges) {
+            expected.add(age);
+        }
+        assertEquals(expected, ages);
+    }
+}
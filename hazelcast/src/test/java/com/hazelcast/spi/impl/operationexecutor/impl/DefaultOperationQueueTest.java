@@ -15,6 +15,7 @@ import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -201,6 +202,42 @@ public class DefaultOperationQueueTest extends HazelcastTestSupport {
         //assertContent(normalQueue, DefaultOperationQueue.TRIGGER_TASK);
     }
 
+    // ================== poll =====================
+
+    @Test
+    public void poll_whenNoItemAvailable() {
+        assertNull(operationQueue.poll(false));
+        assertNull(operationQueue.poll(true));
+    }
+
+    @Test
+    public void poll_whenLowPriority_andPrecedingTriggerTasks() {
+        Object task1 = "task1";
+        Object task2 = "task2";
+
+        operationQueue.add(task1, true);
+        operationQueue.add(task2, false);
+
+        assertSame(task1, operationQueue.poll(false));
+        // the trigger task of task1 is skipped
+        assertSame(task2, operationQueue.poll(false));
+        assertNull(operationQueue.poll(false));
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void poll_whenPriorityOnly() {
+        Object task1 = "task1";
+        Object task2 = "task2";
+
+        operationQueue.add(task1, false);
+        operationQueue.add(task2, true);
+
+        assertSame(task2, operationQueue.poll(true));
+        assertNull(operationQueue.poll(true));
+        assertEquals(0, operationQueue.prioritySize());
+    }
+
     public void assertEmpty(Queue<Object> q) {
         assertEquals("expecting an empty operationQueue, but the operationQueue is:" + q, 0, q.size());
     }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.Operation;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_IDLE_STRATEGY;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OperationExecutorImpl_RebalanceTest extends OperationExecutorImpl_AbstractTest {
+
+    @Test
+    public void whenBusySpinIdleStrategy_thenOperationsExecuted() {
+        config.setProperty(PARTITION_OPERATION_THREAD_IDLE_STRATEGY.getName(), "busyspin");
+        initExecutor();
+
+        final RecordingOperation op = new RecordingOperation(3);
+        executor.execute(op);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(op.executingThread.get() instanceof PartitionOperationThread);
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionsOfSingleThreadAreHot_thenPartitionsMoved() {
+        config.setProperty(PARTITION_COUNT.getName(), "10");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS.getName(), "10");
+        initExecutor();
+
+        // all even partitions are mapped to the first partition thread
+        final int[] hotPartitions = {0, 2, 4};
+        final AtomicBoolean outOfOrder = new AtomicBoolean();
+        final AtomicInteger[] lastSequences = new AtomicInteger[hotPartitions.length];
+        for (int i = 0; i < hotPartitions.length; i++) {
+            lastSequences[i] = new AtomicInteger(-1);
+        }
+
+        int sequence = 0;
+        long deadline = System.currentTimeMillis() + ASSERT_TRUE_EVENTUALLY_TIMEOUT * 1000L;
+        while (!isMoved(hotPartitions) && System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < hotPartitions.length; i++) {
+                executor.execute(new SequencedOperation(hotPartitions[i], sequence, lastSequences[i], outOfOrder));
+            }
+            sequence++;
+            if (sequence % 100 == 0) {
+                sleepMillis(1);
+            }
+        }
+
+        assertTrue("no partition was moved to the idle thread", isMoved(hotPartitions));
+        for (int i = 0; i < hotPartitions.length; i++) {
+            final int partitionId = hotPartitions[i];
+            final AtomicInteger lastSequence = lastSequences[i];
+            final int expectedSequence = sequence - 1;
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() throws Exception {
+                    assertEquals("partition " + partitionId, expectedSequence, lastSequence.get());
+                }
+            });
+        }
+        assertFalse("operations of a partition were executed out of order", outOfOrder.get());
+    }
+
+    @Test
+    public void whenPartitionMoved_thenRunAllowedOnNewThreadOnly() {
+        config.setProperty(PARTITION_COUNT.getName(), "10");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PARTITION_OPERATION_THREAD_REBALANCE_INTERVAL_MILLIS.getName(), "10");
+        initExecutor();
+
+        int[] hotPartitions = {0, 2, 4};
+        long deadline = System.currentTimeMillis() + ASSERT_TRUE_EVENTUALLY_TIMEOUT * 1000L;
+        while (!isMoved(hotPartitions) && System.currentTimeMillis() < deadline) {
+            for (int hotPartition : hotPartitions) {
+                executor.execute(new DummyPartitionOperation(hotPartition));
+            }
+        }
+        assertTrue("no partition was moved to the idle thread", isMoved(hotPartitions));
+
+        for (final int movedPartition : hotPartitions) {
+            if (executor.toPartitionThreadIndex(movedPartition) == 0) {
+                continue;
+            }
+            final RecordingOperation op = new RecordingOperation(movedPartition);
+            executor.execute(op);
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() throws Exception {
+                    PartitionOperationThread thread = (PartitionOperationThread) op.executingThread.get();
+                    assertNotEquals(0, thread.threadId);
+                    assertTrue(op.runAllowed.get());
+                }
+            });
+            return;
+        }
+    }
+
+    private boolean isMoved(int[] partitionIds) {
+        for (int partitionId : partitionIds) {
+            if (executor.toPartitionThreadIndex(partitionId) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class RecordingOperation extends Operation {
+
+        private final AtomicReference<Thread> executingThread = new AtomicReference<Thread>();
+        private final AtomicBoolean runAllowed = new AtomicBoolean();
+
+        RecordingOperation(int partitionId) {
+            setPartitionId(partitionId);
+        }
+
+        @Override
+        public void run() throws Exception {
+            runAllowed.set(executor.isRunAllowed(new DummyPartitionOperation(getPartitionId())));
+            executingThread.set(Thread.currentThread());
+        }
+    }
+
+    private static class SequencedOperation extends Operation {
+
+        private final int sequence;
+        private final AtomicInteger lastSequence;
+        private final AtomicBoolean outOfOrder;
+
+        SequencedOperation(int partitionId, int sequence, AtomicInteger lastSequence, AtomicBoolean outOfOrder) {
+            this.sequence = sequence;
+            this.lastSequence = lastSequence;
+            this.outOfOrder = outOfOrder;
+            setPartitionId(partitionId);
+        }
+
+        @Override
+        public void run() throws Exception {
+            if (!lastSequence.compareAndSet(sequence - 1, sequence)) {
+                outOfOrder.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ResponseBatchTest {
+
+    private ResponseBatch batch;
+    private Connection connection1;
+    private Connection connection2;
+
+    @Before
+    public void setup() {
+        batch = new ResponseBatch(Logger.getLogger(ResponseBatchTest.class));
+        connection1 = mock(Connection.class);
+        connection2 = mock(Connection.class);
+        when(connection1.write(any(Packet.class))).thenReturn(true);
+        when(connection2.write(any(Packet.class))).thenReturn(true);
+    }
+
+    @Test
+    public void add_whenNotOpen() {
+        assertFalse(batch.add(connection1, new Packet()));
+    }
+
+    @Test
+    public void flush_writesPacketsGroupedByConnection() {
+        Packet packet1 = new Packet(new byte[]{1});
+        Packet packet2 = new Packet(new byte[]{2});
+        Packet packet3 = new Packet(new byte[]{3});
+
+        batch.open();
+        assertTrue(batch.add(connection1, packet1));
+        assertTrue(batch.add(connection2, packet2));
+        assertTrue(batch.add(connection1, packet3));
+        verify(connection1, never()).write(any(Packet.class));
+
+        batch.flush();
+
+        InOrder inOrder = inOrder(connection1, connection2);
+        inOrder.verify(connection1).write(packet1);
+        inOrder.verify(connection1).write(packet3);
+        inOrder.verify(connection2).write(packet2);
+    }
+
+    @Test
+    public void flush_closesBatch() {
+        batch.open();
+        batch.add(connection1, new Packet());
+        batch.flush();
+
+        assertFalse(batch.add(connection1, new Packet()));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.Consumer;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class Long2ObjectSortedMapTest {
+
+    private final Long2ObjectSortedMap<String> map = new Long2ObjectSortedMap<String>();
+
+    @Test
+    public void testPutAndGet() {
+        map.put(7, "seven");
+
+        assertEquals("seven", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testPut_replacesExistingValue() {
+        map.put(7, "seven");
+
+        assertEquals("seven", map.put(7, "new seven"));
+        assertEquals("new seven", map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPut_nullValue() {
+        map.put(7, null);
+    }
+
+    @Test
+    public void testRemove() {
+        map.put(7, "seven");
+
+        assertEquals("seven", map.remove(7));
+        assertNull(map.remove(7));
+        assertNull(map.get(7));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, String.valueOf(i));
+        }
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertEquals(0, collect(Long.MIN_VALUE, true, Long.MAX_VALUE, true).size());
+    }
+
+    @Test
+    public void testForEachInRange() {
+        for (long key : new long[]{Long.MIN_VALUE, -5, 0, 5, 10, Long.MAX_VALUE}) {
+            map.put(key, String.valueOf(key));
+        }
+
+        assertEquals(asList("-5", "0", "5"), collect(-5, true, 5, true));
+        assertEquals(asList("0"), collect(-5, false, 5, false));
+        assertEquals(asList(String.valueOf(Long.MIN_VALUE), "-5"), collect(Long.MIN_VALUE, true, 0, false));
+        assertEquals(asList("10", String.valueOf(Long.MAX_VALUE)), collect(5, false, Long.MAX_VALUE, true));
+        assertEquals(0, collect(1, true, 4, true).size());
+    }
+
+    @Test
+    public void testForEach_visitsValuesInKeyOrder() {
+        final List<String> values = new ArrayList<String>();
+        for (int i = 999; i >= 0; i--) {
+            map.put(i, String.valueOf(i));
+        }
+
+        map.forEach(new Consumer<String>() {
+            @Override
+            public void accept(String value) {
+                values.add(value);
+            }
+        });
+
+        assertEquals(1000, values.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), values.get(i));
+        }
+    }
+
+    @Test
+    public void testRandomOperations_matchTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Long, String> expected = new TreeMap<Long, String>();
+        for (int i = 0; i < 50000; i++) {
+            long key = random.nextInt(5000) - 2500;
+            String value = String.valueOf(i);
+            if (random.nextInt(3) < 2) {
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+
+            if (i % 100 == 0) {
+                long from = random.nextInt(5000) - 2500;
+                long to = from + random.nextInt(1000);
+                assertEquals(new ArrayList<String>(expected.subMap(from, true, to, false).values()),
+                        collect(from, true, to, false));
+            }
+        }
+    }
+
+    private List<String> collect(long from, boolean fromInclusive, long to, boolean toInclusive) {
+        final List<String> values = new ArrayList<String>();
+        map.forEachInRange(from, fromInclusive, to, toInclusive, new Consumer<String>() {
+            @Override
+            public void accept(String value) {
+                values.add(value);
+            }
+        });
+        return values;
+    }
+}